@@ -0,0 +1,101 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletScheduler;
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.CloudletSchedulerProcessorSharing;
+import org.cloudbus.cloudsim.CloudletSchedulerSpaceShared;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link CloudletScheduler#updateCloudletsProcessing(double, List)} for a guest running
+ * a given number of cloudlets. The cloudlets are long enough to never finish, so that each
+ * update processes the same cloudlets.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CloudletSchedulerBenchmark {
+
+	private static final int PES = 4;
+
+	private static final double PE_MIPS = 1000;
+
+	@Param({"TimeShared", "ProcessorSharing", "SpaceShared", "DynamicWorkload"})
+	private String scheduler;
+
+	@Param({"10", "100", "1000"})
+	private int cloudlets;
+
+	private CloudletScheduler cloudletScheduler;
+
+	private final List<Double> mipsShare = new ArrayList<>();
+
+	private double time;
+
+	@Setup
+	public void setUp() {
+		Log.disable();
+		cloudletScheduler = switch (scheduler) {
+			case "TimeShared" -> new CloudletSchedulerTimeShared();
+			case "ProcessorSharing" -> new CloudletSchedulerProcessorSharing();
+			case "SpaceShared" -> new CloudletSchedulerSpaceShared();
+			case "DynamicWorkload" -> new CloudletSchedulerDynamicWorkload(PE_MIPS, PES);
+			default -> throw new IllegalArgumentException("Unknown cloudlet scheduler: " + scheduler);
+		};
+		for (int i = 0; i < PES; i++) {
+			mipsShare.add(PE_MIPS);
+		}
+		cloudletScheduler.updateCloudletsProcessing(0, mipsShare);
+
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		for (int i = 0; i < cloudlets; i++) {
+			Cloudlet cloudlet = new Cloudlet(i, Long.MAX_VALUE / 2, 1, 300, 300, utilizationModel, utilizationModel, utilizationModel);
+			cloudlet.setResourceParameter(0, 0);
+			cloudletScheduler.cloudletSubmit(cloudlet);
+		}
+	}
+
+	/**
+	 * Updates the processing of the cloudlets, one second later than the previous update.
+	 *
+	 * @return the predicted completion time of the earliest finishing cloudlet
+	 */
+	@Benchmark
+	public double updateCloudletsProcessing() {
+		time += 1;
+		return cloudletScheduler.updateCloudletsProcessing(time, mipsShare);
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.util.HistoryStat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link HistoryStat#getMedian()} on a full window of utilization values, as the
+ * power-aware VMs keep them.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HistoryStatBenchmark {
+
+	@Param({"30", "300"})
+	private int window;
+
+	private HistoryStat history;
+
+	private Random random;
+
+	@Setup
+	public void setUp() {
+		random = new Random(7);
+		history = new HistoryStat(window);
+		for (int i = 0; i < window; i++) {
+			history.offer(random.nextDouble());
+		}
+		history.getMedian();
+	}
+
+	/**
+	 * Gets the median of the window.
+	 *
+	 * @return the median
+	 */
+	@Benchmark
+	public double median() {
+		return history.getMedian();
+	}
+
+	/**
+	 * Adds a value to the window, dropping the oldest one, and gets the new median.
+	 *
+	 * @return the median
+	 */
+	@Benchmark
+	public double offerAndMedian() {
+		history.offer(random.nextDouble());
+		return history.getMedian();
+	}
+
+}
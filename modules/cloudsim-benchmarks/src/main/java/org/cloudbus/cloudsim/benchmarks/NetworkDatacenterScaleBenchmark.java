@@ -0,0 +1,188 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.examples.network.datacenter.NetworkConstants;
+import org.cloudbus.cloudsim.network.datacenter.AppCloudlet;
+import org.cloudbus.cloudsim.network.datacenter.NetworkCloudlet;
+import org.cloudbus.cloudsim.network.datacenter.NetworkDatacenter;
+import org.cloudbus.cloudsim.network.datacenter.NetworkHost;
+import org.cloudbus.cloudsim.network.datacenter.Switch;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs a network datacenter of a given number of hosts, connected by edge switches of four hosts
+ * each, aggregation switches of four edge switches each and a root switch. Each VM runs a given
+ * number of cloudlets, each of them being half of a tandem application as in the tandem examples:
+ * a cloudlet executes, then sends a packet to a cloudlet on another VM, which executes after
+ * receiving it.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class NetworkDatacenterScaleBenchmark {
+
+	private static final int HOSTS_PER_EDGE_SWITCH = 4;
+
+	private static final int EDGE_SWITCHES_PER_AGGREGATION_SWITCH = 4;
+
+	@Param({"16", "64", "256"})
+	private int hosts;
+
+	@Param({"2"})
+	private int vmsPerHost;
+
+	@Param({"2"})
+	private int cloudletsPerVm;
+
+	private SimulationContext context;
+
+	@Setup(Level.Iteration)
+	public void createSimulation() throws Exception {
+		Log.disable();
+		context = new SimulationContext();
+		context.call(() -> {
+			CloudSim.init(1, null, false);
+			NetworkDatacenter datacenter = createDatacenter();
+			DatacenterBroker broker = new DatacenterBroker("Broker");
+
+			List<Vm> vmList = new ArrayList<>();
+			for (int i = 0; i < hosts * vmsPerHost; i++) {
+				vmList.add(new Vm(i, broker.getId(), 1, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+			}
+
+			List<NetworkCloudlet> cloudletList = new ArrayList<>();
+			Random random = new Random(7);
+			UtilizationModel utilizationModel = new UtilizationModelFull();
+			for (int app = 0; app < vmList.size() * cloudletsPerVm / 2; app++) {
+				AppCloudlet appCloudlet = new AppCloudlet(AppCloudlet.APP_Workflow, app, 0, broker.getId());
+				int vmA = random.nextInt(vmList.size());
+				int vmB = (vmA + 1 + random.nextInt(vmList.size() - 1)) % vmList.size();
+				NetworkCloudlet cla = createCloudlet(cloudletList.size(), broker.getId(), vmList.get(vmA), utilizationModel);
+				NetworkCloudlet clb = createCloudlet(cloudletList.size() + 1, broker.getId(), vmList.get(vmB), utilizationModel);
+				cla.addExecutionStage(1000);
+				cla.addSendStage(1000, clb);
+				clb.addRecvStage(cla);
+				clb.addExecutionStage(1000);
+				appCloudlet.cList.add(cla);
+				appCloudlet.cList.add(clb);
+				cloudletList.addAll(appCloudlet.cList);
+			}
+
+			broker.submitGuestList(vmList);
+			broker.submitCloudletList(cloudletList);
+			return null;
+		});
+	}
+
+	/**
+	 * Runs the simulation.
+	 *
+	 * @param metrics the metrics of the simulation
+	 * @return the clock at the end of the simulation
+	 */
+	@Benchmark
+	public double simulate(SimulationMetrics metrics) throws Exception {
+		double clock = context.call(() -> {
+			double lastClock = CloudSim.startSimulation();
+			CloudSim.stopSimulation();
+			return lastClock;
+		});
+		metrics.record(context);
+		return clock;
+	}
+
+	private NetworkDatacenter createDatacenter() throws Exception {
+		List<NetworkHost> hostList = new ArrayList<>();
+		for (int i = 0; i < hosts; i++) {
+			List<Pe> peList = new ArrayList<>();
+			for (int j = 0; j < NetworkConstants.HOST_PEs; j++) {
+				peList.add(new Pe(j, new PeProvisionerSimple(10)));
+			}
+			hostList.add(new NetworkHost(i, new RamProvisionerSimple(2048 * vmsPerHost), new BwProvisionerSimple(100000),
+					1000000, peList, new VmSchedulerTimeShared(peList)));
+		}
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		NetworkDatacenter datacenter = new NetworkDatacenter("Datacenter", characteristics,
+				new VmAllocationPolicySimple(hostList), new LinkedList<Storage>(), 0);
+
+		Switch root = new Switch("Root", NetworkConstants.RootSwitchPort, Switch.SwitchLevel.ROOT_LEVEL,
+				NetworkConstants.SwitchingDelayRoot, NetworkConstants.BandWidthAggRoot, NetworkConstants.BandWidthAggRoot, datacenter);
+		datacenter.registerSwitch(root);
+		Switch aggregation = null;
+		Switch edge = null;
+		for (int i = 0; i < hosts; i++) {
+			if (i % HOSTS_PER_EDGE_SWITCH == 0) {
+				int edgeIndex = i / HOSTS_PER_EDGE_SWITCH;
+				if (edgeIndex % EDGE_SWITCHES_PER_AGGREGATION_SWITCH == 0) {
+					aggregation = new Switch("Aggr" + edgeIndex / EDGE_SWITCHES_PER_AGGREGATION_SWITCH,
+							NetworkConstants.AggSwitchPort, Switch.SwitchLevel.AGGR_LEVEL, NetworkConstants.SwitchingDelayAgg,
+							NetworkConstants.BandWidthEdgeAgg, NetworkConstants.BandWidthAggRoot, datacenter);
+					datacenter.registerSwitch(aggregation);
+					datacenter.attachSwitchToSwitch(aggregation, root);
+				}
+				edge = new Switch("Edge" + edgeIndex, NetworkConstants.EdgeSwitchPort, Switch.SwitchLevel.EDGE_LEVEL,
+						NetworkConstants.SwitchingDelayEdge, NetworkConstants.BandWidthEdgeHost, NetworkConstants.BandWidthEdgeAgg,
+						datacenter);
+				datacenter.registerSwitch(edge);
+				datacenter.attachSwitchToSwitch(edge, aggregation);
+			}
+			datacenter.attachSwitchToHost(edge, hostList.get(i));
+		}
+		return datacenter;
+	}
+
+	private static NetworkCloudlet createCloudlet(int id, int userId, Vm vm, UtilizationModel utilizationModel) {
+		NetworkCloudlet cloudlet = new NetworkCloudlet(id, 0, 1, NetworkConstants.FILE_SIZE, NetworkConstants.OUTPUT_SIZE,
+				utilizationModel, utilizationModel, utilizationModel);
+		cloudlet.setUserId(userId);
+		cloudlet.setGuestId(vm.getId());
+		return cloudlet;
+	}
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelNull;
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.examples.power.Constants;
+import org.cloudbus.cloudsim.examples.power.Helper;
+import org.cloudbus.cloudsim.power.PowerDatacenter;
+import org.cloudbus.cloudsim.power.PowerHost;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationStaticThreshold;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMinimumMigrationTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs the PlanetLab power-aware simulation of the examples, with the static threshold
+ * allocation policy and the minimum migration time selection policy, at a given number of hosts.
+ * There are as many VMs as in the original workload relative to its 800 hosts, and the cloudlets
+ * of the VMs cycle through the traces of the workload when there are more VMs than traces.
+ * <p>
+ * The traces are read from the resources of the examples module when it is on the file system,
+ * else from {@code modules/cloudsim-examples/src/main/resources/workload/planetlab}, relative to
+ * the working directory, as when running the benchmarks jar from the root of the repository.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class PlanetLabScaleBenchmark {
+
+	private static final String WORKLOAD_RESOURCE = "workload/planetlab";
+
+	private static final String WORKLOAD_FOLDER = "modules/cloudsim-examples/src/main/resources/" + WORKLOAD_RESOURCE;
+
+	@Param({"200", "800", "3200"})
+	private int hosts;
+
+	/** The number of VMs per host, 1052 VMs for 800 hosts in the original workload. */
+	@Param({"1.315"})
+	private double vmsPerHost;
+
+	@Param({"20110303"})
+	private String workload;
+
+	@Param({"24"})
+	private int hours;
+
+	/** The utilization models of the traces, shared by the cloudlets of all the iterations. */
+	private final List<UtilizationModel> traces = new ArrayList<>();
+
+	private SimulationContext context;
+
+	@Setup(Level.Trial)
+	public void loadWorkload() throws Exception {
+		Log.disable();
+		File[] files = workloadFolder().listFiles();
+		if (files == null || files.length == 0) {
+			throw new IllegalStateException("No traces in the PlanetLab workload " + workload);
+		}
+		Arrays.sort(files);
+		for (File file : files) {
+			traces.add(new UtilizationModelPlanetLabInMemory(file.getAbsolutePath(), Constants.SCHEDULING_INTERVAL));
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void createSimulation() throws Exception {
+		context = new SimulationContext();
+		context.call(() -> {
+			CloudSim.init(1, null, false);
+			DatacenterBroker broker = Helper.createBroker();
+			int vms = (int) Math.round(hosts * vmsPerHost);
+
+			UtilizationModel utilizationModelNull = new UtilizationModelNull();
+			List<Cloudlet> cloudletList = new ArrayList<>();
+			for (int i = 0; i < vms; i++) {
+				Cloudlet cloudlet = new Cloudlet(i, Constants.CLOUDLET_LENGTH, Constants.CLOUDLET_PES, 300, 300,
+						traces.get(i % traces.size()), utilizationModelNull, utilizationModelNull);
+				cloudlet.setUserId(broker.getId());
+				cloudlet.setGuestId(i);
+				cloudletList.add(cloudlet);
+			}
+			List<Vm> vmList = Helper.createVmList(broker.getId(), vms);
+			List<PowerHost> hostList = Helper.createHostList(hosts);
+
+			PowerDatacenter datacenter = (PowerDatacenter) Helper.createDatacenter("Datacenter", PowerDatacenter.class, hostList,
+					new PowerVmAllocationPolicyMigrationStaticThreshold(hostList, new SelectionPolicyMinimumMigrationTime<>(), 0.8));
+			datacenter.setDisableMigrations(false);
+
+			broker.submitGuestList(vmList);
+			broker.submitCloudletList(cloudletList);
+			CloudSim.terminateSimulation(hours * 3600.0);
+			return null;
+		});
+	}
+
+	/**
+	 * Runs the simulation.
+	 *
+	 * @param metrics the metrics of the simulation
+	 * @return the clock at the end of the simulation
+	 */
+	@Benchmark
+	public double simulate(SimulationMetrics metrics) throws Exception {
+		double clock = context.call(() -> {
+			double lastClock = CloudSim.startSimulation();
+			CloudSim.stopSimulation();
+			return lastClock;
+		});
+		metrics.record(context);
+		return clock;
+	}
+
+	private File workloadFolder() {
+		URL url = PlanetLabScaleBenchmark.class.getClassLoader().getResource(WORKLOAD_RESOURCE + "/" + workload);
+		if (url != null && "file".equals(url.getProtocol())) {
+			return new File(url.getPath());
+		}
+		File folder = new File(WORKLOAD_FOLDER, workload);
+		if (folder.isDirectory()) {
+			return folder;
+		}
+		throw new IllegalStateException("PlanetLab workload " + workload + " not found in " + folder.getAbsolutePath());
+	}
+
+}
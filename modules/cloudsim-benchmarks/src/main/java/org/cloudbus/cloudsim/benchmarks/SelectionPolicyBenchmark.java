@@ -0,0 +1,182 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
+import org.cloudbus.cloudsim.core.PowerGuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.power.PowerHost;
+import org.cloudbus.cloudsim.power.PowerVm;
+import org.cloudbus.cloudsim.power.models.PowerModelSpecPowerHpProLiantMl110G5Xeon3075;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.HostCapacityIndex;
+import org.cloudbus.cloudsim.selectionPolicies.IndexedSelectionPolicy;
+import org.cloudbus.cloudsim.selectionPolicies.PowerSelectionPolicyMaximumCorrelation;
+import org.cloudbus.cloudsim.selectionPolicies.PowerSelectionPolicyMinimumCorrelation;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyFirstFit;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyLeastFull;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMaximumUsage;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMinimumMigrationTime;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMinimumUtilization;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMostFull;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyRandomSelection;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyWorstFit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link SelectionPolicy} implementations on power-aware hosts running VMs with a
+ * full utilization history. The policies selecting a VM choose among the VMs of a host, and the
+ * ones selecting a host choose among all the hosts, for a given VM. The policies which can select a
+ * host from a {@link HostCapacityIndex} are also measured with the index.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SelectionPolicyBenchmark {
+
+	private static final int PES = 16;
+
+	private static final int VMS_PER_HOST = 8;
+
+	@Param({"MinimumMigrationTime", "MinimumUtilization", "MaximumUsage", "RandomSelection", "MaximumCorrelation",
+			"FirstFit", "LeastFull", "MostFull", "WorstFit", "MinimumCorrelation"})
+	private String policy;
+
+	@Param({"100", "1000"})
+	private int hosts;
+
+	private SelectionPolicy<Object> selectionPolicy;
+
+	/** Whether the policy selects a host rather than a VM. */
+	private boolean selectsHost;
+
+	private final List<PowerHost> hostList = new ArrayList<>();
+
+	private final List<PowerVm> vmList = new ArrayList<>();
+
+	private final Set<Object> excluded = new HashSet<>();
+
+	/** The index of the hosts, if the policy can select a host from an index. */
+	private HostCapacityIndex index;
+
+	private int next;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		Log.disable();
+		Random random = new Random(7);
+		for (int i = 0; i < hosts; i++) {
+			List<Pe> peList = new ArrayList<>();
+			for (int j = 0; j < PES; j++) {
+				peList.add(new Pe(j, new PeProvisionerSimple(2660)));
+			}
+			PowerHost host = new PowerHost(i, new RamProvisionerSimple(65536), new BwProvisionerSimple(10000000),
+					10000000, peList, new VmSchedulerTimeSharedOverSubscription(peList),
+					new PowerModelSpecPowerHpProLiantMl110G5Xeon3075());
+			hostList.add(host);
+			for (int j = 0; j < VMS_PER_HOST; j++) {
+				double mips = 500 * (1 + random.nextInt(4));
+				PowerVm vm = new PowerVm(vmList.size(), 0, mips, 1, 613 * (1 + random.nextInt(3)), 1000, 2500, 1, "Xen",
+						new CloudletSchedulerDynamicWorkload(mips, 1), 300);
+				for (int k = 0; k < PowerGuestEntity.HISTORY_LENGTH; k++) {
+					vm.addUtilizationHistoryValue(random.nextDouble());
+				}
+				host.guestCreate(vm);
+				vmList.add(vm);
+			}
+		}
+
+		SelectionPolicy<?> policy = switch (this.policy) {
+			case "MinimumMigrationTime" -> new SelectionPolicyMinimumMigrationTime<>();
+			case "MinimumUtilization" -> new SelectionPolicyMinimumUtilization();
+			case "MaximumUsage" -> new SelectionPolicyMaximumUsage<>();
+			case "RandomSelection" -> new SelectionPolicyRandomSelection<>();
+			case "MaximumCorrelation" -> new PowerSelectionPolicyMaximumCorrelation(new SelectionPolicyMinimumMigrationTime<>());
+			case "FirstFit" -> new SelectionPolicyFirstFit<>();
+			case "LeastFull" -> new SelectionPolicyLeastFull();
+			case "MostFull" -> new SelectionPolicyMostFull();
+			case "WorstFit" -> new SelectionPolicyWorstFit();
+			case "MinimumCorrelation" -> new PowerSelectionPolicyMinimumCorrelation(new SelectionPolicyFirstFit<>());
+			default -> throw new IllegalArgumentException("Unknown selection policy: " + this.policy);
+		};
+		selectionPolicy = (SelectionPolicy<Object>) policy;
+		selectsHost = switch (this.policy) {
+			case "FirstFit", "LeastFull", "MostFull", "WorstFit", "MinimumCorrelation" -> true;
+			default -> false;
+		};
+		if (policy instanceof IndexedSelectionPolicy indexedPolicy) {
+			index = new HostCapacityIndex(hostList, indexedPolicy);
+		}
+	}
+
+	/**
+	 * Selects a VM of the next host, or a host for the next VM.
+	 *
+	 * @return the selected entity
+	 */
+	@Benchmark
+	public Object select() {
+		if (selectsHost) {
+			PowerVm vm = vmList.get(next);
+			next = (next + 1) % vmList.size();
+			return selectionPolicy.select(new ArrayList<>(hostList), vm, excluded);
+		}
+		PowerHost host = hostList.get(next);
+		next = (next + 1) % hostList.size();
+		return selectionPolicy.select(new ArrayList<>(host.getGuestList()), host, excluded);
+	}
+
+	/**
+	 * Selects a host for the next VM from the index of the hosts, then updates the selected host
+	 * in the index as an allocation does. The policies without an index select as {@link #select()}.
+	 *
+	 * @return the selected entity
+	 */
+	@Benchmark
+	public Object selectIndexed() {
+		if (index == null) {
+			return select();
+		}
+		PowerVm vm = vmList.get(next);
+		next = (next + 1) % vmList.size();
+		HostEntity host = ((IndexedSelectionPolicy) selectionPolicy).select(index, vm);
+		index.update(host);
+		return host;
+	}
+
+}
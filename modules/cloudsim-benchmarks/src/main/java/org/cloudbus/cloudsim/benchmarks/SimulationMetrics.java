@@ -0,0 +1,47 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The counters reported by the benchmarks running a whole simulation, next to its wall-clock
+ * time: the number of events the simulation processed, how many it processed per second, and
+ * how many bytes it allocated for each of them.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class SimulationMetrics {
+
+	/** The number of events processed by the simulation. */
+	public long events;
+
+	/** The number of events processed per second of wall-clock time. */
+	public double eventsPerSecond;
+
+	/** The bytes allocated per processed event, or -1 if the JVM can't measure them. */
+	public double bytesPerEvent;
+
+	/**
+	 * Records the metrics of a simulation which has run.
+	 *
+	 * @param context the context of the simulation
+	 */
+	public void record(SimulationContext context) {
+		events = context.getNumberOfProcessedEvents();
+		eventsPerSecond = context.getEventsPerSecond();
+		bytesPerEvent = context.getAllocatedBytesPerEvent();
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link VmSchedulerTimeShared#allocatePesForGuest} and
+ * {@link VmSchedulerTimeShared#reallocateAll} on a host running a given number of guests, which
+ * share its PEs without over-subscription.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class VmSchedulerBenchmark {
+
+	private static final int PES = 8;
+
+	private static final double PE_MIPS = 1000;
+
+	@Param({"TimeShared", "TimeSharedOverSubscription"})
+	private String scheduler;
+
+	@Param({"4", "32", "256"})
+	private int guests;
+
+	private VmSchedulerTimeShared vmScheduler;
+
+	private final List<Vm> vmList = new ArrayList<>();
+
+	private final List<List<Double>> mipsShares = new ArrayList<>();
+
+	private final Map<Vm, List<Double>> requestedByGuest = new LinkedHashMap<>();
+
+	/** The guest reallocated by {@link #reallocateOne()}. */
+	private int next;
+
+	@Setup
+	public void setUp() {
+		Log.disable();
+		List<Pe> peList = new ArrayList<>();
+		for (int i = 0; i < PES; i++) {
+			peList.add(new Pe(i, new PeProvisionerSimple(PE_MIPS)));
+		}
+		vmScheduler = switch (scheduler) {
+			case "TimeShared" -> new VmSchedulerTimeShared(peList);
+			case "TimeSharedOverSubscription" -> new VmSchedulerTimeSharedOverSubscription(peList);
+			default -> throw new IllegalArgumentException("Unknown VM scheduler: " + scheduler);
+		};
+
+		// each guest requests a share of the host, some with one PE and some with two
+		double mips = PES * PE_MIPS * 0.9 / guests;
+		for (int i = 0; i < guests; i++) {
+			int pes = i % 2 + 1;
+			vmList.add(new Vm(i, 0, mips / pes, pes, 0, 0, 0, "", null));
+			List<Double> mipsShare = new ArrayList<>();
+			for (int j = 0; j < pes; j++) {
+				mipsShare.add(mips / pes);
+			}
+			mipsShares.add(mipsShare);
+			requestedByGuest.put(vmList.get(i), mipsShare);
+		}
+		reallocateAll();
+	}
+
+	/**
+	 * Reallocates the PEs of all the guests, as a host does when it updates the processing of
+	 * its guests.
+	 *
+	 * @return the MIPS left available
+	 */
+	@Benchmark
+	public double reallocateAll() {
+		for (Vm vm : vmList) {
+			vmScheduler.deallocatePesForGuest(vm);
+		}
+		for (int i = 0; i < guests; i++) {
+			vmScheduler.allocatePesForGuest(vmList.get(i), mipsShares.get(i));
+		}
+		return vmScheduler.getAvailableMips();
+	}
+
+	/**
+	 * Reallocates the PEs of all the guests at once, as a host with a dynamic workload does.
+	 *
+	 * @return the MIPS left available
+	 */
+	@Benchmark
+	public double reallocateAllAtOnce() {
+		vmScheduler.reallocateAll(requestedByGuest);
+		return vmScheduler.getAvailableMips();
+	}
+
+	/**
+	 * Reallocates the PEs of a single guest.
+	 *
+	 * @return the MIPS left available
+	 */
+	@Benchmark
+	public double reallocateOne() {
+		Vm vm = vmList.get(next);
+		vmScheduler.deallocatePesForGuest(vm);
+		vmScheduler.allocatePesForGuest(vm, mipsShares.get(next));
+		next = (next + 1) % guests;
+		return vmScheduler.getAvailableMips();
+	}
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateFrom;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link DeferredQueue} as the simulation uses it: each operation defers an event
+ * for a random entity, which then takes the first of its events matching a predicate. The queue
+ * holds a given number of events per entity, spread over a few tags and sources.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see DeferredQueue
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DeferredQueueBenchmark {
+
+	/** The tags of the deferred events. */
+	private static final CloudSimTags[] TAGS = {
+			CloudActionTags.BLANK, CloudActionTags.VM_CREATE, CloudActionTags.VM_DESTROY, CloudActionTags.CLOUDLET_SUBMIT};
+
+	/** The number of entities sending the deferred events. */
+	private static final int SOURCES = 4;
+
+	@Param({"10", "1000"})
+	private int entities;
+
+	@Param({"1", "100"})
+	private int eventsPerEntity;
+
+	private DeferredQueue deferred;
+
+	private Random random;
+
+	private Predicate[] byTag;
+
+	private Predicate[] bySource;
+
+	/** The time of the last deferred event, increasing as in a simulation. */
+	private double time;
+
+	@Setup
+	public void setUp() {
+		deferred = new DeferredQueue();
+		random = new Random(7);
+		byTag = new Predicate[TAGS.length];
+		for (int i = 0; i < TAGS.length; i++) {
+			byTag[i] = new PredicateType(TAGS[i]);
+		}
+		bySource = new Predicate[SOURCES];
+		for (int i = 0; i < SOURCES; i++) {
+			bySource[i] = new PredicateFrom(i);
+		}
+		for (int i = 0; i < entities * eventsPerEntity; i++) {
+			defer(random.nextInt(entities), random.nextInt(TAGS.length), random.nextInt(SOURCES));
+		}
+	}
+
+	/**
+	 * Defers an event, and removes the first event of its destination.
+	 *
+	 * @return the removed event
+	 */
+	@Benchmark
+	public SimEvent removeFirstAny() {
+		int dest = random.nextInt(entities);
+		defer(dest, random.nextInt(TAGS.length), random.nextInt(SOURCES));
+		return deferred.removeFirst(dest, CloudSim.SIM_ANY);
+	}
+
+	/**
+	 * Defers an event, and removes the first event of its destination having the same tag, as
+	 * an entity waiting for a given type of event does.
+	 *
+	 * @return the removed event
+	 */
+	@Benchmark
+	public SimEvent removeFirstByTag() {
+		int dest = random.nextInt(entities);
+		int tag = random.nextInt(TAGS.length);
+		defer(dest, tag, random.nextInt(SOURCES));
+		return deferred.removeFirst(dest, byTag[tag]);
+	}
+
+	/**
+	 * Defers an event, and removes the first event of its destination having the same source,
+	 * which needs a scan of the events of the destination.
+	 *
+	 * @return the removed event
+	 */
+	@Benchmark
+	public SimEvent removeFirstBySource() {
+		int dest = random.nextInt(entities);
+		int source = random.nextInt(SOURCES);
+		defer(dest, random.nextInt(TAGS.length), source);
+		return deferred.removeFirst(dest, bySource[source]);
+	}
+
+	private void defer(int dest, int tag, int source) {
+		time += random.nextInt(4) == 0 ? 0 : 0.1;
+		deferred.addEvent(new SimEvent(SimEvent.SEND, time, source, dest, TAGS[tag], null));
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link FutureQueue} implementations with the classic "hold" model: the queue holds
+ * a given number of events, and each operation polls the first event and adds a new one, at the
+ * polled time plus a random delay. It is in the same package as the queues, to create the events
+ * directly.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see FutureQueue
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FutureQueueBenchmark {
+
+	@Param({"TreeSet", "Heap", "Calendar", "Ladder"})
+	private String queue;
+
+	@Param({"1000", "100000"})
+	private int size;
+
+	private FutureQueue futureQueue;
+
+	private Random random;
+
+	/** The events of the current time, as polled by the simulation at each tick. */
+	private final List<SimEvent> batch = new ArrayList<>();
+
+	@Setup
+	public void setUp() {
+		futureQueue = switch (queue) {
+			case "TreeSet" -> new FutureQueueTreeSet();
+			case "Heap" -> new FutureQueueHeap();
+			case "Calendar" -> new FutureQueueCalendar();
+			case "Ladder" -> new FutureQueueLadder();
+			default -> throw new IllegalArgumentException("Unknown future queue: " + queue);
+		};
+		random = new Random(7);
+		for (int i = 0; i < size; i++) {
+			futureQueue.addEvent(newEvent(random.nextDouble() * 100));
+		}
+	}
+
+	/**
+	 * Polls the first event and adds a new one.
+	 *
+	 * @return the polled event
+	 */
+	@Benchmark
+	public SimEvent hold() {
+		SimEvent first = futureQueue.poll();
+		futureQueue.addEvent(newEvent(first.eventTime() + delay()));
+		return first;
+	}
+
+	/**
+	 * Polls all the events of the first time, as a tick of the simulation does, and adds as many
+	 * new ones.
+	 *
+	 * @return the number of polled events
+	 */
+	@Benchmark
+	public int holdSameTime() {
+		int polled = futureQueue.pollSameTime(batch);
+		for (int i = 0; i < polled; i++) {
+			futureQueue.addEvent(newEvent(batch.get(i).eventTime() + delay()));
+		}
+		batch.clear();
+		return polled;
+	}
+
+	/**
+	 * Gets the delay of a new event: a mix of immediate and delayed events, as usual in CloudSim.
+	 */
+	private double delay() {
+		return random.nextInt(4) == 0 ? 0 : -Math.log(random.nextDouble()) * 100;
+	}
+
+	private SimEvent newEvent(double time) {
+		return new SimEvent(SimEvent.SEND, time, 0, 0, CloudActionTags.BLANK, null);
+	}
+
+}
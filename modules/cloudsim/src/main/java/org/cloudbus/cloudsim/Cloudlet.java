@@ -7,6 +7,8 @@
  */
 package org.cloudbus.cloudsim;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.LinkedList;
@@ -23,7 +25,11 @@ import org.cloudbus.cloudsim.core.CloudSim;
  * @author Remo Andreoli
  * @since CloudSim Toolkit 1.0
  */
-public class Cloudlet {
+public class Cloudlet implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     public enum CloudletStatus {
         /** The Cloudlet has been created and added to the CloudletList object. */
         CREATED,
@@ -457,7 +463,10 @@ public class Cloudlet {
      * CloudResources. Each time a cloudlet is run on a given VM, the cloudlet's
      * execution history on each VM is registered at {@link Cloudlet#resList}
      */
-    public static class Resource {
+    public static class Resource implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
 
         /** Cloudlet's submission (arrival) time to a CloudResource. */
         public double arrivalTime = 0.0;
@@ -0,0 +1,121 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The cloudlets finished on the guests of a {@link Datacenter}, waiting to be returned to their
+ * users. The {@link CloudletScheduler CloudletSchedulers} bound to the queue publish themselves
+ * to it when a cloudlet finishes, so the datacenter drains the finished cloudlets of these
+ * schedulers only, rather than polling the schedulers of all its guests.
+ * <p>
+ * The cloudlets are drained in the order the schedulers first published since the previous drain,
+ * and in the order they finished for each scheduler. The schedulers may be updated by several
+ * threads at once if each thread {@link #record(Runnable) records} what it publishes; the records
+ * are then published in a deterministic order by the thread which started the others.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see CloudletScheduler#setCompletionQueue(CloudletCompletionQueue)
+ */
+public class CloudletCompletionQueue implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** The schedulers which finished cloudlets since the previous drain. */
+	private final Set<CloudletScheduler> schedulers = new LinkedHashSet<>();
+
+	/** The schedulers published by each thread running {@link #record(Runnable)}. */
+	private transient ThreadLocal<Set<CloudletScheduler>> records = new ThreadLocal<>();
+
+	/**
+	 * Records that a scheduler has finished cloudlets.
+	 *
+	 * @param scheduler the scheduler
+	 */
+	public void publish(CloudletScheduler scheduler) {
+		Set<CloudletScheduler> record = records.get();
+		(record == null ? schedulers : record).add(scheduler);
+	}
+
+	/**
+	 * Records that some schedulers have finished cloudlets, in the order of the collection.
+	 *
+	 * @param schedulers the schedulers
+	 * @see #record(Runnable)
+	 */
+	public void publishAll(Collection<CloudletScheduler> schedulers) {
+		this.schedulers.addAll(schedulers);
+	}
+
+	/**
+	 * Runs a task which may publish schedulers, keeping what it publishes apart from the queue.
+	 * Several threads can run tasks at once, as long as none of them drains the queue.
+	 *
+	 * @param task the task
+	 * @return the schedulers the task published, in the order it published them
+	 * @see #publishAll(Collection)
+	 */
+	public Set<CloudletScheduler> record(Runnable task) {
+		Set<CloudletScheduler> record = new LinkedHashSet<>();
+		Set<CloudletScheduler> previous = records.get();
+		records.set(record);
+		try {
+			task.run();
+		} finally {
+			if (previous == null) {
+				records.remove();
+			} else {
+				records.set(previous);
+			}
+		}
+		return record;
+	}
+
+	/**
+	 * Checks if no scheduler finished cloudlets since the previous drain.
+	 *
+	 * @return true, if the queue is empty
+	 */
+	public boolean isEmpty() {
+		return schedulers.isEmpty();
+	}
+
+	/**
+	 * Takes the finished cloudlets out of the schedulers which published since the previous drain.
+	 *
+	 * @param action the action run on each finished cloudlet
+	 */
+	public void drain(Consumer<? super Cloudlet> action) {
+		for (CloudletScheduler scheduler : schedulers) {
+			while (scheduler.isFinishedCloudlets()) {
+				Cloudlet cl = scheduler.getNextFinishedCloudlet();
+				if (cl != null) {
+					action.accept(cl);
+				}
+			}
+		}
+		schedulers.clear();
+	}
+
+	@Serial
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		records = new ThreadLocal<>();
+	}
+
+}
@@ -8,6 +8,8 @@
 
 package org.cloudbus.cloudsim;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -27,7 +29,10 @@ import org.cloudbus.cloudsim.lists.CloudletList;
  * @author Remo Andreoli
  * @since CloudSim Toolkit 1.0
  */
-public abstract class CloudletScheduler {
+public abstract class CloudletScheduler implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
 
 	/** The previous time. */
 	private double previousTime;
@@ -35,7 +40,7 @@ public abstract class CloudletScheduler {
 	/** The list of current mips share available for the VM using the scheduler.
 	 * It is provided by {@link CloudletScheduler#updateCloudletsProcessing(double, List)} method.
 	 * at every simulation step. */
-	private List<Double> currentMipsShare;
+	private MipsShare currentMipsShare;
 
 
 	private double currentCapacity;
@@ -58,6 +63,9 @@ public abstract class CloudletScheduler {
 	/** Buffer list of the latest finished cloudlets. */
 	protected List<Cloudlet> cloudletJustFinishedList;
 
+	/** The queue the scheduler publishes to when a cloudlet finishes, if any. */
+	private CloudletCompletionQueue completionQueue;
+
 	/**
 	 * Creates a new CloudletScheduler object. 
 	 * A CloudletScheduler must be created before starting the actual simulation.
@@ -78,6 +86,9 @@ public abstract class CloudletScheduler {
 
 	/**
 	 * Updates the processing of cloudlets running under management of this scheduler.
+	 * The capacity is recomputed once the finished cloudlets are removed, so the finish
+	 * times predicted for the remaining cloudlets account for the PEs the finished ones
+	 * release, rather than from the next update on.
 	 * 
 	 * @param currentTime current simulation time
 	 * @param mipsShare list with MIPS share of each Pe available to the scheduler
@@ -107,6 +118,10 @@ public abstract class CloudletScheduler {
 			}
 		}
 		getCloudletExecList().removeAll(cloudletJustFinishedList);
+		if (!cloudletJustFinishedList.isEmpty()) {
+			// the remaining cloudlets share the PEs of the finished ones from now on
+			updateCurrentCapacity();
+		}
 
 
 		if (getCloudletExecList().isEmpty() && getCloudletWaitingList().isEmpty()) {
@@ -271,6 +286,9 @@ public abstract class CloudletScheduler {
 		cl.setStatus(Cloudlet.CloudletStatus.SUCCESS);
 		cl.finalizeCloudlet();
 		getCloudletFinishedList().add(cl);
+		if (completionQueue != null) {
+			completionQueue.publish(this);
+		}
 	}
 
 	/**
@@ -391,17 +409,23 @@ public abstract class CloudletScheduler {
 		return mipsShare;
 	}
 
+	/**
+	 * Gets the current requested mips as a MIPS share, which is the current MIPS share of the
+	 * scheduler rather than a copy of it.
+	 *
+	 * @return the current mips
+	 */
+	public MipsShare getCurrentRequestedMipsShare() {
+		return currentMipsShare != null ? currentMipsShare : MipsShare.EMPTY;
+	}
+
 	/**
 	 * Gets the total of the current requested mips.
 	 * 
 	 * @return the current mips
 	 */
 	public double getCurrentRequestedTotalMips() {
-		double mips = 0.0;
-		if (currentMipsShare != null)
-			for (double v : currentMipsShare)
-				mips += v;
-		return mips;
+		return getCurrentRequestedMipsShare().getTotalMips();
 	}
 
 	/**
@@ -488,8 +512,8 @@ public abstract class CloudletScheduler {
 	 * @param currentMipsShare the new current mips share
 	 */
 	protected void setCurrentMipsShare(List<Double> currentMipsShare) {
-        currentMipsShare.removeIf(mips -> mips <= 0);
-		this.currentMipsShare = currentMipsShare;
+		// the share may be kept by the VmScheduler, which is not to be modified
+		this.currentMipsShare = MipsShare.of(currentMipsShare).withoutIdlePes();
 
 		updateCurrentCapacity();
 	}
@@ -514,12 +538,7 @@ public abstract class CloudletScheduler {
 	 * @return capacity
 	 */
 	public double updateCurrentCapacity() {
-		currentMipsShare.removeIf(mips -> mips <= 0);
-
-		double capacity = 0;
-		for (Double mips : currentMipsShare) {
-			capacity += mips;
-		}
+		double capacity = currentMipsShare.getTotalMips();
 
 		int pesInUse = 0;
 		for (Cloudlet cl : getCloudletExecList()) {
@@ -647,4 +666,23 @@ public abstract class CloudletScheduler {
 		this.cloudletFailedList = cloudletFailedList;
 	}
 
+	/**
+	 * Gets the queue the scheduler publishes to when a cloudlet finishes.
+	 *
+	 * @return the completion queue, or <tt>null</tt> if the finished cloudlets are only polled
+	 */
+	public CloudletCompletionQueue getCompletionQueue() {
+		return completionQueue;
+	}
+
+	/**
+	 * Sets the queue the scheduler publishes to when a cloudlet finishes, as done by the
+	 * {@link Datacenter} which submits cloudlets to the scheduler.
+	 *
+	 * @param completionQueue the completion queue, or <tt>null</tt>
+	 */
+	public void setCompletionQueue(CloudletCompletionQueue completionQueue) {
+		this.completionQueue = completionQueue;
+	}
+
 }
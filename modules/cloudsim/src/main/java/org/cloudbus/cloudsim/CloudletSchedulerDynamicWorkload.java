@@ -7,6 +7,7 @@
 
 package org.cloudbus.cloudsim;
 
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -31,6 +32,9 @@ import org.cloudbus.cloudsim.core.CloudSim;
 //TODO The name of the class doesn't represent its goal. A clearer name would be
 public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShared {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The individual MIPS capacity of each PE allocated to the VM using the scheduler,
          * considering that all PEs have the same capacity. 
          * //TODO Despite of the class considers that all PEs have the same capacity,
@@ -48,13 +52,13 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	/** The under allocated MIPS. */
 	private Map<String, Double> underAllocatedMips;
 
-	/** The cache of the previous time when the {@link #getCurrentRequestedMips()} was called. */
+	/** The cache of the previous time when the {@link #getCurrentRequestedMipsShare()} was called. */
 	private double cachePreviousTime;
 
-	/** The cache of the last current requested MIPS. 
-         * @see  #getCurrentRequestedMips() 
+	/** The cache of the last current requested MIPS, which is kept while they do not change. 
+         * @see  #getCurrentRequestedMipsShare() 
          */
-	private List<Double> cacheCurrentRequestedMips;
+	private MipsShare cacheCurrentRequestedMips;
 
 	/**
 	 * Instantiates a new VM scheduler
@@ -128,15 +132,20 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 
 	@Override
 	public List<Double> getCurrentRequestedMips() {
+		return new ArrayList<>(getCurrentRequestedMipsShare());
+	}
+
+	@Override
+	public MipsShare getCurrentRequestedMipsShare() {
 		if (getCachePreviousTime() == getPreviousTime()) {
 			return getCacheCurrentRequestedMips();
 		}
-		List<Double> currentMips = new ArrayList<>();
 		double totalMips = getTotalUtilizationOfCpu(getPreviousTime()) * getTotalMips();
 		double mipsForPe = totalMips / getNumberOfPes();
 
-		for (int i = 0; i < getNumberOfPes(); i++) {
-			currentMips.add(mipsForPe);
+		MipsShare currentMips = getCacheCurrentRequestedMips();
+		if (currentMips == null || !currentMips.isUniform(getNumberOfPes(), mipsForPe)) {
+			currentMips = MipsShare.uniform(getNumberOfPes(), mipsForPe);
 		}
 
 		setCachePreviousTime(getPreviousTime());
@@ -147,11 +156,7 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 
 	@Override
 	public double getCurrentRequestedTotalMips() {
-		List<Double> currentMips = getCurrentRequestedMips();
-		double mips = 0.0;
-		for (double v : currentMips)
-			mips += v;
-		return mips;
+		return getCurrentRequestedMipsShare().getTotalMips();
 	}
 
 	@Override
@@ -319,7 +324,7 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	 * 
 	 * @return the cache current requested mips
 	 */
-	protected List<Double> getCacheCurrentRequestedMips() {
+	protected MipsShare getCacheCurrentRequestedMips() {
 		return cacheCurrentRequestedMips;
 	}
 
@@ -328,7 +333,7 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 	 * 
 	 * @param cacheCurrentRequestedMips the new cache current requested mips
 	 */
-	protected void setCacheCurrentRequestedMips(List<Double> cacheCurrentRequestedMips) {
+	protected void setCacheCurrentRequestedMips(MipsShare cacheCurrentRequestedMips) {
 		this.cacheCurrentRequestedMips = cacheCurrentRequestedMips;
 	}
 
@@ -0,0 +1,366 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.lists.CloudletList;
+
+/**
+ * CloudletSchedulerProcessorSharing shares the PEs of a VM among its {@link Cloudlet Cloudlets}
+ * as {@link CloudletSchedulerTimeShared} does, and can be used in its place, but updates the
+ * cloudlets in time logarithmic in their number rather than linear.
+ * <p>
+ * All the cloudlets progress at the same rate per PE, so the scheduler only keeps the
+ * <i>virtual time</i> of the VM: the MI executed by each PE of a cloudlet since the scheduler was
+ * created. A cloudlet finishes when the virtual time reaches the virtual time it started at plus its
+ * remaining MI per PE, so the cloudlets are kept in a min-heap of these virtual finish times:
+ * an update advances the virtual time, takes the finished cloudlets from the top of the heap, and
+ * predicts the next completion from the new top.
+ * <p>
+ * The MI executed so far by a running cloudlet is only written to the cloudlet when it leaves the
+ * scheduler, by finishing, being paused, cancelled or migrated. Since the progress of a cloudlet
+ * can't depend on the cloudlet itself, the scheduler is not suited to cloudlets which only progress
+ * at some stages, such as the {@link org.cloudbus.cloudsim.network.datacenter.NetworkCloudlet
+ * NetworkCloudlets}.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see CloudletSchedulerTimeShared
+ */
+public class CloudletSchedulerProcessorSharing extends CloudletScheduler {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** The relative difference under which a cloudlet has reached its virtual finish time. */
+	private static final double TOLERANCE = 1e-9;
+
+	/** The MI executed by each PE of a cloudlet since the scheduler was created. */
+	private double virtualTime;
+
+	/** The running cloudlets, by virtual finish time. */
+	private final PriorityQueue<Share> finishQueue = new PriorityQueue<>();
+
+	/** The shares of the running cloudlets, in the order of the exec list. */
+	private final List<Share> shares = new ArrayList<>();
+
+	/** The number of PEs used by the running cloudlets. */
+	private int pesInUse;
+
+	/** The MIPS available to each PE of a cloudlet. */
+	private double capacity;
+
+	/** The number of cloudlets started, used to finish at the same time in starting order. */
+	private long started;
+
+	/**
+	 * Creates a new CloudletSchedulerProcessorSharing object. This method must be invoked before
+	 * starting the actual simulation.
+	 */
+	public CloudletSchedulerProcessorSharing() {
+		super();
+		setCloudletExecList(new ArrayList<>());
+	}
+
+	@Override
+	public double updateCloudletsProcessing(double currentTime, List<Double> mipsShare) {
+		// the cloudlets progressed at the capacity they had since the previous update
+		advance(currentTime);
+		setCurrentMipsShare(mipsShare);
+
+		while (!finishQueue.isEmpty() && isReached(finishQueue.peek())) {
+			cloudletFinish(release(finishQueue.poll()));
+		}
+		setPreviousTime(currentTime);
+
+		if (finishQueue.isEmpty()) {
+			return 0.0;
+		}
+		if (getCurrentCapacity() == 0) {
+			return Double.MAX_VALUE;
+		}
+		double nextEvent = currentTime + (finishQueue.peek().finishTime - virtualTime) / getCurrentCapacity();
+		if (nextEvent - currentTime < CloudSim.getMinTimeBetweenEvents()) {
+			nextEvent = currentTime + CloudSim.getMinTimeBetweenEvents();
+		}
+		return nextEvent;
+	}
+
+	@Override
+	public double cloudletSubmit(Cloudlet cl, double fileTransferTime) {
+		advance(CloudSim.clock());
+		cl.setStatus(Cloudlet.CloudletStatus.INEXEC);
+
+		// use the current capacity to estimate the extra amount of
+		// time to file transferring. It must be added to the cloudlet length
+		double extraSize = getCurrentCapacity() * fileTransferTime;
+		cl.setCloudletLength((long) (cl.getCloudletLength() + extraSize));
+
+		Share share = start(cl);
+		return (share.finishTime - virtualTime) / getCurrentCapacity();
+	}
+
+	@Override
+	public double cloudletResume(int cloudletId) {
+		int position = CloudletList.getPositionById(getCloudletPausedList(), cloudletId);
+		if (position >= 0) {
+			advance(CloudSim.clock());
+			Cloudlet cl = getCloudletPausedList().remove(position);
+			cl.setStatus(Cloudlet.CloudletStatus.INEXEC);
+			start(cl);
+			return getEstimatedFinishTime(cl, CloudSim.clock());
+		}
+		return 0.0;
+	}
+
+	@Override
+	public Cloudlet cloudletCancel(int cloudletId) {
+		Share share = findShare(cloudletId);
+		if (share == null) {
+			return super.cloudletCancel(cloudletId);
+		}
+
+		advance(CloudSim.clock());
+		Cloudlet cl = stop(share);
+		if (cl.getRemainingCloudletLength() == 0) {
+			cloudletFinish(cl);
+		} else {
+			cl.setStatus(Cloudlet.CloudletStatus.CANCELED);
+		}
+		return cl;
+	}
+
+	@Override
+	public boolean cloudletPause(int cloudletId) {
+		Share share = findShare(cloudletId);
+		if (share == null) {
+			return super.cloudletPause(cloudletId);
+		}
+
+		advance(CloudSim.clock());
+		Cloudlet cl = stop(share);
+		if (cl.getRemainingCloudletLength() == 0) {
+			cloudletFinish(cl);
+		} else {
+			cl.setStatus(Cloudlet.CloudletStatus.PAUSED);
+			getCloudletPausedList().add(cl);
+		}
+		return true;
+	}
+
+	@Override
+	public Cloudlet migrateCloudlet() {
+		advance(CloudSim.clock());
+		Cloudlet cl = stop(shares.getFirst());
+		cl.finalizeCloudlet();
+		return cl;
+	}
+
+	@Override
+	public double getEstimatedFinishTime(Cloudlet cl, double time) {
+		for (Share share : shares) {
+			if (share.cloudlet == cl) {
+				double now = virtualTime + (time - getPreviousTime()) * getCurrentCapacity();
+				return time + (share.finishTime - now) / getCurrentCapacity();
+			}
+		}
+		return super.getEstimatedFinishTime(cl, time);
+	}
+
+	@Override
+	public double getCurrentCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Updates the MIPS available to each PE of a cloudlet, which share the MIPS of the VM when they
+	 * use more PEs than it has.
+	 *
+	 * @return the capacity
+	 */
+	@Override
+	public double updateCurrentCapacity() {
+		List<Double> mipsShare = getCurrentMipsShare();
+		if (mipsShare == null || mipsShare.isEmpty()) {
+			capacity = 0;
+			return capacity;
+		}
+
+		double mips = 0;
+		for (Double m : mipsShare) {
+			mips += m;
+		}
+		capacity = mips / Math.max(pesInUse, mipsShare.size());
+		return capacity;
+	}
+
+	// Simple policy, there is no real scheduling involved
+	@Override
+	public double getTotalCurrentAvailableMipsForCloudlet(Cloudlet cl, List<Double> mipsShare) {
+		return getCurrentCapacity() * cl.getNumberOfPes();
+	}
+
+	@Override
+	public double getTotalCurrentAllocatedMipsForCloudlet(Cloudlet cl, double time) {
+		return getTotalCurrentAvailableMipsForCloudlet(cl, getCurrentMipsShare());
+	}
+
+	@Override
+	public double getTotalCurrentRequestedMipsForCloudlet(Cloudlet cl, double time) {
+		return getTotalCurrentAvailableMipsForCloudlet(cl, getCurrentMipsShare());
+	}
+
+	/**
+	 * Advances the virtual time up to a given time, at the current capacity.
+	 *
+	 * @param time the time
+	 */
+	private void advance(double time) {
+		if (time > getPreviousTime()) {
+			virtualTime += (time - getPreviousTime()) * getCurrentCapacity();
+			setPreviousTime(time);
+		}
+	}
+
+	/**
+	 * Checks if a cloudlet has executed all its MI.
+	 *
+	 * @param share the share of the cloudlet
+	 * @return true if the cloudlet has finished
+	 */
+	private boolean isReached(Share share) {
+		return share.finishTime - virtualTime <= TOLERANCE * Math.max(1, Math.abs(share.finishTime));
+	}
+
+	/**
+	 * Starts running a cloudlet, from the MI it has executed so far.
+	 *
+	 * @param cl the cloudlet
+	 * @return the share of the cloudlet
+	 */
+	private Share start(Cloudlet cl) {
+		int pes = cl.getNumberOfPes();
+		// as for Cloudlet.isFinished(), the cloudlet finishes once its PEs together executed its length
+		double remaining = Math.max(0, cl.getCloudletLength() - cl.getCloudletFinishedSoFar());
+		Share share = new Share(cl, pes, virtualTime, cl.getCloudletFinishedSoFar(),
+				virtualTime + remaining / pes, started++);
+		share.position = shares.size();
+		shares.add(share);
+		getCloudletExecList().add(cl);
+		finishQueue.add(share);
+		pesInUse += pes;
+		if (getCurrentMipsShare() != null) {
+			updateCurrentCapacity();
+		}
+		return share;
+	}
+
+	/**
+	 * Stops running a cloudlet before it finishes, and writes the MI it has executed so far.
+	 *
+	 * @param share the share of the cloudlet
+	 * @return the cloudlet
+	 */
+	private Cloudlet stop(Share share) {
+		finishQueue.remove(share);
+		return release(share);
+	}
+
+	/**
+	 * Removes a cloudlet taken from the finish queue from the running cloudlets, and writes the MI
+	 * it has executed so far.
+	 *
+	 * @param share the share of the cloudlet
+	 * @return the cloudlet
+	 */
+	private Cloudlet release(Share share) {
+		// the last share takes the place of the removed one
+		Share last = shares.removeLast();
+		List<Cloudlet> execList = getCloudletExecList();
+		Cloudlet lastCloudlet = execList.removeLast();
+		if (last != share) {
+			last.position = share.position;
+			shares.set(share.position, last);
+			execList.set(share.position, lastCloudlet);
+		}
+		pesInUse -= share.pes;
+		if (getCurrentMipsShare() != null) {
+			updateCurrentCapacity();
+		}
+
+		Cloudlet cl = share.cloudlet;
+		long finished = share.startFinished + (long) ((virtualTime - share.startTime) * share.pes);
+		cl.setCloudletFinishedSoFar(Math.min(finished, cl.getCloudletTotalLength()));
+		return cl;
+	}
+
+	/**
+	 * Finds the share of a running cloudlet.
+	 *
+	 * @param cloudletId the id of the cloudlet
+	 * @return the share, or <tt>null</tt> if the cloudlet is not running
+	 */
+	private Share findShare(int cloudletId) {
+		for (Share share : shares) {
+			if (share.cloudlet.getCloudletId() == cloudletId) {
+				return share;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * A running cloudlet, with the virtual times it started and will finish at.
+	 */
+	private static final class Share implements Comparable<Share>, Serializable {
+
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		private final Cloudlet cloudlet;
+
+		private final int pes;
+
+		/** The virtual time the cloudlet started at. */
+		private final double startTime;
+
+		/** The MI the cloudlet had executed when it started. */
+		private final long startFinished;
+
+		/** The virtual time the cloudlet will finish at. */
+		private final double finishTime;
+
+		/** The order in which the cloudlet started. */
+		private final long order;
+
+		/** The position of the cloudlet in the exec list. */
+		private int position;
+
+		Share(Cloudlet cloudlet, int pes, double startTime, long startFinished, double finishTime, long order) {
+			this.cloudlet = cloudlet;
+			this.pes = pes;
+			this.startTime = startTime;
+			this.startFinished = startFinished;
+			this.finishTime = finishTime;
+			this.order = order;
+		}
+
+		@Override
+		public int compareTo(Share other) {
+			int c = Double.compare(finishTime, other.finishTime);
+			return c != 0 ? c : Long.compare(order, other.order);
+		}
+	}
+
+}
@@ -7,6 +7,7 @@
 
 package org.cloudbus.cloudsim;
 
+import java.io.Serial;
 import java.util.List;
 
 import org.cloudbus.cloudsim.core.CloudSim;
@@ -24,6 +25,10 @@ import org.cloudbus.cloudsim.lists.CloudletList;
  * @since CloudSim Toolkit 1.0
  */
 public class CloudletSchedulerTimeShared extends CloudletScheduler {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a new CloudletSchedulerTimeShared object. This method must be invoked before starting
 	 * the actual simulation.
@@ -7,9 +7,17 @@
 
 package org.cloudbus.cloudsim;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 
 import org.cloudbus.cloudsim.VmAllocationPolicy.GuestMapping;
 import org.cloudbus.cloudsim.core.*;
@@ -30,6 +38,9 @@ import org.cloudbus.cloudsim.core.*;
  */
 public class Datacenter extends SimEntity {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The characteristics. */
 	private DatacenterCharacteristics characteristics;
 
@@ -53,6 +64,25 @@ public class Datacenter extends SimEntity {
 	/** The scheduling delay to process each datacenter received event. */
 	private double schedulingInterval;
 
+	/** Whether each update processes the cloudlets of all the hosts, rather than only of the due and dirty ones. */
+	private boolean updateAllHosts;
+
+	/** Whether all the hosts were updated since the datacenter started tracking them. */
+	private boolean hostsTracked;
+
+	/** The time each host predicted for its next cloudlet completion when it was last updated. */
+	private final Map<HostEntity, Double> hostEventTimes = new HashMap<>();
+
+	/** The predicted completions of the hosts, earliest first. An entry whose time is no longer the one of
+	 * its host in {@link #hostEventTimes} is stale. */
+	private final PriorityQueue<HostEvent> hostEvents = new PriorityQueue<>();
+
+	/** The hosts changed since they were last updated, as by a cloudlet submission or a VM creation. */
+	private final Set<HostEntity> dirtyHosts = new LinkedHashSet<>();
+
+	/** The cloudlets finished on the guests, waiting to be returned to their users. */
+	private final CloudletCompletionQueue completionQueue = new CloudletCompletionQueue();
+
 	/**
 	 * Allocates a new Datacenter object.
 	 * 
@@ -192,6 +222,10 @@ public class Datacenter extends SimEntity {
             processVmCreate(ev, false);
         } else if (tag == CloudActionTags.VM_CREATE_ACK) {
             processVmCreate(ev, true);
+        } else if (tag == CloudActionTags.VM_CREATE_BATCH) {
+            processVmCreateBatch(ev, false);
+        } else if (tag == CloudActionTags.VM_CREATE_BATCH_ACK) {
+            processVmCreateBatch(ev, true);
         } else if (tag == CloudActionTags.VM_DESTROY) {
             processVmDestroy(ev, false);
         } else if (tag == CloudActionTags.VM_DESTROY_ACK) {
@@ -407,14 +441,67 @@ public class Datacenter extends SimEntity {
 		}
 
 		if (result) {
-			getVmList().add(vm);
+			processGuestCreated(vm);
+		}
+	}
 
-			if (vm.isBeingInstantiated()) {
-				vm.setBeingInstantiated(false);
-			}
+	/**
+	 * Process the event for an User/Broker who wants to create a list of VMs in this Datacenter at
+	 * once. The VMs are placed together by {@link VmAllocationPolicy#allocateHostsForGuests(List)},
+	 * and the Datacenter may send a single {@link GuestCreationAck} back to the User/Broker.
+	 *
+	 * @param ev information about the event just happened, whose data is the list of VMs
+	 * @param ack indicates if the event's sender expects to receive
+	 *         an acknowledge message when the event finishes to be processed
+	 */
+	@SuppressWarnings("unchecked")
+	protected void processVmCreateBatch(SimEvent ev, boolean ack) {
+		List<? extends GuestEntity> guests = (List<? extends GuestEntity>) ev.getData();
 
-			vm.updateCloudletsProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(vm).getGuestScheduler()
-					.getAllocatedMipsForGuest(vm));
+		BitSet created = getVmAllocationPolicy().allocateHostsForGuests(guests);
+		if (ack) {
+			send(ev.getSource(), CloudSim.getMinTimeBetweenEvents(), CloudActionTags.VM_CREATE_BATCH_ACK,
+					new GuestCreationAck(getId(), guests, created));
+		}
+
+		for (int i = created.nextSetBit(0); i >= 0; i = created.nextSetBit(i + 1)) {
+			processGuestCreated(guests.get(i));
+		}
+	}
+
+	/**
+	 * Sets up a VM which was just placed on a host of this Datacenter.
+	 *
+	 * @param vm the VM
+	 */
+	protected void processGuestCreated(GuestEntity vm) {
+		getVmList().add(vm);
+
+		if (vm.isBeingInstantiated()) {
+			vm.setBeingInstantiated(false);
+		}
+
+		HostEntity host = getVmAllocationPolicy().getHost(vm);
+		markHostDirty(host);
+		bindCompletionQueue(vm);
+		vm.updateCloudletsProcessing(CloudSim.clock(), host.getGuestScheduler().getAllocatedMipsForGuest(vm));
+	}
+
+	/**
+	 * Binds the cloudlet scheduler of a guest placed in this Datacenter, and those of the guests it
+	 * hosts, to the {@link #getCompletionQueue() completion queue}, so that the cloudlets finishing
+	 * on them are returned to their users, whoever submitted them.
+	 *
+	 * @param guest the guest
+	 */
+	protected void bindCompletionQueue(GuestEntity guest) {
+		if (guest.getCloudletScheduler() != null) {
+			guest.getCloudletScheduler().setCompletionQueue(getCompletionQueue());
+		}
+		if (guest instanceof HostEntity host) {
+			for (GuestEntity nested : host.getGuestList()) {
+				bindCompletionQueue(nested);
+			}
 		}
 	}
 
@@ -432,6 +519,7 @@ public class Datacenter extends SimEntity {
 	 */
 	protected void processVmDestroy(SimEvent ev, boolean ack) {
 		GuestEntity vm = (GuestEntity) ev.getData();
+		markHostDirty(getVmAllocationPolicy().getHost(vm));
 		getVmAllocationPolicy().deallocateHostForGuest(vm);
 
 		if (ack) {
@@ -467,8 +555,11 @@ public class Datacenter extends SimEntity {
 		HostEntity host = migrate.host();
 		
 		//destroy VM in src host
+		markHostDirty(getVmAllocationPolicy().getHost(vm));
+		markHostDirty(host);
 		getVmAllocationPolicy().deallocateHostForGuest(vm);
 		host.removeMigratingInGuest(vm);
+		getVmAllocationPolicy().hostChanged(host);
 
 		// @TODO: Remo Andreoli: what happens to the vmId / containerId of the cloudlets hosted on the Vm?
 		// create VM in dest host
@@ -556,17 +647,22 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletMove(int[] receivedData, CloudActionTags tag) {
-		updateCloudletProcessing();
-
         int cloudletId = receivedData[0];
 		int userId = receivedData[1];
 		int vmId = receivedData[2];
 		int vmDestId = receivedData[3];
 		int destId = receivedData[4];
 
+		HostEntity host = getVmAllocationPolicy().getHost(vmId, userId);
+		markHostDirty(host);
+		if (destId == getId()) {
+			markHostDirty(getVmAllocationPolicy().getHost(vmDestId, userId));
+		}
+		updateCloudletProcessing();
+
 		// get the cloudlet
-		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
-				.getCloudletScheduler().cloudletCancel(cloudletId);
+		markHostDirty(host);
+		Cloudlet cl = host.getGuest(vmId,userId).getCloudletScheduler().cloudletCancel(cloudletId);
 
 		boolean failed = false;
 		if (cl == null) {// cloudlet doesn't exist
@@ -587,12 +683,15 @@ public class Datacenter extends SimEntity {
 
 			// the cloudlet will migrate from one vm to another does the destination VM exist?
 			if (destId == getId()) {
-				GuestEntity vm = getVmAllocationPolicy().getHost(vmDestId, userId).getGuest(vmDestId,userId);
+				HostEntity destHost = getVmAllocationPolicy().getHost(vmDestId, userId);
+				markHostDirty(destHost);
+				GuestEntity vm = destHost.getGuest(vmDestId,userId);
 				if (vm == null) {
 					failed = true;
 				} else {
 					// time to transfer the files
 					double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
+					bindCompletionQueue(vm);
 					vm.getCloudletScheduler().cloudletSubmit(cl, fileTransferTime);
 				}
 			} else {// the cloudlet will migrate from one resource to another
@@ -626,6 +725,9 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletSubmit(SimEvent ev, boolean ack) {
+		if (ev.getData() instanceof Cloudlet cl) {
+			markHostDirty(getVmAllocationPolicy().getHost(cl.getGuestId(), cl.getUserId()));
+		}
 		updateCloudletProcessing();
 
 		try {
@@ -670,9 +772,11 @@ public class Datacenter extends SimEntity {
 			double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
 
 			HostEntity host = getVmAllocationPolicy().getHost(vmId, userId);
+			markHostDirty(host);
 			GuestEntity vm = host.getGuest(vmId, userId);
-			CloudletScheduler scheduler = vm.getCloudletScheduler();
-			double estimatedFinishTime = scheduler.cloudletSubmit(cl, fileTransferTime);
+			// the scheduler may have been replaced, or the VM placed without this datacenter
+			bindCompletionQueue(vm);
+			double estimatedFinishTime = vm.getCloudletScheduler().cloudletSubmit(cl, fileTransferTime);
 
 			// if this cloudlet is in the exec queue
 			if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime)) {
@@ -738,8 +842,9 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletResume(int cloudletId, int userId, int vmId, boolean ack) {
-		double eventTime = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
-				.getCloudletScheduler().cloudletResume(cloudletId);
+		HostEntity host = getVmAllocationPolicy().getHost(vmId, userId);
+		updateHostProcessing(host);
+		double eventTime = host.getGuest(vmId,userId).getCloudletScheduler().cloudletResume(cloudletId);
 
 		boolean status = false;
 		if (eventTime > 0.0) { // if this cloudlet is in the exec queue
@@ -771,8 +876,9 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletPause(int cloudletId, int userId, int vmId, boolean ack) {
-		boolean status = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
-				.getCloudletScheduler().cloudletPause(cloudletId);
+		HostEntity host = getVmAllocationPolicy().getHost(vmId, userId);
+		updateHostProcessing(host);
+		boolean status = host.getGuest(vmId,userId).getCloudletScheduler().cloudletPause(cloudletId);
 
 		if (ack) {
 			int[] data = new int[3];
@@ -794,8 +900,9 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletCancel(int cloudletId, int userId, int vmId) {
-		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
-				.getCloudletScheduler().cloudletCancel(cloudletId);
+		HostEntity host = getVmAllocationPolicy().getHost(vmId, userId);
+		updateHostProcessing(host);
+		Cloudlet cl = host.getGuest(vmId,userId).getCloudletScheduler().cloudletCancel(cloudletId);
 		sendNow(userId, CloudActionTags.CLOUDLET_CANCEL, cl);
 	}
 
@@ -803,6 +910,10 @@ public class Datacenter extends SimEntity {
 	 * Updates processing of each cloudlet running in this Datacenter. It is necessary because
 	 * Hosts and VirtualMachines are simple objects, not sim entities. So, they don't receive events and
 	 * updating cloudlets inside them must be called from the outside.
+	 * <p>
+	 * Unless {@link #isUpdateAllHosts()}, only the hosts which are due, as their next cloudlet
+	 * completion has come, and the hosts marked dirty by {@link #markHostDirty(HostEntity)} are
+	 * updated. The other hosts keep the completion time they predicted.
 	 * 
 	 * @pre $none
 	 * @post $none
@@ -812,15 +923,8 @@ public class Datacenter extends SimEntity {
 		// R: for term is to allow loop at simulation start. Otherwise, one initial
 		// simulation step is skipped and schedulers are not properly initialized
 		if (CloudSim.clock() < 0.111 || CloudSim.clock() >= getLastProcessTime() + CloudSim.getMinTimeBetweenEvents()) {
-			double smallerTime = Double.MAX_VALUE;
-			for (HostEntity host : getVmAllocationPolicy().getHostList()) {
-				// inform VMs to update processing
-				double time = host.updateCloudletsProcessing(CloudSim.clock());
-				// what time do we expect that the next cloudlet will finish?
-				if (time < smallerTime) {
-					smallerTime = time;
-				}
-			}
+			// what time do we expect that the next cloudlet will finish?
+			double smallerTime = isUpdateAllHosts() || !hostsTracked ? processAllHosts() : processDueHosts();
 			// gurantees a minimal interval before scheduling the event
 			if (smallerTime < CloudSim.clock() + CloudSim.getMinTimeBetweenEvents() + 0.01) {
 				smallerTime = CloudSim.clock() + CloudSim.getMinTimeBetweenEvents() + 0.01;
@@ -829,27 +933,154 @@ public class Datacenter extends SimEntity {
 				schedule(getId(), (smallerTime - CloudSim.clock()), CloudActionTags.VM_DATACENTER_EVENT);
 			}
 			setLastProcessTime(CloudSim.clock());
+		} else if (hostsTracked && !isUpdateAllHosts()) {
+			// the other hosts were just updated, but the dirty ones may not be up to date; they stay
+			// dirty, so that the next update predicts their completions again
+			for (HostEntity host : dirtyHosts) {
+				host.updateCloudletsProcessing(CloudSim.clock());
+				getVmAllocationPolicy().hostChanged(host);
+			}
+		}
+	}
+
+	/**
+	 * Brings the processing of the cloudlets of a host up to the current time before they change,
+	 * so that the time since its last update is charged at the shares its cloudlets had. The host
+	 * stays marked dirty, so that the next update predicts its completions again.
+	 *
+	 * @param host the host, ignored if <tt>null</tt>
+	 */
+	protected void updateHostProcessing(HostEntity host) {
+		if (host == null) {
+			return;
+		}
+		markHostDirty(host);
+		updateCloudletProcessing();
+		markHostDirty(host);
+	}
+
+	/**
+	 * Updates the processing of the cloudlets of all the hosts, and starts tracking the time each host
+	 * predicts for its next cloudlet completion unless {@link #isUpdateAllHosts()}.
+	 *
+	 * @return the earliest predicted completion, or {@link Double#MAX_VALUE} if there is none
+	 */
+	private double processAllHosts() {
+		if (!isUpdateAllHosts()) {
+			hostEventTimes.clear();
+			hostEvents.clear();
+			dirtyHosts.clear();
+			hostsTracked = true;
+		}
+
+		double smallerTime = Double.MAX_VALUE;
+		for (HostEntity host : getVmAllocationPolicy().getHostList()) {
+			// inform VMs to update processing
+			double time = host.updateCloudletsProcessing(CloudSim.clock());
+			getVmAllocationPolicy().hostChanged(host);
+			if (!isUpdateAllHosts()) {
+				setHostEventTime(host, time);
+			}
+			if (time < smallerTime) {
+				smallerTime = time;
+			}
+		}
+		return smallerTime;
+	}
+
+	/**
+	 * Updates the processing of the cloudlets of the hosts which are due or dirty.
+	 *
+	 * @return the earliest completion predicted by any host, or {@link Double#MAX_VALUE} if there is none
+	 */
+	private double processDueHosts() {
+		// the hosts whose completion comes before the next possible event are due
+		double dueTime = CloudSim.clock() + CloudSim.getMinTimeBetweenEvents();
+		while (!hostEvents.isEmpty() && hostEvents.peek().time() < dueTime) {
+			HostEvent event = hostEvents.poll();
+			if (!isStale(event)) {
+				dirtyHosts.add(event.host());
+			}
+		}
+
+		for (HostEntity host : dirtyHosts) {
+			setHostEventTime(host, host.updateCloudletsProcessing(CloudSim.clock()));
+			getVmAllocationPolicy().hostChanged(host);
+		}
+		dirtyHosts.clear();
+
+		while (!hostEvents.isEmpty() && isStale(hostEvents.peek())) {
+			hostEvents.poll();
+		}
+		// drop the stale events left by hosts updated before their completion
+		if (hostEvents.size() > 2 * hostEventTimes.size()) {
+			hostEvents.removeIf(this::isStale);
+		}
+		return hostEvents.isEmpty() ? Double.MAX_VALUE : hostEvents.peek().time();
+	}
+
+	/**
+	 * Records the time a host predicts for its next cloudlet completion.
+	 *
+	 * @param host the host
+	 * @param time the predicted time, or {@link Double#MAX_VALUE} if there is none
+	 */
+	private void setHostEventTime(HostEntity host, double time) {
+		hostEventTimes.put(host, time);
+		if (time < Double.MAX_VALUE) {
+			hostEvents.add(new HostEvent(time, host));
+		}
+	}
+
+	/**
+	 * Checks if a predicted completion was replaced by a later update of its host.
+	 *
+	 * @param event the predicted completion
+	 * @return true if the event is stale
+	 */
+	private boolean isStale(HostEvent event) {
+		Double time = hostEventTimes.get(event.host());
+		return time == null || time != event.time();
+	}
+
+	/**
+	 * Marks a host as changed, so that the next update of the cloudlet processing updates it even if it
+	 * is not due. It must be called whenever the cloudlets or the guests of a host change other than
+	 * by the update, as by the submission, cancellation, pause or resumption of a cloudlet, or the
+	 * creation, destruction or migration of a guest. When the host is a guest itself, its tracked
+	 * ancestors are marked too.
+	 *
+	 * @param host the host, ignored if <tt>null</tt>
+	 */
+	public void markHostDirty(HostEntity host) {
+		if (isUpdateAllHosts() || host == null) {
+			return;
+		}
+
+		boolean marked = false;
+		for (HostEntity h = host; h != null; h = h instanceof GuestEntity guest ? guest.getHost() : null) {
+			if (hostEventTimes.containsKey(h)) {
+				dirtyHosts.add(h);
+				marked = true;
+			}
+		}
+		// a host which is not tracked yet starts being tracked once updated
+		if (!marked) {
+			dirtyHosts.add(host);
 		}
 	}
 
 	/**
 	 * Verifies if some cloudlet inside this Datacenter already finished. 
-         * If yes, send it to the User/Broker
+         * If yes, send it to the User/Broker.
+	 * Only the schedulers bound to the {@link #getCompletionQueue() completion queue}, as those of
+	 * the guests placed in the datacenter, and which published a finished cloudlet are checked.
 	 * 
 	 * @pre $none
 	 * @post $none
 	 */
 	protected void checkCloudletCompletion() {
-		for (HostEntity host : getVmAllocationPolicy().getHostList()) {
-			for (GuestEntity vm : host.getGuestList()) {
-				while (vm.getCloudletScheduler().isFinishedCloudlets()) {
-					Cloudlet cl = vm.getCloudletScheduler().getNextFinishedCloudlet();
-					if (cl != null) {
-						sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
-					}
-				}
-			}
-		}
+		getCompletionQueue().drain(cl -> sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl));
 	}
 
 	/**
@@ -969,6 +1200,16 @@ public class Datacenter extends SimEntity {
 		registerOtherEntity();
 	}
 
+	/**
+	 * A datacenter only changes its own hosts and the guests and cloudlets it has received,
+	 * so it can process its events in parallel with other datacenters and brokers.
+	 * Subclasses may share other state, so they run alone unless they re-declare this method.
+	 */
+	@Override
+	protected boolean canRunInParallel() {
+		return getClass() == Datacenter.class;
+	}
+
 	/**
 	 * Gets the host list.
 	 * 
@@ -1032,6 +1273,20 @@ public class Datacenter extends SimEntity {
 		this.vmAllocationPolicy = vmAllocationPolicy;
 	}
 
+	/**
+	 * Replaces the vm allocation policy while the simulation is paused, for instance in a
+	 * simulation restored from a checkpoint to try another policy from the same state. The new
+	 * policy takes over the guests placed by the current one, and places the guests created or
+	 * migrated afterwards.
+	 *
+	 * @param vmAllocationPolicy the new vm allocation policy, created with the hosts of this datacenter
+	 * @see org.cloudbus.cloudsim.core.SimulationContext#restoreCheckpoint(java.nio.file.Path)
+	 */
+	public void replaceVmAllocationPolicy(VmAllocationPolicy vmAllocationPolicy) {
+		vmAllocationPolicy.getGuestTable().putAll(getVmAllocationPolicy().getGuestTable());
+		setVmAllocationPolicy(vmAllocationPolicy);
+	}
+
 	/**
 	 * Gets the last time some cloudlet was processed in the datacenter.
 	 * 
@@ -1105,4 +1360,71 @@ public class Datacenter extends SimEntity {
 		this.schedulingInterval = schedulingInterval;
 	}
 
+	/**
+	 * Gets the queue the schedulers of the guests of the datacenter publish to when a cloudlet
+	 * finishes. Subclasses placing guests themselves must bind their schedulers to it with
+	 * {@link #bindCompletionQueue(GuestEntity)}.
+	 *
+	 * @return the completion queue
+	 */
+	protected CloudletCompletionQueue getCompletionQueue() {
+		return completionQueue;
+	}
+
+	/**
+	 * Checks if each update of the cloudlet processing updates all the hosts, rather than only the
+	 * hosts which are due or dirty.
+	 *
+	 * @return true, if all the hosts are updated
+	 */
+	public boolean isUpdateAllHosts() {
+		return updateAllHosts;
+	}
+
+	/**
+	 * Sets whether each update of the cloudlet processing updates all the hosts. Subclasses whose
+	 * hosts change other than through {@link #markHostDirty(HostEntity)}, or which need all the
+	 * hosts at each update, such as to account for their power consumption, must set it.
+	 *
+	 * @param updateAllHosts true, to update all the hosts
+	 */
+	public void setUpdateAllHosts(boolean updateAllHosts) {
+		this.updateAllHosts = updateAllHosts;
+		hostsTracked = false;
+		hostEventTimes.clear();
+		hostEvents.clear();
+		dirtyHosts.clear();
+	}
+
+	/**
+	 * The acknowledgement of a {@link CloudActionTags#VM_CREATE_BATCH_ACK} request.
+	 *
+	 * @param datacenterId the id of the Datacenter
+	 * @param guests the VMs requested, in the order of the request
+	 * @param created the positions in <tt>guests</tt> of the VMs which were created
+	 */
+	public record GuestCreationAck(int datacenterId, List<? extends GuestEntity> guests, BitSet created)
+			implements Serializable {
+
+		@Serial
+		private static final long serialVersionUID = 1L;
+	}
+
+	/**
+	 * The time a host predicts for its next cloudlet completion.
+	 *
+	 * @param time the predicted time
+	 * @param host the host
+	 */
+	private record HostEvent(double time, HostEntity host) implements Comparable<HostEvent>, Serializable {
+
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public int compareTo(HostEvent other) {
+			return Double.compare(time, other.time);
+		}
+	}
+
 }
@@ -8,12 +8,15 @@
 
 package org.cloudbus.cloudsim;
 
+import java.io.Serial;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
+import org.cloudbus.cloudsim.Datacenter.GuestCreationAck;
 import org.cloudbus.cloudsim.core.*;
 import org.cloudbus.cloudsim.lists.CloudletList;
 import org.cloudbus.cloudsim.lists.VmList;
@@ -29,6 +32,9 @@ import org.cloudbus.cloudsim.lists.VmList;
  */
 public class DatacenterBroker extends SimEntity {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The list of VMs submitted to be managed by the broker. */
 	protected List<? extends GuestEntity> vmList;
 
@@ -76,6 +82,9 @@ public class DatacenterBroker extends SimEntity {
 	/** Next guest to which send the cloudlet */
 	private int guestIndex = 0;
 
+	/** Whether the VMs are requested to each datacenter in a single event. */
+	private boolean batchVmCreation;
+
 	/**
 	 * Created a new DatacenterBroker object.
 	 * 
@@ -161,6 +170,10 @@ public class DatacenterBroker extends SimEntity {
         } else if (tag == CloudActionTags.VM_CREATE_ACK) {
             processVmCreateAck(ev);
 
+            // VM batch creation answer
+        } else if (tag == CloudActionTags.VM_CREATE_BATCH_ACK) {
+            processVmCreateBatchAck(ev);
+
             // A finished cloudlet returned
         } else if (tag == CloudActionTags.CLOUDLET_RETURN) {
             processCloudletReturn(ev);
@@ -228,7 +241,37 @@ public class DatacenterBroker extends SimEntity {
 
 		GuestEntity guest = VmList.getById(getGuestList(), vmId);
 
-		if (result == CloudSimTags.TRUE) {
+		processVmCreateResult(datacenterId, guest, result == CloudSimTags.TRUE);
+		processVmCreateProgress();
+	}
+
+	/**
+	 * Process the single ack received due to a request for the creation of a list of VMs, as if
+	 * an ack was received for each VM in the order of the request.
+	 *
+	 * @param ev a SimEvent object, whose data is a {@link GuestCreationAck}
+	 */
+	protected void processVmCreateBatchAck(SimEvent ev) {
+		GuestCreationAck ack = (GuestCreationAck) ev.getData();
+		List<? extends GuestEntity> guests = ack.guests();
+		BitSet created = ack.created();
+
+		for (int i = 0; i < guests.size(); i++) {
+			processVmCreateResult(ack.datacenterId(), guests.get(i), created.get(i));
+		}
+		processVmCreateProgress();
+	}
+
+	/**
+	 * Records whether a VM could be created in a datacenter.
+	 *
+	 * @param datacenterId the id of the datacenter
+	 * @param guest the VM
+	 * @param created true, if the VM was created
+	 */
+	protected void processVmCreateResult(int datacenterId, GuestEntity guest, boolean created) {
+		int vmId = guest.getId();
+		if (created) {
 			getVmsToDatacentersMap().put(vmId, datacenterId);
 			getGuestsCreatedList().add(guest);
 			Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": ", guest.getClassName(), " #", vmId,
@@ -240,7 +283,13 @@ public class DatacenterBroker extends SimEntity {
 		}
 
 		incrementVmsAcks();
+	}
 
+	/**
+	 * Submits the cloudlets once all the VMs are created or all the datacenters were tried, or
+	 * requests the VMs not created yet to the next datacenter once all the acks are received.
+	 */
+	protected void processVmCreateProgress() {
 		// all the requested VMs have been created
 		if (getGuestsCreatedList().size() == getGuestList().size() - getVmsDestroyed()) {
 			submitCloudlets();
@@ -329,14 +378,22 @@ public class DatacenterBroker extends SimEntity {
 		// send as much vms as possible for this datacenter before trying the next one
 		int requestedVms = 0;
 		String datacenterName = CloudSim.getEntityName(datacenterId);
+		List<GuestEntity> batch = new ArrayList<>();
 		for (GuestEntity vm : getGuestList()) {
 			if (!getVmsToDatacentersMap().containsKey(vm.getId())) {
 				Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": Trying to Create ", vm.getClassName(),
 						" #", vm.getId(), " in ", datacenterName);
-				sendNow(datacenterId, CloudActionTags.VM_CREATE_ACK, vm);
+				if (isBatchVmCreation()) {
+					batch.add(vm);
+				} else {
+					sendNow(datacenterId, CloudActionTags.VM_CREATE_ACK, vm);
+				}
 				requestedVms++;
 			}
 		}
+		if (!batch.isEmpty()) {
+			sendNow(datacenterId, CloudActionTags.VM_CREATE_BATCH_ACK, batch);
+		}
 
 		getDatacenterRequestedIdsList().add(datacenterId);
 
@@ -424,6 +481,16 @@ public class DatacenterBroker extends SimEntity {
 		schedule(getId(), 0, CloudActionTags.RESOURCE_CHARACTERISTICS_REQUEST);
 	}
 
+	/**
+	 * A broker only changes its own lists, and the guests and cloudlets that are not in
+	 * a datacenter, so it can process its events in parallel with datacenters and other brokers.
+	 * Subclasses may share other state, so they run alone unless they re-declare this method.
+	 */
+	@Override
+	protected boolean canRunInParallel() {
+		return getClass() == DatacenterBroker.class;
+	}
+
 	/**
 	 * Gets the vm list.
 	 * 
@@ -573,6 +640,29 @@ public class DatacenterBroker extends SimEntity {
 		vmsAcks++;
 	}
 
+	/**
+	 * Checks if the VMs are requested to each datacenter in a single
+	 * {@link CloudActionTags#VM_CREATE_BATCH_ACK} event, rather than in one event per VM.
+	 *
+	 * @return true, if the VMs are requested in a single event
+	 */
+	public boolean isBatchVmCreation() {
+		return batchVmCreation;
+	}
+
+	/**
+	 * Sets whether the VMs are requested to each datacenter in a single event. The datacenter
+	 * then places them together with {@link VmAllocationPolicy#allocateHostsForGuests(List)} and
+	 * answers with a single ack. Subclasses overriding {@link #processVmCreateAck(SimEvent)}
+	 * should override {@link #processVmCreateResult(int, GuestEntity, boolean)} instead to
+	 * support it.
+	 *
+	 * @param batchVmCreation true, to request the VMs in a single event
+	 */
+	public void setBatchVmCreation(boolean batchVmCreation) {
+		this.batchVmCreation = batchVmCreation;
+	}
+
 	/**
 	 * Gets the vms destroyed.
 	 * 
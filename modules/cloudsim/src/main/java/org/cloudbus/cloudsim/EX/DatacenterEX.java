@@ -5,6 +5,7 @@ import org.cloudbus.cloudsim.core.*;
 import org.cloudbus.cloudsim.EX.delay.ConstantVmBootDelay;
 import org.cloudbus.cloudsim.EX.delay.IVmBootDelayDistribution;
 
+import java.io.Serial;
 import java.util.List;
 import java.util.Objects;
 
@@ -16,6 +17,10 @@ import java.util.Objects;
  * 
  */
 public class DatacenterEX extends Datacenter {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private IVmBootDelayDistribution delayDistribution = new ConstantVmBootDelay(0);
 
     public DatacenterEX(String name, DatacenterCharacteristics characteristics, VmAllocationPolicy vmAllocationPolicy,
@@ -70,8 +75,10 @@ public class DatacenterEX extends Datacenter {
 
             // May not be instantiated yet
 
-            vm.updateCloudletsProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(vm).getGuestScheduler()
-                    .getAllocatedMipsForGuest(vm));
+            HostEntity host = getVmAllocationPolicy().getHost(vm);
+            markHostDirty(host);
+            bindCompletionQueue(vm);
+            vm.updateCloudletsProcessing(CloudSim.clock(), host.getGuestScheduler().getAllocatedMipsForGuest(vm));
         }
 
     }
@@ -1,5 +1,7 @@
 package org.cloudbus.cloudsim.EX;
 
+import java.io.Serializable;
+
 /**
  * 
  * An autoscaling policy, which scales up/down the allocated cloud resources.
@@ -7,7 +9,7 @@ package org.cloudbus.cloudsim.EX;
  * @author nikolay.grozev
  * 
  */
-public interface IAutoscalingPolicy {
+public interface IAutoscalingPolicy extends Serializable {
 
     /**
      * Invoked periodically or upon an event in order to allocate/deallocate
@@ -8,6 +8,7 @@ import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.EX.util.CustomLog;
 import org.cloudbus.cloudsim.EX.vm.VmEX;
 
+import java.io.Serial;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
@@ -22,6 +23,9 @@ import java.util.Map;
  */
 public abstract class BaseCustomerVmBillingPolicy implements IVmBillingPolicy {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     protected final Map<Pair<String, String>, BigDecimal> prices;
 
     /**
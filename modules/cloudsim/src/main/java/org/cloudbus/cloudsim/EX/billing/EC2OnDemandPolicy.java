@@ -5,6 +5,7 @@ import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.EX.vm.VmStatus;
 import org.cloudbus.cloudsim.EX.vm.VmEX;
 
+import java.io.Serial;
 import java.math.BigDecimal;
 import java.util.Map;
 
@@ -19,6 +20,9 @@ import static org.cloudbus.cloudsim.Consts.HOUR;
  */
 public class EC2OnDemandPolicy extends BaseCustomerVmBillingPolicy {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     /**
      * Constr.
      * 
@@ -5,6 +5,7 @@ import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.EX.vm.VmStatus;
 import org.cloudbus.cloudsim.EX.vm.VmEX;
 
+import java.io.Serial;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Map;
@@ -20,6 +21,9 @@ import static org.cloudbus.cloudsim.Consts.MINUTE;
  */
 public class GoogleOnDemandPolicy extends BaseCustomerVmBillingPolicy {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     /**
      * Constr.
      * 
@@ -2,6 +2,8 @@ package org.cloudbus.cloudsim.EX.delay;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
 
+import java.io.Serial;
+
 /**
  * Defines the boot delay of a VM as a constant.
  * 
@@ -10,6 +12,9 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  */
 public class ConstantVmBootDelay implements IVmBootDelayDistribution {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private final double delay;
 
     /**
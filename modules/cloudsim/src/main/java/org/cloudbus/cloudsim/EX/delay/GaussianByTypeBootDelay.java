@@ -5,12 +5,11 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.EX.billing.BaseCustomerVmBillingPolicy;
 import org.cloudbus.cloudsim.EX.vm.VmEX;
-import org.uncommons.maths.number.NumberGenerator;
-import org.uncommons.maths.random.GaussianGenerator;
 import org.uncommons.maths.random.MersenneTwisterRNG;
 import org.uncommons.maths.random.SeedException;
 import org.uncommons.maths.random.SeedGenerator;
 
+import java.io.Serial;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
@@ -34,8 +33,12 @@ import java.util.Random;
  */
 public class GaussianByTypeBootDelay implements IVmBootDelayDistribution {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private final double defaultValue;
-    private final Map<Pair<String, String>, NumberGenerator<Double>> delayGenerators = new HashMap<>();
+    private final Map<Pair<String, String>, Pair<Double, Double>> delayDefs = new HashMap<>();
+    private final Random rng;
 
     /**
      * Constructor.
@@ -138,31 +141,30 @@ public class GaussianByTypeBootDelay implements IVmBootDelayDistribution {
 
         this.defaultValue = defaultVal;
 
-        for (Map.Entry<Pair<String, String>, Pair<Double, Double>> entry : delayDefs.entrySet()) {
-            this.delayGenerators.put(entry.getKey(), new GaussianGenerator(entry.getValue().getLeft(), entry.getValue()
-                    .getRight(), merseneGenerator));
-        }
+        this.rng = merseneGenerator;
+        this.delayDefs.putAll(delayDefs);
     }
 
     @Override
     public double getDelay(final GuestEntity guest) {
         double result = defaultValue;
         if (guest instanceof VmEX vmex) {
-            NumberGenerator<Double> gaussianGenerator = null;
+            Pair<Double, Double> delayDef = null;
             Pair<String, String> key = BaseCustomerVmBillingPolicy.keyOf(vmex);
             Pair<String, String> partialKey1 = ImmutablePair.of(vmex.getMetadata().getType(), null);
             Pair<String, String> partialKey2 = ImmutablePair.of(null, vmex.getMetadata().getOS());
 
-            if (delayGenerators.containsKey(key)) {
-                gaussianGenerator = delayGenerators.get(key);
-            } else if (delayGenerators.containsKey(partialKey1)) {
-                gaussianGenerator = delayGenerators.get(partialKey1);
-            } else if (delayGenerators.containsKey(partialKey2)) {
-                gaussianGenerator = delayGenerators.get(partialKey2);
+            if (delayDefs.containsKey(key)) {
+                delayDef = delayDefs.get(key);
+            } else if (delayDefs.containsKey(partialKey1)) {
+                delayDef = delayDefs.get(partialKey1);
+            } else if (delayDefs.containsKey(partialKey2)) {
+                delayDef = delayDefs.get(partialKey2);
             }
 
-            if (gaussianGenerator != null) {
-                result = gaussianGenerator.nextValue();
+            if (delayDef != null) {
+                // as org.uncommons.maths.random.GaussianGenerator does
+                result = rng.nextGaussian() * delayDef.getRight() + delayDef.getLeft();
             }
         }
         return result;
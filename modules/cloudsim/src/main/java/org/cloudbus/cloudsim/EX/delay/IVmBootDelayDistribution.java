@@ -2,13 +2,15 @@ package org.cloudbus.cloudsim.EX.delay;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
 
+import java.io.Serializable;
+
 /**
  * Defines how much boot delay should be there for a given VM.
  * 
  * @author nikolay.grozev
  * @author Remo Andreoli
  */
-public interface IVmBootDelayDistribution {
+public interface IVmBootDelayDistribution extends Serializable {
 
     /**
      * Returns how much is the booting time of the parameter VM.
@@ -2,6 +2,9 @@ package org.cloudbus.cloudsim.EX.disk;
 
 import org.cloudbus.cloudsim.EX.util.Id;
 
+import java.io.Serial;
+import java.io.Serializable;
+
 /**
  * A data item represents an entity stored on a hard disk, that can be accessed
  * by an applications. Examples of data items are files. Another example is a
@@ -10,7 +13,10 @@ import org.cloudbus.cloudsim.EX.util.Id;
  * @author nikolay.grozev
  * 
  */
-public class DataItem {
+public class DataItem implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
 
     /** The id. */
     private final int id = Id.pollId(DataItem.class);
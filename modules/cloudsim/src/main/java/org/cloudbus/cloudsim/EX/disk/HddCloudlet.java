@@ -6,6 +6,8 @@ import org.cloudbus.cloudsim.UtilizationModelFull;
 import org.cloudbus.cloudsim.EX.util.Id;
 import org.cloudbus.cloudsim.EX.util.TextUtil;
 
+import java.io.Serial;
+
 /**
  * A cloudlet that requires disk operations in addition to CPU ones. Besides
  * disk operations this cloudlet also defines RAM, which is constantly requred
@@ -16,6 +18,9 @@ import org.cloudbus.cloudsim.EX.util.TextUtil;
  */
 public class HddCloudlet extends Cloudlet {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private static final UtilizationModelFull UTIL_MODEL_FULL = new UtilizationModelFull();
 
     /** The length of Cloudlet finished so far. */
@@ -12,6 +12,7 @@ import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.EX.util.CustomLog;
 import org.cloudbus.cloudsim.lists.CloudletList;
 
+import java.io.Serial;
 import java.util.*;
 import java.util.logging.Level;
 
@@ -40,6 +41,9 @@ import java.util.logging.Level;
  */
 public class HddCloudletSchedulerTimeShared extends CloudletSchedulerTimeShared {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     /** The current IO mips share. */
     private List<Double> currentIOMipsShare;
 
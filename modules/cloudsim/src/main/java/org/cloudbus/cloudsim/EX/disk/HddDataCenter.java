@@ -8,6 +8,7 @@ import org.cloudbus.cloudsim.EX.DatacenterEX;
 import org.cloudbus.cloudsim.EX.delay.IVmBootDelayDistribution;
 import org.cloudbus.cloudsim.EX.util.CustomLog;
 
+import java.io.Serial;
 import java.util.List;
 import java.util.logging.Level;
 
@@ -22,6 +23,9 @@ import java.util.logging.Level;
  */
 public class HddDataCenter extends DatacenterEX {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     /**
      * Constr.
      * 
@@ -62,6 +66,7 @@ public class HddDataCenter extends DatacenterEX {
             HddHost host = (HddHost) getVmAllocationPolicy().getHost(vmId, userId);
             HddVm vm = (HddVm) host.getGuest(vmId, userId);
             HddCloudletSchedulerTimeShared scheduler = vm.getCloudletScheduler();
+            markHostDirty(host);
 
             if (!vm.isOutOfMemory()) {
                 List<HddCloudlet> cloudletExecList = scheduler.getCloudletExecList();
@@ -1,12 +1,14 @@
 package org.cloudbus.cloudsim.EX.disk;
 
 import org.cloudbus.cloudsim.CloudletScheduler;
+import org.cloudbus.cloudsim.MipsShare;
 import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.EX.VmSchedulerMapVmsToPes;
 import org.cloudbus.cloudsim.EX.vm.MonitoredVmEX;
 import org.cloudbus.cloudsim.EX.vm.VMMetadata;
 import org.cloudbus.cloudsim.EX.vm.VmStatus;
 
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
@@ -22,6 +24,9 @@ import java.util.List;
  */
 public class HddVm extends MonitoredVmEX {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     /** The IO MIPS. */
     private double ioMips;
     private final LinkedHashSet<Integer> hdds = new LinkedHashSet<>();
@@ -219,6 +224,15 @@ public class HddVm extends MonitoredVmEX {
         }
     }
 
+    @Override
+    public MipsShare getCurrentRequestedMipsShare() {
+        if (getHost().getGuestScheduler() instanceof VmSchedulerMapVmsToPes<?>) {
+            return MipsShare.of(getCurrentRequestedMips());
+        } else {
+            return super.getCurrentRequestedMipsShare();
+        }
+    }
+
     /**
      * Returns a mapping between hdd ids and required miops.
      * 
@@ -6,6 +6,7 @@ import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.EX.VmSchedulerWithIndependentPes;
 
+import java.io.Serial;
 import java.util.List;
 
 /**
@@ -17,6 +18,9 @@ import java.util.List;
  */
 public class VmDiskScheduler extends VmSchedulerWithIndependentPes<HddPe> {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     public VmDiskScheduler(final List<HddPe> pelist) {
         super(pelist);
     }
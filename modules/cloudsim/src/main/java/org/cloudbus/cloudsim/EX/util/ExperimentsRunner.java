@@ -13,11 +13,14 @@ import java.util.concurrent.Future;
 
 /**
  * 
- * A utility that runs a set of experiments in different JVM processes. Since
- * CloudSim makes heavy use of static data, experiments can not be run in
- * multiple threads within the same JVM. With this utility class one can spawn
- * multiple independent JVM process, redirect their standard outputs to a single
- * place and synchronize with their ends.
+ * A utility that runs a set of experiments in different JVM processes. Although
+ * the simulations of different
+ * {@link org.cloudbus.cloudsim.core.SimulationContext}s can run in multiple
+ * threads within the same JVM, the {@link CustomLog} is shared by the whole
+ * process, so experiments that log into different files still need processes
+ * of their own. With this utility class one can spawn multiple independent JVM
+ * process, redirect their standard outputs to a single place and synchronize
+ * with their ends.
  * 
  * <br>
  * <br>
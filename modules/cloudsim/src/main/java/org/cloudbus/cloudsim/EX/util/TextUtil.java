@@ -11,6 +11,7 @@ import java.text.DateFormat;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 
@@ -44,7 +45,7 @@ public class TextUtil {
 
     private static final String STANDARD_GET_REGEX = "get.+";
     private static final String BOOLGET_REGEX = "is.+";
-    private static final Map<Class<?>, List<Method>> GET_METHODS = new HashMap<>();
+    private static final Map<Class<?>, List<Method>> GET_METHODS = new ConcurrentHashMap<>();
 
     /**
      * Converts the specified class to a single line of text. Convenient for
@@ -4,6 +4,8 @@ import org.apache.commons.lang3.mutable.MutableDouble;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.cloudbus.cloudsim.CloudletScheduler;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -21,6 +23,9 @@ import java.util.List;
  */
 public class MonitoredVmEX extends VmEX {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private final double summaryPeriodLength;
 
     private final MonitoredData data = new MonitoredData();
@@ -201,7 +206,10 @@ public class MonitoredVmEX extends VmEX {
      * @author nikolay.grozev
      * 
      */
-    public static class MonitoredData {
+    public static class MonitoredData implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
 
         private static final int MAX_POOL_SIZE = 500;
 
@@ -1,5 +1,7 @@
 package org.cloudbus.cloudsim.EX.vm;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.lang.reflect.Field;
 
 /**
@@ -8,7 +10,10 @@ import java.lang.reflect.Field;
  * @author nikolay.grozev
  * 
  */
-public class VMMetadata implements Cloneable {
+public class VMMetadata implements Cloneable, Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
 
     private String type;
     private String os;
@@ -8,6 +8,9 @@
 
 package org.cloudbus.cloudsim;
 
+import java.io.Serial;
+import java.io.Serializable;
+
 /**
  * A class for representing a physical file in a DataCloud environment
  * 
@@ -15,7 +18,10 @@ package org.cloudbus.cloudsim;
  * @author Anthony Sulistio
  * @since CloudSim Toolkit 1.0
  */
-public class File {
+public class File implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
 
         /**
          * Logical file name.
@@ -7,6 +7,7 @@
 
 package org.cloudbus.cloudsim;
 
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -29,6 +30,9 @@ import org.cloudbus.cloudsim.provisioners.RamProvisioner;
  */
 public class Host implements HostEntity {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The id of the host. */
 	private int id;
 
@@ -107,7 +111,7 @@ public class Host implements HostEntity {
 
 		for (GuestEntity vm : getGuestList()) {
 			double time = vm.updateCloudletsProcessing(
-                                currentTime, getGuestScheduler().getAllocatedMipsForGuest(vm));
+                                currentTime, getGuestScheduler().getAllocatedMipsShareForGuest(vm));
 			if (time > 0.0 && time < smallerTime) {
 				smallerTime = time;
 			}
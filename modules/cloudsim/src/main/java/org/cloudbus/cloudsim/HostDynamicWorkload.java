@@ -8,6 +8,10 @@
 
 package org.cloudbus.cloudsim;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,6 +20,7 @@ import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
+import org.cloudbus.cloudsim.util.HistorySerializer;
 
 /**
  * A host supporting dynamic workloads and performance degradation.
@@ -26,6 +31,9 @@ import org.cloudbus.cloudsim.provisioners.RamProvisioner;
  */
 public class HostDynamicWorkload extends Host {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The utilization mips. */
 	private double utilizationMips;
 
@@ -33,7 +41,7 @@ public class HostDynamicWorkload extends Host {
 	private double previousUtilizationMips;
 
 	/** The host utilization state history. */
-	private final List<HostStateHistoryEntry> stateHistory = new ArrayList<>();
+	private transient List<HostStateHistoryEntry> stateHistory = new ArrayList<>();
 
 	/**
 	 * Instantiates a new host.
@@ -64,13 +72,7 @@ public class HostDynamicWorkload extends Host {
 		setUtilizationMips(0);
 		double hostTotalRequestedMips = 0;
 
-		for (GuestEntity vm : getGuestList()) {
-			getGuestScheduler().deallocatePesForGuest(vm);
-		}
-
-		for (GuestEntity vm : getGuestList()) {
-			getGuestScheduler().allocatePesForGuest(vm, vm.getCurrentRequestedMips());
-		}
+		getGuestScheduler().reallocateAll(getGuestList());
 
 		for (GuestEntity vm : getGuestList()) {
 			double totalRequestedMips = vm.getCurrentRequestedTotalMips();
@@ -290,4 +292,22 @@ public class HostDynamicWorkload extends Host {
 		getStateHistory().add(newState);
 	}
 
+	/**
+	 * Writes the histories as primitive values, see {@link HistorySerializer}.
+	 */
+	@Serial
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		HistorySerializer.writeHostStates(out, stateHistory);
+	}
+
+	/**
+	 * Reads the histories written by {@link #writeObject(ObjectOutputStream)}.
+	 */
+	@Serial
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		stateHistory = HistorySerializer.readHostStates(in);
+	}
+
 }
@@ -16,6 +16,7 @@
 
 package org.cloudbus.cloudsim;
 
+import java.io.Serial;
 import java.text.DecimalFormat;
 import java.util.Vector;
 
@@ -40,6 +41,9 @@ import org.cloudbus.cloudsim.core.CloudSimTags;
  */
 public class InfoPacket implements Packet {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The packet name. */
 	private final String name;
 
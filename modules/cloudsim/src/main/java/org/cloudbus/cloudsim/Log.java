@@ -11,9 +11,13 @@ package org.cloudbus.cloudsim;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import org.cloudbus.cloudsim.core.SimulationContext;
+
 /**
  * Logger used for performing logging of the simulation process. It provides the ability to
- * substitute the output stream by any OutputStream subclass.
+ * substitute the output stream by any OutputStream subclass. The messages of each
+ * {@link SimulationContext} can also be written to a stream of their own, with
+ * {@link SimulationContext#setLogOutput(OutputStream)}.
  * 
  * @author Anton Beloglazov
  * @author Remo Andreoli
@@ -31,8 +35,17 @@ public class Log {
          the call for any print method has no effect. */
 	private static boolean disabled;
 	
-	/** Buffer to avoid creating new string builder upon every print. */
-	private static final StringBuilder buffer = new StringBuilder();
+	/** Buffer to avoid creating new string builder upon every print, one per thread. */
+	private static final ThreadLocal<StringBuilder> buffer = ThreadLocal.withInitial(StringBuilder::new);
+
+	/** The stream where the messages of each thread are redirected, if any. */
+	private static final ThreadLocal<OutputStream> redirected = new ThreadLocal<>();
+
+	/**
+	 * Whether the output of a message may depend on the thread or the context logging it. Until
+	 * then, the messages are written to {@link #getOutput()} without looking up their output.
+	 */
+	private static volatile boolean routed;
 
 	/**
 	 * Prints a message.
@@ -42,7 +55,15 @@ public class Log {
 	public static void print(String message) {
 		if (!isDisabled()) {
 			try {
-				getOutput().write(message.getBytes());
+				if (!routed) {
+					getOutput().write(message.getBytes());
+					return;
+				}
+				OutputStream contextOutput = redirected.get();
+				if (contextOutput == null) {
+					contextOutput = SimulationContext.current().getLogOutput();
+				}
+				(contextOutput == null ? getOutput() : contextOutput).write(message.getBytes());
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
@@ -94,6 +115,7 @@ public class Log {
 	 */
 	public static void printConcat(Object... messages) {
 		if (!isDisabled()) {
+			StringBuilder buffer = Log.buffer.get();
 			buffer.setLength(0); // Clear the buffer		    
             for (Object message : messages) {
                 buffer.append(message);
@@ -109,6 +131,7 @@ public class Log {
 	 */
 	public static void printlnConcat(Object... messages) {
 		if (!isDisabled()) {
+			StringBuilder buffer = Log.buffer.get();
 			buffer.setLength(0); // Clear the buffer		    
             for (Object message : messages) {
                 buffer.append(message);
@@ -170,7 +193,7 @@ public class Log {
 	}
 
 	/**
-	 * Gets the output stream.
+	 * Gets the output stream, used by the contexts that do not have an output of their own.
 	 * 
 	 * @return the output
 	 */
@@ -181,6 +204,36 @@ public class Log {
 		return output;
 	}
 
+	/**
+	 * Redirects the messages logged by the calling thread to a stream, whatever the output of its
+	 * {@link SimulationContext}. It is used to keep apart the messages of tasks run in parallel,
+	 * which are then written in order by the thread which started them.
+	 * 
+	 * @param _output the stream, or <tt>null</tt> to stop redirecting the messages
+	 * @return the stream the messages were redirected to before, or <tt>null</tt>
+	 */
+	public static OutputStream redirect(OutputStream _output) {
+		OutputStream previous = redirected.get();
+		if (_output == null) {
+			redirected.remove();
+		} else {
+			enableRouting();
+			redirected.set(_output);
+		}
+		return previous;
+	}
+
+	/**
+	 * Makes each message look up its output, from then on: the stream its thread is
+	 * {@link #redirect(OutputStream) redirected} to, or else the
+	 * {@link SimulationContext#getLogOutput() output of its context}. It is called by the
+	 * {@link SimulationContext contexts} given a log output or running entities in parallel;
+	 * before, all the messages go to {@link #getOutput()}.
+	 */
+	public static void enableRouting() {
+		routed = true;
+	}
+
 	/**
 	 * Sets the disable output flag.
 	 * 
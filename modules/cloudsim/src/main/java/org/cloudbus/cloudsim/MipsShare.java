@@ -0,0 +1,236 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The MIPS of each virtual PE of a guest, kept in a <tt>double</tt> array. A MIPS share cannot be
+ * modified; it is a list of MIPS for the code which reads the MIPS as boxed doubles, while
+ * {@link #getMips(int)} and {@link #getTotalMips()} read them without boxing.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public final class MipsShare extends AbstractList<Double> implements RandomAccess, Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** The MIPS share with no virtual PE. */
+	public static final MipsShare EMPTY = new MipsShare(new double[0]);
+
+	/** The MIPS of each virtual PE. */
+	private final double[] mips;
+
+	private MipsShare(double[] mips) {
+		this.mips = mips;
+	}
+
+	/**
+	 * Creates a MIPS share from the MIPS of each virtual PE.
+	 *
+	 * @param mips the MIPS of each virtual PE, which are copied
+	 * @return the MIPS share
+	 */
+	public static MipsShare of(double... mips) {
+		return mips.length == 0 ? EMPTY : new MipsShare(mips.clone());
+	}
+
+	/**
+	 * Creates a MIPS share from a list of MIPS.
+	 *
+	 * @param mips the MIPS of each virtual PE
+	 * @return the MIPS share, which is the list itself if it is a MIPS share
+	 */
+	public static MipsShare of(List<Double> mips) {
+		if (mips instanceof MipsShare share) {
+			return share;
+		}
+		double[] array = new double[mips.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = mips.get(i);
+		}
+		return wrap(array);
+	}
+
+	/**
+	 * Creates a MIPS share from an array which is never modified afterwards, without copying it.
+	 *
+	 * @param mips the MIPS of each virtual PE
+	 * @return the MIPS share
+	 */
+	public static MipsShare wrap(double[] mips) {
+		return mips.length == 0 ? EMPTY : new MipsShare(mips);
+	}
+
+	/**
+	 * Creates a MIPS share whose virtual PEs have the same MIPS.
+	 *
+	 * @param pes the number of virtual PEs
+	 * @param mips the MIPS of each virtual PE
+	 * @return the MIPS share
+	 */
+	public static MipsShare uniform(int pes, double mips) {
+		double[] array = new double[pes];
+		Arrays.fill(array, mips);
+		return wrap(array);
+	}
+
+	/**
+	 * Gets a MIPS share with the first MIPS of an array, reusing a previous MIPS share when it has
+	 * the same MIPS. A guest computing its MIPS share into the same array at every update then
+	 * only creates a MIPS share when its MIPS change.
+	 *
+	 * @param mips the array with the MIPS of each virtual PE, which is copied
+	 * @param length the number of virtual PEs
+	 * @param reusable the previous MIPS share, or <tt>null</tt>
+	 * @return the MIPS share, which is <tt>reusable</tt> if it has the same MIPS
+	 */
+	public static MipsShare copyOf(double[] mips, int length, MipsShare reusable) {
+		if (reusable != null && Arrays.equals(reusable.mips, 0, reusable.mips.length, mips, 0, length)) {
+			return reusable;
+		}
+		return length == 0 ? EMPTY : new MipsShare(Arrays.copyOf(mips, length));
+	}
+
+	/**
+	 * Checks if all the virtual PEs have the given MIPS.
+	 *
+	 * @param pes the number of virtual PEs
+	 * @param mips the MIPS of each virtual PE
+	 * @return true, if the share has <tt>pes</tt> virtual PEs of <tt>mips</tt> MIPS
+	 */
+	public boolean isUniform(int pes, double mips) {
+		if (this.mips.length != pes) {
+			return false;
+		}
+		for (double m : this.mips) {
+			if (Double.compare(m, mips) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the MIPS of a virtual PE.
+	 *
+	 * @param pe the index of the virtual PE
+	 * @return the MIPS
+	 */
+	public double getMips(int pe) {
+		return mips[pe];
+	}
+
+	/**
+	 * Gets the sum of the MIPS of the virtual PEs.
+	 *
+	 * @return the total MIPS
+	 */
+	public double getTotalMips() {
+		double total = 0;
+		for (double m : mips) {
+			total += m;
+		}
+		return total;
+	}
+
+	/**
+	 * Gets the highest MIPS among the virtual PEs.
+	 *
+	 * @return the maximum MIPS, or 0 if the share has no virtual PE
+	 */
+	public double getMaxMips() {
+		double max = 0;
+		for (double m : mips) {
+			if (m > max) {
+				max = m;
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Gets the MIPS share without the virtual PEs which have no MIPS.
+	 *
+	 * @return the MIPS share itself if all its virtual PEs have MIPS, or a new MIPS share
+	 */
+	public MipsShare withoutIdlePes() {
+		int idle = 0;
+		for (double m : mips) {
+			if (m <= 0) {
+				idle++;
+			}
+		}
+		if (idle == 0) {
+			return this;
+		}
+		double[] array = new double[mips.length - idle];
+		int n = 0;
+		for (double m : mips) {
+			if (!(m <= 0)) {
+				array[n++] = m;
+			}
+		}
+		return wrap(array);
+	}
+
+	/**
+	 * Copies the MIPS to an array, growing it when it is too short.
+	 *
+	 * @param array the array
+	 * @param offset the position of the first virtual PE in the array
+	 * @return the array, or a longer copy of it
+	 */
+	public double[] copyTo(double[] array, int offset) {
+		if (array.length < offset + mips.length) {
+			array = Arrays.copyOf(array, Math.max(2 * array.length, offset + mips.length));
+		}
+		System.arraycopy(mips, 0, array, offset, mips.length);
+		return array;
+	}
+
+	/**
+	 * Gets the MIPS of the virtual PEs.
+	 *
+	 * @return a new array with the MIPS
+	 */
+	public double[] toDoubleArray() {
+		return mips.clone();
+	}
+
+	@Override
+	public Double get(int index) {
+		return mips[index];
+	}
+
+	@Override
+	public int size() {
+		return mips.length;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o instanceof MipsShare other) {
+			return Arrays.equals(mips, other.mips);
+		}
+		return super.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+}
@@ -9,10 +9,14 @@
 package org.cloudbus.cloudsim;
 
 import java.io.IOException;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
+import org.cloudbus.cloudsim.core.SimulationContext;
 import org.cloudbus.cloudsim.network.DelayMatrix_Float;
 import org.cloudbus.cloudsim.network.GraphReaderBrite;
 import org.cloudbus.cloudsim.network.TopologicalGraph;
@@ -30,44 +34,57 @@ import org.cloudbus.cloudsim.network.TopologicalNode;
  * Nevertheless, each CloudSim entity must be mapped to one (and only one) BRITE node to allow
  * proper work of the network simulation. Each BRITE node can be mapped to only one entity at a
  * time.
+ * <p/>
+ * Each {@link SimulationContext} has its own network topology, which the static methods of this
+ * class read and update for the context of the calling thread.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 1.0
- * 
- * //TODO The class only have static methods, that indicates it doesn't have to be instantiated.
- * In fact, it doesn't appear it is being instantiated anywhere.
- * A private default constructor would be created to avoid instantiation.
+ * @see SimulationContext#getNetworkTopology()
  */
-public class NetworkTopology {
+public class NetworkTopology implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
         /**
          * The BRITE id to use for the next node to be created in the network.
          */
-	protected static int nextIdx = 0;
+	protected int nextIdx = 0;
 
-	private static boolean networkEnabled = false;
+	private boolean networkEnabled = false;
 
         /**
          * A matrix containing the delay between every pair of nodes in the network.
          */
-	protected static DelayMatrix_Float delayMatrix = null;
+	protected DelayMatrix_Float delayMatrix = null;
 
         /**
          * A matrix containing the bandwidth between every pair of nodes in the network.
          */
-	protected static double[][] bwMatrix = null;
+	protected double[][] bwMatrix = null;
 
         /**
          * The Topological Graph of the network.
          */
-	protected static TopologicalGraph graph = null;
+	protected TopologicalGraph graph = null;
 
 	/**
          * The map between CloudSim entities and BRITE entities.
          * Each key is a CloudSim entity ID and each value the corresponding
          * BRITE entity ID.
          */
-        protected static Map<Integer, Integer> map = null;
+        protected Map<Integer, Integer> map = null;
+
+	/**
+	 * Gets the network topology of the context of the calling thread.
+	 *
+	 * @return the network topology
+	 */
+	private static NetworkTopology current() {
+		return SimulationContext.current().getNetworkTopology();
+	}
 
 	/**
 	 * Creates the network topology if the file exists and can be successfully parsed. File is
@@ -78,15 +95,16 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void buildNetworkTopology(String fileName) {
+		NetworkTopology topology = current();
 		Log.printlnConcat("Topology file: ", fileName);
 
 		// try to find the file
 		GraphReaderBrite reader = new GraphReaderBrite();
 
 		try {
-			graph = reader.readGraphFile(fileName);
-			map = new HashMap<>();
-			generateMatrices();
+			topology.graph = reader.readGraphFile(fileName);
+			topology.map = new HashMap<>();
+			generateMatrices(topology);
 		} catch (IOException e) {
 			// problem with the file. Does not simulate network
 			Log.printlnConcat("Problem in processing BRITE file. Network simulation is disabled. Error: ",
@@ -98,14 +116,14 @@ public class NetworkTopology {
 	/**
 	 * Generates the matrices used internally to set latency and bandwidth between elements.
 	 */
-	private static void generateMatrices() {
+	private static void generateMatrices(NetworkTopology topology) {
 		// creates the delay matrix
-		delayMatrix = new DelayMatrix_Float(graph, false);
+		topology.delayMatrix = new DelayMatrix_Float(topology.graph, false);
 
 		// creates the bw matrix
-		bwMatrix = createBwMatrix(graph, false);
+		topology.bwMatrix = createBwMatrix(topology.graph, false);
 
-		networkEnabled = true;
+		topology.networkEnabled = true;
 	}
 
 	/**
@@ -122,32 +140,33 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void addLink(int srcId, int destId, double bw, double lat) {
+		NetworkTopology topology = current();
 
-		if (graph == null) {
-			graph = new TopologicalGraph();
+		if (topology.graph == null) {
+			topology.graph = new TopologicalGraph();
 		}
 
-		if (map == null) {
-			map = new HashMap<>();
+		if (topology.map == null) {
+			topology.map = new HashMap<>();
 		}
 
 		// maybe add the nodes
-		if (!map.containsKey(srcId)) {
-			graph.addNode(new TopologicalNode(nextIdx));
-			map.put(srcId, nextIdx);
-			nextIdx++;
+		if (!topology.map.containsKey(srcId)) {
+			topology.graph.addNode(new TopologicalNode(topology.nextIdx));
+			topology.map.put(srcId, topology.nextIdx);
+			topology.nextIdx++;
 		}
 
-		if (!map.containsKey(destId)) {
-			graph.addNode(new TopologicalNode(nextIdx));
-			map.put(destId, nextIdx);
-			nextIdx++;
+		if (!topology.map.containsKey(destId)) {
+			topology.graph.addNode(new TopologicalNode(topology.nextIdx));
+			topology.map.put(destId, topology.nextIdx);
+			topology.nextIdx++;
 		}
 
 		// generate a new link
-		graph.addLink(new TopologicalLink(map.get(srcId), map.get(destId), (float) lat, (float) bw));
+		topology.graph.addLink(new TopologicalLink(topology.map.get(srcId), topology.map.get(destId), (float) lat, (float) bw));
 
-		generateMatrices();
+		generateMatrices(topology);
 
 	}
 
@@ -194,12 +213,13 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void mapNode(int cloudSimEntityID, int briteID) {
-		if (networkEnabled) {
+		NetworkTopology topology = current();
+		if (topology.networkEnabled) {
 			try {
 				// this CloudSim entity was already mapped?
-				if (!map.containsKey(cloudSimEntityID)) {
-					if (!map.containsValue(briteID)) { // this BRITE node was already mapped?
-						map.put(cloudSimEntityID, briteID);
+				if (!topology.map.containsKey(cloudSimEntityID)) {
+					if (!topology.map.containsValue(briteID)) { // this BRITE node was already mapped?
+						topology.map.put(cloudSimEntityID, briteID);
 					} else {
 						Log.printlnConcat("Error in network mapping. BRITE node ", briteID, " already in use.");
 					}
@@ -222,9 +242,10 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void unmapNode(int cloudSimEntityID) {
-		if (networkEnabled) {
+		NetworkTopology topology = current();
+		if (topology.networkEnabled) {
 			try {
-				map.remove(cloudSimEntityID);
+				topology.map.remove(cloudSimEntityID);
 			} catch (Exception e) {
 				Log.printlnConcat("Error in network unmapping. CloudSim node: ", cloudSimEntityID);
 			}
@@ -242,10 +263,11 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static double getDelay(int srcID, int destID) {
-		if (networkEnabled) {
+		NetworkTopology topology = current();
+		if (topology.networkEnabled) {
 			try {
 				// add the network latency
-				double delay = delayMatrix.getDelay(map.get(srcID), map.get(destID));
+				double delay = topology.delayMatrix.getDelay(topology.map.get(srcID), topology.map.get(destID));
 
 				return delay;
 			} catch (Exception e) {
@@ -255,6 +277,40 @@ public class NetworkTopology {
 		return 0.0;
 	}
 
+	/**
+	 * Calculates the smallest delay of the messages sent from a group of entities to another one.
+	 * Since no such message can arrive earlier than this delay, it is the lookahead that can be
+	 * used to synchronise conservatively two simulations exchanging messages between the groups.
+	 * 
+	 * @param srcIDs IDs of the CloudSim entities that send the messages
+	 * @param destIDs IDs of the CloudSim entities that receive the messages
+	 * @return the smallest delay between an entity of each group, 0 if some entity is not mapped
+	 *         to a BRITE node or if the network simulation is disabled
+	 * @see #getDelay(int, int)
+	 */
+	public static double getMinDelay(Collection<Integer> srcIDs, Collection<Integer> destIDs) {
+		NetworkTopology topology = current();
+		if (!topology.networkEnabled) {
+			return 0.0;
+		}
+
+		double minDelay = Double.MAX_VALUE;
+		for (int srcID : srcIDs) {
+			for (int destID : destIDs) {
+				if (srcID == destID) { // messages to the same entity are not delayed
+					return 0.0;
+				}
+				Integer srcNode = topology.map.get(srcID);
+				Integer destNode = topology.map.get(destID);
+				if (srcNode == null || destNode == null) {
+					return 0.0;
+				}
+				minDelay = Math.min(minDelay, topology.delayMatrix.getDelay(srcNode, destNode));
+			}
+		}
+		return minDelay == Double.MAX_VALUE ? 0.0 : minDelay;
+	}
+
 	/**
 	 * Checks if the network simulation is working. If there were some problem during
 	 * creation of network (e.g., during parsing of BRITE file) that does not allow a proper
@@ -265,7 +321,7 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static boolean isNetworkEnabled() {
-		return networkEnabled;
+		return current().networkEnabled;
 	}
 
 }
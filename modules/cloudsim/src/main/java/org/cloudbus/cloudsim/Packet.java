@@ -14,6 +14,8 @@
 
 package org.cloudbus.cloudsim;
 
+import java.io.Serializable;
+
 import org.cloudbus.cloudsim.core.CloudSimTags;
 
 /**
@@ -23,7 +25,7 @@ import org.cloudbus.cloudsim.core.CloudSimTags;
  * @author Chen-Khong Tham, National University of Singapore
  * @since CloudSim Toolkit 1.0
  */
-public interface Packet {
+public interface Packet extends Serializable {
 
 	/**
 	 * Returns a string describing this packet in detail.
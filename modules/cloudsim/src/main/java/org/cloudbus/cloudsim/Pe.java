@@ -8,6 +8,9 @@
 
 package org.cloudbus.cloudsim;
 
+import java.io.Serial;
+import java.io.Serializable;
+
 import org.cloudbus.cloudsim.provisioners.PeProvisioner;
 
 /**
@@ -21,7 +24,10 @@ import org.cloudbus.cloudsim.provisioners.PeProvisioner;
  * //TODO Pe statuses have to be defined using an enum
  * @since CloudSim Toolkit 1.0
  */
-public class Pe {
+public class Pe implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
 
     /**
      * Denotes Pe is FREE for allocation.
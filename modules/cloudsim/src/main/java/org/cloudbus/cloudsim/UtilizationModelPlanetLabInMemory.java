@@ -3,6 +3,7 @@ package org.cloudbus.cloudsim;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Serial;
 
 /**
  * Defines the resource utilization model based on 
@@ -11,6 +12,9 @@ import java.io.IOException;
  */
 public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 	
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The scheduling interval. */
 	private double schedulingInterval;
 
@@ -9,11 +9,17 @@ package org.cloudbus.cloudsim;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.core.SimulationContext;
 import org.cloudbus.cloudsim.core.VirtualEntity;
 import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
+import org.cloudbus.cloudsim.util.HistorySerializer;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -30,6 +36,9 @@ import java.util.List;
  */
 public class Vm implements VirtualEntity {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The VM unique id. */
 	private final int id;
 
@@ -39,6 +48,9 @@ public class Vm implements VirtualEntity {
 	/** A Unique Identifier (UID) for the VM, that is compounded by the user id and VM id. */
 	private String uid;
 
+	/** The index of the VM, assigned when it is created. */
+	private final int index;
+
 	/** The size the VM image size (the amount of storage it will use, at least initially). */
 	private long size;
 
@@ -92,6 +104,13 @@ public class Vm implements VirtualEntity {
 	/** Indicates if the VM is being instantiated. */
 	private boolean beingInstantiated;
 
+	/** The last current requested MIPS share of the VM.
+	 * @see #getCurrentRequestedMipsShare() */
+	private MipsShare requestedMipsShare;
+
+	/** The array where the current requested MIPS of the VM and its nested guests are gathered. */
+	private double[] requestedMipsBuffer = new double[0];
+
 	/** The ram provisioner for (nested) guest entities. */
 	private RamProvisioner guestRamProvisioner;
 
@@ -118,7 +137,7 @@ public class Vm implements VirtualEntity {
 	 * time, he/she doesn't have to iterate over the entire list
 	 * to find the desired entry.
 	 */
-	private final List<VmStateHistoryEntry> stateHistory = new ArrayList<>();
+	private transient List<VmStateHistoryEntry> stateHistory = new ArrayList<>();
 
 	/**
 	 * Creates a new Vm object.
@@ -156,6 +175,7 @@ public class Vm implements VirtualEntity {
 		this.id = id;
 		setUserId(userId);
 		setUid(GuestEntity.getUid(userId, id));
+		index = SimulationContext.current().nextGuestIndex();
 		setMips(mips);
 		setNumberOfPes(numberOfPes);
 		setRam(ram);
@@ -247,7 +267,7 @@ public class Vm implements VirtualEntity {
 
 			// Cloudlets hosted in nested guests (if any)
 			for (GuestEntity guest : getGuestList()) {
-				double time2 = guest.updateCloudletsProcessing(currentTime, getGuestScheduler().getAllocatedMipsForGuest(guest));
+				double time2 = guest.updateCloudletsProcessing(currentTime, getGuestScheduler().getAllocatedMipsShareForGuest(guest));
 				if (time2 < smallerTime) {
 					smallerTime = time2;
 				}
@@ -267,7 +287,7 @@ public class Vm implements VirtualEntity {
 		double smallerTime = Double.MAX_VALUE;
 
 		for (GuestEntity guest : getGuestList()) {
-			double time = guest.updateCloudletsProcessing(currentTime, getGuestScheduler().getAllocatedMipsForGuest(guest));
+			double time = guest.updateCloudletsProcessing(currentTime, getGuestScheduler().getAllocatedMipsShareForGuest(guest));
 			if (time > 0.0 && time < smallerTime) {
 				smallerTime = time;
 			}
@@ -311,6 +331,38 @@ public class Vm implements VirtualEntity {
 		return currentRequestedMips;
 	}
 
+	/**
+	 * Gets the current requested mips as a MIPS share. The MIPS share is kept while the requested
+	 * mips do not change, so the VM only creates one when they change.
+	 *
+	 * @return the current requested mips
+	 */
+	@Override
+	public MipsShare getCurrentRequestedMipsShare() {
+		if (isBeingInstantiated()) {
+			if (requestedMipsShare == null || !requestedMipsShare.isUniform(getNumberOfPes(), getMips())) {
+				requestedMipsShare = MipsShare.uniform(getNumberOfPes(), getMips());
+			}
+			return requestedMipsShare;
+		}
+
+		MipsShare cloudletsMips = getCloudletScheduler().getCurrentRequestedMipsShare();
+		if (getGuestList().isEmpty()) {
+			return cloudletsMips;
+		}
+		// the MIPS of the nested guests follow the MIPS of the cloudlets hosted here
+		double[] mips = cloudletsMips.copyTo(requestedMipsBuffer, 0);
+		int length = cloudletsMips.size();
+		for (GuestEntity guest : getGuestList()) {
+			MipsShare guestMips = guest.getCurrentRequestedMipsShare();
+			mips = guestMips.copyTo(mips, length);
+			length += guestMips.size();
+		}
+		requestedMipsBuffer = mips;
+		requestedMipsShare = MipsShare.copyOf(mips, length, requestedMipsShare);
+		return requestedMipsShare;
+	}
+
 	@Override
 	public double getCurrentRequestedTotalMips() {
 		double currentRequestedMips = 0.0;
@@ -451,6 +503,8 @@ public class Vm implements VirtualEntity {
 	public String getUid() { return uid; }
 	public void setUid(String uid) { this.uid = uid; }
 
+	public int getIndex() { return index; }
+
 	public int getUserId() { return userId; }
 	public void setUserId(int userId) { this.userId = userId; }
 
@@ -586,4 +640,23 @@ public class Vm implements VirtualEntity {
 	public static String getUid(int userId, int vmId) {
 		return userId + "-" + vmId;
 	}
+
+	/**
+	 * Writes the histories as primitive values, see {@link HistorySerializer}.
+	 */
+	@Serial
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		HistorySerializer.writeVmStates(out, stateHistory);
+	}
+
+	/**
+	 * Reads the histories written by {@link #writeObject(ObjectOutputStream)}.
+	 */
+	@Serial
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		stateHistory = HistorySerializer.readVmStates(in);
+	}
+
 }
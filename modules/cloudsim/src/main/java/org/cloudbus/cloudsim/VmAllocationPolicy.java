@@ -14,7 +14,10 @@ import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,7 +33,10 @@ import java.util.Map;
  * @author Remo Andreoli
  * @since CloudSim Toolkit 1.0
  */
-public abstract class VmAllocationPolicy {
+public abstract class VmAllocationPolicy implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
 
 	public record GuestMapping (
 		GuestEntity vm,
@@ -38,7 +44,7 @@ public abstract class VmAllocationPolicy {
 		Container container,
 		int datacenterId,
         boolean NewEventRequired,
-        boolean NewVmRequired)
+        boolean NewVmRequired) implements Serializable
 	{
 		public GuestMapping(GuestEntity vm, HostEntity host, Container container, boolean newEvReq, boolean newVmReq) {
 			this(vm, host, container, host.getDatacenter().getId(), newEvReq, newVmReq);
@@ -80,12 +86,32 @@ public abstract class VmAllocationPolicy {
 	 * @post $none
 	 */
 	public boolean allocateHostForGuest(GuestEntity guest) {
-		return allocateHostForGuest(guest, findHostForGuest(guest));
+		HostEntity host = findHostForGuest(guest);
+		return host != null && allocateHostForGuest(guest, host);
 	}
 
 	@Deprecated
 	public boolean allocateHostForVm(Vm vm) { return allocateHostForGuest(vm); }
 
+	/**
+	 * Allocates hosts for a list of VMs at once. The default implementation allocates a host for
+	 * each VM in the order of the list, as {@link #allocateHostForGuest(GuestEntity)} does;
+	 * policies placing the VMs together, such as {@link VmAllocationPolicyBinPacking}, may place
+	 * them in another order.
+	 *
+	 * @param guests the VMs to allocate hosts to
+	 * @return the positions in the list of the VMs whose host could be allocated
+	 */
+	public BitSet allocateHostsForGuests(List<? extends GuestEntity> guests) {
+		BitSet allocated = new BitSet(guests.size());
+		for (int i = 0; i < guests.size(); i++) {
+			if (allocateHostForGuest(guests.get(i))) {
+				allocated.set(i);
+			}
+		}
+		return allocated;
+	}
+
 	/**
 	 * Allocates a specified host for a given VM.
 	 *
@@ -151,6 +177,15 @@ public abstract class VmAllocationPolicy {
 	@Deprecated
 	public void deallocateHostForVm(Vm vm) { deallocateHostForGuest(vm); }
 
+	/**
+	 * Notifies the policy that the resources of a host, or of the guests it hosts, may have
+	 * changed, as they do when the datacenter updates the processing of the host. Policies
+	 * keeping some state about the hosts update it; the default implementation does nothing.
+	 *
+	 * @param host the host
+	 */
+	public void hostChanged(HostEntity host) {}
+
 	/**
 	 * Find host for guest entity.
 	 *
@@ -0,0 +1,277 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.HostEntity;
+
+/**
+ * VmAllocationPolicyBinPacking is a VmAllocationPolicy that places VMs as items of a vector bin
+ * packing problem, whose dimensions are the MIPS, RAM, bandwidth and storage of the hosts. When a
+ * list of VMs is allocated at once, the VMs are placed from the largest to the smallest, the size
+ * of a VM being the sum of its demands, each divided by the largest free amount of that resource
+ * among the hosts.
+ * <p>
+ * The free resources of the hosts are kept in one array per resource, read again from the hosts
+ * before each placement and after each allocation, so that a host is chosen by scanning arrays
+ * of doubles rather than by querying the provisioners of every host. The chosen host is then
+ * checked with {@link HostEntity#isSuitableForGuest(GuestEntity)} as the other policies do.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class VmAllocationPolicyBinPacking extends VmAllocationPolicy {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The heuristics choosing the host of a VM.
+	 */
+	public enum Heuristic {
+		/** The first host where the VM fits. */
+		FIRST_FIT_DECREASING,
+
+		/** The host where the VM fits leaving the least free resources. */
+		BEST_FIT_DECREASING,
+
+		/** The host where the VM fits whose free resources have the largest dot product with the
+		 * demands of the VM. */
+		DOT_PRODUCT
+	}
+
+	/** The position of the MIPS among the resources. */
+	private static final int MIPS = 0;
+
+	/** The position of the RAM among the resources. */
+	private static final int RAM = 1;
+
+	/** The position of the bandwidth among the resources. */
+	private static final int BW = 2;
+
+	/** The position of the storage among the resources. */
+	private static final int STORAGE = 3;
+
+	/** The number of resources. */
+	private static final int RESOURCES = 4;
+
+	/** The heuristic choosing the host of a VM. */
+	private final Heuristic heuristic;
+
+	/** The free amount of each resource, by resource then by host position. */
+	private final double[][] free = new double[RESOURCES][0];
+
+	/** The MIPS of a PE of each host, by host position. */
+	private double[] peCapacity = new double[0];
+
+	/** The weight of each resource, the inverse of its largest free amount among the hosts. */
+	private final double[] weights = new double[RESOURCES];
+
+	/** The demand of the VM being placed for each resource. */
+	private final double[] demand = new double[RESOURCES];
+
+	/**
+	 * Creates a new VmAllocationPolicyBinPacking object.
+	 *
+	 * @param list the list of hosts
+	 * @param heuristic the heuristic choosing the host of a VM
+	 */
+	public VmAllocationPolicyBinPacking(List<? extends HostEntity> list, Heuristic heuristic) {
+		super(list);
+		this.heuristic = heuristic;
+	}
+
+	/**
+	 * Gets the heuristic choosing the host of a VM.
+	 *
+	 * @return the heuristic
+	 */
+	public Heuristic getHeuristic() {
+		return heuristic;
+	}
+
+	@Override
+	public HostEntity findHostForGuest(GuestEntity guest) {
+		readHosts();
+		int position = findHost(guest, new BitSet());
+		return position < 0 ? null : getHostList().get(position);
+	}
+
+	/**
+	 * Allocates hosts for a list of VMs, placing them from the largest to the smallest. VMs of the
+	 * same size are placed in the order of the list.
+	 *
+	 * @param guests the VMs to allocate hosts to
+	 * @return the positions in the list of the VMs whose host could be allocated
+	 */
+	@Override
+	public BitSet allocateHostsForGuests(List<? extends GuestEntity> guests) {
+		readHosts();
+		double[] sizes = new double[guests.size()];
+		Integer[] order = new Integer[guests.size()];
+		for (int i = 0; i < order.length; i++) {
+			readDemand(guests.get(i));
+			for (int r = 0; r < RESOURCES; r++) {
+				sizes[i] += demand[r] * weights[r];
+			}
+			order[i] = i;
+		}
+		// a stable sort, so that VMs of the same size keep their order
+		Arrays.sort(order, (a, b) -> Double.compare(sizes[b], sizes[a]));
+
+		BitSet allocated = new BitSet(guests.size());
+		BitSet excluded = new BitSet();
+		for (int i : order) {
+			GuestEntity guest = guests.get(i);
+			excluded.clear();
+			int position;
+			while ((position = findHost(guest, excluded)) >= 0) {
+				boolean result = allocateHostForGuest(guest, getHostList().get(position));
+				readHost(position);
+				if (result) {
+					allocated.set(i);
+					break;
+				}
+				excluded.set(position);
+			}
+		}
+		return allocated;
+	}
+
+	/**
+	 * Finds the host of a VM with the heuristic, among the hosts which are suitable for it.
+	 *
+	 * @param guest the VM
+	 * @param excluded the positions of the hosts not to choose, to which the hosts found not
+	 *        suitable are added
+	 * @return the position of the host, or -1 if there is none
+	 */
+	private int findHost(GuestEntity guest, BitSet excluded) {
+		readDemand(guest);
+		double maxMips = guest.getCurrentRequestedMaxMips();
+		while (true) {
+			int position = chooseHost(maxMips, excluded);
+			if (position < 0 || getHostList().get(position).isSuitableForGuest(guest)) {
+				return position;
+			}
+			excluded.set(position);
+		}
+	}
+
+	/**
+	 * Chooses the host where the {@link #demand} fits with the heuristic, from the free resources
+	 * of the hosts.
+	 *
+	 * @param maxMips the MIPS of the largest PE of the VM
+	 * @param excluded the positions of the hosts not to choose
+	 * @return the position of the host, or -1 if there is none
+	 */
+	private int chooseHost(double maxMips, BitSet excluded) {
+		int chosen = -1;
+		double chosenScore = 0;
+		for (int h = 0; h < peCapacity.length; h++) {
+			if (peCapacity[h] < maxMips || excluded.get(h) || !fits(h)) {
+				continue;
+			}
+			double score = 0;
+			switch (heuristic) {
+				case FIRST_FIT_DECREASING:
+					return h;
+				case BEST_FIT_DECREASING:
+					for (int r = 0; r < RESOURCES; r++) {
+						score += (free[r][h] - demand[r]) * weights[r];
+					}
+					if (chosen < 0 || score < chosenScore) {
+						chosen = h;
+						chosenScore = score;
+					}
+					break;
+				case DOT_PRODUCT:
+					for (int r = 0; r < RESOURCES; r++) {
+						score += demand[r] * weights[r] * free[r][h] * weights[r];
+					}
+					if (chosen < 0 || score > chosenScore) {
+						chosen = h;
+						chosenScore = score;
+					}
+					break;
+			}
+		}
+		return chosen;
+	}
+
+	/**
+	 * Checks if the {@link #demand} fits in the free resources of a host.
+	 *
+	 * @param position the position of the host
+	 * @return true, if every resource of the host has enough free amount
+	 */
+	private boolean fits(int position) {
+		for (int r = 0; r < RESOURCES; r++) {
+			if (free[r][position] < demand[r]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the demand of a VM for each resource into {@link #demand}.
+	 *
+	 * @param guest the VM
+	 */
+	private void readDemand(GuestEntity guest) {
+		demand[MIPS] = guest.getCurrentRequestedTotalMips();
+		demand[RAM] = guest.getCurrentRequestedRam();
+		demand[BW] = guest.getCurrentRequestedBw();
+		demand[STORAGE] = guest.getSize();
+	}
+
+	/**
+	 * Reads again the free resources of all the hosts, and the weights of the resources.
+	 */
+	private void readHosts() {
+		int hosts = getHostList().size();
+		if (peCapacity.length != hosts) {
+			for (int r = 0; r < RESOURCES; r++) {
+				free[r] = new double[hosts];
+			}
+			peCapacity = new double[hosts];
+		}
+		for (int h = 0; h < hosts; h++) {
+			readHost(h);
+			peCapacity[h] = getHostList().get(h).getGuestScheduler().getPeCapacity();
+		}
+		for (int r = 0; r < RESOURCES; r++) {
+			double max = 0;
+			for (double amount : free[r]) {
+				max = Math.max(max, amount);
+			}
+			weights[r] = max > 0 ? 1 / max : 1;
+		}
+	}
+
+	/**
+	 * Reads again the free resources of a host.
+	 *
+	 * @param position the position of the host
+	 */
+	private void readHost(int position) {
+		HostEntity host = getHostList().get(position);
+		free[MIPS][position] = host.getGuestScheduler().getAvailableMips();
+		free[RAM][position] = host.getGuestRamProvisioner().getAvailableRam();
+		free[BW][position] = host.getGuestBwProvisioner().getAvailableBw();
+		free[STORAGE][position] = host.getStorage();
+	}
+
+}
@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim;
 
+import java.io.Serial;
 import java.util.List;
 
 import org.cloudbus.cloudsim.core.HostEntity;
@@ -23,6 +24,10 @@ import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyWorstFit;
  * @since CloudSim Toolkit 7.0
  */
 public class VmAllocationPolicySimple extends VmAllocationWithSelectionPolicy {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a new VmAllocationPolicySimple object.
 	 * 
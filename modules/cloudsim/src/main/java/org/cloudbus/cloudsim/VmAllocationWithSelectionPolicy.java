@@ -1,20 +1,40 @@
 package org.cloudbus.cloudsim;
 
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.selectionPolicies.HostCapacityIndex;
+import org.cloudbus.cloudsim.selectionPolicies.IndexedSelectionPolicy;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
 
+import java.io.Serial;
 import java.util.*;
 
 /**
  * Created by sareh on 16/12/15.
  * Modified by Remo Andreoli (March 2024)
+ *
+ * When the selection policy is an {@link IndexedSelectionPolicy}, the hosts are selected from a
+ * {@link HostCapacityIndex}, which is updated when guests are allocated or deallocated through
+ * this policy and when the datacenter reports a {@link #hostChanged(HostEntity) host change}.
+ * The index is also read again from the hosts once per simulation time, in case a host changed
+ * without being reported.
  */
 public class VmAllocationWithSelectionPolicy extends VmAllocationPolicy {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private SelectionPolicy<HostEntity> selectionPolicy;
 
     private Set<HostEntity> excludedHostCandidates;
 
+    /** The index of the hosts, or null if it is not built yet. */
+    private HostCapacityIndex hostCapacityIndex;
+
+    /** The simulation time at which the index was last read again from all the hosts. */
+    private double hostCapacityIndexTime;
+
     public VmAllocationWithSelectionPolicy(List<? extends HostEntity> list, SelectionPolicy<HostEntity> selectionPolicy) {
         super(list);
         setExcludedHostCandidates(new HashSet<>());
@@ -22,30 +42,113 @@ public class VmAllocationWithSelectionPolicy extends VmAllocationPolicy {
     }
 
     public SelectionPolicy<HostEntity> getSelectionPolicy() { return selectionPolicy; }
-    public void setSelectionPolicy(SelectionPolicy<HostEntity> selectionPolicy) { this.selectionPolicy = selectionPolicy; }
+    public void setSelectionPolicy(SelectionPolicy<HostEntity> selectionPolicy) {
+        this.selectionPolicy = selectionPolicy;
+        hostCapacityIndex = null;
+    }
 
     public Set<HostEntity> getExcludedHostCandidates() { return excludedHostCandidates; }
     public void setExcludedHostCandidates(Set<HostEntity> excludedHostCandidates) { this.excludedHostCandidates = excludedHostCandidates; }
 
+    /**
+     * Gets the index of the hosts used by an {@link IndexedSelectionPolicy}.
+     *
+     * @return the index, or null if the selection policy is not indexed or no host was selected yet
+     */
+    public HostCapacityIndex getHostCapacityIndex() { return hostCapacityIndex; }
+
     @Override
     public HostEntity findHostForGuest(GuestEntity guest) {
         clearExcludedHostCandidates();
+        HostCapacityIndex index = prepareHostCapacityIndex();
         int tries = 0;
 
-        do{
-            HostEntity selectedHost = getSelectionPolicy().select(getHostList(), guest, excludedHostCandidates);
-            if(selectedHost == null){
-                return null;
+        try {
+            do{
+                HostEntity selectedHost;
+                if (index != null) {
+                    selectedHost = ((IndexedSelectionPolicy) getSelectionPolicy()).select(index, guest);
+                } else {
+                    selectedHost = getSelectionPolicy().select(getHostList(), guest, excludedHostCandidates);
+                }
+                if(selectedHost == null){
+                    return null;
+                }
+
+                if (selectedHost.isSuitableForGuest(guest)) {
+                    return selectedHost;
+                } else {
+                    excludedHostCandidates.add(selectedHost);
+                    if (index != null) {
+                        index.setExcluded(selectedHost, true);
+                    }
+                    tries ++;
+                }
+                } while (tries < getHostList().size());
+            return null;
+        } finally {
+            if (index != null) {
+                index.clearExcluded();
             }
+        }
+    }
 
-            if (selectedHost.isSuitableForGuest(guest)) {
-                return selectedHost;
-            } else {
-                excludedHostCandidates.add(selectedHost);
-                tries ++;
+    @Override
+    public boolean allocateHostForGuest(GuestEntity guest, HostEntity host) {
+        boolean result = super.allocateHostForGuest(guest, host);
+        if (result && hostCapacityIndex != null) {
+            hostCapacityIndex.update(host);
+        }
+        return result;
+    }
+
+    @Override
+    public void deallocateHostForGuest(GuestEntity guest) {
+        HostEntity host = getHost(guest);
+        super.deallocateHostForGuest(guest);
+        if (host != null && hostCapacityIndex != null) {
+            hostCapacityIndex.update(host);
+        }
+    }
+
+    /**
+     * Updates the index with the capacities of a host and of its guests which host guests too.
+     *
+     * @param host the host
+     */
+    @Override
+    public void hostChanged(HostEntity host) {
+        if (hostCapacityIndex == null) {
+            return;
+        }
+        hostCapacityIndex.update(host);
+        for (GuestEntity guest : host.getGuestList()) {
+            if (guest instanceof HostEntity nestedHost) {
+                hostCapacityIndex.update(nestedHost);
             }
-            } while (tries < getHostList().size());
-        return null;
+        }
+    }
+
+    /**
+     * Builds the index of the hosts if the selection policy is indexed and the index is missing
+     * or was built for fewer or more hosts, and reads it again from the hosts if the simulation
+     * time changed since it was last read.
+     *
+     * @return the index, or null if the selection policy is not indexed
+     */
+    private HostCapacityIndex prepareHostCapacityIndex() {
+        if (!(getSelectionPolicy() instanceof IndexedSelectionPolicy indexedPolicy)) {
+            return null;
+        }
+        if (hostCapacityIndex == null || hostCapacityIndex.getHosts() != getHostList()
+                || hostCapacityIndex.size() != getHostList().size()) {
+            hostCapacityIndex = new HostCapacityIndex(getHostList(), indexedPolicy);
+            hostCapacityIndexTime = CloudSim.clock();
+        } else if (hostCapacityIndexTime != CloudSim.clock()) {
+            hostCapacityIndex.updateAll();
+            hostCapacityIndexTime = CloudSim.clock();
+        }
+        return hostCapacityIndex;
     }
 
     public void clearExcludedHostCandidates() {
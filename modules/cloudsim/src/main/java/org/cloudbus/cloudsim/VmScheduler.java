@@ -7,13 +7,16 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.lists.PeList;
+import org.cloudbus.cloudsim.util.IntObjectMap;
 
 /**
  * VmScheduler is an abstract class that represents the policy used by a Virtual Machine Monitor (VMM) 
@@ -27,30 +30,33 @@ import org.cloudbus.cloudsim.lists.PeList;
  * @author Remo Andreoli
  * @since CloudSim Toolkit 1.0
  */
-public abstract class VmScheduler {
+public abstract class VmScheduler implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
 
 	/** The PEs of the host where the scheduler is associated. */
 	private List<? extends Pe> peList;
 
-	/** The map of VMs to PEs, where each key is a VM id and each value is
-         * a list of PEs allocated to that VM. */
-	private Map<String, List<Pe>> peMap;
+	/** The map of VMs to PEs, where each key is a VM {@link GuestEntity#getIndex() index} and
+         * each value is a list of PEs allocated to that VM. */
+	private IntObjectMap<List<Pe>> peMap;
 
-	/** The map of VMs to MIPS, were each key is a VM id and each value is
+	/** The map of VMs to MIPS, were each key is a VM index and each value is
          * the currently allocated MIPS from the respective PE to that VM. 
          * The PEs where the MIPS capacity is get are defined
          * in the {@link #peMap}.
          */
-	private Map<String, List<Double>> mipsMapAllocated;
+	private IntObjectMap<MipsShare> mipsMapAllocated;
 
 	/** The total available MIPS that can be allocated on demand for VMs. */
     private double availableMips;
 
-	/** The VMs migrating in the host (arriving). It is the list of VM ids */
-	private List<String> guestsMigratingIn;
+	/** The VMs migrating in the host (arriving). It is the set of VM indices */
+	private BitSet guestsMigratingIn;
 
-	/** The VMs migrating out the host (departing). It is the list of VM ids */
-	private List<String> guestsMigratingOut;
+	/** The VMs migrating out the host (departing). It is the set of VM indices */
+	private BitSet guestsMigratingOut;
 
 	/**
 	 * Creates a new VmScheduler.
@@ -61,11 +67,11 @@ public abstract class VmScheduler {
 	 */
 	public VmScheduler(List<? extends Pe> pelist) {
 		setPeList(pelist);
-		setPeMap(new HashMap<>());
-		setMipsMapAllocated(new HashMap<>());
+		setPeMap(new IntObjectMap<>());
+		setMipsMapAllocated(new IntObjectMap<>());
 		setAvailableMips(PeList.getTotalMips(getPeList()));
-		setGuestsMigratingIn(new ArrayList<>());
-		setGuestsMigratingOut(new ArrayList<>());
+		setGuestsMigratingIn(new BitSet());
+		setGuestsMigratingOut(new BitSet());
 	}
 
 	/**
@@ -99,6 +105,37 @@ public abstract class VmScheduler {
 		deallocatePesForGuest(vm);
 	}
 
+	/**
+	 * Allocates again the PEs of some VMs, as a host does when the MIPS requested by its VMs
+	 * change. The result is the same as releasing the PEs of all the VMs, then allocating
+	 * them in the order of the map. The VMs which are not in the map keep their allocation.
+	 *
+	 * @param requestedByGuest the list of MIPS share requested by each VM
+	 */
+	public void reallocateAll(Map<? extends GuestEntity, List<Double>> requestedByGuest) {
+		for (GuestEntity guest : requestedByGuest.keySet()) {
+			deallocatePesForGuest(guest);
+		}
+		for (Map.Entry<? extends GuestEntity, List<Double>> entry : requestedByGuest.entrySet()) {
+			allocatePesForGuest(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Allocates again the PEs of some VMs for the MIPS they currently request, see
+	 * {@link GuestEntity#getCurrentRequestedMipsShare()}. The result is the same as
+	 * {@link #reallocateAll(Map)} with the VMs in the order of the list.
+	 *
+	 * @param guests the VMs
+	 */
+	public void reallocateAll(List<? extends GuestEntity> guests) {
+		Map<GuestEntity, List<Double>> requestedByGuest = new LinkedHashMap<>();
+		for (GuestEntity guest : guests) {
+			requestedByGuest.put(guest, guest.getCurrentRequestedMipsShare());
+		}
+		reallocateAll(requestedByGuest);
+	}
+
 	/**
 	 * Releases PEs allocated to all the VMs of the host the VmScheduler is associated to.
          * After that, all PEs will be available to be used on demand for requesting VMs.
@@ -126,7 +163,7 @@ public abstract class VmScheduler {
 	 * @return the pes allocated for the given vm
 	 */
 	public List<Pe> getPesAllocatedForGuest(GuestEntity guest) {
-		return getPeMap().get(guest.getUid());
+		return getPeMap().get(guest.getIndex());
 	}
 
 	@Deprecated
@@ -143,7 +180,19 @@ public abstract class VmScheduler {
 	 * @post $none
 	 */
 	public List<Double> getAllocatedMipsForGuest(GuestEntity guest) {
-		return getMipsMapAllocated().get(guest.getUid());
+		return getMipsMapAllocated().get(guest.getIndex());
+	}
+
+	/**
+	 * Returns the MIPS share of each host's Pe that is allocated to a given VM, as a MIPS share.
+	 * The schedulers keeping their allocations as MIPS shares return them without copying them.
+	 *
+	 * @param guest the vm
+	 * @return the MIPS share of the VM, or <tt>null</tt> if the VM has no MIPS allocated
+	 */
+	public MipsShare getAllocatedMipsShareForGuest(GuestEntity guest) {
+		List<Double> mipsShare = getAllocatedMipsForGuest(guest);
+		return mipsShare == null ? null : MipsShare.of(mipsShare);
 	}
 
 	@Deprecated
@@ -158,14 +207,8 @@ public abstract class VmScheduler {
 	 * @return the total allocated mips for the vm
 	 */
 	public double getTotalAllocatedMipsForGuest(GuestEntity guest) {
-		double allocated = 0;
-		List<Double> mipsMap = getAllocatedMipsForGuest(guest);
-		if (mipsMap != null) {
-			for (double mips : mipsMap) {
-				allocated += mips;
-			}
-		}
-		return allocated;
+		MipsShare mipsShare = getAllocatedMipsShareForGuest(guest);
+		return mipsShare == null ? 0 : mipsShare.getTotalMips();
 	}
 
 	@Deprecated
@@ -214,30 +257,30 @@ public abstract class VmScheduler {
 	public List<? extends Pe> getPeList() { return peList; }
 	protected void setPeList(List<? extends Pe> peList) { this.peList = peList; }
 
-	public Map<String, List<Pe>> getPeMap() { return peMap; }
-	protected void setPeMap(Map<String, List<Pe>> peMap) { this.peMap = peMap; }
+	public IntObjectMap<List<Pe>> getPeMap() { return peMap; }
+	protected void setPeMap(IntObjectMap<List<Pe>> peMap) { this.peMap = peMap; }
 
-	public Map<String, List<Double>> getMipsMapAllocated() { return mipsMapAllocated; }
-	protected void setMipsMapAllocated(Map<String, List<Double>> mipsMapAllocated) { this.mipsMapAllocated = mipsMapAllocated; }
+	public IntObjectMap<MipsShare> getMipsMapAllocated() { return mipsMapAllocated; }
+	protected void setMipsMapAllocated(IntObjectMap<MipsShare> mipsMapAllocated) { this.mipsMapAllocated = mipsMapAllocated; }
 
 	public double getAvailableMips() { return availableMips; }
 	protected void setAvailableMips(double availableMips) { this.availableMips = availableMips; }
 
-	public List<String> getGuestsMigratingIn() {
+	public BitSet getGuestsMigratingIn() {
 		return guestsMigratingIn;
 	}
-	protected void setGuestsMigratingIn(List<String> guestsMigratingIn) { this.guestsMigratingIn = guestsMigratingIn; }
+	protected void setGuestsMigratingIn(BitSet guestsMigratingIn) { this.guestsMigratingIn = guestsMigratingIn; }
 
-	public List<String> getGuestsMigratingOut() { return guestsMigratingOut; }
-	protected void setGuestsMigratingOut(List<String> guestsMigratingOut) { this.guestsMigratingOut = guestsMigratingOut; }
+	public BitSet getGuestsMigratingOut() { return guestsMigratingOut; }
+	protected void setGuestsMigratingOut(BitSet guestsMigratingOut) { this.guestsMigratingOut = guestsMigratingOut; }
 
 	@Deprecated
-	public List<String> getVmsMigratingIn() { return getGuestsMigratingIn(); }
+	public BitSet getVmsMigratingIn() { return getGuestsMigratingIn(); }
 
 
 	@Deprecated
-	public List<String> getVmsMigratingOut() { return getGuestsMigratingOut(); }
+	public BitSet getVmsMigratingOut() { return getGuestsMigratingOut(); }
 
 	@Deprecated
-	public Map<String, List<Double>> getMipsMap() { return mipsMapAllocated; }
+	public IntObjectMap<MipsShare> getMipsMap() { return mipsMapAllocated; }
 }
@@ -9,12 +9,12 @@
 package org.cloudbus.cloudsim;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.util.IntObjectMap;
 
+import java.io.Serial;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 /**
  * VmSchedulerSpaceShared is a VMM allocation policy that allocates one or more PEs from a host to a 
@@ -30,9 +30,12 @@ import java.util.Map;
  */
 public class VmSchedulerSpaceShared extends VmScheduler {
 
-	/** A map between each VM and its allocated PEs, where the key is a VM ID and
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** A map between each VM and its allocated PEs, where the key is a VM index and
          * the value a list of PEs allocated to VM. */
-	private Map<String, List<Pe>> peAllocationMap;
+	private IntObjectMap<List<Pe>> peAllocationMap;
 
 	/** The list of free PEs yet available in the host. */
 	private List<Pe> freePes;
@@ -44,7 +47,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 */
 	public VmSchedulerSpaceShared(List<? extends Pe> pelist) {
 		super(pelist);
-		setPeAllocationMap(new HashMap<>());
+		setPeAllocationMap(new IntObjectMap<>());
 		setFreePes(new ArrayList<>());
 		getFreePes().addAll(pelist);
 	}
@@ -77,8 +80,8 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 
 		getFreePes().removeAll(selectedPes);
 
-		getPeAllocationMap().put(guest.getUid(), selectedPes);
-		getMipsMapAllocated().put(guest.getUid(), mipsShare);
+		getPeAllocationMap().put(guest.getIndex(), selectedPes);
+		getMipsMapAllocated().put(guest.getIndex(), MipsShare.of(mipsShare));
 		setAvailableMips(getAvailableMips() - totalMips);
 		guest.setCurrentAllocatedMips(mipsShare);
 
@@ -87,16 +90,9 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 
 	@Override
 	public void deallocatePesForGuest(GuestEntity guest) {
-		getFreePes().addAll(getPeAllocationMap().get(guest.getUid()));
-		getPeAllocationMap().remove(guest.getUid());
-
-		double totalMips = 0;
-		for (double mips : getMipsMapAllocated().get(guest.getUid())) {
-			totalMips += mips;
-		}
-		setAvailableMips(getAvailableMips() + totalMips);
+		getFreePes().addAll(getPeAllocationMap().remove(guest.getIndex()));
 
-		getMipsMapAllocated().remove(guest.getUid());
+		setAvailableMips(getAvailableMips() + getMipsMapAllocated().remove(guest.getIndex()).getTotalMips());
 	}
 
 	/**
@@ -104,7 +100,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 * 
 	 * @param peAllocationMap the pe allocation map
 	 */
-	protected void setPeAllocationMap(Map<String, List<Pe>> peAllocationMap) {
+	protected void setPeAllocationMap(IntObjectMap<List<Pe>> peAllocationMap) {
 		this.peAllocationMap = peAllocationMap;
 	}
 
@@ -113,7 +109,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 * 
 	 * @return the pe allocation map
 	 */
-	protected Map<String, List<Pe>> getPeAllocationMap() {
+	protected IntObjectMap<List<Pe>> getPeAllocationMap() {
 		return peAllocationMap;
 	}
 
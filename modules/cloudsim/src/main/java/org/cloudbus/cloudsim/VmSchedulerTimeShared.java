@@ -7,16 +7,21 @@
 
 package org.cloudbus.cloudsim;
 
+import java.io.Serial;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.provisioners.PeProvisioner;
+import org.cloudbus.cloudsim.util.IntDoubleMap;
+import org.cloudbus.cloudsim.util.IntObjectMap;
 
 /**
  * VmSchedulerTimeShared is a Virtual Machine Monitor (VMM) allocation policy that allocates one or more PEs 
@@ -25,6 +30,11 @@ import org.cloudbus.cloudsim.provisioners.PeProvisioner;
  * 
  * Each host has to use is own instance of a VmScheduler
  * that will so schedule the allocation of host's PEs for VMs running on it.
+ * <p>
+ * The MIPS left on each PE are kept by its {@link PeProvisioner}, so allocating or releasing the PEs
+ * of a VM only spreads or releases the MIPS of that VM, as long as the MIPS allocated to the other
+ * VMs do not change. {@link #reallocateAll(Map)} allocates again the PEs of all the VMs at once and
+ * only moves the VMs whose allocation changed.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -33,14 +43,35 @@ import org.cloudbus.cloudsim.provisioners.PeProvisioner;
  */
 public class VmSchedulerTimeShared extends VmScheduler {
 
-	/** The map of requested mips, where each key is a VM
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** The map of requested mips, where each key is a VM {@link GuestEntity#getIndex() index}
          * and each value is a list of MIPS requested by that VM. 
          */
-	private Map<String, List<Double>> mipsMapRequested;
+	private IntObjectMap<List<Double>> mipsMapRequested;
 
 	/** The number of host's PEs in use. */
 	private int pesInUse;
 
+	/** The map of reserved mips, where each key is a VM index and each value is
+         * the MIPS taken from the {@link #getAvailableMips() available MIPS} for that VM.
+         */
+	private IntDoubleMap mipsMapReserved;
+
+	/** The map of MIPS allocated before the PEs of the VMs were last allocated again, see
+	 * {@link #reallocateAll(Map)}. Its MIPS shares are reused when the MIPS of a VM do not change. */
+	private IntObjectMap<MipsShare> previousMipsMapAllocated;
+
+	/** The array where the MIPS allocated to a VM are computed. */
+	private double[] mipsBuffer = new double[0];
+
+	/**
+	 * Indicates if the MIPS allocated to the VMs depend on each other, as when they are scaled
+	 * down to share an over-subscribed host. Releasing a VM then changes the MIPS of all the others.
+	 */
+	private boolean allocationCoupled;
+
 	/**
 	 * Instantiates a new vm time-shared scheduler.
 	 * 
@@ -48,7 +79,9 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 */
 	public VmSchedulerTimeShared(List<? extends Pe> pelist) {
 		super(pelist);
-		setMipsMapRequested(new HashMap<>());
+		setMipsMapRequested(new IntObjectMap<>());
+		setMipsMapReserved(new IntDoubleMap());
+		setPreviousMipsMapAllocated(new IntObjectMap<>());
 	}
 
 	@Override
@@ -56,29 +89,147 @@ public class VmSchedulerTimeShared extends VmScheduler {
 		/*
 		 * //TODO add the same to RAM and BW provisioners
 		 */
+		updateMigrationStatus(guest);
+		if (getMipsMapRequested().containsKey(guest.getIndex())) {
+			// only the delta between the previous and the new request is applied
+			deallocatePesForGuest(guest);
+		}
+
+		boolean wasCoupled = isAllocationCoupled();
+		boolean result = allocatePesForGuest(guest.getIndex(), mipsShareRequested);
+		if (wasCoupled || isAllocationCoupled() || (result && !provisionPes(guest.getIndex()))) {
+			updatePeProvisioning();
+		}
+		return result;
+	}
+
+	/**
+	 * Allocates again the PEs of some VMs. The MIPS allocated to each VM are computed as if the PEs
+	 * of all the VMs had been released, then allocated in the order of the map, but the PEs are
+	 * only provisioned again for the VMs whose allocation changed.
+	 *
+	 * @param requestedByGuest the list of MIPS share requested by each VM
+	 */
+	@Override
+	public void reallocateAll(Map<? extends GuestEntity, List<Double>> requestedByGuest) {
+		reallocate(new ArrayList<>(requestedByGuest.keySet()), requestedByGuest::get);
+	}
+
+	/**
+	 * Allocates again the PEs of some VMs for the MIPS they currently request, as
+	 * {@link #reallocateAll(Map)} does. While the VMs request the same MIPS and are given the same
+	 * MIPS, the MIPS shares are kept and nothing is created.
+	 *
+	 * @param guests the VMs
+	 */
+	@Override
+	public void reallocateAll(List<? extends GuestEntity> guests) {
+		reallocate(guests, GuestEntity::getCurrentRequestedMipsShare);
+	}
+
+	private void reallocate(List<? extends GuestEntity> guests, Function<GuestEntity, List<Double>> requests) {
+		int listedCount = 0;
+		for (GuestEntity guest : guests) {
+			if (getMipsMapRequested().containsKey(guest.getIndex())) {
+				listedCount++;
+			}
+		}
+		// the VMs which are not reallocated are allocated again first, in the order of the map
+		int otherCount = getMipsMapRequested().size() - listedCount;
+		int[] others = null;
+		List<Double>[] otherRequests = null;
+		if (otherCount > 0) {
+			BitSet listed = new BitSet();
+			for (GuestEntity guest : guests) {
+				listed.set(guest.getIndex());
+			}
+			others = getMipsMapRequested().keys();
+			int n = 0;
+			for (int guestIndex : others) {
+				if (!listed.get(guestIndex)) {
+					others[n++] = guestIndex;
+				}
+			}
+			@SuppressWarnings("unchecked")
+			List<Double>[] requested = (List<Double>[]) new List<?>[otherCount];
+			for (int i = 0; i < otherCount; i++) {
+				requested[i] = getMipsMapRequested().get(others[i]);
+			}
+			otherRequests = requested;
+		}
+		boolean wasCoupled = isAllocationCoupled();
+		// the previous allocation is kept aside, so that the unchanged MIPS shares are reused
+		IntObjectMap<MipsShare> previous = getMipsMapAllocated();
+		IntObjectMap<MipsShare> allocated = getPreviousMipsMapAllocated();
+		allocated.clear(previous.size());
+		setPreviousMipsMapAllocated(previous);
+		setMipsMapAllocated(allocated);
+
+		clearAllocations();
+		for (int i = 0; i < otherCount; i++) {
+			allocateAgain(others[i], otherRequests[i]);
+		}
+		for (GuestEntity guest : guests) {
+			updateMigrationStatus(guest);
+			allocatePesForGuest(guest.getIndex(), requests.apply(guest));
+		}
+
+		boolean sameGuests = previous.size() == getMipsMapAllocated().size();
+		for (int i = 0; sameGuests && i < guests.size(); i++) {
+			int guestIndex = guests.get(i).getIndex();
+			sameGuests = previous.containsKey(guestIndex) == getMipsMapAllocated().containsKey(guestIndex);
+		}
+		if (wasCoupled || isAllocationCoupled() || otherCount > 0 || !sameGuests) {
+			updatePeProvisioning();
+			return;
+		}
+
+		// the MIPS of the moved VMs are released before any of them is provisioned again
+		for (GuestEntity guest : guests) {
+			if (isMoved(guest.getIndex(), previous)) {
+				releasePes(guest);
+			}
+		}
+		for (GuestEntity guest : guests) {
+			if (isMoved(guest.getIndex(), previous) && !provisionPes(guest.getIndex())) {
+				updatePeProvisioning();
+				return;
+			}
+		}
+	}
+
+	private boolean isMoved(int guestIndex, IntObjectMap<MipsShare> previous) {
+		return !Objects.equals(getMipsMapAllocated().get(guestIndex), previous.get(guestIndex));
+	}
+
+	/**
+	 * Updates the set of VMs migrating out of the host, from the migration state of a VM.
+	 *
+	 * @param guest the VM
+	 */
+	protected void updateMigrationStatus(GuestEntity guest) {
 		if (guest.isInMigration()) {
-			if (!getGuestsMigratingIn().contains(guest.getUid()) && !getGuestsMigratingOut().contains(guest.getUid())) {
-				getGuestsMigratingOut().add(guest.getUid());
+			if (!getGuestsMigratingIn().get(guest.getIndex())) {
+				getGuestsMigratingOut().set(guest.getIndex());
 			}
 		} else {
-			getGuestsMigratingOut().remove(guest.getUid());
+			getGuestsMigratingOut().clear(guest.getIndex());
 		}
-		boolean result = allocatePesForGuest(guest.getUid(), mipsShareRequested);
-		updatePeProvisioning();
-		return result;
 	}
 
 	/**
 	 * Allocate PEs for a vm.
 	 * 
-	 * @param vmUid the vm uid
+	 * @param guestIndex the vm {@link GuestEntity#getIndex() index}
 	 * @param mipsShareRequested the list of mips share requested by the vm
 	 * @return true, if successful
 	 */
-	protected boolean allocatePesForGuest(String vmUid, List<Double> mipsShareRequested) {
+	protected boolean allocatePesForGuest(int guestIndex, List<Double> mipsShareRequested) {
+		MipsShare requested = MipsShare.of(mipsShareRequested);
 		double totalRequestedMips = 0;
 		double peMips = getPeCapacity();
-		for (Double mips : mipsShareRequested) {
+		for (int pe = 0; pe < requested.size(); pe++) {
+			double mips = requested.getMips(pe);
 			// each virtual PE of a VM must require not more than the capacity of a physical PE
 			if (mips > peMips) {
 				return false;
@@ -91,32 +242,152 @@ public class VmSchedulerTimeShared extends VmScheduler {
 			return false;
 		}
 
-		getMipsMapRequested().put(vmUid, mipsShareRequested);
-		setPesInUse(getPesInUse() + mipsShareRequested.size());
+		getMipsMapRequested().put(guestIndex, requested);
+		setPesInUse(getPesInUse() + requested.size());
 
-		if (getGuestsMigratingIn().contains(vmUid)) {
+		boolean migratingIn = getGuestsMigratingIn().get(guestIndex);
+		boolean migratingOut = getGuestsMigratingOut().get(guestIndex);
+		if (migratingIn) {
 			// the destination host only experience 10% of the migrating VM's MIPS
 			totalRequestedMips *= 0.1;
 		}
 
-		List<Double> mipsShareAllocated = new ArrayList<>();
-		for (Double mipsRequested : mipsShareRequested) {
-			if (getGuestsMigratingOut().contains(vmUid)) {
+		double[] mipsShareAllocated = getMipsBuffer(requested.size());
+		for (int pe = 0; pe < requested.size(); pe++) {
+			double mipsRequested = requested.getMips(pe);
+			if (migratingOut) {
 				// performance degradation due to migration = 10% MIPS
 				mipsRequested *= 0.9;
-			} else if (getGuestsMigratingIn().contains(vmUid)) {
+			} else if (migratingIn) {
 				// the destination host only experience 10% of the migrating VM's MIPS
 				mipsRequested *= 0.1;
 			}
-			mipsShareAllocated.add(mipsRequested);
+			mipsShareAllocated[pe] = mipsRequested;
+		}
+
+		getMipsMapAllocated().put(guestIndex, toMipsShare(guestIndex, mipsShareAllocated, requested.size()));
+		reserveMips(guestIndex, totalRequestedMips);
+
+		return true;
+	}
+
+	/**
+	 * Gets an array to compute MIPS into. The array is reused by the next calls.
+	 *
+	 * @param length the minimum length of the array
+	 * @return the array
+	 */
+	protected double[] getMipsBuffer(int length) {
+		if (mipsBuffer.length < length) {
+			mipsBuffer = new double[Math.max(2 * mipsBuffer.length, length)];
 		}
+		return mipsBuffer;
+	}
 
-		getMipsMapAllocated().put(vmUid, mipsShareAllocated);
-		setAvailableMips(getAvailableMips() - totalRequestedMips);
+	/**
+	 * Gets the MIPS share to allocate to a VM from the first MIPS of an array. It is the MIPS share
+	 * the VM had before its PEs were last allocated again, if the MIPS are the same.
+	 *
+	 * @param guestIndex the vm index
+	 * @param mips the array with the MIPS of each virtual PE, which is copied
+	 * @param length the number of virtual PEs
+	 * @return the MIPS share
+	 */
+	protected MipsShare toMipsShare(int guestIndex, double[] mips, int length) {
+		return MipsShare.copyOf(mips, length, getPreviousMipsMapAllocated().get(guestIndex));
+	}
+
+	/**
+	 * Takes MIPS from the available MIPS for a VM.
+	 *
+	 * @param guestIndex the vm index
+	 * @param mips the MIPS
+	 */
+	protected void reserveMips(int guestIndex, double mips) {
+		getMipsMapReserved().put(guestIndex, mips);
+		setAvailableMips(getAvailableMips() - mips);
+	}
+
+	/**
+	 * Spreads the MIPS allocated to a VM among the MIPS left on the PEs, in order of PE.
+	 *
+	 * @param guestIndex the vm index
+	 * @return false if the PEs do not have enough MIPS left, in which case the VM may have been
+	 *         given part of its MIPS
+	 */
+	protected boolean provisionPes(int guestIndex) {
+		MipsShare mipsShare = getMipsMapAllocated().get(guestIndex);
+		if (mipsShare == null) {
+			return true;
+		}
+		List<Pe> pes = new LinkedList<>();
+		getPeMap().put(guestIndex, pes);
 
+		Iterator<? extends Pe> peIterator = getPeList().iterator();
+		PeProvisioner peProvisioner = null;
+		double availableMips = 0;
+		for (int i = 0; i < mipsShare.size(); i++) {
+			double mips = mipsShare.getMips(i);
+			while (mips >= 0.1) { // rounding error
+				while (availableMips < 0.1) {
+					if (!peIterator.hasNext()) {
+						return false;
+					}
+					Pe pe = peIterator.next();
+					peProvisioner = pe.getPeProvisioner();
+					availableMips = peProvisioner.getAvailableMips();
+					if (availableMips >= 0.1) {
+						pes.add(pe);
+					}
+				}
+				double share = Math.min(mips, availableMips);
+				peProvisioner.allocateMipsForGuest(guestIndex, share);
+				availableMips -= share;
+				mips -= share;
+			}
+		}
 		return true;
 	}
 
+	/**
+	 * Releases the MIPS a VM was given on the PEs.
+	 *
+	 * @param guest the vm
+	 */
+	protected void releasePes(GuestEntity guest) {
+		List<Pe> pes = getPeMap().remove(guest.getIndex());
+		if (pes != null) {
+			for (Pe pe : pes) {
+				pe.getPeProvisioner().deallocateMipsForGuest(guest);
+			}
+		}
+	}
+
+	/**
+	 * Allocates again the PEs of a VM which is not released. A VM which no longer fits keeps
+	 * requesting its MIPS, so that it is allocated when another VM is released.
+	 *
+	 * @param guestIndex the vm index
+	 * @param mipsShareRequested the list of mips share requested by the vm
+	 */
+	private void allocateAgain(int guestIndex, List<Double> mipsShareRequested) {
+		if (!allocatePesForGuest(guestIndex, mipsShareRequested)) {
+			getMipsMapRequested().put(guestIndex, mipsShareRequested);
+		}
+	}
+
+	/**
+	 * Removes the MIPS requested by and allocated to all the VMs.
+	 */
+	private void clearAllocations() {
+		getMipsMapRequested().clear();
+		getMipsMapReserved().clear();
+		getMipsMapAllocated().clear();
+		setPesInUse(0);
+		setAvailableMips(PeList.getTotalMips(getPeList()));
+		setAllocationCoupled(false);
+	}
+
 	/**
 	 * Update allocation of VMs on PEs.
          * @todo The method is too long and may be refactored to make clearer its
@@ -133,27 +404,29 @@ public class VmSchedulerTimeShared extends VmScheduler {
 		PeProvisioner peProvisioner = pe.getPeProvisioner();
 		double availableMips = peProvisioner.getAvailableMips();
 
-		for (Map.Entry<String, List<Double>> entry : getMipsMapAllocated().entrySet()) {
-			String vmUid = entry.getKey();
-			getPeMap().put(vmUid, new LinkedList<>());
+		for (int guestIndex : getMipsMapAllocated().keys()) {
+			MipsShare mipsShare = getMipsMapAllocated().get(guestIndex);
+			List<Pe> pes = new LinkedList<>();
+			getPeMap().put(guestIndex, pes);
 
 			// Spread mips share among the Pes
-			for (double mips : entry.getValue()) {
+			for (int i = 0; i < mipsShare.size(); i++) {
+				double mips = mipsShare.getMips(i);
 				while (mips >= 0.1) { // rounding error
 					if (availableMips >= mips) {
-						peProvisioner.allocateMipsForGuest(vmUid, mips);
-						getPeMap().get(vmUid).add(pe);
+						peProvisioner.allocateMipsForGuest(guestIndex, mips);
+						pes.add(pe);
 						availableMips -= mips;
 						break;
 					} else { // next pe needed, no more space
-						peProvisioner.allocateMipsForGuest(vmUid, availableMips);
-						getPeMap().get(vmUid).add(pe);
+						peProvisioner.allocateMipsForGuest(guestIndex, availableMips);
+						pes.add(pe);
 						mips -= availableMips;
 						if (mips <= 0.1) {
 							break;
 						}
 						if (!peIterator.hasNext()) {
-							Log.printlnConcat("There is no enough MIPS (", mips, ") to accommodate VM ", vmUid);
+							Log.printlnConcat("There is no enough MIPS (", mips, ") to accommodate VM with index ", guestIndex);
 							// System.exit(0);
 						}
 						pe = peIterator.next();
@@ -167,20 +440,44 @@ public class VmSchedulerTimeShared extends VmScheduler {
 
 	@Override
 	public void deallocatePesForGuest(GuestEntity guest) {
-		getMipsMapRequested().remove(guest.getUid());
-		setPesInUse(0);
-		getMipsMapAllocated().clear();
-		setAvailableMips(PeList.getTotalMips(getPeList()));
+		// a VM migrating in takes only 10% of the MIPS it requests but needs all of them to be
+		// available, so it may not be allocated again after the VMs before it in the map
+		if (isAllocationCoupled() || !getGuestsMigratingIn().isEmpty()) {
+			getMipsMapRequested().remove(guest.getIndex());
+			int[] remaining = getMipsMapRequested().keys();
+			@SuppressWarnings("unchecked")
+			List<Double>[] remainingRequests = (List<Double>[]) new List<?>[remaining.length];
+			for (int i = 0; i < remaining.length; i++) {
+				remainingRequests[i] = getMipsMapRequested().get(remaining[i]);
+			}
+			clearAllocations();
 
-		for (Pe pe : getPeList()) {
-			pe.getPeProvisioner().deallocateMipsForGuest(guest);
+			for (Pe pe : getPeList()) {
+				pe.getPeProvisioner().deallocateMipsForGuest(guest);
+			}
+
+			// Re-allocate to remaining guests
+			for (int i = 0; i < remaining.length; i++) {
+				allocateAgain(remaining[i], remainingRequests[i]);
+			}
+			updatePeProvisioning();
+			return;
 		}
 
-		// Re-allocate to remaining guests
-		for (Map.Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
-			allocatePesForGuest(entry.getKey(), entry.getValue());
+		List<Double> mipsShareRequested = getMipsMapRequested().remove(guest.getIndex());
+		if (mipsShareRequested != null) {
+			setPesInUse(getPesInUse() - mipsShareRequested.size());
 		}
-		updatePeProvisioning();
+		getMipsMapAllocated().remove(guest.getIndex());
+		getMipsMapReserved().remove(guest.getIndex());
+		releasePes(guest);
+
+		// the available MIPS are the same as if the remaining guests were allocated again
+		double availableMips = PeList.getTotalMips(getPeList());
+		for (int guestIndex : getMipsMapRequested().keys()) {
+			availableMips -= getMipsMapReserved().getOrDefault(guestIndex, 0);
+		}
+		setAvailableMips(availableMips);
 	}
 
 	/**
@@ -192,8 +489,8 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	@Override
 	public void deallocatePesForAllGuests() {
 		super.deallocatePesForAllGuests();
-		getMipsMapRequested().clear();
-		setPesInUse(0);
+		getPeMap().clear();
+		clearAllocations();
 	}
 
 	/**
@@ -230,7 +527,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * 
 	 * @return the mips map requested
 	 */
-	protected Map<String, List<Double>> getMipsMapRequested() {
+	protected IntObjectMap<List<Double>> getMipsMapRequested() {
 		return mipsMapRequested;
 	}
 
@@ -239,7 +536,61 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * 
 	 * @param mipsMapRequested the mips map requested
 	 */
-	protected void setMipsMapRequested(Map<String, List<Double>> mipsMapRequested) {
+	protected void setMipsMapRequested(IntObjectMap<List<Double>> mipsMapRequested) {
 		this.mipsMapRequested = mipsMapRequested;
 	}
+
+	/**
+	 * Gets the mips map reserved.
+	 * 
+	 * @return the mips map reserved
+	 */
+	protected IntDoubleMap getMipsMapReserved() {
+		return mipsMapReserved;
+	}
+
+	/**
+	 * Sets the mips map reserved.
+	 * 
+	 * @param mipsMapReserved the mips map reserved
+	 */
+	protected void setMipsMapReserved(IntDoubleMap mipsMapReserved) {
+		this.mipsMapReserved = mipsMapReserved;
+	}
+
+	/**
+	 * Gets the map of MIPS allocated before the PEs of the VMs were last allocated again.
+	 * 
+	 * @return the previous mips map allocated
+	 */
+	protected IntObjectMap<MipsShare> getPreviousMipsMapAllocated() {
+		return previousMipsMapAllocated;
+	}
+
+	/**
+	 * Sets the map of MIPS allocated before the PEs of the VMs were last allocated again.
+	 * 
+	 * @param previousMipsMapAllocated the previous mips map allocated
+	 */
+	protected void setPreviousMipsMapAllocated(IntObjectMap<MipsShare> previousMipsMapAllocated) {
+		this.previousMipsMapAllocated = previousMipsMapAllocated;
+	}
+
+	/**
+	 * Checks if the MIPS allocated to the VMs depend on each other.
+	 * 
+	 * @return true, if releasing a VM changes the MIPS allocated to the others
+	 */
+	protected boolean isAllocationCoupled() {
+		return allocationCoupled;
+	}
+
+	/**
+	 * Sets if the MIPS allocated to the VMs depend on each other.
+	 * 
+	 * @param allocationCoupled true if releasing a VM changes the MIPS allocated to the others
+	 */
+	protected void setAllocationCoupled(boolean allocationCoupled) {
+		this.allocationCoupled = allocationCoupled;
+	}
 }
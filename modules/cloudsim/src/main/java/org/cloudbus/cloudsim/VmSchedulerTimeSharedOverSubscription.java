@@ -7,11 +7,8 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.io.Serial;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 
 import org.cloudbus.cloudsim.lists.PeList;
 
@@ -27,6 +24,9 @@ import org.cloudbus.cloudsim.lists.PeList;
  */
 public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Instantiates a new vm scheduler time shared over subscription.
 	 * 
@@ -43,59 +43,68 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
          * It cannot be allocated more CPU capacity for each virtual PE than the MIPS 
          * capacity of a single physical PE.
 	 * 
-	 * @param vmUid the vm uid
+	 * @param guestIndex the vm index
 	 * @param mipsShareRequested the list of mips share requested
 	 * @return true, if successful
 	 */
 	@Override
-	protected boolean allocatePesForGuest(String vmUid, List<Double> mipsShareRequested) {
+	protected boolean allocatePesForGuest(int guestIndex, List<Double> mipsShareRequested) {
+		MipsShare requested = MipsShare.of(mipsShareRequested);
 		double totalRequestedMips = 0;
 
 		// if the requested mips is bigger than the capacity of a single PE, we cap
 		// the request to the PE's capacity
-		List<Double> mipsShareRequestedCapped = new ArrayList<>();
-		double peMips = getPeCapacity();
-		for (Double mips : mipsShareRequested) {
-			if (mips > peMips) {
-				mipsShareRequestedCapped.add(peMips);
-				totalRequestedMips += peMips;
-			} else {
-				mipsShareRequestedCapped.add(mips);
-				totalRequestedMips += mips;
-			}
+		double[] mipsShareAllocated = capMips(requested, getPeCapacity(), getMipsBuffer(requested.size()));
+		for (int pe = 0; pe < requested.size(); pe++) {
+			totalRequestedMips += mipsShareAllocated[pe];
 		}
 
-		getMipsMapRequested().put(vmUid, mipsShareRequested);
-		setPesInUse(getPesInUse() + mipsShareRequested.size());
+		getMipsMapRequested().put(guestIndex, requested);
+		setPesInUse(getPesInUse() + requested.size());
 
-		if (getGuestsMigratingIn().contains(vmUid)) {
+		boolean migratingIn = getGuestsMigratingIn().get(guestIndex);
+		boolean migratingOut = getGuestsMigratingOut().get(guestIndex);
+		if (migratingIn) {
 			// the destination host only experience 10% of the migrating VM's MIPS
 			totalRequestedMips *= 0.1;
 		}
 
 		if (getAvailableMips() >= totalRequestedMips) {
-			List<Double> mipsShareAllocated = new ArrayList<>();
-			for (Double mipsRequested : mipsShareRequestedCapped) {
-				if (getGuestsMigratingOut().contains(vmUid)) {
+			for (int pe = 0; pe < requested.size(); pe++) {
+				if (migratingOut) {
 					// performance degradation due to migration = 10% MIPS
-					mipsRequested *= 0.9;
-				} else if (getGuestsMigratingIn().contains(vmUid)) {
+					mipsShareAllocated[pe] *= 0.9;
+				} else if (migratingIn) {
 					// the destination host only experience 10% of the migrating VM's MIPS
-					mipsRequested *= 0.1;
+					mipsShareAllocated[pe] *= 0.1;
 				}
-				mipsShareAllocated.add(mipsRequested);
 			}
 
-			getMipsMapAllocated().put(vmUid, mipsShareAllocated);
-			setAvailableMips(getAvailableMips() - totalRequestedMips);
+			getMipsMapAllocated().put(guestIndex, toMipsShare(guestIndex, mipsShareAllocated, requested.size()));
+			reserveMips(guestIndex, totalRequestedMips);
 		} else {
 			redistributeMipsDueToOverSubscription();
 		}
 
-        mipsShareRequestedCapped.clear();
         return true;
     }
 
+	/**
+	 * Caps the MIPS requested for each virtual PE to the capacity of a physical PE.
+	 *
+	 * @param mipsShareRequested the list of mips share requested
+	 * @param peMips the capacity of a physical PE
+	 * @param mipsShareRequestedCapped the array where the capped MIPS are put
+	 * @return the array with the capped MIPS
+	 */
+	private static double[] capMips(MipsShare mipsShareRequested, double peMips, double[] mipsShareRequestedCapped) {
+		for (int pe = 0; pe < mipsShareRequested.size(); pe++) {
+			double mips = mipsShareRequested.getMips(pe);
+			mipsShareRequestedCapped[pe] = mips > peMips ? peMips : mips;
+		}
+		return mipsShareRequestedCapped;
+	}
+
 	/**
 	 * Recalculates distribution of MIPs among VMs, considering eventual shortage of MIPS
 	 * compared to the amount requested by VMs.
@@ -105,27 +114,17 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		// proportionally
 		double totalRequiredMipsByAllVms = 0;
 
-		Map<String, List<Double>> mipsMapCapped = new HashMap<>();
-		for (Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
-
+		int[] guestIndices = getMipsMapRequested().keys();
+		double[][] mipsMapCapped = new double[guestIndices.length][];
+		for (int i = 0; i < guestIndices.length; i++) {
 			double requiredMipsByThisVm = 0.0;
-			String vmId = entry.getKey();
-			List<Double> mipsShareRequested = entry.getValue();
-			List<Double> mipsShareRequestedCapped = new ArrayList<>();
-			double peMips = getPeCapacity();
-			for (Double mips : mipsShareRequested) {
-				if (mips > peMips) {
-					mipsShareRequestedCapped.add(peMips);
-					requiredMipsByThisVm += peMips;
-				} else {
-					mipsShareRequestedCapped.add(mips);
-					requiredMipsByThisVm += mips;
-				}
+			MipsShare requested = MipsShare.of(getMipsMapRequested().get(guestIndices[i]));
+			mipsMapCapped[i] = capMips(requested, getPeCapacity(), new double[requested.size()]);
+			for (double mips : mipsMapCapped[i]) {
+				requiredMipsByThisVm += mips;
 			}
 
-			mipsMapCapped.put(vmId, mipsShareRequestedCapped);
-
-			if (getGuestsMigratingIn().contains(entry.getKey())) {
+			if (getGuestsMigratingIn().get(guestIndices[i])) {
 				// the destination host only experience 10% of the migrating VM's MIPS
 				requiredMipsByThisVm *= 0.1;
 			}
@@ -139,18 +138,18 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		getMipsMapAllocated().clear();
 
 		// Update the actual MIPS allocated to the VMs
-		for (Entry<String, List<Double>> entry : mipsMapCapped.entrySet()) {
-			String vmUid = entry.getKey();
-			List<Double> requestedMips = entry.getValue();
-
-			List<Double> updatedMipsAllocation = new ArrayList<>();
-			for (Double mips : requestedMips) {
-				if (getGuestsMigratingOut().contains(vmUid)) {
+		for (int i = 0; i < guestIndices.length; i++) {
+			boolean migratingIn = getGuestsMigratingIn().get(guestIndices[i]);
+			boolean migratingOut = getGuestsMigratingOut().get(guestIndices[i]);
+			double[] updatedMipsAllocation = mipsMapCapped[i];
+			for (int pe = 0; pe < updatedMipsAllocation.length; pe++) {
+				double mips = updatedMipsAllocation[pe];
+				if (migratingOut) {
 					// the original amount is scaled
 					mips *= scalingFactor;
 					// performance degradation due to migration = 10% MIPS
 					mips *= 0.9;
-				} else if (getGuestsMigratingIn().contains(vmUid)) {
+				} else if (migratingIn) {
 					// the destination host only experiences 10% of the migrating VM's MIPS
 					mips *= 0.1;
 					// the final 10% of the requested MIPS are scaled
@@ -159,16 +158,17 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 					mips *= scalingFactor;
 				}
 
-				updatedMipsAllocation.add(Math.floor(mips));
+				updatedMipsAllocation[pe] = Math.floor(mips);
 			}
 
 			// add in the new map
-			getMipsMapAllocated().put(vmUid, updatedMipsAllocation);
-
+			getMipsMapAllocated().put(guestIndices[i],
+					toMipsShare(guestIndices[i], updatedMipsAllocation, updatedMipsAllocation.length));
 		}
 
 		// As the host is oversubscribed, there no more available MIPS
 		setAvailableMips(0);
+		setAllocationCoupled(true);
 	}
 
 }
@@ -10,7 +10,13 @@ package org.cloudbus.cloudsim.container.core;
 import org.cloudbus.cloudsim.*;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.util.HistorySerializer;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,6 +26,9 @@ import java.util.List;
  */
 public class Container implements GuestEntity {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     /** The id. */
     private final int id;
 
@@ -29,6 +38,9 @@ public class Container implements GuestEntity {
     /** The uid. */
     private String uid;
 
+    /** The index of the container, assigned when it is created. */
+    private final int index;
+
     /** The size. */
     private long size;
 
@@ -75,8 +87,11 @@ public class Container implements GuestEntity {
     /** The VM is being instantiated. */
     private boolean beingInstantiated;
 
+    /** The current requested MIPS share while the container is being instantiated. */
+    private MipsShare instantiationMipsShare;
+
     /** The mips allocation history. */
-    private final List<VmStateHistoryEntry> stateHistory = new ArrayList<>();
+    private transient List<VmStateHistoryEntry> stateHistory = new ArrayList<>();
 
 //    added from the power Vm
     /**
@@ -121,6 +136,7 @@ public class Container implements GuestEntity {
         this.id = id;
         setUserId(userId);
         setUid(GuestEntity.getUid(userId, id));
+        index = SimulationContext.current().nextGuestIndex();
         setMips(mips);
         setNumberOfPes(numberOfPes);
         setRam(ram);
@@ -246,6 +262,18 @@ public class Container implements GuestEntity {
         return getCloudletScheduler().getCurrentRequestedMips();
     }
 
+    @Override
+    public MipsShare getCurrentRequestedMipsShare() {
+        if (isBeingInstantiated()) {
+            if (instantiationMipsShare == null || !instantiationMipsShare.isUniform(getNumberOfPes(), getMips())) {
+                instantiationMipsShare = MipsShare.uniform(getNumberOfPes(), getMips());
+            }
+            return instantiationMipsShare;
+        }
+
+        return getCloudletScheduler().getCurrentRequestedMipsShare();
+    }
+
     @Override
     public double getCurrentRequestedTotalMips() {
         if (isBeingInstantiated())
@@ -262,6 +290,8 @@ public class Container implements GuestEntity {
     public String getUid() { return uid; }
     public void setUid(String uid) { this.uid = uid; }
 
+    public int getIndex() { return index; }
+
     public long getSize() { return size; }
     public void setSize(long size) { this.size = size; }
 
@@ -323,4 +353,23 @@ public class Container implements GuestEntity {
     public boolean isBeingInstantiated() { return beingInstantiated; }
 
     public List<VmStateHistoryEntry> getStateHistory() { return stateHistory; }
+
+    /**
+     * Writes the histories as primitive values, see {@link HistorySerializer}.
+     */
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        HistorySerializer.writeVmStates(out, stateHistory);
+    }
+
+    /**
+     * Reads the histories written by {@link #writeObject(ObjectOutputStream)}.
+     */
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        stateHistory = HistorySerializer.readVmStates(in);
+    }
+
 }
@@ -10,6 +10,7 @@ package org.cloudbus.cloudsim.container.core;
 import org.cloudbus.cloudsim.*;
 import org.cloudbus.cloudsim.core.*;
 
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -20,6 +21,10 @@ import java.util.Map;
  * Modified by Remo Andreoli (Feb 2024)
  */
 public class ContainerDatacenter extends Datacenter {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     /**
      * The container provisioner.
      */
@@ -65,6 +70,8 @@ public class ContainerDatacenter extends Datacenter {
         setContainerList(new ArrayList<>());
         setExperimentName(experimentName);
         setLogAddress(logAddress);
+        // the containers and their cloudlets are processed on their VMs without marking the hosts
+        setUpdateAllHosts(true);
     }
 
     /**
@@ -123,6 +130,7 @@ public class ContainerDatacenter extends Datacenter {
                     container.setBeingInstantiated(false);
                 }
 
+                bindCompletionQueue(container);
                 container.updateCloudletsProcessing(CloudSim.clock(), getContainerAllocationPolicy().getHost(container).getGuestScheduler().getAllocatedMipsForGuest(container));
             } else {
                 Log.println(String.format("Datacenter.containerAllocator: Couldn't find a vm to host the container #%s", container.getUid()));
@@ -213,6 +221,7 @@ public class ContainerDatacenter extends Datacenter {
             Log.println("[Datacenter.processContainerMigrate]Container allocation to the destination vm failed");
             System.exit(0);
         }
+        bindCompletionQueue(container);
         if (containerVm.isInWaiting()){
             containerVm.setInWaiting(false);
 
@@ -346,7 +355,9 @@ public class ContainerDatacenter extends Datacenter {
                 } else {
                     // time to transfer the files
                     double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
-                    containerVm.getGuest(containerDestId, userId).getCloudletScheduler().cloudletSubmit(cl, fileTransferTime);
+                    GuestEntity container = containerVm.getGuest(containerDestId, userId);
+                    bindCompletionQueue(container);
+                    container.getCloudletScheduler().cloudletSubmit(cl, fileTransferTime);
                 }
             } else {// the cloudlet will migrate from one resource to another
                 CloudActionTags newTag = ((tag == CloudActionTags.CLOUDLET_MOVE_ACK) ? CloudActionTags.CLOUDLET_SUBMIT_ACK
@@ -423,6 +434,7 @@ public class ContainerDatacenter extends Datacenter {
             HostEntity host = getVmAllocationPolicy().getHost(vmId, userId);
             VirtualEntity vm = (VirtualEntity) host.getGuest(vmId, userId);
             Container container = (Container) vm.getGuest(containerId, userId);
+            bindCompletionQueue(container);
             double estimatedFinishTime = container.getCloudletScheduler().cloudletSubmit(cl, fileTransferTime);
 
             // if this cloudlet is in the exec queue
@@ -531,30 +543,6 @@ public class ContainerDatacenter extends Datacenter {
         sendNow(userId, CloudActionTags.CLOUDLET_CANCEL, cl);
     }
 
-    /**
-     * Verifies if some cloudlet inside this PowerDatacenter already finished. If yes, send it to
-     * the User/Broker
-     *
-     * @pre $none
-     * @post $none
-     *
-     * TODO: Remo Andreoli: Generalise this to work with every hybrid host-guest entity
-     */
-    protected void checkCloudletCompletion() {
-        for (HostEntity host : getVmAllocationPolicy().getHostList()) {
-            for (VirtualEntity vm : host.<VirtualEntity>getGuestList()) {
-                for (GuestEntity container : vm.getGuestList()) {
-                    while (container.getCloudletScheduler().isFinishedCloudlets()) {
-                        Cloudlet cl = container.getCloudletScheduler().getNextFinishedCloudlet();
-                        if (cl != null) {
-                            sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
-                        }
-                    }
-                }
-            }
-        }
-    }
-
     public VmAllocationPolicy getContainerAllocationPolicy() { return containerAllocationPolicy; }
     public void setContainerAllocationPolicy(VmAllocationPolicy containerAllocationPolicy) {
         this.containerAllocationPolicy = containerAllocationPolicy;
@@ -14,7 +14,12 @@ import org.cloudbus.cloudsim.core.VirtualEntity;
 import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
+import org.cloudbus.cloudsim.util.HistorySerializer;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,6 +29,9 @@ import java.util.List;
  */
 public class ContainerHostDynamicWorkload extends Host {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
 
         /** The utilization mips. */
         private double utilizationMips;
@@ -32,7 +40,7 @@ public class ContainerHostDynamicWorkload extends Host {
         private double previousUtilizationMips;
 
         /** The state history. */
-        private final List<HostStateHistoryEntry> stateHistory = new ArrayList<>();
+        private transient List<HostStateHistoryEntry> stateHistory = new ArrayList<>();
 
         /**
          * Instantiates a new host.
@@ -69,13 +77,7 @@ public class ContainerHostDynamicWorkload extends Host {
 
             List<GuestEntity> containerVms = getGuestList();
 
-            for (GuestEntity containerVm : containerVms) {
-                getGuestScheduler().deallocatePesForGuest(containerVm);
-            }
-
-            for (GuestEntity  containerVm : containerVms) {
-                getGuestScheduler().allocatePesForGuest(containerVm, containerVm.getCurrentRequestedMips());
-            }
+            getGuestScheduler().reallocateAll(containerVms);
 
             for (GuestEntity containerVm : containerVms) {
                 double totalRequestedMips = containerVm.getCurrentRequestedTotalMips();
@@ -323,5 +325,23 @@ public class ContainerHostDynamicWorkload extends Host {
             getStateHistory().add(newState);
         }
 
+        /**
+         * Writes the histories as primitive values, see {@link HistorySerializer}.
+         */
+        @Serial
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            out.defaultWriteObject();
+            HistorySerializer.writeHostStates(out, stateHistory);
+        }
+
+        /**
+         * Reads the histories written by {@link #writeObject(ObjectOutputStream)}.
+         */
+        @Serial
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            stateHistory = HistorySerializer.readHostStates(in);
+        }
+
     }
 
@@ -13,6 +13,7 @@ import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
 
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -32,6 +33,9 @@ import java.util.List;
  */
 public class ContainerVm extends Vm {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     /**
      * The Cloudlet scheduler.
      */
@@ -71,6 +75,17 @@ public class ContainerVm extends Vm {
      */
     private final List<GuestEntity> containersMigratingIn = new ArrayList<>();
 
+    /**
+     * The last current requested MIPS share.
+     * @see #getCurrentRequestedMipsShare()
+     */
+    private MipsShare requestedMipsShare;
+
+    /**
+     * The array where the current requested MIPS of the containers are gathered.
+     */
+    private double[] requestedMipsBuffer = new double[0];
+
     /**
      * Creates a new VMCharacteristics object.
      * @param id
@@ -129,7 +144,7 @@ public class ContainerVm extends Vm {
 //            Log.printLine("The VM list size is:...." + getContainerList().size());
 
             for (GuestEntity container : getGuestList()) {
-                double time = container.updateCloudletsProcessing(currentTime, getContainerScheduler().getAllocatedMipsForGuest(container));
+                double time = container.updateCloudletsProcessing(currentTime, getContainerScheduler().getAllocatedMipsShareForGuest(container));
                 if (time > 0.0 && time < smallerTime) {
                     smallerTime = time;
                 }
@@ -150,7 +165,7 @@ public class ContainerVm extends Vm {
 //        Log.printLine("The VM list size is:...." + getContainerList().size());
 
         for (GuestEntity container : getGuestList()) {
-            double time = container.updateCloudletsProcessing(currentTime, getContainerScheduler().getAllocatedMipsForGuest(container));
+            double time = container.updateCloudletsProcessing(currentTime, getContainerScheduler().getAllocatedMipsShareForGuest(container));
             if (time > 0.0 && time < smallerTime) {
                 smallerTime = time;
             }
@@ -203,6 +218,33 @@ public class ContainerVm extends Vm {
         return currentRequestedMips;
     }
 
+    /**
+     * Gets the current requested mips as a MIPS share, which is kept while the requested mips
+     * do not change.
+     *
+     * @return the current requested mips
+     */
+    @Override
+    public MipsShare getCurrentRequestedMipsShare() {
+        if (isBeingInstantiated()) {
+            if (requestedMipsShare == null || !requestedMipsShare.isUniform(getNumberOfPes(), getMips())) {
+                requestedMipsShare = MipsShare.uniform(getNumberOfPes(), getMips());
+            }
+            return requestedMipsShare;
+        }
+
+        double[] mips = requestedMipsBuffer;
+        int length = 0;
+        for (GuestEntity container : getGuestList()) {
+            MipsShare containerMips = container.getCurrentRequestedMipsShare();
+            mips = containerMips.copyTo(mips, length);
+            length += containerMips.size();
+        }
+        requestedMipsBuffer = mips;
+        requestedMipsShare = MipsShare.copyOf(mips, length, requestedMipsShare);
+        return requestedMipsShare;
+    }
+
     /**
      * Gets the current requested bw.
      *
@@ -15,6 +15,7 @@ import org.cloudbus.cloudsim.core.predicates.PredicateType;
 import org.cloudbus.cloudsim.power.PowerHost;
 
 import java.io.IOException;
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,6 +25,9 @@ import java.util.List;
  */
 public class PowerContainerDatacenter extends ContainerDatacenter {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
 
     /**
      * The power.
@@ -112,8 +116,7 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
     protected void updateCloudletProcessing() {
 //        Log.printLine("Power data center is Updating the cloudlet processing");
         if (getCloudletSubmitted() == -1 || getCloudletSubmitted() == CloudSim.clock()) {
-            CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.VM_DATACENTER_EVENT));
-            schedule(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
+            rearmTimer(CloudActionTags.VM_DATACENTER_EVENT, getSchedulingInterval());
             return;
         }
         double currentTime = CloudSim.clock();
@@ -149,6 +152,7 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
                                     targetHost.getId());
                         }
                         targetHost.addMigratingInGuest(vm);
+                        getVmAllocationPolicy().hostChanged(targetHost);
                         incrementMigrationCount();
 
                         /** VM migration delay = RAM / bandwidth **/
@@ -175,8 +179,7 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
 
             // schedules an event to the next time
             if (minTime != Double.MAX_VALUE) {
-                CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.VM_DATACENTER_EVENT));
-                send(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
+                rearmTimer(CloudActionTags.VM_DATACENTER_EVENT, getSchedulingInterval());
             }
 
             setLastProcessTime(currentTime);
@@ -215,6 +218,8 @@ public class PowerContainerDatacenter extends ContainerDatacenter {
             Log.println();
 
             double time = host.updateCloudletsProcessing(currentTime); // inform VMs to update processing
+            getVmAllocationPolicy().hostChanged(host);
+            getContainerAllocationPolicy().hostChanged(host);
             if (time < minTime) {
                 minTime = time;
             }
@@ -11,10 +11,10 @@ import org.cloudbus.cloudsim.*;
 import org.cloudbus.cloudsim.VmAllocationPolicy.GuestMapping;
 import org.cloudbus.cloudsim.container.utils.CustomCSVWriter;
 import org.cloudbus.cloudsim.core.*;
-import org.cloudbus.cloudsim.core.predicates.PredicateType;
 import org.cloudbus.cloudsim.power.PowerHost;
 
 import java.io.IOException;
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -23,6 +23,10 @@ import java.util.List;
  * Modified by Remo Andreoli (Feb 2024)
  */
 public class PowerContainerDatacenterCM extends PowerContainerDatacenter {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     /**
      * The disable container migrations.
      */
@@ -56,8 +60,7 @@ public class PowerContainerDatacenterCM extends PowerContainerDatacenter {
     protected void updateCloudletProcessing() {
         //        Log.printLine("Power data center is Updating the cloudlet processing");
         if (getCloudletSubmitted() == -1 || getCloudletSubmitted() == CloudSim.clock()) {
-            CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.VM_DATACENTER_EVENT));
-            schedule(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
+            rearmTimer(CloudActionTags.VM_DATACENTER_EVENT, getSchedulingInterval());
             return;
         }
         double currentTime = CloudSim.clock();
@@ -96,6 +99,7 @@ public class PowerContainerDatacenterCM extends PowerContainerDatacenter {
                             }
                             incrementContainerMigrationCount();
                             targetVm.addMigratingInGuest(container);
+                            getContainerAllocationPolicy().hostChanged(targetVm);
 
 
                             if (migrate.NewEventRequired()) {
@@ -170,6 +174,7 @@ public class PowerContainerDatacenterCM extends PowerContainerDatacenter {
                             }
 
                             targetHost.addMigratingInGuest(vm);
+                            getVmAllocationPolicy().hostChanged(targetHost);
                             incrementMigrationCount();
 
                             /** VM migration delay = RAM / bandwidth **/
@@ -221,8 +226,7 @@ public class PowerContainerDatacenterCM extends PowerContainerDatacenter {
 
             // schedules an event to the next time
             if (minTime != Double.MAX_VALUE) {
-                CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.VM_DATACENTER_EVENT));
-                send(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
+                rearmTimer(CloudActionTags.VM_DATACENTER_EVENT, getSchedulingInterval());
             }
 
             setLastProcessTime(currentTime);
@@ -255,6 +259,7 @@ public class PowerContainerDatacenterCM extends PowerContainerDatacenter {
                     containerVm.setBeingInstantiated(false);
                 }
 
+                bindCompletionQueue(containerVm);
                 containerVm.updateCloudletsProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(containerVm).getGuestScheduler()
                         .getAllocatedMipsForGuest(containerVm));
             }
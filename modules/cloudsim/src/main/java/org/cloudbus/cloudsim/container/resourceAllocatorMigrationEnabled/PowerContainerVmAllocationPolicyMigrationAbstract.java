@@ -16,7 +16,12 @@ import org.cloudbus.cloudsim.lists.VmList;
 import org.cloudbus.cloudsim.power.PowerHost;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
 import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
+import org.cloudbus.cloudsim.util.HistorySerializer;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.util.*;
 
 /**
@@ -25,6 +30,9 @@ import java.util.*;
  */
 public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends VmAllocationPolicySimpler {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     /**
      * The vm selection policy.
      */
@@ -38,37 +46,37 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
     /**
      * The utilization history.
      */
-    private final Map<Integer, List<Double>> utilizationHistory = new HashMap<>();
+    private transient Map<Integer, List<Double>> utilizationHistory = new HashMap<>();
 
     /**
      * The metric history.
      */
-    private final Map<Integer, List<Double>> metricHistory = new HashMap<>();
+    private transient Map<Integer, List<Double>> metricHistory = new HashMap<>();
 
     /**
      * The time history.
      */
-    private final Map<Integer, List<Double>> timeHistory = new HashMap<>();
+    private transient Map<Integer, List<Double>> timeHistory = new HashMap<>();
 
     /**
      * The execution time history vm selection.
      */
-    private final List<Double> executionTimeHistoryVmSelection = new ArrayList<>();
+    private transient List<Double> executionTimeHistoryVmSelection = new ArrayList<>();
 
     /**
      * The execution time history host selection.
      */
-    private final List<Double> executionTimeHistoryHostSelection = new ArrayList<>();
+    private transient List<Double> executionTimeHistoryHostSelection = new ArrayList<>();
 
     /**
      * The execution time history vm reallocation.
      */
-    private final List<Double> executionTimeHistoryVmReallocation = new ArrayList<>();
+    private transient List<Double> executionTimeHistoryVmReallocation = new ArrayList<>();
 
     /**
      * The execution time history total.
      */
-    private final List<Double> executionTimeHistoryTotal = new ArrayList<>();
+    private transient List<Double> executionTimeHistoryTotal = new ArrayList<>();
 
     /**
      * Instantiates a new power vm allocation policy migration abstract.
@@ -704,6 +712,36 @@ public abstract class PowerContainerVmAllocationPolicyMigrationAbstract extends
         return executionTimeHistoryTotal;
     }
 
+    /**
+     * Writes the histories as primitive values, see {@link HistorySerializer}.
+     */
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        HistorySerializer.writeDoubleMap(out, utilizationHistory);
+        HistorySerializer.writeDoubleMap(out, metricHistory);
+        HistorySerializer.writeDoubleMap(out, timeHistory);
+        HistorySerializer.writeDoubles(out, executionTimeHistoryVmSelection);
+        HistorySerializer.writeDoubles(out, executionTimeHistoryHostSelection);
+        HistorySerializer.writeDoubles(out, executionTimeHistoryVmReallocation);
+        HistorySerializer.writeDoubles(out, executionTimeHistoryTotal);
+    }
+
+    /**
+     * Reads the histories written by {@link #writeObject(ObjectOutputStream)}.
+     */
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        utilizationHistory = HistorySerializer.readDoubleMap(in);
+        metricHistory = HistorySerializer.readDoubleMap(in);
+        timeHistory = HistorySerializer.readDoubleMap(in);
+        executionTimeHistoryVmSelection = HistorySerializer.readDoubles(in);
+        executionTimeHistoryHostSelection = HistorySerializer.readDoubles(in);
+        executionTimeHistoryVmReallocation = HistorySerializer.readDoubles(in);
+        executionTimeHistoryTotal = HistorySerializer.readDoubles(in);
+    }
+
 
 //    public abstract List<? extends Container> getContainersToMigrateFromHosts(List<PowerHost> overUtilizedHosts);
 }
\ No newline at end of file
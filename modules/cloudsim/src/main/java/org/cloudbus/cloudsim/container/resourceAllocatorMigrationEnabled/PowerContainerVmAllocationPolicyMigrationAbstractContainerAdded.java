@@ -24,6 +24,7 @@ import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
 import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
 
+import java.io.Serial;
 import java.util.*;
 
 
@@ -34,6 +35,9 @@ import java.util.*;
 
 public abstract class PowerContainerVmAllocationPolicyMigrationAbstractContainerAdded extends PowerContainerVmAllocationPolicyMigrationAbstract {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private ContainerDatacenter datacenter;
     /**
      * The container selection policy.
@@ -6,16 +6,24 @@ import org.cloudbus.cloudsim.Log;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Serial;
+import java.io.Serializable;
 
 /**
  * Created by sareh on 30/07/15.
  * Modified by Remo Andreoli, Jun 2024.
+ *
+ * The file is opened again at each write, so a writer saved in a checkpoint keeps appending to
+ * the same file once restored.
  */
-public class CustomCSVWriter {
+public class CustomCSVWriter implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     String fileAddress;
     boolean newFileCreated = false;
 
-    CSVWriter writer;
+    transient CSVWriter writer;
 
     public CustomCSVWriter(String fileAddress) throws IOException {
         File f = new File(fileAddress);
@@ -9,6 +9,7 @@ import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.container.core.*;
+import org.cloudbus.cloudsim.core.SimulationContext;
 
 import java.util.LinkedHashMap;
 import java.util.HashSet;
@@ -28,17 +29,23 @@ import java.util.Map;
 public final class IDs {
 
 
-    private static final Map<Class<?>, Integer> COUNTERS = new LinkedHashMap<>();
-    private static final Set<Class<?>> NO_COUNTERS = new HashSet<>();
-    private static int globalCounter = 1;
-
-    static {
-        COUNTERS.put(Cloudlet.class, 1);
-        COUNTERS.put(ContainerVm.class, 1);
-        COUNTERS.put(Container.class, 1);
-        COUNTERS.put(Host.class, 1);
-        COUNTERS.put(ContainerDatacenterBroker.class, 1);
-        COUNTERS.put(Pe.class, 1);
+    /**
+     * The counters of a simulation context. Each context generates its own
+     * sequence of ids, so that concurrent simulations do not affect each other.
+     */
+    private static final class Counters {
+        private final Map<Class<?>, Integer> counters = new LinkedHashMap<>();
+        private final Set<Class<?>> noCounters = new HashSet<>();
+        private int globalCounter = 1;
+
+        private Counters() {
+            counters.put(Cloudlet.class, 1);
+            counters.put(ContainerVm.class, 1);
+            counters.put(Container.class, 1);
+            counters.put(Host.class, 1);
+            counters.put(ContainerDatacenterBroker.class, 1);
+            counters.put(Pe.class, 1);
+        }
     }
 
     private IDs() {
@@ -50,38 +57,37 @@ public final class IDs {
      * @param clazz - the class of the object to get an id for. Must not be null.
      * @return a valid id for the specified class.
      */
-    public static synchronized int pollId(final Class<?> clazz) {
-        Class<?> matchClass = null;
-        if (COUNTERS.containsKey(clazz)) {
-            matchClass = clazz;
-        } else if (!NO_COUNTERS.contains(clazz)) {
-            for (Class<?> key : COUNTERS.keySet()) {
-                if (key.isAssignableFrom(clazz)) {
-                    matchClass = key;
-                    break;
+    public static int pollId(final Class<?> clazz) {
+        Counters counters = SimulationContext.current().getComponent(Counters.class, Counters::new);
+        synchronized (counters) {
+            Class<?> matchClass = null;
+            if (counters.counters.containsKey(clazz)) {
+                matchClass = clazz;
+            } else if (!counters.noCounters.contains(clazz)) {
+                for (Class<?> key : counters.counters.keySet()) {
+                    if (key.isAssignableFrom(clazz)) {
+                        matchClass = key;
+                        break;
+                    }
                 }
             }
-        }
-
-        int result = -1;
-        if (matchClass == null) {
-            NO_COUNTERS.add(clazz);
-            result = pollGlobalId();
-        } else {
-            result = COUNTERS.get(matchClass);
-            COUNTERS.put(matchClass, result + 1);
-        }
 
-        if (result < 0) {
-            throw new IllegalStateException("The generated id for class:" + clazz.getName()
-                    + " is negative. Possible integer overflow.");
-        }
+            int result = -1;
+            if (matchClass == null) {
+                counters.noCounters.add(clazz);
+                result = counters.globalCounter++;
+            } else {
+                result = counters.counters.get(matchClass);
+                counters.counters.put(matchClass, result + 1);
+            }
 
-        return result;
-    }
+            if (result < 0) {
+                throw new IllegalStateException("The generated id for class:" + clazz.getName()
+                        + " is negative. Possible integer overflow.");
+            }
 
-    private static synchronized int pollGlobalId() {
-        return globalCounter++;
+            return result;
+        }
     }
 
 }
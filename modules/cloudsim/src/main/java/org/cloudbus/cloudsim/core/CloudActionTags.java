@@ -190,6 +190,18 @@ public enum CloudActionTags implements CloudSimTags {
 	 */
 	VM_CREATE_ACK,
 
+	/**
+	 * Denotes a request to create a list of VMs in a {@link Datacenter} at once,
+	 * without acknowledgement information sent by the Datacenter.
+	 */
+	VM_CREATE_BATCH,
+
+	/**
+	 * Denotes a request to create a list of VMs in a {@link Datacenter} at once,
+	 * with a single acknowledgement for all the VMs sent by the Datacenter.
+	 */
+	VM_CREATE_BATCH_ACK,
+
 	/**
 	 * Denotes a request to destroy a new VM in a {@link Datacenter}.
 	 * without acknowledgement information sent by the Datacener.
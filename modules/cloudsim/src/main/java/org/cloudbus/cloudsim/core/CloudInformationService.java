@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.io.Serial;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -30,6 +31,9 @@ import org.cloudbus.cloudsim.Log;
  */
 public class CloudInformationService extends SimEntity {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** A list containing the id of all entities that are registered at the 
          * Cloud Information Service (CIS). 
          * //TODO It is not clear if this list is a list of host id's or datacenter id's.
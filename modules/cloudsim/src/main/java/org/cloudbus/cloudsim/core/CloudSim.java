@@ -8,16 +8,12 @@
 
 package org.cloudbus.cloudsim.core;
 
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.Calendar;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
 
-import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.predicates.Predicate;
 import org.cloudbus.cloudsim.core.predicates.PredicateAny;
 import org.cloudbus.cloudsim.core.predicates.PredicateNone;
@@ -29,70 +25,19 @@ import org.cloudbus.cloudsim.core.predicates.PredicateNone;
  * network. Later, nodes in such file are mapped to CloudSim entities. Delay calculated from the
  * BRITE model are added to the messages send through CloudSim. Messages using the old model are
  * converted to the apropriate methods with the correct parameters.
+ * <p>
+ * The state of the simulation is kept in a {@link SimulationContext}. The static methods of this
+ * class work on the {@link SimulationContext#current() context of the calling thread}, so
+ * independent simulations can run concurrently, each one in a task of its own context.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 1.0
  */
-@SuppressWarnings("BusyWait")
 public class CloudSim {
 
 	/** The Constant CLOUDSIM_VERSION_STRING. */
-	private static final String CLOUDSIM_VERSION_STRING = "7.0";
-
-	/** The id of CIS entity. */
-	private static int cisId = -1;
-
-	/** The id of CloudSimShutdown entity. */
-	private static int shutdownId = -1;
-
-	/** The CIS object. */
-	private static CloudInformationService cis = null;
-
-	/** The Constant NOT_FOUND. */
-	private static final int NOT_FOUND = -1;
-
-	/** The trace flag. */
-	private static boolean traceFlag = false;
-
-	/** The calendar. */
-	private static Calendar calendar = null;
-
-	/** The termination time. */
-	private static double terminateAt = -1;
-
-	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
-	private static double minTimeBetweenEvents = 0.01;
-	
-	/**
-	 * Initialises all the common attributes.
-	 * 
-	 * @param _calendar the _calendar
-	 * @param _traceFlag the _trace flag
-	 * @param numUser number of users
-	 * @throws Exception This happens when creating this entity before initialising CloudSim package
-	 *             or this entity name is <tt>null</tt> or empty
-	 * @pre $none
-	 * @post $none
-	 */
-	private static void initCommonVariable(Calendar _calendar, boolean _traceFlag, int numUser)
-			throws Exception {
-		initialize();
-		// NOTE: the order for the below 3 lines are important
-		traceFlag = _traceFlag;
-
-		// Set the current Wall clock time as the starting time of
-		// simulation
-		if (_calendar == null) {
-			calendar = Calendar.getInstance();
-		} else {
-			calendar = _calendar;
-		}
-
-		// creates a CloudSimShutdown object
-		CloudSimShutdown shutdown = new CloudSimShutdown("CloudSimShutdown", numUser);
-		shutdownId = shutdown.getId();
-	}
+	static final String CLOUDSIM_VERSION_STRING = "7.0";
 
 	/**
 	 * Initialises CloudSim parameters. This method should be called before creating any entities.
@@ -116,18 +61,32 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void init(int numUser, Calendar cal, boolean traceFlag) {
-		try {
-			initCommonVariable(cal, traceFlag, numUser);
-
-			// create a GIS object
-			cis = new CloudInformationService("CloudInformationService");
+		init(numUser, cal, traceFlag, new FutureQueueTreeSet());
+	}
 
-			// set all the above entity IDs
-			cisId = cis.getId();
-		} catch (Exception s) {
-			Log.println("CloudSim.init(): The simulation has been terminated due to an unexpected error");
-			Log.println(s.getMessage());
-		}
+	/**
+	 * Initialises CloudSim parameters, using a given implementation of the future event queue.
+	 * This method should be called before creating any entities.
+	 * <p>
+	 * All the {@link FutureQueue} implementations deliver the events in the same order, so the
+	 * choice only affects the simulation performance. For instance, {@link FutureQueueHeap} or
+	 * {@link FutureQueueLadder} usually outperform the default {@link FutureQueueTreeSet}
+	 * when the queue holds a large number of events.
+	 * 
+	 * @param numUser the number of User Entities created. This parameters indicates that
+	 *            {@link CloudSimShutdown} first waits for all user entities's
+	 *            END_OF_SIMULATION signal before issuing terminate signal to other entities
+	 * @param cal starting time for this simulation. If it is <tt>null</tt>, then the time will be
+	 *            taken from <tt>Calendar.getInstance()</tt>
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @param futureQueue an empty future event queue to be used by the simulation
+	 * @see CloudSim#init(int, Calendar, boolean)
+	 * @pre numUser >= 0
+	 * @pre futureQueue != null
+	 * @post $none
+	 */
+	public static void init(int numUser, Calendar cal, boolean traceFlag, FutureQueue futureQueue) {
+		SimulationContext.current().init(numUser, cal, traceFlag, futureQueue);
 	}
 
 	/**
@@ -154,12 +113,27 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void init(int numUser, Calendar cal, boolean traceFlag, double periodBetweenEvents) {
-	    if (periodBetweenEvents <= 0) {
-		throw new IllegalArgumentException("The minimal time between events should be positive, but is:" + periodBetweenEvents);
-	    }
-	    
-	    init(numUser, cal, traceFlag);
-	    minTimeBetweenEvents = periodBetweenEvents;
+		SimulationContext.current().init(numUser, cal, traceFlag, periodBetweenEvents, new FutureQueueTreeSet());
+	}
+
+	/**
+	 * Initialises CloudSim parameters, using a given implementation of the future event queue.
+	 * This method should be called before creating any entities.
+	 * 
+	 * @param numUser the number of User Entities created
+	 * @param cal starting time for this simulation. If it is <tt>null</tt>, then the time will be
+	 *            taken from <tt>Calendar.getInstance()</tt>
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @param periodBetweenEvents - the minimal period between events. Events within shorter periods
+	 * after the last event are discarded.
+	 * @param futureQueue an empty future event queue to be used by the simulation
+	 * @see CloudSim#init(int, Calendar, boolean, FutureQueue)
+	 * @pre numUser >= 0
+	 * @post $none
+	 */
+	public static void init(int numUser, Calendar cal, boolean traceFlag, double periodBetweenEvents,
+			FutureQueue futureQueue) {
+		SimulationContext.current().init(numUser, cal, traceFlag, periodBetweenEvents, futureQueue);
 	}
 	
 	
@@ -179,23 +153,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static double startSimulation() throws NullPointerException {
-		Log.printlnConcat("Starting CloudSim version ", CLOUDSIM_VERSION_STRING);
-		try {
-			double clock = run();
-
-			// reset all static variables
-			cisId = -1;
-			shutdownId = -1;
-			cis = null;
-			calendar = null;
-			traceFlag = false;
-
-			return clock;
-		} catch (IllegalArgumentException e) {
-			e.printStackTrace();
-			throw new NullPointerException("CloudSim.startCloudSimulation() :"
-					+ " Error - you haven't initialized CloudSim.");
-		}
+		return SimulationContext.current().startSimulation();
 	}
 
 	/**
@@ -210,12 +168,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void stopSimulation() throws NullPointerException {
-		try {
-			runStop();
-		} catch (IllegalArgumentException e) {
-			throw new NullPointerException("CloudSim.stopCloudSimulation() : "
-					+ "Error - can't stop Cloud Simulation.");
-		}
+		SimulationContext.current().stopSimulation();
 	}
 
 	/**
@@ -224,9 +177,7 @@ public class CloudSim {
 	 * @return true, if successful; false otherwise.
 	 */
 	public static boolean terminateSimulation() {
-		running = false;
-		printMessage("Simulation: Reached termination time.");
-		return true;
+		return SimulationContext.current().terminateSimulation();
 	}
 
 	/**
@@ -236,12 +187,7 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean terminateSimulation(double time) {
-		if (time <= clock) {
-			return false;
-		} else {
-			terminateAt = time;
-		}
-		return true;
+		return SimulationContext.current().terminateSimulation(time);
 	}
 
 	
@@ -250,7 +196,7 @@ public class CloudSim {
 	 * @return the minimum time between events.
 	 */
 	public static double getMinTimeBetweenEvents() {
-	    return minTimeBetweenEvents;
+		return SimulationContext.current().getMinTimeBetweenEvents();
 	}
 
 	/**
@@ -263,13 +209,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static Calendar getSimulationCalendar() {
-		// make a new copy
-		Calendar clone = calendar;
-		if (calendar != null) {
-			clone = (Calendar) calendar.clone();
-		}
-
-		return clone;
+		return SimulationContext.current().getSimulationCalendar();
 	}
 
 	/**
@@ -280,7 +220,7 @@ public class CloudSim {
 	 * @post $result >= -1
 	 */
 	public static int getCloudInfoServiceEntityId() {
-		return cisId;
+		return SimulationContext.current().getCloudInfoServiceEntityId();
 	}
 
 	/**
@@ -293,61 +233,75 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static List<Integer> getCloudResourceList() {
-		if (cis == null) {
-			return null;
-		}
-
-		return cis.getList();
+		return SimulationContext.current().getCloudResourceList();
 	}
 
 	// ======== SIMULATION METHODS ===============//
 
-	/** The entities. */
-	private static List<SimEntity> entities;
-
-	/** The future event queue. */
-	protected static FutureQueue future;
-
-	/** The deferred event queue. */
-	protected static DeferredQueue deferred;
-
-	/** 
-         * The current simulation clock.
-         */
-	private static double clock;
-
-	/** Flag for checking if the simulation is running. */
-	private static boolean running;
-
-	/** The entities by name. */
-	private static Map<String, SimEntity> entitiesByName;
-
-	// The predicates used in entity wait methods
-	/** The wait predicates. */
-	private static Map<Integer, Predicate> waitPredicates;
+	/**
+	 * Sets a pool to run in parallel the entities that have events to process at the same time.
+	 * The events are still ordered as in a sequential run, but the entities running in parallel
+	 * must not change objects shared between them.
+	 * 
+	 * @param pool the pool, or <tt>null</tt> to run the entities sequentially (the default)
+	 * @see SimulationContext#setParallelPool(ForkJoinPool)
+	 */
+	public static void setParallelPool(ForkJoinPool pool) {
+		SimulationContext.current().setParallelPool(pool);
+	}
 
-	/** The paused. */
-	private static boolean paused = false;
+	/**
+	 * Sets a journal where every event processed by the simulation is recorded, so that entities
+	 * can be fast-forwarded later with an {@link EventJournalReader}.
+	 *
+	 * @param journal the journal, or <tt>null</tt> to stop recording the events (the default)
+	 * @see SimulationContext#setEventJournal(EventJournal)
+	 */
+	public static void setEventJournal(EventJournal journal) {
+		SimulationContext.current().setEventJournal(journal);
+	}
 
-	/** The pause at. */
-	private static long pauseAt = -1;
+	/**
+	 * Sets metrics measuring the time the entities take to process the events, by tag and by class
+	 * of entity, and the sizes of the event queues. They can be watched through JMX and Java Flight
+	 * Recorder.
+	 *
+	 * @param metrics the metrics, or <tt>null</tt> to stop measuring (the default)
+	 * @see SimulationContext#setKernelMetrics(KernelMetrics)
+	 */
+	public static void setKernelMetrics(KernelMetrics metrics) {
+		SimulationContext.current().setKernelMetrics(metrics);
+	}
 
-	/** The abrupt terminate. */
-	private static boolean abruptTerminate = false;
+	/**
+	 * Saves a checkpoint of the simulation once all its events up to a given time have been
+	 * processed. It can be restored with {@link SimulationContext#restoreCheckpoint(Path)}.
+	 *
+	 * @param time the time of the checkpoint
+	 * @param file the file where the checkpoint is saved
+	 * @param stop whether the simulation stops once the checkpoint is saved
+	 * @see SimulationContext#setCheckpoint(double, Path, boolean)
+	 */
+	public static void setCheckpoint(double time, Path file, boolean stop) {
+		SimulationContext.current().setCheckpoint(time, file, stop);
+	}
 
 	/**
 	 * Initialise the simulation for stand alone simulations. This function should be called at the
 	 * start of the simulation.
 	 */
 	protected static void initialize() {
-		Log.println("Initialising...");
-		entities = new ArrayList<>();
-		entitiesByName = new LinkedHashMap<>();
-		future = new FutureQueue();
-		deferred = new DeferredQueue();
-		waitPredicates = new HashMap<>();
-		clock = 0;
-		running = false;
+		initialize(new FutureQueueTreeSet());
+	}
+
+	/**
+	 * Initialise the simulation for stand alone simulations, using a given future event queue.
+	 * This function should be called at the start of the simulation.
+	 *
+	 * @param futureQueue the (empty) future event queue to be used
+	 */
+	protected static void initialize(FutureQueue futureQueue) {
+		SimulationContext.current().initialize(futureQueue);
 	}
 
 	// The two standard predicates
@@ -366,7 +320,7 @@ public class CloudSim {
 	 * @return the simulation time
 	 */
 	public static double clock() {
-		return clock;
+		return SimulationContext.current().clock();
 	}
 
 	/**
@@ -375,7 +329,7 @@ public class CloudSim {
 	 * @return The number of entities
 	 */
 	public static int getNumEntities() {
-		return entities.size();
+		return SimulationContext.current().getNumEntities();
 	}
 
 	/**
@@ -385,7 +339,7 @@ public class CloudSim {
 	 * @return The entity, or if it could not be found
 	 */
 	public static SimEntity getEntity(int id) {
-		return entities.get(id);
+		return SimulationContext.current().getEntity(id);
 	}
 
 	/**
@@ -395,7 +349,7 @@ public class CloudSim {
 	 * @return The entity
 	 */
 	public static SimEntity getEntity(String name) {
-		return entitiesByName.get(name);
+		return SimulationContext.current().getEntity(name);
 	}
 
 	/**
@@ -405,12 +359,7 @@ public class CloudSim {
 	 * @return The entity's unique id number
 	 */
 	public static int getEntityId(String name) {
-		SimEntity obj = entitiesByName.get(name);
-		if (obj == null) {
-			return NOT_FOUND;
-		} else {
-			return obj.getId();
-		}
+		return SimulationContext.current().getEntityId(name);
 	}
 
 	/**
@@ -422,11 +371,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static String getEntityName(int entityID) {
-		try {
-			return getEntity(entityID).getName();
-		} catch (Exception e) {
-			return null;
-		}
+		return SimulationContext.current().getEntityName(entityID);
 	}
 
 	/**
@@ -450,10 +395,7 @@ public class CloudSim {
 	 * @return the entity iterator
 	 */
 	public static List<SimEntity> getEntityList() {
-		// create a new list to prevent the user from changing
-		// the list of entities used by Simulation
-		List<SimEntity> list = new LinkedList<>(entities);
-		return list;
+		return SimulationContext.current().getEntityList();
 	}
 
 	// Public update methods
@@ -465,18 +407,7 @@ public class CloudSim {
 	 * @param e The new entity
 	 */
 	public static void addEntity(SimEntity e) {
-		SimEvent evt;
-		if (running) {
-			// Post an event to make this entity
-			evt = new SimEvent(SimEvent.CREATE, clock, 1, 0, CloudActionTags.BLANK, e);
-			future.addEvent(evt);
-		}
-		if (e.getId() == -1) { // Only add once!
-			int id = entities.size();
-			e.setId(id);
-			entities.add(e);
-			entitiesByName.put(e.getName(), e);
-		}
+		SimulationContext.current().addEntity(e);
 	}
 
 	/**
@@ -486,12 +417,7 @@ public class CloudSim {
 	 * @param e The new entity
 	 */
 	protected static void addEntityDynamically(SimEntity e) {
-		if (e == null) {
-			throw new IllegalArgumentException("Adding null entity.");
-		} else {
-			printMessage("Adding: " + e.getName());
-		}
-		e.startEntity();
+		SimulationContext.current().addEntityDynamically(e);
 	}
 
 	/**
@@ -504,58 +430,14 @@ public class CloudSim {
          * its visibility to package.
 	 */
 	public static boolean runClockTick() {
-		SimEntity ent;
-		boolean queue_empty;
-		
-		int entities_size = entities.size();
-
-		for (SimEntity entity : entities) {
-			ent = entity;
-			if (ent.getState() == SimEntity.RUNNABLE) {
-				ent.run();
-			}
-		}
-				
-		// If there are more future events then deal with them
-		if (future.size() > 0) {
-			List<SimEvent> toRemove = new ArrayList<>();
-			Iterator<SimEvent> fit = future.iterator();
-			queue_empty = false;
-			SimEvent first = fit.next();
-			processEvent(first);
-			future.remove(first);
-
-			fit = future.iterator();
-
-			// Check if next events are at same time...
-			boolean trymore = fit.hasNext();
-			while (trymore) {
-				SimEvent next = fit.next();
-				if (next.eventTime() == first.eventTime()) {
-					processEvent(next);
-					toRemove.add(next);
-					trymore = fit.hasNext();
-				} else {
-					trymore = false;
-				}
-			}
-
-			future.removeAll(toRemove);
-
-		} else {
-			queue_empty = true;
-			running = false;
-			printMessage(CloudSim.clock()+": Simulation: No more future events");
-		}
-
-		return queue_empty;
+		return SimulationContext.current().runClockTick();
 	}
 
 	/**
 	 * Internal method used to stop the simulation. This method should <b>not</b> be used directly.
 	 */
 	public static void runStop() {
-		printMessage("Simulation completed.");
+		SimulationContext.current().runStop();
 	}
 
 	/**
@@ -565,9 +447,7 @@ public class CloudSim {
 	 * @param delay the delay
 	 */
 	public static void hold(int src, long delay) {
-		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, src);
-		future.addEvent(e);
-		entities.get(src).setState(SimEntity.HOLDING);
+		SimulationContext.current().hold(src, delay);
 	}
 
 	/**
@@ -577,9 +457,7 @@ public class CloudSim {
 	 * @param delay the delay
 	 */
 	public static void pause(int src, double delay) {
-		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, src);
-		future.addEvent(e);
-		entities.get(src).setState(SimEntity.HOLDING);
+		SimulationContext.current().pause(src, delay);
 	}
 
 	/**
@@ -590,17 +468,10 @@ public class CloudSim {
 	 * @param delay the delay
 	 * @param tag the tag
 	 * @param data the data
+	 * @return the event, which can be used to {@link #cancel(SimEvent) cancel} it
 	 */
-	public static void send(int src, int dest, double delay, CloudSimTags tag, Object data) {
-		if (delay < 0) {
-			throw new IllegalArgumentException("Send delay can't be negative.");
-		}
-		if(delay >= Double.MAX_VALUE) {
-			throw new RuntimeException("Send delay can't be infinite.");
-		}
-
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
-		future.addEvent(e);
+	public static SimEvent send(int src, int dest, double delay, CloudSimTags tag, Object data) {
+		return SimulationContext.current().send(src, dest, delay, tag, data);
 	}
 
 	/**
@@ -611,14 +482,10 @@ public class CloudSim {
 	 * @param delay the delay
 	 * @param tag the tag
 	 * @param data the data
+	 * @return the event, which can be used to {@link #cancel(SimEvent) cancel} it
 	 */
-	public static void sendFirst(int src, int dest, double delay, CloudSimTags tag, Object data) {
-		if (delay < 0) {
-			throw new IllegalArgumentException("Send delay can't be negative.");
-		}
-
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
-		future.addEventFirst(e);
+	public static SimEvent sendFirst(int src, int dest, double delay, CloudSimTags tag, Object data) {
+		return SimulationContext.current().sendFirst(src, dest, delay, tag, data);
 	}
 
 	/**
@@ -630,11 +497,7 @@ public class CloudSim {
 	 * @param p the p
 	 */
 	public static void wait(int src, Predicate p) {
-		entities.get(src).setState(SimEntity.WAITING);
-		if (p != SIM_ANY) {
-			// If a predicate has been used store it in order to check it
-			waitPredicates.put(src, p);
-		}
+		SimulationContext.current().wait(src, p);
 	}
 
 	/**
@@ -645,16 +508,7 @@ public class CloudSim {
 	 * @return the int
 	 */
 	public static int waiting(int d, Predicate p) {
-		int count = 0;
-		SimEvent event;
-		Iterator<SimEvent> iterator = deferred.iterator();
-		while (iterator.hasNext()) {
-			event = iterator.next();
-			if ((event.getDestination() == d) && (p.match(event))) {
-				count++;
-			}
-		}
-		return count;
+		return SimulationContext.current().waiting(d, p);
 	}
 
 	/**
@@ -662,19 +516,10 @@ public class CloudSim {
 	 * 
 	 * @param src the src
 	 * @param p the p
-	 * @return the sim event
+	 * @return the sim event or <tt>null</tt> if no event matches
 	 */
 	public static SimEvent select(int src, Predicate p) {
-		SimEvent ev = null;
-		Iterator<SimEvent> iterator = deferred.iterator();
-		while (iterator.hasNext()) {
-			ev = iterator.next();
-			if (ev.getDestination() == src && p.match(ev)) {
-				iterator.remove();
-				break;
-			}
-		}
-		return ev;
+		return SimulationContext.current().select(src, p);
 	}
 
 	/**
@@ -682,138 +527,61 @@ public class CloudSim {
 	 * 
 	 * @param src the src
 	 * @param p the p
-	 * @return the sim event
+	 * @return the sim event or <tt>null</tt> if no event matches
 	 */
 	public static SimEvent findFirstDeferred(int src, Predicate p) {
-		SimEvent ev = null;
-		Iterator<SimEvent> iterator = deferred.iterator();
-		while (iterator.hasNext()) {
-			ev = iterator.next();
-			if (ev.getDestination() == src && p.match(ev)) {
-				break;
-			}
-		}
-		return ev;
+		return SimulationContext.current().findFirstDeferred(src, p);
 	}
 
 	/**
 	 * Removes an event from the event queue.
+	 * Events of a {@link PredicateType} are looked up in the index of the queue;
+	 * other predicates are tested against all the events in the queue.
 	 * 
 	 * @param src the src
 	 * @param p the p
-	 * @return the sim event
+	 * @return the sim event or <tt>null</tt> if no event matches
 	 */
 	public static SimEvent cancel(int src, Predicate p) {
-		SimEvent ev = null;
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSource() == src && p.match(ev)) {
-				iter.remove();
-				break;
-			}
-		}
+		return SimulationContext.current().cancel(src, p);
+	}
 
-		return ev;
+	/**
+	 * Removes a given event from the future event queue, before it is processed.
+	 * 
+	 * @param ev the event, as returned when it was sent
+	 * @return true if the event has been cancelled; false if it was already processed or cancelled
+	 * @see #send(int, int, double, CloudSimTags, Object)
+	 */
+	public static boolean cancel(SimEvent ev) {
+		return SimulationContext.current().cancel(ev);
 	}
 
 	/**
 	 * Removes all events that match a given predicate from the future event queue returns true if
 	 * at least one event has been cancelled; false otherwise.
+	 * Events of a {@link PredicateType} are looked up in the index of the queue;
+	 * other predicates are tested against all the events in the queue.
 	 * 
 	 * @param src the src
 	 * @param p the p
 	 * @return true, if successful
 	 */
 	public static boolean cancelAll(int src, Predicate p) {
-		SimEvent ev = null;
-		int previousSize = future.size();
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSource() == src && p.match(ev)) {
-				iter.remove();
-			}
-		}
-		return previousSize < future.size();
+		return SimulationContext.current().cancelAll(src, p);
 	}
 
 	//
 	// Private internal methods
 	//
 
-	/**
-	 * Processes an event.
-	 * 
-	 * @param e the e
-	 */
-	private static void processEvent(SimEvent e) {
-		int dest, src;
-		SimEntity dest_ent;
-		// Update the system's clock
-		if (e.eventTime() < clock) {
-			throw new IllegalArgumentException("Past event detected.");
-		}
-		clock = e.eventTime();
-
-		// Ok now process it
-		switch (e.getType()) {
-			case SimEvent.ENULL -> throw new IllegalArgumentException("Event has a null type.");
-			case SimEvent.CREATE -> {
-				SimEntity newe = (SimEntity) e.getData();
-				addEntityDynamically(newe);
-			}
-			case SimEvent.SEND -> {
-				// Check for matching wait
-				dest = e.getDestination();
-				if (dest < 0) {
-					throw new IllegalArgumentException("Attempt to send to a null entity detected.");
-				} else {
-					CloudSimTags tag = e.getTag();
-					dest_ent = entities.get(dest);
-					if (dest_ent.getState() == SimEntity.WAITING) {
-						Integer destObj = dest;
-						Predicate p = waitPredicates.get(destObj);
-
-						// @NOTE: Remo Andreoli: There use to be the condition (tag == 9999) here,
-						// but the tag value doesn't exist in previous version of CloudSim
-						if ((p == null) || (p.match(e))) {
-							dest_ent.setEventBuffer((SimEvent) e.clone());
-							dest_ent.setState(SimEntity.RUNNABLE);
-							waitPredicates.remove(destObj);
-						} else {
-							deferred.addEvent(e);
-						}
-					} else {
-						deferred.addEvent(e);
-					}
-				}
-			}
-			case SimEvent.HOLD_DONE -> {
-				src = e.getSource();
-				if (src < 0) {
-					throw new IllegalArgumentException("Null entity holding.");
-				} else {
-					entities.get(src).setState(SimEntity.RUNNABLE);
-				}
-			}
-			default -> {
-			}
-		}
-	}
 
 	/**
 	 * Internal method used to start the simulation. This method should <b>not</b> be used by user
 	 * simulations.
 	 */
 	public static void runStart() {
-		running = true;
-		// Start all the entities
-		for (SimEntity ent : entities) {
-			ent.startEntity();
-		}
-
-		printMessage("Entities started.");
+		SimulationContext.current().runStart();
 	}
 
 	/**
@@ -823,7 +591,7 @@ public class CloudSim {
 	 * @return if the simulation is still running, otherwise
 	 */
 	public static boolean running() {
-		return running;
+		return SimulationContext.current().running();
 	}
 
 	/**
@@ -832,8 +600,7 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation() {
-		paused = true;
-		return paused;
+		return SimulationContext.current().pauseSimulation();
 	}
 
 	/**
@@ -843,12 +610,7 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation(long time) {
-		if (time <= clock) {
-			return false;
-		} else {
-			pauseAt = time;
-		}
-		return true;
+		return SimulationContext.current().pauseSimulation(time);
 	}
 
 	/**
@@ -857,13 +619,7 @@ public class CloudSim {
 	 * @return if the simulation has been restarted or or otherwise.
 	 */
 	public static boolean resumeSimulation() {
-		paused = false;
-
-		if (pauseAt <= clock) {
-			pauseAt = -1;
-		}
-
-		return !paused;
+		return SimulationContext.current().resumeSimulation();
 	}
 
 	/**
@@ -873,101 +629,100 @@ public class CloudSim {
 	 * @return the last clock value
 	 */
 	public static double run() {
-		if (!running) {
-			runStart();
-		}
-		while (true) {
-			if (runClockTick() || abruptTerminate) {
-				break;
-			}
-
-			// this block allows termination of simulation at a specific time
-			if (terminateAt > 0.0 && clock >= terminateAt) {
-				terminateSimulation();
-				clock = terminateAt;
-				break;
-			}
-
-			if (pauseAt != -1
-					&& ((future.size() > 0 && clock <= pauseAt && pauseAt <= future.iterator().next()
-							.eventTime()) || future.size() == 0 && pauseAt <= clock)) {
-				pauseSimulation();
-				clock = pauseAt;
-			}
-
-			while (paused) {
-				try {
-					Thread.sleep(100);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
-			}
-		}
-
-		double clock = clock();
+		return SimulationContext.current().run();
+	}
 
-		finishSimulation();
-		runStop();
+	/**
+	 * Runs the simulation until all the events up to a given time have been processed, then
+	 * returns with the clock at that time, without finishing the simulation, so that it can be
+	 * resumed by this method, {@link #step(int)} or {@link #runWhile(BooleanSupplier)}. The
+	 * simulation is finished only when it reaches its end.
+	 *
+	 * @param time the time up to which the simulation runs
+	 * @return true if the simulation can be resumed, false if it has reached its end
+	 * @see SimulationContext#runUntil(double)
+	 */
+	public static boolean runUntil(double time) {
+		return SimulationContext.current().runUntil(time);
+	}
 
-		return clock;
+	/**
+	 * Runs the simulation until a number of events have been processed, then returns without
+	 * finishing the simulation, so that it can be resumed.
+	 *
+	 * @param nEvents the number of events to process
+	 * @return true if the simulation can be resumed, false if it has reached its end
+	 * @see SimulationContext#step(int)
+	 */
+	public static boolean step(int nEvents) {
+		return SimulationContext.current().step(nEvents);
 	}
 
 	/**
-	 * Internal method that allows the entities to terminate. This method should <b>not</b> be used
-	 * in user simulations.
+	 * Runs the simulation while a condition holds, then returns without finishing the
+	 * simulation, so that it can be resumed.
+	 *
+	 * @param condition the condition, checked before each time the clock advances
+	 * @return true if the simulation can be resumed, false if it has reached its end
+	 * @see SimulationContext#runWhile(BooleanSupplier)
 	 */
-	public static void finishSimulation() {
-		// Allow all entities to exit their body method
-		if (!abruptTerminate) {
-			for (SimEntity ent : entities) {
-				if (ent.getState() != SimEntity.FINISHED) {
-					ent.run();
-				}
-			}
-		}
+	public static boolean runWhile(BooleanSupplier condition) {
+		return SimulationContext.current().runWhile(condition);
+	}
 
-		for (SimEntity ent : entities) {
-			ent.shutdownEntity();
-		}
+	/**
+	 * Gets the number of events processed since the simulation was initialised.
+	 *
+	 * @return the number of processed events
+	 */
+	public static long getNumberOfProcessedEvents() {
+		return SimulationContext.current().getNumberOfProcessedEvents();
+	}
 
-		// reset all static variables
-		// Private data members
-		entities = null;
-		entitiesByName = null;
-		future = null;
-		deferred = null;
-		clock = 0L;
-		running = false;
+	/**
+	 * Gets the number of events processed per second of wall-clock time
+	 * spent running the simulation.
+	 *
+	 * @return the events per second, or 0 if the simulation has not run
+	 */
+	public static double getEventsPerSecond() {
+		return SimulationContext.current().getEventsPerSecond();
+	}
 
-		waitPredicates = null;
-		paused = false;
-		pauseAt = -1;
-		abruptTerminate = false;
+	/**
+	 * Gets the average number of bytes allocated by the simulation thread for each processed
+	 * event, including the allocations made by the entities while processing them.
+	 *
+	 * @return the bytes allocated per event, or -1 if the JVM can't measure the allocated memory
+	 */
+	public static double getAllocatedBytesPerEvent() {
+		return SimulationContext.current().getAllocatedBytesPerEvent();
 	}
 
+
 	/**
-	 * Abruptally terminate.
+	 * Internal method that allows the entities to terminate. This method should <b>not</b> be used
+	 * in user simulations.
 	 */
-	public static void abruptallyTerminate() {
-		abruptTerminate = true;
+	public static void finishSimulation() {
+		SimulationContext.current().finishSimulation();
 	}
 
 	/**
-	 * Prints a message about the progress of the simulation.
-	 * 
-	 * @param message the message
+	 * Abruptally terminate.
 	 */
-	private static void printMessage(String message) {
-		Log.println(message);
+	public static void abruptallyTerminate() {
+		SimulationContext.current().abruptallyTerminate();
 	}
 
+
 	/**
 	 * Checks if is paused.
 	 * 
 	 * @return true, if is paused
 	 */
 	public static boolean isPaused() {
-		return paused;
+		return SimulationContext.current().isPaused();
 	}
 
 }
@@ -8,6 +8,8 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.io.Serial;
+
 /**
  * CloudimShutdown waits for termination of all CloudSim user entities to determine the end of
  * simulation. This class will be created by CloudSim upon initialisation of the simulation, i.e.
@@ -20,6 +22,9 @@ package org.cloudbus.cloudsim.core;
  */
 public class CloudSimShutdown extends SimEntity {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The total number of cloud users. */
 	private int numUser;
 
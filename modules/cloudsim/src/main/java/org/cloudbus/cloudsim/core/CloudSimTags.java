@@ -7,13 +7,17 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.io.Serializable;
+
 /**
  * A public interface to define different enums to be used by the CloudSim event system.
+ * The tags are serializable, as the enums implementing it are, so that the events can be saved
+ * in a checkpoint.
  *
  * @author Remo Andreoli
  * @since CloudSim Toolkit 7.0
  */
-public interface CloudSimTags {
+public interface CloudSimTags extends Serializable {
     int TRUE = 1;
     int FALSE = 0;
 }
@@ -8,81 +8,389 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateAny;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
- * This class implements the deferred event queue used by {@link CloudSim}. 
- * The event queue uses a linked list to store the events.
- * 
+ * This class implements the deferred event queue used by {@link CloudSim}.
+ * The events are stored in one mailbox per destination entity, and each mailbox
+ * indexes its events by tag. This way, looking up the events of an entity
+ * with a {@link PredicateAny} or a {@link PredicateType} does not depend on the number
+ * of events deferred for the other entities, nor on the number of events with other tags.
+ * Other predicates, including the subclasses of these two which may override
+ * {@link Predicate#match(SimEvent)}, are tested against the events of the destination entity only.
+ * <p>
+ * Inside a mailbox, events are kept in temporal order; events with the same time
+ * are kept in the order they were added. The nodes holding the events are reused once
+ * the events are removed, so an entity receiving no more events at once than before
+ * does not allocate. Events may be looked up and removed from different
+ * mailboxes concurrently, as long as no event is being added.
+ *
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  * @see CloudSim
  * @see SimEvent
  */
-public class DeferredQueue {
+public class DeferredQueue implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * An event in a mailbox. Each node belongs to two doubly-linked lists:
+	 * the list of all the events of the mailbox and the list of the events having the same tag.
+	 * The nodes of the removed events are kept by their mailbox and reused for the next events.
+	 */
+	private static final class Node {
+		SimEvent event;
+
+		/** The order in which the event was added to the queue. */
+		long order;
+
+		Node prev, next, prevSameTag, nextSameTag;
 
-	/** The list of events. */
-	private final List<SimEvent> list = new LinkedList<>();
+		/**
+		 * Checks if this node must stay before another one.
+		 */
+		boolean before(Node other) {
+			return event.eventTime() < other.event.eventTime()
+					|| (event.eventTime() == other.event.eventTime() && order < other.order);
+		}
+	}
 
-	/** The max time that an added event is scheduled. */
-	private double maxTime = -1;
+	/** The events having a given tag in a mailbox. */
+	private static final class TagList {
+		Node head, tail;
+		int size;
+	}
+
+	/** The events sent to a given entity. */
+	private static final class Mailbox {
+		Node head, tail;
+		int size;
+		final Map<CloudSimTags, TagList> tags = new HashMap<>();
+
+		/** The nodes of the removed events, linked by {@link Node#next}. */
+		Node free;
+	}
+
+	/** The mailboxes, indexed by the id of the destination entity. */
+	private transient Mailbox[] mailboxes = new Mailbox[16];
+
+	/** The order given to the next added event. */
+	private transient long order;
+
+	/**
+	 * The number of events in the queue. The events of different mailboxes may be removed
+	 * concurrently, hence an adder rather than a plain counter.
+	 */
+	private transient LongAdder size = new LongAdder();
 
 	/**
 	 * Adds a new event to the queue. Adding a new event to the queue preserves the temporal order
 	 * of the events.
-	 * 
+	 *
 	 * @param newEvent The event to be added to the queue.
 	 */
 	public void addEvent(SimEvent newEvent) {
+		Mailbox mailbox = mailbox(newEvent.getDestination());
+		TagList tagList = mailbox.tags.computeIfAbsent(newEvent.getTag(), tag -> new TagList());
+		Node node = mailbox.free;
+		if (node == null) {
+			node = new Node();
+		} else {
+			mailbox.free = node.next;
+		}
+		node.event = newEvent;
+		node.order = order++;
+
 		// The event has to be inserted as the last of all events
 		// with the same event_time(). Yes, this matters.
-		double eventTime = newEvent.eventTime();
-		if (eventTime >= maxTime) {
-			list.add(newEvent);
-			maxTime = eventTime;
-			return;
+		// Events come in temporal order from the future queue, so the position is found
+		// right away, walking backwards from the tail of the mailbox.
+		Node after = mailbox.tail;
+		while (after != null && node.before(after)) {
+			after = after.prev;
+		}
+		node.prev = after;
+		node.next = after == null ? mailbox.head : after.next;
+		if (node.prev == null) {
+			mailbox.head = node;
+		} else {
+			node.prev.next = node;
+		}
+		if (node.next == null) {
+			mailbox.tail = node;
+		} else {
+			node.next.prev = node;
 		}
 
-		ListIterator<SimEvent> iterator = list.listIterator();
-		SimEvent event;
-		while (iterator.hasNext()) {
-			event = iterator.next();
-			if (event.eventTime() > eventTime) {
-				iterator.previous();
-				iterator.add(newEvent);
-				return;
+		Node afterSameTag = tagList.tail;
+		while (afterSameTag != null && node.before(afterSameTag)) {
+			afterSameTag = afterSameTag.prevSameTag;
+		}
+		node.prevSameTag = afterSameTag;
+		node.nextSameTag = afterSameTag == null ? tagList.head : afterSameTag.nextSameTag;
+		if (node.prevSameTag == null) {
+			tagList.head = node;
+		} else {
+			node.prevSameTag.nextSameTag = node;
+		}
+		if (node.nextSameTag == null) {
+			tagList.tail = node;
+		} else {
+			node.nextSameTag.prevSameTag = node;
+		}
+
+		mailbox.size++;
+		tagList.size++;
+		size.increment();
+	}
+
+	/**
+	 * Counts the events sent to an entity that match a predicate.
+	 *
+	 * @param dest the id of the destination entity
+	 * @param p the predicate
+	 * @return the number of matching events
+	 */
+	public int count(int dest, Predicate p) {
+		Mailbox mailbox = dest >= 0 && dest < mailboxes.length ? mailboxes[dest] : null;
+		if (mailbox == null || mailbox.size == 0) {
+			return 0;
+		}
+		if (p != null && p.getClass() == PredicateAny.class) {
+			return mailbox.size;
+		}
+		if (p instanceof PredicateType type && type.getClass() == PredicateType.class) {
+			List<CloudSimTags> tags = type.getTags();
+			int count = 0;
+			for (int i = 0; i < tags.size(); i++) {
+				TagList tagList = mailbox.tags.get(tags.get(i));
+				if (tagList != null && tags.indexOf(tags.get(i)) == i) { // ignores repeated tags
+					count += tagList.size;
+				}
+			}
+			return count;
+		}
+
+		int count = 0;
+		for (Node node = mailbox.head; node != null; node = node.next) {
+			if (p.match(node.event)) {
+				count++;
 			}
 		}
+		return count;
+	}
+
+	/**
+	 * Gets the first event sent to an entity that matches a predicate.
+	 *
+	 * @param dest the id of the destination entity
+	 * @param p the predicate
+	 * @return the event or <tt>null</tt> if no event matches
+	 */
+	public SimEvent findFirst(int dest, Predicate p) {
+		Node node = findFirstNode(dest, p);
+		return node == null ? null : node.event;
+	}
+
+	/**
+	 * Removes the first event sent to an entity that matches a predicate.
+	 *
+	 * @param dest the id of the destination entity
+	 * @param p the predicate
+	 * @return the removed event or <tt>null</tt> if no event matches
+	 */
+	public SimEvent removeFirst(int dest, Predicate p) {
+		Node node = findFirstNode(dest, p);
+		if (node == null) {
+			return null;
+		}
+
+		Mailbox mailbox = mailboxes[dest];
+		if (node.prev == null) {
+			mailbox.head = node.next;
+		} else {
+			node.prev.next = node.next;
+		}
+		if (node.next == null) {
+			mailbox.tail = node.prev;
+		} else {
+			node.next.prev = node.prev;
+		}
+
+		TagList tagList = mailbox.tags.get(node.event.getTag());
+		if (node.prevSameTag == null) {
+			tagList.head = node.nextSameTag;
+		} else {
+			node.prevSameTag.nextSameTag = node.nextSameTag;
+		}
+		if (node.nextSameTag == null) {
+			tagList.tail = node.prevSameTag;
+		} else {
+			node.nextSameTag.prevSameTag = node.prevSameTag;
+		}
+
+		mailbox.size--;
+		tagList.size--;
+		size.decrement();
 
-		list.add(newEvent);
+		SimEvent event = node.event;
+		node.event = null;
+		node.prev = node.prevSameTag = node.nextSameTag = null;
+		node.next = mailbox.free;
+		mailbox.free = node;
+		return event;
 	}
 
 	/**
-	 * Returns an iterator to the events in the queue.
-	 * 
+	 * Returns an iterator to the events in the queue, in temporal order.
+	 * The iterator works on a snapshot of the queue, so it does not support removal.
+	 *
 	 * @return the iterator
 	 */
 	public Iterator<SimEvent> iterator() {
-		return list.iterator();
+		Iterator<Node> iterator = sortedNodes().iterator();
+		return new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public SimEvent next() {
+				return iterator.next().event;
+			}
+		};
 	}
 
 	/**
 	 * Returns the size of this event queue.
-	 * 
+	 *
 	 * @return the number of events in the queue.
 	 */
 	public int size() {
-		return list.size();
+		return size.intValue();
 	}
 
 	/**
 	 * Clears the queue.
 	 */
 	public void clear() {
-		list.clear();
+		Arrays.fill(mailboxes, null);
+		size.reset();
+	}
+
+	/**
+	 * Writes the events of the queue, in temporal order.
+	 */
+	@Serial
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		List<Node> nodes = sortedNodes();
+		out.writeInt(nodes.size());
+		for (Node node : nodes) {
+			out.writeObject(node.event);
+		}
+	}
+
+	/**
+	 * Reads the events of the queue, adding them again in the order they were written.
+	 */
+	@Serial
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		mailboxes = new Mailbox[16];
+		size = new LongAdder();
+		for (int i = in.readInt(); i > 0; i--) {
+			addEvent((SimEvent) in.readObject());
+		}
+	}
+
+	/**
+	 * Collects the nodes of all the mailboxes, in temporal order.
+	 *
+	 * @return the nodes
+	 */
+	private List<Node> sortedNodes() {
+		List<Node> nodes = new ArrayList<>();
+		for (Mailbox mailbox : mailboxes) {
+			if (mailbox != null) {
+				for (Node node = mailbox.head; node != null; node = node.next) {
+					nodes.add(node);
+				}
+			}
+		}
+		nodes.sort(Comparator.comparingDouble((Node node) -> node.event.eventTime())
+				.thenComparingLong(node -> node.order));
+		return nodes;
+	}
+
+	/**
+	 * Gets the mailbox of an entity, creating it if needed.
+	 *
+	 * @param dest the id of the destination entity
+	 * @return the mailbox
+	 */
+	private Mailbox mailbox(int dest) {
+		if (dest >= mailboxes.length) {
+			mailboxes = Arrays.copyOf(mailboxes, Math.max(mailboxes.length * 2, dest + 1));
+		}
+		Mailbox mailbox = mailboxes[dest];
+		if (mailbox == null) {
+			mailbox = mailboxes[dest] = new Mailbox();
+		}
+		return mailbox;
+	}
+
+	/**
+	 * Finds the first event sent to an entity that matches a predicate.
+	 *
+	 * @param dest the id of the destination entity
+	 * @param p the predicate
+	 * @return the node of the event or <tt>null</tt> if no event matches
+	 */
+	private Node findFirstNode(int dest, Predicate p) {
+		Mailbox mailbox = dest >= 0 && dest < mailboxes.length ? mailboxes[dest] : null;
+		if (mailbox == null) {
+			return null;
+		}
+		if (p != null && p.getClass() == PredicateAny.class) {
+			return mailbox.head;
+		}
+		if (p instanceof PredicateType type && type.getClass() == PredicateType.class) {
+			Node first = null;
+			for (CloudSimTags tag : type.getTags()) {
+				TagList tagList = mailbox.tags.get(tag);
+				if (tagList != null && tagList.head != null && (first == null || tagList.head.before(first))) {
+					first = tagList.head;
+				}
+			}
+			return first;
+		}
+
+		for (Node node = mailbox.head; node != null; node = node.next) {
+			if (p.match(node.event)) {
+				return node;
+			}
+		}
+		return null;
 	}
 
-}
\ No newline at end of file
+}
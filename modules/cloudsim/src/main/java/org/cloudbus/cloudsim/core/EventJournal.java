@@ -0,0 +1,195 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records the events processed by a simulation in a compact binary file, which can be read back
+ * with {@link EventJournalReader}. It is enabled with
+ * {@link SimulationContext#setEventJournal(EventJournal)}, and costs nothing otherwise.
+ * <p>
+ * Each event takes {@value #EVENT_SIZE} bytes: its time, serial number, type, source,
+ * destination, tag and a reference to its data. The tags and the classes of the data are written
+ * once, the first time they are seen, and then referred to by number. The data itself is not
+ * written: its reference is its {@link System#identityHashCode(Object) identity hash code}, which
+ * tells apart the objects sent during a run. The events are buffered and written through a
+ * {@link FileChannel}, so recording is much cheaper than logging the same events as text.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see EventJournalReader
+ */
+public class EventJournal implements Closeable {
+
+	/** The first bytes of a journal file. */
+	static final int MAGIC = 0x43534a31;
+
+	/** The record defining the number of a tag, given by its enum class and ordinal. */
+	static final byte TAG = 1;
+
+	/** The record defining the number of a class of event data. */
+	static final byte DATA_CLASS = 2;
+
+	/** The record of a processed event. */
+	static final byte EVENT = 3;
+
+	/** The size of an event record. */
+	static final int EVENT_SIZE = 34;
+
+	/** The size of the buffer. */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/** The file where the events are written. */
+	private final FileChannel channel;
+
+	/** The buffer where the records are written before being written to the file. */
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+	/** The numbers given to the tags written so far. */
+	private final Map<CloudSimTags, Short> tags = new HashMap<>();
+
+	/** The numbers given to the classes of event data written so far. */
+	private final Map<Class<?>, Short> dataClasses = new HashMap<>();
+
+	/** The number of events recorded. */
+	private long events;
+
+	/**
+	 * Creates a journal, replacing the given file if it exists.
+	 *
+	 * @param file the file where the events are written
+	 * @throws IOException if the file can't be created
+	 */
+	public EventJournal(Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		buffer.putInt(MAGIC);
+	}
+
+	/**
+	 * Records a processed event.
+	 *
+	 * @param event the event
+	 */
+	void record(SimEvent event) {
+		short tag = tagNumber(event.getTag());
+		Object data = event.getData();
+		short dataClass = data == null ? -1 : dataClassNumber(data.getClass());
+		reserve(EVENT_SIZE);
+		buffer.put(EVENT)
+				.putDouble(event.eventTime())
+				.putLong(event.getSerial())
+				.put((byte) event.getType())
+				.putInt(event.getSource())
+				.putInt(event.getDestination())
+				.putShort(tag)
+				.putShort(dataClass)
+				.putInt(data == null ? 0 : System.identityHashCode(data));
+		events++;
+	}
+
+	/**
+	 * Gets the number of events recorded so far.
+	 *
+	 * @return the number of events
+	 */
+	public long getRecordedEvents() {
+		return events;
+	}
+
+	/**
+	 * Writes the buffered records to the file.
+	 *
+	 * @throws IOException if the records can't be written
+	 */
+	public void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Writes the buffered records and closes the file.
+	 *
+	 * @throws IOException if the records can't be written
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Gets the number of a tag, writing its definition the first time.
+	 *
+	 * @param tag the tag
+	 * @return the number of the tag
+	 */
+	private short tagNumber(CloudSimTags tag) {
+		Short number = tags.get(tag);
+		if (number == null) {
+			number = (short) tags.size();
+			tags.put(tag, number);
+			Class<?> type = tag instanceof Enum<?> constant ? constant.getDeclaringClass() : tag.getClass();
+			byte[] name = type.getName().getBytes(StandardCharsets.UTF_8);
+			reserve(9 + name.length);
+			buffer.put(TAG).putShort(number).putShort((short) name.length).put(name)
+					.putInt(tag instanceof Enum<?> constant ? constant.ordinal() : -1);
+		}
+		return number;
+	}
+
+	/**
+	 * Gets the number of a class of event data, writing its definition the first time.
+	 *
+	 * @param type the class
+	 * @return the number of the class
+	 */
+	private short dataClassNumber(Class<?> type) {
+		Short number = dataClasses.get(type);
+		if (number == null) {
+			number = (short) dataClasses.size();
+			dataClasses.put(type, number);
+			byte[] name = type.getName().getBytes(StandardCharsets.UTF_8);
+			reserve(5 + name.length);
+			buffer.put(DATA_CLASS).putShort(number).putShort((short) name.length).put(name);
+		}
+		return number;
+	}
+
+	/**
+	 * Makes room in the buffer for a record, writing the buffered records to the file if needed.
+	 *
+	 * @param size the size of the record
+	 */
+	private void reserve(int size) {
+		if (buffer.remaining() < size) {
+			try {
+				flush();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+}
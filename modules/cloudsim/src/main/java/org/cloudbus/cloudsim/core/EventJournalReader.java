@@ -0,0 +1,250 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reads the events recorded by an {@link EventJournal}, and replays them to an entity.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see EventJournal
+ */
+public class EventJournalReader implements Closeable {
+
+	/**
+	 * An event read from a journal.
+	 *
+	 * @param time the time of the event
+	 * @param serial the serial number of the event
+	 * @param type the type of the event, such as {@link SimEvent#SEND}
+	 * @param source the id of the entity that sent the event
+	 * @param destination the id of the entity the event was sent to
+	 * @param tag the tag of the event, or <tt>null</tt> if its class can't be loaded
+	 * @param dataClass the name of the class of the event data, or <tt>null</tt> if it had no data
+	 * @param dataReference the identity hash code of the event data, or 0 if it had no data
+	 */
+	public record Entry(double time, long serial, int type, int source, int destination,
+			CloudSimTags tag, String dataClass, int dataReference) {
+	}
+
+	/** The file where the events are read. */
+	private final FileChannel channel;
+
+	/** The buffer where the file is read. */
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+
+	/** The tags read so far, by number. */
+	private final List<CloudSimTags> tags = new ArrayList<>();
+
+	/** The classes of event data read so far, by number. */
+	private final List<String> dataClasses = new ArrayList<>();
+
+	/** The event read ahead by {@link #replay(SimEntity, double, Function)}, if any. */
+	private Entry peeked;
+
+	/** Whether an event has been read. */
+	private boolean started;
+
+	/**
+	 * Opens a journal.
+	 *
+	 * @param file the file written by an {@link EventJournal}
+	 * @throws IOException if the file can't be read, or is not a journal
+	 */
+	public EventJournalReader(Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+		buffer.flip();
+		if (!fill(4) || buffer.getInt() != EventJournal.MAGIC) {
+			channel.close();
+			throw new IOException(file + " is not an event journal.");
+		}
+	}
+
+	/**
+	 * Reads the next event.
+	 *
+	 * @return the event, or <tt>null</tt> at the end of the journal
+	 * @throws IOException if the journal can't be read
+	 */
+	public Entry next() throws IOException {
+		if (peeked != null) {
+			Entry entry = peeked;
+			peeked = null;
+			return entry;
+		}
+		started = true;
+		while (fill(1)) {
+			byte kind = buffer.get();
+			if (kind == EventJournal.EVENT) {
+				require(EventJournal.EVENT_SIZE - 1);
+				double time = buffer.getDouble();
+				long serial = buffer.getLong();
+				int type = buffer.get();
+				int source = buffer.getInt();
+				int destination = buffer.getInt();
+				CloudSimTags tag = tags.get(buffer.getShort());
+				short dataClass = buffer.getShort();
+				int dataReference = buffer.getInt();
+				return new Entry(time, serial, type, source, destination, tag,
+						dataClass < 0 ? null : dataClasses.get(dataClass), dataReference);
+			} else if (kind == EventJournal.TAG) {
+				require(4);
+				buffer.getShort();
+				String type = readName();
+				require(4);
+				tags.add(resolveTag(type, buffer.getInt()));
+			} else if (kind == EventJournal.DATA_CLASS) {
+				require(4);
+				buffer.getShort();
+				dataClasses.add(readName());
+			} else {
+				throw new IOException("Corrupted event journal.");
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Fast-forwards an entity to a given time, without running the rest of the simulation. The
+	 * entity is started if no event has been read yet, and then the events of the journal that were
+	 * sent to it, up to the given time, are given to its {@link SimEntity#processEvent(SimEvent)}
+	 * method in the order they were processed, while the clock of its simulation is set to their
+	 * times. The events the entity sends meanwhile are dropped. The entity can be fast-forwarded
+	 * further by calling this method again with a later time.
+	 * <p>
+	 * The entity must belong to a simulation that is initialised and built as the recorded one,
+	 * so that the ids of the entities match, but that is not started.
+	 *
+	 * @param entity the entity
+	 * @param time the time up to which the events are replayed
+	 * @param data gives the data of each event, which is not recorded in the journal
+	 * @return the number of events given to the entity
+	 * @throws IOException if the journal can't be read
+	 */
+	public int replay(SimEntity entity, double time, Function<Entry, Object> data) throws IOException {
+		SimulationContext context = entity.getSimulationContext();
+		if (!started) {
+			context.replay(entity, null);
+		}
+		int count = 0;
+		Entry entry;
+		while ((entry = next()) != null) {
+			if (entry.time() > time) {
+				peeked = entry;
+				break;
+			}
+			if (entry.type() == SimEvent.SEND && entry.destination() == entity.getId()) {
+				SimEvent event = new SimEvent(SimEvent.SEND, entry.time(), entry.source(), entry.destination(),
+						entry.tag(), data.apply(entry));
+				event.setSerial(entry.serial());
+				context.replay(entity, event);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Fast-forwards an entity to a given time, as {@link #replay(SimEntity, double, Function)}
+	 * does, giving it events with no data.
+	 *
+	 * @param entity the entity
+	 * @param time the time up to which the events are replayed
+	 * @return the number of events given to the entity
+	 * @throws IOException if the journal can't be read
+	 */
+	public int replay(SimEntity entity, double time) throws IOException {
+		return replay(entity, time, entry -> null);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Reads a name written as its length followed by its UTF-8 bytes.
+	 *
+	 * @return the name
+	 */
+	private String readName() throws IOException {
+		int length = buffer.getShort();
+		require(length);
+		byte[] name = new byte[length];
+		buffer.get(name);
+		return new String(name, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Gets a tag from its enum class and ordinal.
+	 *
+	 * @param type the name of the class of the tag
+	 * @param ordinal the ordinal of the tag, or -1 if the tag is not an enum constant
+	 * @return the tag, or <tt>null</tt> if it can't be resolved
+	 */
+	private static CloudSimTags resolveTag(String type, int ordinal) {
+		try {
+			Object[] constants = Class.forName(type).getEnumConstants();
+			if (constants != null && ordinal >= 0 && ordinal < constants.length) {
+				return (CloudSimTags) constants[ordinal];
+			}
+		} catch (ClassNotFoundException e) {
+			// the tag stays unknown
+		}
+		return null;
+	}
+
+	/**
+	 * Makes sure a number of bytes of a record that was started can be read from the buffer.
+	 *
+	 * @param size the number of bytes
+	 * @throws IOException if the file ends within the bytes
+	 */
+	private void require(int size) throws IOException {
+		if (!fill(size)) {
+			throw new IOException("Truncated event journal.");
+		}
+	}
+
+	/**
+	 * Makes sure a number of bytes can be read from the buffer, reading the file if needed.
+	 *
+	 * @param size the number of bytes
+	 * @return true, if the bytes can be read; false at the end of the file, if no byte is left
+	 * @throws IOException if the file ends within the bytes
+	 */
+	private boolean fill(int size) throws IOException {
+		if (buffer.remaining() >= size) {
+			return true;
+		}
+		buffer.compact();
+		while (buffer.position() < size) {
+			if (channel.read(buffer) < 0) {
+				buffer.flip();
+				if (buffer.hasRemaining()) {
+					throw new IOException("Truncated event journal.");
+				}
+				return false;
+			}
+		}
+		buffer.flip();
+		return true;
+	}
+
+}
@@ -8,96 +8,609 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
- * This class implements the future event queue used by {@link CloudSim}. 
- * The event queue uses a {@link TreeSet} in order to store the events.
- * 
+ * This class defines the future event queue used by {@link CloudSim}.
+ * Events are kept ordered by their time and, for events happening at the same time,
+ * by their {@link SimEvent#serial serial number}, which is assigned by this class when
+ * the event is added.
+ * <p>
+ * Removed events are not taken out of the storage right away: they are marked as cancelled
+ * (a "tombstone") and discarded when they reach the head of the queue. Once the tombstones
+ * outnumber the waiting events, the storage is rebuilt with the waiting events only, so the
+ * tombstones never take more than the waiting events plus a constant. The events waiting
+ * in the queue are also indexed by source entity and tag, so that
+ * {@link #removeAll(int, CloudSimTags)} does not need to go through the whole queue.
+ * <p>
+ * Subclasses only decide how the events are stored. The available implementations are:
+ * <ul>
+ * <li>{@link FutureQueueTreeSet}: a red-black tree (the default one);
+ * <li>{@link FutureQueueHeap}: an array-backed 4-ary heap;
+ * <li>{@link FutureQueueCalendar}: a calendar queue;
+ * <li>{@link FutureQueueLadder}: a ladder queue.
+ * </ul>
+ * The implementation used by a simulation can be selected at
+ * {@link CloudSim#init(int, java.util.Calendar, boolean, FutureQueue)}.
+ *
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
- * @see Simulation
- * @see java.util.TreeSet
- * 
+ * @see CloudSim
+ * @see SimEvent
+ *
  * //TODO It would be used a common interface for queues
  * such as this one and {@link DeferredQueue}
  */
-public class FutureQueue {
+public abstract class FutureQueue implements Iterable<SimEvent>, Serializable {
 
-	/** The sorted set of events. */
-	private final SortedSet<SimEvent> sortedSet = new TreeSet<>();
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The events waiting in the queue that were sent by the same entity with the same tag,
+	 * linked through {@link SimEvent#prevSameSourceAndTag} and {@link SimEvent#nextSameSourceAndTag}
+	 * in the order they were added.
+	 */
+	static final class SourceAndTagEvents {
+		SimEvent head, tail;
+	}
+
+	/**
+	 * The serialized form of a queue: its class, its serial numbers and its waiting events,
+	 * which are stored and indexed again when the queue is read.
+	 */
+	private record SerializedForm(Class<? extends FutureQueue> type, long serial, long serialFirst,
+			SimEvent[] events) implements Serializable {
+
+		@Serial
+		private Object readResolve() throws ObjectStreamException {
+			FutureQueue queue;
+			try {
+				queue = type.getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException e) {
+				throw new InvalidObjectException(type.getName() + " has no public constructor without arguments.");
+			}
+			queue.serial = serial;
+			queue.serialFirst = serialFirst;
+			for (SimEvent event : events) {
+				queue.store(event);
+			}
+			return queue;
+		}
+	}
 
 	/** A incremental number used for {@link SimEvent#serial} event attribute.
          */
 	private long serial = 0;
 
+	/**
+	 * A incremental number used for the {@link SimEvent#serial} of the events added with
+	 * {@link #addEventFirst(SimEvent)}. It starts below any serial given by
+	 * {@link #addEvent(SimEvent)}, so that such events go ahead of all the others having
+	 * the same time, while keeping the order in which they were added among themselves.
+	 */
+	private long serialFirst = Long.MIN_VALUE;
+
+	/** The number of cancelled events from which the storage may be rebuilt without them. */
+	private static final int MIN_COMPACTION = 64;
+
+	/** The number of cancelled events that are still stored. */
+	private int cancelled;
+
+	/** The index of the waiting events, by source entity id and then by tag. */
+	private transient Map<CloudSimTags, SourceAndTagEvents>[] index = newIndex(16);
+
 	/**
 	 * Adds a new event to the queue. Adding a new event to the queue preserves the temporal order of
 	 * the events in the queue.
-	 * 
+	 *
 	 * @param newEvent The event to be put in the queue.
 	 */
 	public void addEvent(SimEvent newEvent) {
 		newEvent.setSerial(serial++);
-		sortedSet.add(newEvent);
+		store(newEvent);
 	}
 
 	/**
 	 * Adds a new event to the head of the queue.
-	 * 
+	 *
 	 * @param newEvent The event to be put in the queue.
 	 */
 	public void addEventFirst(SimEvent newEvent) {
-		newEvent.setSerial(0);
-		sortedSet.add(newEvent);
+		newEvent.setSerial(serialFirst++);
+		store(newEvent);
+	}
+
+	/**
+	 * Gets the first event of the queue, without removing it.
+	 *
+	 * @return the first event or <tt>null</tt> if the queue is empty
+	 */
+	public SimEvent peek() {
+		SimEvent first = first();
+		while (first != null && first.isCancelled()) {
+			removeFirst();
+			first.queue = null;
+			cancelled--;
+			first = first();
+		}
+		return first;
+	}
+
+	/**
+	 * Removes the first event of the queue.
+	 *
+	 * @return the removed event or <tt>null</tt> if the queue is empty
+	 */
+	public SimEvent poll() {
+		SimEvent first = peek();
+		if (first != null) {
+			removeFirst();
+			unlink(first);
+			first.queue = null;
+		}
+		return first;
+	}
+
+	/**
+	 * Removes the first event of the queue and all the other events happening at the same time,
+	 * in order, adding them to a given list. It does not allocate any object,
+	 * so the list can be reused between calls.
+	 *
+	 * @param batch the list where the removed events are added
+	 * @return the number of removed events, 0 if the queue is empty
+	 */
+	public int pollSameTime(List<SimEvent> batch) {
+		SimEvent first = poll();
+		if (first == null) {
+			return 0;
+		}
+		batch.add(first);
+		int count = 1;
+		SimEvent next;
+		while ((next = peek()) != null && next.eventTime() == first.eventTime()) {
+			batch.add(poll());
+			count++;
+		}
+		return count;
 	}
 
 	/**
-	 * Returns an iterator to the queue.
-	 * 
+	 * Returns an iterator to the queue. Only {@link FutureQueueTreeSet} guarantees the events
+	 * are returned in temporal order; the other implementations return them in no particular order.
+	 *
 	 * @return the iterator
 	 */
+	@Override
 	public Iterator<SimEvent> iterator() {
-		return sortedSet.iterator();
+		Iterator<SimEvent> stored = storedEvents();
+		return new Iterator<>() {
+			private SimEvent next = advance();
+
+			private SimEvent advance() {
+				while (stored.hasNext()) {
+					SimEvent event = stored.next();
+					if (!event.isCancelled()) {
+						return event;
+					}
+				}
+				return null;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				SimEvent event = next;
+				next = advance();
+				return event;
+			}
+		};
 	}
 
 	/**
 	 * Returns the size of this event queue.
-	 * 
+	 *
 	 * @return the size
 	 */
 	public int size() {
-		return sortedSet.size();
+		return storedSize() - cancelled;
+	}
+
+	/**
+	 * Checks if the queue has no events.
+	 *
+	 * @return true, if the queue is empty
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
 	}
 
 	/**
-	 * Removes the event from the queue.
-	 * 
+	 * Removes the event from the queue. The event is only marked as cancelled,
+	 * which takes constant time whatever the implementation of the queue.
+	 *
 	 * @param event the event
 	 * @return true, if successful
 	 */
 	public boolean remove(SimEvent event) {
-		return sortedSet.remove(event);
+		if (event.queue != this || event.isCancelled()) {
+			return false;
+		}
+		event.cancel();
+		unlink(event);
+		cancelled++;
+		compactIfNeeded();
+		return true;
 	}
 
 	/**
 	 * Removes all the events from the queue.
-	 * 
+	 *
 	 * @param events the events
 	 * @return true, if successful
 	 */
 	public boolean removeAll(Collection<SimEvent> events) {
-		return sortedSet.removeAll(events);
+		boolean modified = false;
+		for (SimEvent event : events) {
+			modified |= remove(event);
+		}
+		return modified;
+	}
+
+	/**
+	 * Removes all the events sent by a given entity with a given tag.
+	 * It only goes through the matching events.
+	 *
+	 * @param source the id of the entity that sent the events
+	 * @param tag the tag of the events
+	 * @return true, if at least one event was removed
+	 */
+	public boolean removeAll(int source, CloudSimTags tag) {
+		SourceAndTagEvents events = lookup(source, tag);
+		if (events == null || events.head == null) {
+			return false;
+		}
+		SimEvent event = events.head;
+		while (event != null) {
+			SimEvent next = event.nextSameSourceAndTag;
+			event.cancel();
+			event.sameSourceAndTag = null;
+			event.prevSameSourceAndTag = event.nextSameSourceAndTag = null;
+			cancelled++;
+			event = next;
+		}
+		events.head = events.tail = null;
+		compactIfNeeded();
+		return true;
+	}
+
+	/**
+	 * Removes all the events sent by a given entity with a given tag to a given entity.
+	 * It only goes through the events sent by the entity with that tag.
+	 *
+	 * @param source the id of the entity that sent the events
+	 * @param tag the tag of the events
+	 * @param destination the id of the entity the events were sent to
+	 * @return true, if at least one event was removed
+	 */
+	boolean removeAll(int source, CloudSimTags tag, int destination) {
+		SourceAndTagEvents events = lookup(source, tag);
+		boolean removed = false;
+		SimEvent event = events == null ? null : events.head;
+		while (event != null) {
+			SimEvent next = event.nextSameSourceAndTag;
+			if (event.getDestination() == destination) {
+				removed |= remove(event);
+			}
+			event = next;
+		}
+		return removed;
+	}
+
+	/**
+	 * Gets the first event sent by a given entity with a given tag.
+	 * It only goes through the matching events.
+	 *
+	 * @param source the id of the entity that sent the event
+	 * @param tag the tag of the event
+	 * @return the first event or <tt>null</tt> if there is no such event
+	 */
+	public SimEvent findFirst(int source, CloudSimTags tag) {
+		SourceAndTagEvents events = lookup(source, tag);
+		SimEvent first = null;
+		for (SimEvent event = events == null ? null : events.head; event != null; event = event.nextSameSourceAndTag) {
+			if (first == null || compare(event, first) < 0) {
+				first = event;
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * Adds the events sent by a given entity with a given tag to a list, without removing them
+	 * from the queue. It only goes through the matching events.
+	 *
+	 * @param source the id of the entity that sent the events
+	 * @param tag the tag of the events
+	 * @param events the list where the events are added
+	 */
+	void collect(int source, CloudSimTags tag, List<SimEvent> events) {
+		SourceAndTagEvents matching = lookup(source, tag);
+		for (SimEvent event = matching == null ? null : matching.head; event != null; event = event.nextSameSourceAndTag) {
+			events.add(event);
+		}
+	}
+
+	/**
+	 * Moves an event waiting in the queue to a new time. The event gets a new serial number, so it
+	 * is ordered as if it had just been added with {@link #addEvent(SimEvent)}. If the storage
+	 * can take the event out, as {@link FutureQueueTreeSet} does, the event itself is moved;
+	 * otherwise it is removed and a copy of it is added, which allocates the copy and leaves a
+	 * tombstone until the storage is rebuilt.
+	 *
+	 * @param event the event
+	 * @param time the new time of the event
+	 * @return the event waiting at the new time, or <tt>null</tt> if the given event was not
+	 *         waiting in the queue
+	 */
+	public SimEvent reschedule(SimEvent event, double time) {
+		if (event.queue != this || event.isCancelled()) {
+			return null;
+		}
+		if (extract(event)) {
+			unlink(event);
+			event.setTime(time);
+			addEvent(event);
+			return event;
+		}
+		remove(event);
+		SimEvent moved = new SimEvent(event.getType(), time, event.getSource(), event.getDestination(),
+				event.getTag(), event.getData());
+		addEvent(moved);
+		return moved;
+	}
+
+	/**
+	 * Leaves a single event among the ones with no data sent by an entity to itself with a given
+	 * tag, moving it to a given time, and removes the others sent by the entity to itself with that
+	 * tag. It only goes through the events sent by the entity with that tag.
+	 *
+	 * @param entity the id of the entity
+	 * @param tag the tag of the events
+	 * @param time the time of the event that is left
+	 * @return the event left, or <tt>null</tt> if there was no such event with no data
+	 */
+	SimEvent reschedule(int entity, CloudSimTags tag, double time) {
+		SourceAndTagEvents events = lookup(entity, tag);
+		SimEvent first = null;
+		SimEvent event = events == null ? null : events.head;
+		while (event != null) {
+			SimEvent next = event.nextSameSourceAndTag;
+			if (event.getDestination() == entity) {
+				if (event.getData() != null) {
+					remove(event);
+				} else if (first == null) {
+					first = event;
+				} else if (compare(event, first) < 0) {
+					remove(first);
+					first = event;
+				} else {
+					remove(event);
+				}
+			}
+			event = next;
+		}
+		return first == null ? null : reschedule(first, time);
 	}
 
 	/**
 	 * Clears the queue.
 	 */
 	public void clear() {
-		sortedSet.clear();
+		clearStored();
+		cancelled = 0;
+		index = newIndex(16);
+	}
+
+	/**
+	 * Replaces the queue by its waiting events when it is serialized, so that the storage of the
+	 * implementations does not need to be serializable. The fields holding the storage are
+	 * therefore transient.
+	 *
+	 * @return the serialized form of the queue
+	 */
+	@Serial
+	protected final Object writeReplace() {
+		List<SimEvent> events = new ArrayList<>(size());
+		for (SimEvent event : this) {
+			events.add(event);
+		}
+		events.sort(Comparator.comparingLong(SimEvent::getSerial));
+		return new SerializedForm(getClass(), serial, serialFirst, events.toArray(new SimEvent[0]));
+	}
+
+	/**
+	 * Stores an event whose serial number has already been set.
+	 *
+	 * @param event the event to be stored
+	 */
+	protected abstract void insert(SimEvent event);
+
+	/**
+	 * Takes a stored event, which is not cancelled, out of the storage, if that can be done without
+	 * going through the stored events. By default, it does not, so that
+	 * {@link #reschedule(SimEvent, double)} adds a copy of the event instead of moving it.
+	 *
+	 * @param event the event
+	 * @return true if the event was taken out of the storage
+	 */
+	protected boolean extract(SimEvent event) {
+		return false;
+	}
+
+	/**
+	 * Gets the first stored event, which may be cancelled.
+	 *
+	 * @return the first event or <tt>null</tt> if no event is stored
+	 */
+	protected abstract SimEvent first();
+
+	/**
+	 * Removes the first stored event. There must be at least one stored event.
+	 */
+	protected abstract void removeFirst();
+
+	/**
+	 * Returns an iterator to all the stored events, including the cancelled ones.
+	 *
+	 * @return the iterator
+	 */
+	protected abstract Iterator<SimEvent> storedEvents();
+
+	/**
+	 * Gets the number of stored events, including the cancelled ones.
+	 *
+	 * @return the number of stored events
+	 */
+	protected abstract int storedSize();
+
+	/**
+	 * Removes all the stored events.
+	 */
+	protected abstract void clearStored();
+
+	/**
+	 * Compares two events by time and serial number, the same way
+	 * {@link SimEvent#compareTo(SimEvent)} does, without the identity check.
+	 *
+	 * @param a the first event
+	 * @param b the second event
+	 * @return a negative number if <tt>a</tt> happens first, a positive number otherwise
+	 */
+	protected static int compare(SimEvent a, SimEvent b) {
+		if (a.eventTime() < b.eventTime()) {
+			return -1;
+		} else if (a.eventTime() > b.eventTime()) {
+			return 1;
+		}
+		return Long.compare(a.getSerial(), b.getSerial());
+	}
+
+	/**
+	 * Rebuilds the storage with the waiting events only, once the tombstones outnumber them.
+	 * Each rebuild goes through the stored events, but it takes as many removals as there are
+	 * waiting events to need the next one, so the amortized cost of a removal stays constant.
+	 */
+	private void compactIfNeeded() {
+		if (cancelled < MIN_COMPACTION || cancelled <= storedSize() - cancelled) {
+			return;
+		}
+		SimEvent[] waiting = new SimEvent[storedSize() - cancelled];
+		int count = 0;
+		for (Iterator<SimEvent> stored = storedEvents(); stored.hasNext();) {
+			SimEvent event = stored.next();
+			if (event.isCancelled()) {
+				event.queue = null;
+			} else {
+				waiting[count++] = event;
+			}
+		}
+		clearStored();
+		cancelled = 0;
+		for (int i = 0; i < count; i++) {
+			insert(waiting[i]);
+		}
+	}
+
+	/**
+	 * Indexes and stores a new event.
+	 *
+	 * @param event the event
+	 */
+	private void store(SimEvent event) {
+		event.queue = this;
+		int source = event.getSource();
+		if (source >= 0) {
+			if (source >= index.length) {
+				index = Arrays.copyOf(index, Math.max(index.length * 2, source + 1));
+			}
+			if (index[source] == null) {
+				index[source] = new HashMap<>();
+			}
+			SourceAndTagEvents events = index[source].computeIfAbsent(event.getTag(), tag -> new SourceAndTagEvents());
+			event.sameSourceAndTag = events;
+			event.prevSameSourceAndTag = events.tail;
+			if (events.tail == null) {
+				events.head = event;
+			} else {
+				events.tail.nextSameSourceAndTag = event;
+			}
+			events.tail = event;
+		}
+		insert(event);
+	}
+
+	/**
+	 * Removes an event from the index.
+	 *
+	 * @param event the event
+	 */
+	private static void unlink(SimEvent event) {
+		SourceAndTagEvents events = event.sameSourceAndTag;
+		if (events == null) {
+			return;
+		}
+		if (event.prevSameSourceAndTag == null) {
+			events.head = event.nextSameSourceAndTag;
+		} else {
+			event.prevSameSourceAndTag.nextSameSourceAndTag = event.nextSameSourceAndTag;
+		}
+		if (event.nextSameSourceAndTag == null) {
+			events.tail = event.prevSameSourceAndTag;
+		} else {
+			event.nextSameSourceAndTag.prevSameSourceAndTag = event.prevSameSourceAndTag;
+		}
+		event.sameSourceAndTag = null;
+		event.prevSameSourceAndTag = event.nextSameSourceAndTag = null;
+	}
+
+	/**
+	 * Gets the indexed events sent by a given entity with a given tag.
+	 *
+	 * @param source the id of the entity that sent the events
+	 * @param tag the tag of the events
+	 * @return the events or <tt>null</tt> if no such event was ever indexed
+	 */
+	private SourceAndTagEvents lookup(int source, CloudSimTags tag) {
+		if (source < 0 || source >= index.length || index[source] == null) {
+			return null;
+		}
+		return index[source].get(tag);
+	}
+
+	private static Map<CloudSimTags, SourceAndTagEvents>[] newIndex(int size) {
+		@SuppressWarnings("unchecked")
+		Map<CloudSimTags, SourceAndTagEvents>[] index = (Map<CloudSimTags, SourceAndTagEvents>[]) new Map<?, ?>[size];
+		return index;
 	}
 
-}
\ No newline at end of file
+}
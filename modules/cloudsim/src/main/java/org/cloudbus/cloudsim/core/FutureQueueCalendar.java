@@ -0,0 +1,256 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A {@link FutureQueue} implemented as a calendar queue, giving O(1) amortized cost
+ * to add and poll events when their times are reasonably spread.
+ * <p>
+ * Events are hashed into an array of buckets ("days") of a given width, each bucket holding
+ * a sorted list of events. The queue is scanned bucket by bucket ("year" after "year"),
+ * and the number of buckets and their width are recomputed every time the number of events
+ * doubles or halves, in order to keep a few events per bucket.
+ * <p>
+ * To avoid floating-point inconsistencies, the position of an event in the calendar is
+ * given by its "virtual bucket" <tt>floor(time / width)</tt>, which never decreases as
+ * time increases.
+ *
+ * <br/>Please refer to following publication for more details:<br/>
+ * <ul>
+ * <li><a href="https://doi.org/10.1145/63039.63045">R. Brown, Calendar Queues: A Fast O(1) Priority Queue
+ * Implementation for the Simulation Event Set Problem, Communications of the ACM, 31(10), 1988.</a>
+ * </ul>
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class FutureQueueCalendar extends FutureQueue {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** The minimum number of buckets in the calendar. */
+	private static final int MIN_BUCKETS = 2;
+
+	/** The maximum number of events sampled to compute a new bucket width. */
+	private static final int WIDTH_SAMPLES = 25;
+
+	/** The buckets, each one sorted by time and serial. */
+	private transient SortedEventList[] buckets;
+
+	/** The width (in simulation time) of each bucket. */
+	private double width;
+
+	/** The number of events in the queue. */
+	private int size;
+
+	/** The bucket where the scan for the next event starts. */
+	private int currentBucket;
+
+	/** The virtual bucket (bucket index without the modulo) being scanned. */
+	private long currentVirtualBucket;
+
+	/** Number of events above which the calendar grows. */
+	private int growThreshold;
+
+	/** Number of events below which the calendar shrinks. */
+	private int shrinkThreshold;
+
+	/**
+	 * Creates a calendar queue.
+	 */
+	public FutureQueueCalendar() {
+		width = 1.0;
+		initBuckets(MIN_BUCKETS, 0);
+	}
+
+	@Override
+	protected void insert(SimEvent event) {
+		enqueue(event);
+		size++;
+		if (size > growThreshold) {
+			resize(buckets.length * 2);
+		}
+	}
+
+	@Override
+	protected SimEvent first() {
+		if (size == 0) {
+			return null;
+		}
+		locateFirst();
+		return buckets[currentBucket].first();
+	}
+
+	@Override
+	protected void removeFirst() {
+		locateFirst();
+		buckets[currentBucket].pollFirst();
+		size--;
+		if (size < shrinkThreshold) {
+			resize(buckets.length / 2);
+		}
+	}
+
+	@Override
+	protected Iterator<SimEvent> storedEvents() {
+		List<SimEvent> all = new ArrayList<>(size);
+		for (SortedEventList bucket : buckets) {
+			bucket.addAllTo(all);
+		}
+		return all.iterator();
+	}
+
+	@Override
+	protected int storedSize() {
+		return size;
+	}
+
+	@Override
+	protected void clearStored() {
+		size = 0;
+		initBuckets(MIN_BUCKETS, 0);
+	}
+
+	/**
+	 * Gets the virtual bucket of a given time.
+	 *
+	 * @param time the time
+	 * @return the virtual bucket
+	 */
+	private long virtualBucket(double time) {
+		return (long) Math.floor(time / width);
+	}
+
+	/**
+	 * Gets the bucket (in the array of buckets) of a given virtual bucket.
+	 *
+	 * @param virtualBucket the virtual bucket
+	 * @return the bucket index
+	 */
+	private int bucketOf(long virtualBucket) {
+		return (int) (virtualBucket & (buckets.length - 1));
+	}
+
+	/**
+	 * Puts an event in its bucket, moving the scan position back if the event happens before it.
+	 *
+	 * @param event the event
+	 */
+	private void enqueue(SimEvent event) {
+		long vb = virtualBucket(event.eventTime());
+		if (vb < currentVirtualBucket) {
+			// An event earlier than the scan position, restart the scan from there
+			currentVirtualBucket = vb;
+			currentBucket = bucketOf(vb);
+		}
+
+		buckets[bucketOf(vb)].add(event);
+	}
+
+	/**
+	 * Moves the scan position to the bucket holding the first event.
+	 * The queue must not be empty.
+	 */
+	private void locateFirst() {
+		int nBuckets = buckets.length;
+		for (int i = 0; i < nBuckets; i++) {
+			SortedEventList bucket = buckets[currentBucket];
+			if (!bucket.isEmpty() && virtualBucket(bucket.first().eventTime()) <= currentVirtualBucket) {
+				return;
+			}
+			currentBucket = (currentBucket + 1) & (nBuckets - 1);
+			currentVirtualBucket++;
+		}
+
+		// A whole year without events: jump directly to the earliest one
+		SimEvent first = null;
+		for (SortedEventList bucket : buckets) {
+			if (!bucket.isEmpty() && (first == null || compare(bucket.first(), first) < 0)) {
+				first = bucket.first();
+			}
+		}
+		currentVirtualBucket = virtualBucket(first.eventTime());
+		currentBucket = bucketOf(currentVirtualBucket);
+	}
+
+	/**
+	 * Creates empty buckets, updating the resize thresholds.
+	 *
+	 * @param nBuckets the number of buckets, a power of two
+	 * @param startTime the time from where the scan of the buckets starts
+	 */
+	private void initBuckets(int nBuckets, double startTime) {
+		buckets = new SortedEventList[nBuckets];
+		for (int i = 0; i < nBuckets; i++) {
+			buckets[i] = new SortedEventList();
+		}
+		currentVirtualBucket = virtualBucket(startTime);
+		currentBucket = bucketOf(currentVirtualBucket);
+		growThreshold = nBuckets * 2;
+		shrinkThreshold = nBuckets <= MIN_BUCKETS ? 0 : nBuckets / 2 - 2;
+	}
+
+	/**
+	 * Rebuilds the calendar with a new number of buckets and a bucket width
+	 * estimated from the events at the head of the queue.
+	 *
+	 * @param nBuckets the new number of buckets, a power of two
+	 */
+	private void resize(int nBuckets) {
+		nBuckets = Math.max(nBuckets, MIN_BUCKETS);
+		List<SimEvent> events = new ArrayList<>(size);
+		for (SortedEventList bucket : buckets) {
+			bucket.addAllTo(events);
+		}
+		events.sort(FutureQueue::compare);
+
+		double newWidth = estimateWidth(events);
+		if (newWidth > 0) {
+			width = newWidth;
+		}
+		initBuckets(nBuckets, events.isEmpty() ? 0 : events.getFirst().eventTime());
+		for (SimEvent event : events) {
+			buckets[bucketOf(virtualBucket(event.eventTime()))].append(event); // events come sorted
+		}
+	}
+
+	/**
+	 * Estimates a bucket width as three times the average separation between the first
+	 * events, ignoring separations much larger than the average.
+	 *
+	 * @param sorted the events, sorted
+	 * @return the width, or 0 if it could not be estimated
+	 */
+	private static double estimateWidth(List<SimEvent> sorted) {
+		int samples = Math.min(sorted.size(), WIDTH_SAMPLES);
+		if (samples < 2) {
+			return 0;
+		}
+		double average = (sorted.get(samples - 1).eventTime() - sorted.getFirst().eventTime()) / (samples - 1);
+		double total = 0;
+		int count = 0;
+		for (int i = 1; i < samples; i++) {
+			double separation = sorted.get(i).eventTime() - sorted.get(i - 1).eventTime();
+			if (separation <= average * 2) {
+				total += separation;
+				count++;
+			}
+		}
+		if (count == 0 || total <= 0) {
+			return 0;
+		}
+		return 3 * total / count;
+	}
+
+}
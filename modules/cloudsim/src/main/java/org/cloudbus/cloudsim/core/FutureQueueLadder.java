@@ -0,0 +1,274 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A {@link FutureQueue} implemented as a ladder queue, giving O(1) amortized cost
+ * to add and poll events without the resize heuristics of {@link FutureQueueCalendar}.
+ * <p>
+ * The queue has three tiers:
+ * <ul>
+ * <li><b>top</b>: an unsorted list with the events farther in the future;
+ * <li><b>rungs</b>: a ladder of bucket arrays, where each rung splits one bucket of the rung above
+ * into finer buckets. Events inside a bucket are not sorted;
+ * <li><b>bottom</b>: a short sorted list with the events to be polled next.
+ * </ul>
+ * Events are only sorted when a bucket small enough reaches the bottom.
+ * The order of events having the same time is given by their serial, so the
+ * queue polls events in exactly the same order as {@link FutureQueueTreeSet}.
+ *
+ * <br/>Please refer to following publication for more details:<br/>
+ * <ul>
+ * <li><a href="https://doi.org/10.1145/1103323.1103324">W. T. Tang, R. S. M. Goh and I. L.-J. Thng,
+ * Ladder Queue: An O(1) Priority Queue Structure for Large-Scale Discrete Event Simulation,
+ * ACM Transactions on Modeling and Computer Simulation, 15(3), 2005.</a>
+ * </ul>
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class FutureQueueLadder extends FutureQueue {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** The number of events in a bucket above which the bucket is split into a new rung. */
+	private static final int THRESHOLD = 50;
+
+	/** The maximum number of rungs. */
+	private static final int MAX_RUNGS = 8;
+
+	/**
+	 * A rung of the ladder. The bucket of an event is given by
+	 * <tt>floor((time - start) / width)</tt>, limited to the available buckets.
+	 */
+	private static final class Rung {
+		/** The time where the first bucket starts. */
+		final double start;
+
+		/** The width of each bucket. */
+		final double width;
+
+		/** The buckets. */
+		final List<SimEvent>[] buckets;
+
+		/** The next bucket to be consumed; buckets before it are empty. */
+		int current;
+
+		/** The number of events in the rung. */
+		int size;
+
+		@SuppressWarnings("unchecked")
+		Rung(double start, double width, int nBuckets) {
+			this.start = start;
+			this.width = width;
+			buckets = (List<SimEvent>[]) new List<?>[nBuckets];
+		}
+
+		int bucketOf(double time) {
+			double index = Math.floor((time - start) / width);
+			if (index < 0) {
+				return 0;
+			}
+			return index >= buckets.length ? buckets.length - 1 : (int) index;
+		}
+
+		void add(int bucket, SimEvent event) {
+			List<SimEvent> list = buckets[bucket];
+			if (list == null) {
+				list = buckets[bucket] = new ArrayList<>();
+			}
+			list.add(event);
+			size++;
+		}
+	}
+
+	/** The unsorted events happening after {@link #topStart}. */
+	private final transient List<SimEvent> top = new ArrayList<>();
+
+	/** Events later than this time are added to the top. */
+	private double topStart = Double.NEGATIVE_INFINITY;
+
+	/** The minimum time of the events in the top. */
+	private double topMin = Double.POSITIVE_INFINITY;
+
+	/** The maximum time of the events in the top. */
+	private double topMax = Double.NEGATIVE_INFINITY;
+
+	/** The rungs, from the coarser (index 0) to the finer one. */
+	private final transient List<Rung> rungs = new ArrayList<>(MAX_RUNGS);
+
+	/** The sorted events to be polled next. */
+	private final transient SortedEventList bottom = new SortedEventList();
+
+	/** The number of events in the queue. */
+	private int size;
+
+	@Override
+	protected void insert(SimEvent event) {
+		size++;
+		double time = event.eventTime();
+		if (time > topStart) {
+			top.add(event);
+			topMin = Math.min(topMin, time);
+			topMax = Math.max(topMax, time);
+			return;
+		}
+
+		for (Rung rung : rungs) {
+			int bucket = rung.bucketOf(time);
+			if (bucket >= rung.current) {
+				rung.add(bucket, event);
+				return;
+			}
+		}
+
+		bottom.add(event);
+	}
+
+	@Override
+	protected SimEvent first() {
+		return prepareBottom() ? bottom.first() : null;
+	}
+
+	@Override
+	protected void removeFirst() {
+		prepareBottom();
+		size--;
+		bottom.pollFirst();
+	}
+
+	@Override
+	protected Iterator<SimEvent> storedEvents() {
+		List<SimEvent> all = new ArrayList<>(size);
+		bottom.addAllTo(all);
+		for (Rung rung : rungs) {
+			for (int i = rung.current; i < rung.buckets.length; i++) {
+				if (rung.buckets[i] != null) {
+					all.addAll(rung.buckets[i]);
+				}
+			}
+		}
+		all.addAll(top);
+		return all.iterator();
+	}
+
+	@Override
+	protected int storedSize() {
+		return size;
+	}
+
+	@Override
+	protected void clearStored() {
+		top.clear();
+		rungs.clear();
+		bottom.clear();
+		topStart = Double.NEGATIVE_INFINITY;
+		topMin = Double.POSITIVE_INFINITY;
+		topMax = Double.NEGATIVE_INFINITY;
+		size = 0;
+	}
+
+	/**
+	 * Makes sure the bottom holds the first event of the queue, moving events down the ladder
+	 * as needed.
+	 *
+	 * @return false if the queue is empty
+	 */
+	private boolean prepareBottom() {
+		while (bottom.isEmpty()) {
+			if (rungs.isEmpty()) {
+				if (top.isEmpty()) {
+					return false;
+				}
+				transferTop();
+				continue;
+			}
+
+			Rung rung = rungs.getLast();
+			while (rung.current < rung.buckets.length
+					&& (rung.buckets[rung.current] == null || rung.buckets[rung.current].isEmpty())) {
+				rung.current++;
+			}
+			if (rung.size == 0 || rung.current == rung.buckets.length) {
+				rungs.removeLast();
+				continue;
+			}
+
+			List<SimEvent> bucket = rung.buckets[rung.current];
+			rung.buckets[rung.current] = null;
+			rung.current++;
+			rung.size -= bucket.size();
+
+			if (bucket.size() > THRESHOLD && rungs.size() < MAX_RUNGS) {
+				Rung child = spawnRung(bucket);
+				if (child != null) {
+					rungs.add(child);
+					continue;
+				}
+			}
+
+			bucket.sort(FutureQueue::compare);
+			for (SimEvent event : bucket) {
+				bottom.append(event);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Moves all the events in the top to a new first rung.
+	 */
+	private void transferTop() {
+		Rung rung = spawnRung(top);
+		topStart = topMax;
+		if (rung == null) {
+			// all the events have the same time
+			top.sort(FutureQueue::compare);
+			for (SimEvent event : top) {
+				bottom.append(event);
+			}
+		} else {
+			rungs.add(rung);
+		}
+		top.clear();
+		topMin = Double.POSITIVE_INFINITY;
+		topMax = Double.NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * Creates a rung with one bucket per event, spreading over the time span of some events.
+	 *
+	 * @param events the events to distribute in the new rung, in the order they were added
+	 * @return the new rung or <tt>null</tt> if all the events have the same time
+	 */
+	private static Rung spawnRung(List<SimEvent> events) {
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		for (SimEvent event : events) {
+			min = Math.min(min, event.eventTime());
+			max = Math.max(max, event.eventTime());
+		}
+		double width = (max - min) / events.size();
+		if (!(width > 0) || Double.isInfinite(width)) {
+			return null;
+		}
+
+		Rung rung = new Rung(min, width, events.size() + 1);
+		for (SimEvent event : events) {
+			rung.add(rung.bucketOf(event.eventTime()), event);
+		}
+		return rung;
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.Serial;
+import java.util.Iterator;
+import java.util.TreeSet;
+
+/**
+ * The default {@link FutureQueue}, which uses a {@link TreeSet} in order to store the events.
+ * Every operation costs O(log n), and its iterator returns the events in temporal order.
+ *
+ * @author Marcos Dias de Assuncao
+ * @since CloudSim Toolkit 7.0
+ * @see java.util.TreeSet
+ */
+public class FutureQueueTreeSet extends FutureQueue {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** The sorted set of events. */
+	private final transient TreeSet<SimEvent> sortedSet = new TreeSet<>();
+
+	@Override
+	protected void insert(SimEvent event) {
+		sortedSet.add(event);
+	}
+
+	@Override
+	protected boolean extract(SimEvent event) {
+		return sortedSet.remove(event);
+	}
+
+	@Override
+	protected SimEvent first() {
+		return sortedSet.isEmpty() ? null : sortedSet.first();
+	}
+
+	@Override
+	protected void removeFirst() {
+		sortedSet.pollFirst();
+	}
+
+	@Override
+	protected Iterator<SimEvent> storedEvents() {
+		return sortedSet.iterator();
+	}
+
+	@Override
+	protected int storedSize() {
+		return sortedSet.size();
+	}
+
+	@Override
+	protected void clearStored() {
+		sortedSet.clear();
+	}
+
+}
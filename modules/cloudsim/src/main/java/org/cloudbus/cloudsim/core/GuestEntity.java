@@ -1,6 +1,7 @@
 package org.cloudbus.cloudsim.core;
 
 import org.cloudbus.cloudsim.CloudletScheduler;
+import org.cloudbus.cloudsim.MipsShare;
 import org.cloudbus.cloudsim.VmStateHistoryEntry;
 
 import java.util.List;
@@ -34,17 +35,23 @@ public interface GuestEntity extends CoreAttributes {
      */
     List<Double> getCurrentRequestedMips();
 
+    /**
+     * Gets the current requested mips as a MIPS share. Unlike {@link #getCurrentRequestedMips()},
+     * the guests which keep their MIPS share between updates do not create it at each call.
+     *
+     * @return the current requested mips
+     */
+    default MipsShare getCurrentRequestedMipsShare() {
+        return MipsShare.of(getCurrentRequestedMips());
+    }
+
     /**
      * Gets the current requested total mips (i.e., sum of mips for each virtual PE).
      *
      * @return the current requested total mips
      */
     default double getCurrentRequestedTotalMips() {
-        double totalMips = 0.0;
-        for (Double mips : getCurrentRequestedMips()) {
-            totalMips += mips;
-        }
-        return totalMips;
+        return getCurrentRequestedMipsShare().getTotalMips();
     }
 
     /**
@@ -53,13 +60,7 @@ public interface GuestEntity extends CoreAttributes {
      * @return the current requested max mips
      */
     default double getCurrentRequestedMaxMips() {
-        double maxMips = 0.0;
-        for (Double mips : getCurrentRequestedMips()) {
-            if (mips > maxMips) {
-                maxMips = mips;
-            }
-        }
-        return maxMips;
+        return getCurrentRequestedMipsShare().getMaxMips();
     }
 
     /**
@@ -182,6 +183,17 @@ public interface GuestEntity extends CoreAttributes {
      */
     String getUid();
 
+    /**
+     * Gets the index of the guest, a small number assigned when the guest is created. The indices
+     * of the guests created in a {@link SimulationContext} are dense and distinct, so the
+     * schedulers and provisioners of the hosts key their tables by index rather than by
+     * {@link #getUid() uid}.
+     *
+     * @return the index
+     * @see SimulationContext#nextGuestIndex()
+     */
+    int getIndex();
+
     /**
      * Generate unique string identifier of the VM.
      *
@@ -145,9 +145,7 @@ public interface HostEntity extends CoreAttributes {
             if (!getGuestList().contains(guest)) {
                 getGuestList().add(guest);
             }
-            if (!getGuestScheduler().getGuestsMigratingIn().contains(guest.getUid())) {
-                getGuestScheduler().getGuestsMigratingIn().add(guest.getUid());
-            }
+            getGuestScheduler().getGuestsMigratingIn().set(guest.getIndex());
             getGuestRamProvisioner().allocateRamForGuest(guest, guest.getCurrentRequestedRam());
             getGuestBwProvisioner().allocateBwForGuest(guest, guest.getCurrentRequestedBw());
             getGuestScheduler().allocatePesForGuest(guest, guest.getCurrentRequestedMips());
@@ -165,7 +163,7 @@ public interface HostEntity extends CoreAttributes {
         getGuestsMigratingIn().remove(guest);
         getGuestList().remove(guest);
         //Log.printlnConcat(getClassName()," # ",getId()," removeMigratingInGuest: ",guest.getClassName()," #",guest.getId()," is deleted from the list");
-        getGuestScheduler().getGuestsMigratingIn().remove(guest.getUid());
+        getGuestScheduler().getGuestsMigratingIn().clear(guest.getIndex());
         guest.setInMigration(false);
     }
 
@@ -196,7 +194,7 @@ public interface HostEntity extends CoreAttributes {
                 System.exit(0);
             }
 
-            getGuestScheduler().getGuestsMigratingIn().add(guest.getUid());
+            getGuestScheduler().getGuestsMigratingIn().set(guest.getIndex());
             if (!getGuestScheduler().allocatePesForGuest(guest, guest.getCurrentRequestedMips())) {
                 Log.printlnConcat("[host.addMigratingInGuest] Allocation of ", guest.getClassName(), " #", guest.getId(), " to ", getClassName(), " #",
 								  getId(), " failed by MIPS");
@@ -312,6 +310,17 @@ public interface HostEntity extends CoreAttributes {
      */
     List<Double> getAllocatedMipsForGuest(GuestEntity guest);
 
+    /**
+     * Gets the MIPS share of each Pe that is allocated to a given guest entity, without copying
+     * it when the scheduler keeps it as a MIPS share.
+     *
+     * @param guest the guest
+     * @return the MIPS share of the guest, or <tt>null</tt> if the guest has no MIPS allocated
+     */
+    default MipsShare getAllocatedMipsShareForGuest(GuestEntity guest) {
+        return getGuestScheduler().getAllocatedMipsShareForGuest(guest);
+    }
+
     /**
      * Gets the total allocated MIPS for a container over all the PEs.
      *
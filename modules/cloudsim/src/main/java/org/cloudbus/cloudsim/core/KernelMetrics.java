@@ -0,0 +1,563 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ConstructorParameters;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Measures where the wall-clock time of a simulation goes. It is enabled with
+ * {@link SimulationContext#setKernelMetrics(KernelMetrics)}, and costs a single null check per
+ * event otherwise.
+ * <p>
+ * The time each entity takes to process each event is measured, and counted by tag and by class
+ * of entity, along with a histogram of these times. The sizes of the future and deferred queues
+ * are sampled at each tick, and the simulated time is compared with the elapsed wall-clock time.
+ * The metrics are thread-safe, so that they also measure the entities running in parallel.
+ * <p>
+ * The metrics can be read directly, or through JMX once {@link #registerMBean(String) registered}.
+ * They are also reported to Java Flight Recorder, while a recording is running:
+ * <ul>
+ * <li> <tt>org.cloudbus.cloudsim.TagStatistics</tt> and
+ * <tt>org.cloudbus.cloudsim.EntityClassStatistics</tt> give, every second, the number of events
+ * processed so far and the time spent on them, by tag and by class of entity;
+ * <li> <tt>org.cloudbus.cloudsim.SimulationState</tt> gives, every second, the simulation time,
+ * the sizes of the queues and the ratio of simulated time to wall-clock time;
+ * <li> <tt>org.cloudbus.cloudsim.EventProcessed</tt> gives the processing of each single event.
+ * As it is much more verbose, it is disabled unless enabled in the recording settings.
+ * </ul>
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see KernelMetricsMXBean
+ */
+public class KernelMetrics implements KernelMetricsMXBean {
+
+	/** The number of buckets of the histograms, one per power of two nanoseconds. */
+	private static final int BUCKETS = 64;
+
+	/** The metrics that are enabled in a simulation context, reported periodically to JFR. */
+	private static final Set<KernelMetrics> ENABLED = Collections.newSetFromMap(new WeakHashMap<>());
+
+	static {
+		FlightRecorder.addPeriodicEvent(TagStatisticsEvent.class, () -> {
+			for (KernelMetrics metrics : enabled()) {
+				for (Counter counter : metrics.byTag.values()) {
+					TagStatisticsEvent event = new TagStatisticsEvent();
+					event.tag = counter.name;
+					counter.fill(event);
+					event.commit();
+				}
+			}
+		});
+		FlightRecorder.addPeriodicEvent(EntityClassStatisticsEvent.class, () -> {
+			for (KernelMetrics metrics : enabled()) {
+				for (Counter counter : metrics.byEntityClass.values()) {
+					EntityClassStatisticsEvent event = new EntityClassStatisticsEvent();
+					event.entityClass = counter.name;
+					counter.fill(event);
+					event.commit();
+				}
+			}
+		});
+		FlightRecorder.addPeriodicEvent(SimulationStateEvent.class, () -> {
+			for (KernelMetrics metrics : enabled()) {
+				SimulationStateEvent event = new SimulationStateEvent();
+				event.simulationTime = metrics.getSimulationClock();
+				event.futureQueueSize = metrics.futureQueueSize;
+				event.deferredQueueSize = metrics.deferredQueueSize;
+				event.simulatedTimePerWallSecond = metrics.getSimulatedTimePerWallSecond();
+				event.commit();
+			}
+		});
+	}
+
+	/** The statistics by tag. */
+	private final Map<CloudSimTags, Counter> byTag = new ConcurrentHashMap<>();
+
+	/** The statistics of the events without a tag. */
+	private final Counter untagged = new Counter("(none)");
+
+	/** The statistics by class of entity. */
+	private final Map<Class<?>, Counter> byEntityClass = new ConcurrentHashMap<>();
+
+	/** The simulation context the metrics are enabled in, or <tt>null</tt>. */
+	private volatile SimulationContext context;
+
+	/** The wall-clock time when the metrics were enabled or reset. */
+	private volatile long startNanos;
+
+	/** The simulation time when the metrics were enabled or reset. */
+	private volatile double startClock;
+
+	/** The simulation time at the last tick. */
+	private volatile double clock;
+
+	private volatile int futureQueueSize;
+
+	private volatile int maxFutureQueueSize;
+
+	private volatile int deferredQueueSize;
+
+	private volatile int maxDeferredQueueSize;
+
+	/** The name of the metrics in the platform MBean server, or <tt>null</tt> if not registered. */
+	private ObjectName objectName;
+
+	/**
+	 * Makes an entity process an event, measuring the time it takes.
+	 *
+	 * @param entity the entity
+	 * @param ev the event
+	 */
+	void processEvent(SimEntity entity, SimEvent ev) {
+		EventProcessedEvent event = new EventProcessedEvent();
+		event.begin();
+		long start = System.nanoTime();
+		entity.processEvent(ev);
+		long nanos = System.nanoTime() - start;
+		event.end();
+
+		CloudSimTags tag = ev.getTag();
+		Counter counter = tag == null ? untagged : byTag.get(tag);
+		if (counter == null) {
+			counter = byTag.computeIfAbsent(tag, t -> new Counter(nameOf(t)));
+		}
+		counter.add(nanos);
+		Class<?> type = entity.getClass();
+		counter = byEntityClass.get(type);
+		if (counter == null) {
+			counter = byEntityClass.computeIfAbsent(type, t -> new Counter(t.getName()));
+		}
+		counter.add(nanos);
+
+		if (event.shouldCommit()) {
+			event.tag = nameOf(tag);
+			event.entity = entity.getName();
+			event.entityClass = type;
+			event.simulationTime = ev.eventTime();
+			event.commit();
+		}
+	}
+
+	/**
+	 * Samples the sizes of the event queues, once the entities have processed the events of a tick.
+	 *
+	 * @param clock the simulation time
+	 * @param future the number of events in the future queue
+	 * @param deferred the number of events in the deferred queue
+	 */
+	void sampleQueues(double clock, int future, int deferred) {
+		this.clock = clock;
+		futureQueueSize = future;
+		if (future > maxFutureQueueSize) {
+			maxFutureQueueSize = future;
+		}
+		deferredQueueSize = deferred;
+		if (deferred > maxDeferredQueueSize) {
+			maxDeferredQueueSize = deferred;
+		}
+	}
+
+	/**
+	 * Enables the metrics in a simulation context.
+	 *
+	 * @param context the context
+	 * @throws IllegalStateException if the metrics are already enabled in another context
+	 */
+	void enable(SimulationContext context) {
+		if (this.context != null && this.context != context) {
+			throw new IllegalStateException("The metrics are already enabled in another simulation context.");
+		}
+		this.context = context;
+		clock = context.clock();
+		reset();
+		synchronized (ENABLED) {
+			ENABLED.add(this);
+		}
+	}
+
+	/**
+	 * Disables the metrics in the simulation context they were enabled in. They can still be
+	 * read afterwards.
+	 */
+	void disable() {
+		synchronized (ENABLED) {
+			ENABLED.remove(this);
+		}
+		context = null;
+	}
+
+	/**
+	 * Gets the metrics that are enabled in a simulation context.
+	 *
+	 * @return a copy of the enabled metrics
+	 */
+	private static List<KernelMetrics> enabled() {
+		synchronized (ENABLED) {
+			return new ArrayList<>(ENABLED);
+		}
+	}
+
+	/**
+	 * Registers the metrics in the platform MBean server, with the name
+	 * <tt>org.cloudbus.cloudsim:type=KernelMetrics,name=</tt><i>name</i>.
+	 *
+	 * @param name the name given to the metrics, to tell apart the simulations of a JVM
+	 * @return the name of the MBean
+	 * @throws JMException if the metrics can't be registered
+	 */
+	public ObjectName registerMBean(String name) throws JMException {
+		ObjectName objectName = new ObjectName("org.cloudbus.cloudsim:type=KernelMetrics,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		this.objectName = objectName;
+		return objectName;
+	}
+
+	/**
+	 * Unregisters the metrics from the platform MBean server, if they were registered.
+	 *
+	 * @throws JMException if the metrics can't be unregistered
+	 */
+	public void unregisterMBean() throws JMException {
+		if (objectName != null) {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+			objectName = null;
+		}
+	}
+
+	@Override
+	public double getSimulationClock() {
+		return clock;
+	}
+
+	@Override
+	public long getProcessedEvents() {
+		long events = 0;
+		for (Counter counter : byEntityClass.values()) {
+			events += counter.count.sum();
+		}
+		return events;
+	}
+
+	@Override
+	public long getProcessingNanos() {
+		long nanos = 0;
+		for (Counter counter : byEntityClass.values()) {
+			nanos += counter.nanos.sum();
+		}
+		return nanos;
+	}
+
+	@Override
+	public double getSimulatedTimePerWallSecond() {
+		double seconds = (System.nanoTime() - startNanos) / 1e9;
+		return seconds > 0 ? (getSimulationClock() - startClock) / seconds : 0;
+	}
+
+	@Override
+	public int getFutureQueueSize() {
+		return futureQueueSize;
+	}
+
+	@Override
+	public int getMaxFutureQueueSize() {
+		return maxFutureQueueSize;
+	}
+
+	@Override
+	public int getDeferredQueueSize() {
+		return deferredQueueSize;
+	}
+
+	@Override
+	public int getMaxDeferredQueueSize() {
+		return maxDeferredQueueSize;
+	}
+
+	@Override
+	public List<EventStatistics> getTagStatistics() {
+		List<Counter> counters = new ArrayList<>(byTag.values());
+		if (untagged.count.sum() > 0) {
+			counters.add(untagged);
+		}
+		return statistics(counters);
+	}
+
+	@Override
+	public List<EventStatistics> getEntityClassStatistics() {
+		return statistics(byEntityClass.values());
+	}
+
+	/**
+	 * Gets the statistics of some counters, the most time-consuming first.
+	 *
+	 * @param counters the counters
+	 * @return the statistics
+	 */
+	private static List<EventStatistics> statistics(Iterable<Counter> counters) {
+		List<EventStatistics> statistics = new ArrayList<>();
+		for (Counter counter : counters) {
+			statistics.add(counter.statistics());
+		}
+		statistics.sort(Comparator.comparingLong(EventStatistics::getTotalNanos).reversed());
+		return statistics;
+	}
+
+	/**
+	 * Resets the metrics. It should not be called while the entities are running in parallel.
+	 */
+	@Override
+	public void reset() {
+		byTag.clear();
+		untagged.clear();
+		byEntityClass.clear();
+		futureQueueSize = maxFutureQueueSize = 0;
+		deferredQueueSize = maxDeferredQueueSize = 0;
+		startClock = clock;
+		startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Gets the name of a tag, made of its enum class and constant.
+	 *
+	 * @param tag the tag
+	 * @return the name
+	 */
+	private static String nameOf(CloudSimTags tag) {
+		if (tag == null) {
+			return "(none)";
+		}
+		if (tag instanceof Enum<?> constant) {
+			return constant.getDeclaringClass().getSimpleName() + "." + constant.name();
+		}
+		return tag.toString();
+	}
+
+	/**
+	 * Counts the events of a tag or processed by a class of entity, and how long they took.
+	 */
+	private static final class Counter {
+		final String name;
+		final LongAdder count = new LongAdder();
+		final LongAdder nanos = new LongAdder();
+		final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+		/** The number of events that took less than 2<sup>i</sup> nanoseconds, and not less than 2<sup>i-1</sup>. */
+		final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+		Counter(String name) {
+			this.name = name;
+		}
+
+		void add(long nanos) {
+			count.increment();
+			this.nanos.add(nanos);
+			maxNanos.accumulate(nanos);
+			histogram.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos)));
+		}
+
+		void clear() {
+			count.reset();
+			nanos.reset();
+			maxNanos.reset();
+			for (int i = 0; i < BUCKETS; i++) {
+				histogram.set(i, 0);
+			}
+		}
+
+		/**
+		 * Estimates a percentile of the processing times, by the upper bound of the histogram
+		 * bucket it falls into.
+		 *
+		 * @param fraction the fraction of events taking less time than the percentile
+		 * @return the estimated percentile, in nanoseconds
+		 */
+		long percentile(double fraction) {
+			long[] counts = new long[BUCKETS];
+			long total = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				counts[i] = histogram.get(i);
+				total += counts[i];
+			}
+			long rank = (long) Math.ceil(fraction * total);
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += counts[i];
+				if (seen >= rank && seen > 0) {
+					return Math.min(i == 0 ? 0 : (1L << i) - 1, maxNanos.get());
+				}
+			}
+			return 0;
+		}
+
+		EventStatistics statistics() {
+			return new EventStatistics(name, count.sum(), nanos.sum(), percentile(0.5),
+					percentile(0.99), maxNanos.get());
+		}
+
+		void fill(StatisticsEvent event) {
+			event.events = count.sum();
+			event.totalTime = nanos.sum();
+			event.maxTime = maxNanos.get();
+		}
+	}
+
+	/**
+	 * The statistics of the events of a tag or processed by a class of entity.
+	 */
+	public static final class EventStatistics {
+		private final String name;
+		private final long count;
+		private final long totalNanos;
+		private final long medianNanos;
+		private final long p99Nanos;
+		private final long maxNanos;
+
+		@ConstructorParameters({"name", "count", "totalNanos", "medianNanos", "p99Nanos", "maxNanos"})
+		public EventStatistics(String name, long count, long totalNanos, long medianNanos, long p99Nanos, long maxNanos) {
+			this.name = name;
+			this.count = count;
+			this.totalNanos = totalNanos;
+			this.medianNanos = medianNanos;
+			this.p99Nanos = p99Nanos;
+			this.maxNanos = maxNanos;
+		}
+
+		/** @return the tag or the class of entity */
+		public String getName() { return name; }
+
+		/** @return the number of processed events */
+		public long getCount() { return count; }
+
+		/** @return the time spent processing the events, in nanoseconds */
+		public long getTotalNanos() { return totalNanos; }
+
+		/** @return the mean time spent processing an event, in nanoseconds */
+		public double getMeanNanos() { return count == 0 ? 0 : (double) totalNanos / count; }
+
+		/** @return an estimate of the median time spent processing an event, in nanoseconds */
+		public long getMedianNanos() { return medianNanos; }
+
+		/** @return an estimate of the 99th percentile of the time spent processing an event, in nanoseconds */
+		public long getP99Nanos() { return p99Nanos; }
+
+		/** @return the longest time spent processing an event, in nanoseconds */
+		public long getMaxNanos() { return maxNanos; }
+
+		@Override
+		public String toString() {
+			return name + ": " + count + " events, " + totalNanos + " ns";
+		}
+	}
+
+	/** The processing of an event by an entity. */
+	@Name("org.cloudbus.cloudsim.EventProcessed")
+	@Label("Event Processed")
+	@Category("CloudSim")
+	@Description("An event processed by a simulation entity")
+	@StackTrace(false)
+	@Enabled(false)
+	static final class EventProcessedEvent extends jdk.jfr.Event {
+		@Label("Tag")
+		String tag;
+
+		@Label("Entity")
+		String entity;
+
+		@Label("Entity Class")
+		Class<?> entityClass;
+
+		@Label("Simulation Time")
+		double simulationTime;
+	}
+
+	/** The statistics of the events processed so far. */
+	abstract static class StatisticsEvent extends jdk.jfr.Event {
+		@Label("Events")
+		long events;
+
+		@Label("Total Time")
+		@Timespan
+		long totalTime;
+
+		@Label("Max Time")
+		@Timespan
+		long maxTime;
+	}
+
+	/** The statistics of the events of a tag processed so far. */
+	@Name("org.cloudbus.cloudsim.TagStatistics")
+	@Label("Tag Statistics")
+	@Category("CloudSim")
+	@Description("The events of a tag processed so far and the time spent on them")
+	@StackTrace(false)
+	@Period("1 s")
+	static final class TagStatisticsEvent extends StatisticsEvent {
+		@Label("Tag")
+		String tag;
+	}
+
+	/** The statistics of the events processed so far by a class of entity. */
+	@Name("org.cloudbus.cloudsim.EntityClassStatistics")
+	@Label("Entity Class Statistics")
+	@Category("CloudSim")
+	@Description("The events processed so far by a class of entity and the time spent on them")
+	@StackTrace(false)
+	@Period("1 s")
+	static final class EntityClassStatisticsEvent extends StatisticsEvent {
+		@Label("Entity Class")
+		String entityClass;
+	}
+
+	/** The progress of a simulation and the sizes of its event queues. */
+	@Name("org.cloudbus.cloudsim.SimulationState")
+	@Label("Simulation State")
+	@Category("CloudSim")
+	@Description("The progress of a simulation and the sizes of its event queues")
+	@StackTrace(false)
+	@Period("1 s")
+	static final class SimulationStateEvent extends jdk.jfr.Event {
+		@Label("Simulation Time")
+		double simulationTime;
+
+		@Label("Future Queue Size")
+		int futureQueueSize;
+
+		@Label("Deferred Queue Size")
+		int deferredQueueSize;
+
+		@Label("Simulated Time per Wall Second")
+		double simulatedTimePerWallSecond;
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.List;
+
+/**
+ * The management interface of {@link KernelMetrics}, through which the metrics of a running
+ * simulation can be watched with any JMX client, such as JConsole or VisualVM.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see KernelMetrics#registerMBean(String)
+ */
+public interface KernelMetricsMXBean {
+
+	/**
+	 * Gets the current simulation time.
+	 *
+	 * @return the simulation time
+	 */
+	double getSimulationClock();
+
+	/**
+	 * Gets the number of events processed by the entities since the metrics were enabled or reset.
+	 *
+	 * @return the number of processed events
+	 */
+	long getProcessedEvents();
+
+	/**
+	 * Gets the wall-clock time the entities spent processing events since the metrics were
+	 * enabled or reset.
+	 *
+	 * @return the processing time, in nanoseconds
+	 */
+	long getProcessingNanos();
+
+	/**
+	 * Gets the simulated time elapsed per second of wall-clock time since the metrics were
+	 * enabled or reset.
+	 *
+	 * @return the ratio of simulated time to wall-clock time
+	 */
+	double getSimulatedTimePerWallSecond();
+
+	/**
+	 * Gets the number of events in the future queue at the last tick, once the entities have run.
+	 *
+	 * @return the size of the future queue
+	 */
+	int getFutureQueueSize();
+
+	/**
+	 * Gets the largest number of events in the future queue at a tick so far.
+	 *
+	 * @return the largest size of the future queue
+	 */
+	int getMaxFutureQueueSize();
+
+	/**
+	 * Gets the number of events in the deferred queue at the last tick, once the entities have run.
+	 *
+	 * @return the size of the deferred queue
+	 */
+	int getDeferredQueueSize();
+
+	/**
+	 * Gets the largest number of events in the deferred queue at a tick so far.
+	 *
+	 * @return the largest size of the deferred queue
+	 */
+	int getMaxDeferredQueueSize();
+
+	/**
+	 * Gets the statistics of the processed events by tag, the most time-consuming first.
+	 *
+	 * @return the statistics by tag
+	 */
+	List<KernelMetrics.EventStatistics> getTagStatistics();
+
+	/**
+	 * Gets the statistics of the processed events by class of entity, the most time-consuming
+	 * first.
+	 *
+	 * @return the statistics by class of entity
+	 */
+	List<KernelMetrics.EventStatistics> getEntityClassStatistics();
+
+	/**
+	 * Resets the metrics.
+	 */
+	void reset();
+
+}
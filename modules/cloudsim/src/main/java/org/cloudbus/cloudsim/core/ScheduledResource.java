@@ -1,13 +1,22 @@
 package org.cloudbus.cloudsim.core;
 
-import org.cloudbus.cloudsim.core.predicates.PredicateType;
 import org.cloudbus.cloudsim.Log;
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 
 /* a CPU, a network link, ... */
 public class ScheduledResource extends SimEntity {
-    public static class ResourceUse implements Comparable<ResourceUse> {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static class ResourceUse implements Comparable<ResourceUse>, Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
         public int src;
         public int dst;
         public double amountLeft;
@@ -65,11 +74,12 @@ public class ScheduledResource extends SimEntity {
     }
 
     private void scheduleNext() {
-        CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.NETWORK_PKT_FORWARD));
-        if (amountsLeft.isEmpty())
+        if (amountsLeft.isEmpty()) {
+            cancelTimer(CloudActionTags.NETWORK_PKT_FORWARD);
             return;
+        }
         double delay = amountsLeft.getFirst().amountLeft / capacity * amountsLeft.size();
-        schedule(getId(), delay, CloudActionTags.NETWORK_PKT_FORWARD);
+        rearmTimer(CloudActionTags.NETWORK_PKT_FORWARD, delay);
     }
 
     // trigger an event with the specified parameters when amount is consumed
@@ -8,6 +8,8 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.io.Serial;
+import java.io.Serializable;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.NetworkTopology;
 import org.cloudbus.cloudsim.core.predicates.Predicate;
@@ -32,7 +34,10 @@ import org.cloudbus.cloudsim.core.predicates.Predicate;
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  */
-public abstract class SimEntity implements Cloneable {
+public abstract class SimEntity implements Cloneable, Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
 
 	/** The entity name. */
 	private String name;
@@ -46,6 +51,9 @@ public abstract class SimEntity implements Cloneable {
 	/** The entity's current state. */
 	private int state;
 
+	/** The simulation context the entity belongs to. */
+	private final SimulationContext context;
+
 	/**
 	 * Creates a new entity.
 	 * 
@@ -58,7 +66,8 @@ public abstract class SimEntity implements Cloneable {
 		this.name = name;
 		id = -1;
 		state = RUNNABLE;
-		CloudSim.addEntity(this);
+		context = SimulationContext.current();
+		context.addEntity(this);
 	}
 
 	/**
@@ -70,6 +79,16 @@ public abstract class SimEntity implements Cloneable {
 		return name;
 	}
 
+	/**
+	 * Gets the simulation context the entity belongs to, which is the context that was
+	 * {@link SimulationContext#current() current} when the entity was created.
+	 *
+	 * @return the simulation context
+	 */
+	public SimulationContext getSimulationContext() {
+		return context;
+	}
+
 	/**
 	 * Gets the unique id number assigned to this entity.
 	 * 
@@ -91,10 +110,25 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void schedule(int dest, double delay, CloudSimTags tag, Object data) {
-		if (!CloudSim.running()) {
-			return;
+		scheduleEvent(dest, delay, tag, data);
+	}
+
+	/**
+	 * Sends an event to another entity by id number, with data, as
+	 * {@link #schedule(int, double, CloudSimTags, Object)} does, and returns the event.
+	 * 
+	 * @param dest The unique id number of the destination entity
+	 * @param delay How long from the current simulation time the event should be sent
+	 * @param tag event type.
+	 * @param data The data to be sent with the event.
+	 * @return the scheduled event, which can be used to {@link #cancelEvent(SimEvent) cancel} it,
+	 *         or <tt>null</tt> if no event was scheduled
+	 */
+	public SimEvent scheduleEvent(int dest, double delay, CloudSimTags tag, Object data) {
+		if (!context.running()) {
+			return null;
 		}
-		CloudSim.send(id, dest, delay, tag, data);
+		return context.send(id, dest, delay, tag, data);
 	}
 
 	/**
@@ -119,7 +153,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void schedule(String dest, double delay, CloudSimTags tag, Object data) {
-		schedule(CloudSim.getEntityId(dest), delay, tag, data);
+		schedule(context.getEntityId(dest), delay, tag, data);
 	}
 
 	/**
@@ -166,7 +200,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void scheduleNow(String dest, CloudSimTags tag, Object data) {
-		schedule(CloudSim.getEntityId(dest), 0, tag, data);
+		schedule(context.getEntityId(dest), 0, tag, data);
 	}
 
 	/**
@@ -191,10 +225,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void scheduleFirst(int dest, double delay, CloudSimTags tag, Object data) {
-		if (!CloudSim.running()) {
+		if (!context.running()) {
 			return;
 		}
-		CloudSim.sendFirst(id, dest, delay, tag, data);
+		context.sendFirst(id, dest, delay, tag, data);
 	}
 
 	/**
@@ -219,7 +253,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void scheduleFirst(String dest, double delay, CloudSimTags tag, Object data) {
-		scheduleFirst(CloudSim.getEntityId(dest), delay, tag, data);
+		scheduleFirst(context.getEntityId(dest), delay, tag, data);
 	}
 
 	/**
@@ -269,7 +303,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void scheduleFirstNow(String dest, CloudSimTags tag, Object data) {
-		scheduleFirst(CloudSim.getEntityId(dest), 0, tag, data);
+		scheduleFirst(context.getEntityId(dest), 0, tag, data);
 	}
 
 	/**
@@ -292,10 +326,10 @@ public abstract class SimEntity implements Cloneable {
 		if (delay < 0) {
 			throw new IllegalArgumentException("Negative delay supplied.");
 		}
-		if (!CloudSim.running()) {
+		if (!context.running()) {
 			return;
 		}
-		CloudSim.pause(id, delay);
+		context.pause(id, delay);
 	}
 
 	/**
@@ -305,7 +339,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @return The count of matching events
 	 */
 	public int numEventsWaiting(Predicate p) {
-		return CloudSim.waiting(id, p);
+		return context.waiting(id, p);
 	}
 
 	/**
@@ -314,7 +348,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @return The count of events
 	 */
 	public int numEventsWaiting() {
-		return CloudSim.waiting(id, CloudSim.SIM_ANY);
+		return context.waiting(id, CloudSim.SIM_ANY);
 	}
 
 	/**
@@ -324,11 +358,11 @@ public abstract class SimEntity implements Cloneable {
 	 * @return the simulation event
 	 */
 	public SimEvent selectEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!context.running()) {
 			return null;
 		}
 
-		return CloudSim.select(id, p);
+		return context.select(id, p);
 	}
 
 	/**
@@ -338,11 +372,61 @@ public abstract class SimEntity implements Cloneable {
 	 * @return The number of events cancelled (0 or 1)
 	 */
 	public SimEvent cancelEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!context.running()) {
+			return null;
+		}
+
+		return context.cancel(id, p);
+	}
+
+	/**
+	 * Cancels an event previously scheduled, if it is still waiting in the future queue.
+	 * 
+	 * @param ev The event, as returned by {@link #scheduleEvent(int, double, CloudSimTags, Object)}
+	 *        or {@link #rearmTimer(CloudSimTags, double)}
+	 * @return true if the event was cancelled; false if it was already processed or cancelled
+	 */
+	public boolean cancelEvent(SimEvent ev) {
+		if (!context.running() || ev == null) {
+			return false;
+		}
+
+		return context.cancel(ev);
+	}
+
+	/**
+	 * Sets a timer: sends an event with no data to the entity itself, after a given delay, in place
+	 * of the events with the same tag it previously sent to itself that are still waiting in the
+	 * future queue. With a {@link FutureQueueTreeSet}, the waiting event is moved in the queue
+	 * rather than cancelled and sent again; the other queues add a copy and leave the waiting
+	 * event as a tombstone, which {@link FutureQueue} discards with the others as they pile up.
+	 * It has the same effect as cancelling these events and scheduling a new one.
+	 *
+	 * @param tag the tag of the timer event
+	 * @param delay how long from the current simulation time the timer goes off
+	 * @return the timer event, or <tt>null</tt> if the simulation is not running
+	 */
+	protected SimEvent rearmTimer(CloudSimTags tag, double delay) {
+		if (!context.running()) {
 			return null;
 		}
 
-		return CloudSim.cancel(id, p);
+		return context.setTimer(id, delay, tag);
+	}
+
+	/**
+	 * Cancels a timer set with {@link #rearmTimer(CloudSimTags, double)}, along with any other
+	 * event with the same tag the entity sent to itself that is still waiting in the future queue.
+	 *
+	 * @param tag the tag of the timer event
+	 * @return true if an event was cancelled
+	 */
+	protected boolean cancelTimer(CloudSimTags tag) {
+		if (!context.running()) {
+			return false;
+		}
+
+		return context.cancelTimer(id, tag);
 	}
 
 	/**
@@ -353,13 +437,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @return the simulation event
 	 */
 	public SimEvent getNextEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!context.running()) {
 			return null;
 		}
-		if (numEventsWaiting(p) > 0) {
-			return selectEvent(p);
-		}
-		return null;
+		return context.select(id, p);
 	}
 
 	/**
@@ -369,11 +450,11 @@ public abstract class SimEntity implements Cloneable {
 	 * @param p The predicate to match
 	 */
 	public void waitForEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!context.running()) {
 			return;
 		}
 
-		CloudSim.wait(id, p);
+		context.wait(id, p);
 		state = WAITING;
 	}
 
@@ -392,7 +473,7 @@ public abstract class SimEntity implements Cloneable {
 	 * It should be responsible for starting the entity up.
 	 */
 	public void startEntity() {
-		Log.printlnConcat(CloudSim.clock(), ": ", getName(), " is starting...");
+		Log.printlnConcat(context.clock(), ": ", getName(), " is starting...");
 	}
 
 	/**
@@ -410,21 +491,43 @@ public abstract class SimEntity implements Cloneable {
 	 * to save data in log files this is the method in which the corresponding code would be placed.
 	 */
 	public void shutdownEntity() {
-		Log.printlnConcat(CloudSim.clock(), ": ", getName(), " is shutting down...");
+		Log.printlnConcat(context.clock(), ": ", getName(), " is shutting down...");
+	}
+
+	/**
+	 * Checks if the entity can process its events in parallel with other entities, when the
+	 * simulation context has a {@link SimulationContext#setParallelPool parallel pool}.
+	 * It is the case if, while processing its events, the entity does not change any object that
+	 * other entities may access at the same time, nor reads the objects they may change,
+	 * except through events. By default, an entity runs alone, after the entities with smaller
+	 * ids and before the ones with greater ids.
+	 *
+	 * @return true, if the entity can run in parallel with other entities
+	 */
+	protected boolean canRunInParallel() {
+		return false;
 	}
 
         /**
          * The run loop to process events fired during the simulation.
          * The events that will be processed are defined
          * in the {@link #processEvent(org.cloudbus.cloudsim.core.SimEvent)} method.
+         * The simulation only invokes it at the ticks when the entity may have events to process,
+         * that is, when an event has been deferred for it while it was runnable,
+         * or when it has become {@link #RUNNABLE runnable}.
          * 
          * @see #processEvent(org.cloudbus.cloudsim.core.SimEvent) 
          */
 	public void run() {
+		KernelMetrics metrics = context.getKernelMetrics();
 		SimEvent ev = evbuf != null ? evbuf : getNextEvent();
 
 		while (ev != null) {
-			processEvent(ev);
+			if (metrics == null) {
+				processEvent(ev);
+			} else {
+				metrics.processEvent(this, ev);
+			}
 			if (state != RUNNABLE) {
 				break;
 			}
@@ -503,6 +606,9 @@ public abstract class SimEntity implements Cloneable {
 	 */
 	protected void setState(int state) {
 		this.state = state;
+		if (state == RUNNABLE) {
+			context.markReady(this);
+		}
 	}
 
 	/**
@@ -597,7 +703,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @post $none
 	 */
 	protected void send(String entityName, double delay, CloudSimTags tag, Object data) {
-		send(CloudSim.getEntityId(entityName), delay, tag, data);
+		send(context.getEntityId(entityName), delay, tag, data);
 	}
 
 	/**
@@ -656,7 +762,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @post $none
 	 */
 	protected void sendNow(String entityName, CloudSimTags tag, Object data) {
-		send(CloudSim.getEntityId(entityName), 0, tag, data);
+		send(context.getEntityId(entityName), 0, tag, data);
 	}
 
 	/**
@@ -8,19 +8,25 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.io.Serial;
+import java.io.Serializable;
+
 /**
  * This class represents a simulation event which is passed between the entities in the simulation.
  * 
  * @author Costas Simatos
  * @see SimEntity
  */
-public class SimEvent implements Cloneable, Comparable<SimEvent> {
+public class SimEvent implements Cloneable, Comparable<SimEvent>, Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
 
 	/** Internal event type. **/
 	private final int etype;
 
 	/** The time that this event was scheduled, at which it should occur. **/
-	private final double time;
+	private double time;
 
 	/** Time that the event was removed from the queue to start service. **/
 	private double endWaitingTime;
@@ -52,6 +58,18 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
          */
 	private long serial = -1;
 
+	/** Whether the event has been cancelled while waiting in the future queue. */
+	private boolean cancelled;
+
+	/** The future queue where the event is waiting, or <tt>null</tt> if it is not waiting in any. */
+	transient FutureQueue queue;
+
+	/** The events sent by the same entity with the same tag, when the event is indexed by {@link #queue}. */
+	transient FutureQueue.SourceAndTagEvents sameSourceAndTag;
+
+	/** The previous and next events in {@link #sameSourceAndTag}. */
+	transient SimEvent prevSameSourceAndTag, nextSameSourceAndTag;
+
 	// Internal event types
 
 	public static final int ENULL = 0;
@@ -94,10 +112,45 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 		data = null;
 	}
 
+	/**
+	 * Sets the time of the event, while it is taken out of the future queue.
+	 *
+	 * @param time the time
+	 */
+	void setTime(double time) {
+		this.time = time;
+	}
+
 	protected void setSerial(long serial) {
 		this.serial = serial;
 	}
 
+	/**
+	 * Gets the serial number used to order events happening at the same time.
+	 *
+	 * @return the serial number
+	 */
+	public long getSerial() {
+		return serial;
+	}
+
+	/**
+	 * Checks if the event was cancelled before being processed.
+	 *
+	 * @return true, if the event was cancelled
+	 * @see CloudSim#cancel(SimEvent)
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Marks the event as cancelled.
+	 */
+	void cancel() {
+		cancelled = true;
+	}
+
 	/**
 	 * Sets the time that the event was removed from the queue to start service. 
 	 * 
@@ -0,0 +1,308 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.util.concurrent.Semaphore;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+
+/**
+ * An entity written as a process: rather than handling each event in
+ * {@link #processEvent(SimEvent)}, it runs a sequential {@link #body()} which sends events, and
+ * blocks until some simulation time has passed with {@link #hold(double)}, or until an event
+ * arrives with {@link #receive(Predicate)} and {@link #await(CloudSimTags, Object)}.
+ * <p>
+ * The body runs on its own virtual thread, started with the simulation. Only one of the kernel and
+ * the processes runs at a time: when the kernel runs the process, it waits for the body to block
+ * or return, and a blocked body resumes only when the kernel runs the process again, at the tick
+ * when the time has passed or the event has arrived. The body therefore sees the simulation as
+ * any other entity does, and needs no synchronisation. As blocked virtual threads hold no platform
+ * thread, a simulation can have as many processes as it has, say, concurrent user sessions.
+ * <p>
+ * When the simulation finishes, the blocking call of a body that has not returned throws an
+ * error, which unwinds the body and ends its thread, running its <tt>finally</tt> blocks on the
+ * way. The body must not catch it. The events a process receives are not given to
+ * {@link KernelMetrics} nor recorded for replay, and a process can't be saved in a checkpoint.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public abstract class SimProcess extends SimEntity {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** The thread running the body, or <tt>null</tt> if it is not started or has ended. */
+	private transient Thread thread;
+
+	/** Released by the kernel to resume the body. */
+	private transient Semaphore resumed;
+
+	/** Released by the body when it blocks or ends. */
+	private transient Semaphore yielded;
+
+	/** Whether the body must be unwound when it resumes, because the simulation finished. */
+	private transient boolean terminated;
+
+	/** What the body threw, to be thrown again by the kernel. */
+	private transient Throwable failure;
+
+	/**
+	 * Creates a new process.
+	 *
+	 * @param name the name to be associated with the process
+	 */
+	public SimProcess(String name) {
+		super(name);
+	}
+
+	/**
+	 * The sequential logic of the process, run on its own thread from the start of the
+	 * simulation. The process is finished when it returns.
+	 */
+	protected abstract void body();
+
+	/**
+	 * Starts the body, and runs it until it first blocks or returns.
+	 */
+	@Override
+	public final void startEntity() {
+		super.startEntity();
+		resumed = new Semaphore(0);
+		yielded = new Semaphore(0);
+		thread = Thread.ofVirtual().name(getName()).unstarted(this::runBody);
+		thread.start();
+		awaitBody();
+	}
+
+	/**
+	 * Resumes the body, once the time it was holding for has passed or the event it was waiting
+	 * for has arrived, and runs it until it blocks again or returns.
+	 * When the simulation finishes, it unwinds the body instead.
+	 */
+	@Override
+	public final void run() {
+		if (thread == null) {
+			return;
+		}
+		if (getState() != RUNNABLE) {
+			if (getSimulationContext().running()) {
+				return;
+			}
+			terminated = true;
+		}
+		resumed.release();
+		awaitBody();
+	}
+
+	/**
+	 * Processes receive their events in their body.
+	 *
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public final void processEvent(SimEvent ev) {
+		throw new UnsupportedOperationException("The process " + getName() + " receives its events in its body.");
+	}
+
+	/**
+	 * Unwinds the body if it is still blocked, as when the simulation is aborted.
+	 * Subclasses overriding it must call it.
+	 */
+	@Override
+	public void shutdownEntity() {
+		if (thread != null) {
+			terminated = true;
+			resumed.release();
+			awaitBody();
+		}
+		super.shutdownEntity();
+	}
+
+	/**
+	 * A process runs on its own thread, so it can't run in parallel with other entities.
+	 *
+	 * @return false
+	 */
+	@Override
+	protected final boolean canRunInParallel() {
+		return false;
+	}
+
+	/**
+	 * Blocks the body for a time period, during which the events sent to the process wait in its
+	 * deferred queue.
+	 *
+	 * @param delay the time period
+	 */
+	protected void hold(double delay) {
+		checkRunning();
+		pause(delay);
+		block();
+	}
+
+	/**
+	 * Gets the first event matching a predicate waiting in the deferred queue of the process, or if
+	 * none match, blocks the body until a matching event arrives.
+	 *
+	 * @param p the predicate to match
+	 * @return the event
+	 */
+	protected SimEvent receive(Predicate p) {
+		checkRunning();
+		SimEvent ev = selectEvent(p);
+		if (ev != null) {
+			return ev;
+		}
+		waitForEvent(p);
+		block();
+		ev = getEventBuffer();
+		setEventBuffer(null);
+		return ev;
+	}
+
+	/**
+	 * Gets the first event waiting in the deferred queue of the process, or if there are none,
+	 * blocks the body until an event arrives.
+	 *
+	 * @return the event
+	 */
+	protected SimEvent receive() {
+		return receive(CloudSim.SIM_ANY);
+	}
+
+	/**
+	 * Gets the first event with a given tag waiting in the deferred queue of the process, or if
+	 * there are none, blocks the body until such an event arrives.
+	 *
+	 * @param tag the tag of the event
+	 * @return the event
+	 */
+	protected SimEvent receive(CloudSimTags tag) {
+		return receive(new PredicateType(tag));
+	}
+
+	/**
+	 * Blocks the body until the process receives an event with a given tag about a given object,
+	 * such as the {@link CloudActionTags#CLOUDLET_RETURN} of a cloudlet it submitted. The events
+	 * about other objects stay in the deferred queue of the process.
+	 *
+	 * @param tag the tag of the event
+	 * @param data the data of the event, compared by identity
+	 * @return the event
+	 */
+	protected SimEvent await(CloudSimTags tag, Object data) {
+		return receive(new PredicateTypeAndData(tag, data));
+	}
+
+	/**
+	 * Runs the body on its thread, and hands the control back to the kernel when it ends.
+	 */
+	private void runBody() {
+		try {
+			getSimulationContext().execute(this::body);
+		} catch (Terminated e) {
+			// the simulation finished while the body was blocked
+		} catch (Throwable e) {
+			failure = e;
+		} finally {
+			thread = null;
+			setState(FINISHED);
+			yielded.release();
+		}
+	}
+
+	/**
+	 * Waits, on the kernel thread, for the body to block or end, and throws again what the body
+	 * threw, if any.
+	 */
+	private void awaitBody() {
+		yielded.acquireUninterruptibly();
+		if (failure != null) {
+			Throwable e = failure;
+			failure = null;
+			if (e instanceof RuntimeException re) {
+				throw re;
+			}
+			if (e instanceof Error err) {
+				throw err;
+			}
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Hands the control back to the kernel, and waits for it to resume the body.
+	 */
+	private void block() {
+		yielded.release();
+		resumed.acquireUninterruptibly();
+		if (terminated) {
+			throw new Terminated();
+		}
+	}
+
+	/**
+	 * Checks that the body is blocking itself, and unwinds it if the simulation has finished.
+	 */
+	private void checkRunning() {
+		if (Thread.currentThread() != thread) {
+			throw new IllegalStateException("Only the body of the process " + getName() + " can block it.");
+		}
+		if (!getSimulationContext().running()) {
+			throw new Terminated();
+		}
+	}
+
+	@Serial
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		throw new NotSerializableException("The process " + getName() + " can't be saved, as its body is running.");
+	}
+
+	/**
+	 * Thrown by the blocking calls when the simulation has finished, to unwind the body.
+	 */
+	private static final class Terminated extends Error {
+
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		Terminated() {
+			super(null, null, false, false);
+		}
+	}
+
+	/**
+	 * Matches the events with a given tag and data.
+	 */
+	private static final class PredicateTypeAndData extends Predicate {
+
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		private final CloudSimTags tag;
+
+		private final transient Object data;
+
+		PredicateTypeAndData(CloudSimTags tag, Object data) {
+			this.tag = tag;
+			this.data = data;
+		}
+
+		@Override
+		public boolean match(SimEvent event) {
+			return event.getTag() == tag && event.getData() == data;
+		}
+	}
+
+}
@@ -0,0 +1,1957 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.NetworkTopology;
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+
+/**
+ * The state of one simulation: its clock, event queues, entities, network topology
+ * and ID counters. Each simulation runs in its own context, so several independent simulations
+ * can run at the same time in one JVM, each one in its own thread.
+ * <p>
+ * The static methods of {@link CloudSim} work on the context of the calling thread, which is the
+ * {@link #getDefault() default context} unless the thread is running a task given to
+ * {@link #call(Callable)} or {@link #execute(Runnable)}. Entities are bound to the context that is
+ * current when they are created, and always send their events through it. For instance,
+ * a thread pool can run many replications of an experiment as follows:
+ * <pre>
+ * pool.submit(() -&gt; new SimulationContext().call(() -&gt; {
+ *     CloudSim.init(1, null, false);
+ *     // create the datacenters, brokers, VMs and cloudlets
+ *     CloudSim.startSimulation();
+ *     return broker.getCloudletReceivedList();
+ * }));
+ * </pre>
+ * State that is kept in other static fields, such as the {@link Log} configuration, is still shared
+ * by all the contexts. The output of {@link Log} can however be redirected for each context
+ * with {@link #setLogOutput(OutputStream)}.
+ * <p>
+ * A context can also run the entities of a single simulation in parallel, see
+ * {@link #setParallelPool(ForkJoinPool)}.
+ * <p>
+ * The whole state of a running simulation can be saved in a checkpoint, see
+ * {@link #setCheckpoint(double, Path, boolean)}, and restored any number of times, in the same
+ * JVM or another one, with {@link #restoreCheckpoint(Path)}, for instance to run several what-if
+ * branches from the same warmed-up state.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see CloudSim
+ */
+public class SimulationContext implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** The context used by the threads that are not running a task of another context. */
+	private static final SimulationContext DEFAULT = new SimulationContext();
+
+	/** The context of each thread running a task given to {@link #call(Callable)}. */
+	private static final ThreadLocal<SimulationContext> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * Whether some thread ever ran a task of a context. Until then, {@link #current()} returns the
+	 * {@link #DEFAULT} context without looking up {@link #CURRENT}. It does not need to be volatile:
+	 * a thread running a task sets it itself, and the other threads use the default context anyway.
+	 */
+	private static boolean threadsBound;
+
+	/** The Constant NOT_FOUND. */
+	private static final int NOT_FOUND = -1;
+
+	/** The id of CIS entity. */
+	private int cisId = -1;
+
+	/** The id of CloudSimShutdown entity. */
+	private int shutdownId = -1;
+
+	/** The CIS object. */
+	private CloudInformationService cis = null;
+
+	/** The trace flag. */
+	private boolean traceFlag = false;
+
+	/** The calendar. */
+	private Calendar calendar = null;
+
+	/** The termination time. */
+	private double terminateAt = -1;
+
+	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
+	private double minTimeBetweenEvents = 0.01;
+
+	/** The entities. */
+	private List<SimEntity> entities;
+
+	/** The future event queue. */
+	private FutureQueue future;
+
+	/** The deferred event queue. */
+	private DeferredQueue deferred;
+
+	/** The current simulation clock. */
+	private double clock;
+
+	/** Flag for checking if the simulation is running. */
+	private boolean running;
+
+	/** The entities by name. */
+	private Map<String, SimEntity> entitiesByName;
+
+	/** The wait predicates, used in entity wait methods. */
+	private Map<Integer, Predicate> waitPredicates;
+
+	/** The paused. */
+	private volatile boolean paused = false;
+
+	/** The pause at. */
+	private long pauseAt = -1;
+
+	/** The abrupt terminate. */
+	private boolean abruptTerminate = false;
+
+	/**
+	 * The ids of the entities to run at the next tick, as a binary min-heap, so that the
+	 * entities run in order of id. Only the entities that may have events to process are in it:
+	 * the ones that received an event in their deferred queue while runnable, and the ones that
+	 * became runnable.
+	 */
+	private int[] ready = new int[16];
+
+	/** The number of entities in {@link #ready}. */
+	private int readySize;
+
+	/** The ids of the entities that became ready while running, or after the running entity. */
+	private int[] readyLater = new int[16];
+
+	/** The number of entities in {@link #readyLater}. */
+	private int readyLaterSize;
+
+	/** The ids of the entities in {@link #ready} or {@link #readyLater}. */
+	private final BitSet queued = new BitSet();
+
+	/** The id of the entity running in the current tick, or -1 if no entity is running. */
+	private int runningId = -1;
+
+	/** The events happening at the current time, reused at each tick. */
+	private final List<SimEvent> batch = new ArrayList<>();
+
+	/** The number of events processed since the simulation was initialised. */
+	private long processedEvents;
+
+	/** The wall-clock time (in nanoseconds) spent in {@link #run()}. */
+	private long runNanos;
+
+	/** The bytes allocated by the simulation thread in {@link #run()}, or -1 if it can't be measured. */
+	private long allocatedBytes;
+
+	/** The network topology. It is kept when the simulation is initialised again. */
+	private final NetworkTopology networkTopology = new NetworkTopology();
+
+	/** Other objects whose state belongs to this context, such as ID counters, by type. */
+	private final Map<Class<?>, Object> components = new HashMap<>();
+
+	/** The number of guests created in this context. */
+	private int guestCount;
+
+	/** The stream where {@link Log} writes the messages of this context, or <tt>null</tt> to use the default one. */
+	private transient OutputStream logOutput;
+
+	/** The journal where the processed events are recorded, or <tt>null</tt> if they are not recorded. */
+	private transient EventJournal eventJournal;
+
+	/** The metrics measuring the processing of the events, or <tt>null</tt> if they are not measured. */
+	private transient KernelMetrics kernelMetrics;
+
+	/** Whether an entity is being fast-forwarded by an {@link EventJournalReader}. */
+	private boolean replaying;
+
+	/** The pool used to run the entities in parallel, or <tt>null</tt> to run them sequentially. */
+	private transient ForkJoinPool parallelPool;
+
+	/**
+	 * Whether the entities are being run in parallel. It is only changed by the simulation thread,
+	 * before submitting the entities to the pool and after joining them.
+	 */
+	private boolean parallelTick;
+
+	/** The outbox of the entity run by each thread, during a parallel tick. */
+	private transient ThreadLocal<Outbox> outbox = new ThreadLocal<>();
+
+	/** The outboxes of the entities run in the current parallel tick, in order of entity id. */
+	private transient List<Outbox> outboxes = new ArrayList<>();
+
+	/** The tasks running the entities in the current parallel tick. */
+	private transient List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
+	/** The time after which a checkpoint is saved, or -1 if no checkpoint is due. */
+	private double checkpointAt = -1;
+
+	/** The file where the checkpoint is saved. */
+	private transient Path checkpointFile;
+
+	/** Whether the simulation stops once the checkpoint is saved. */
+	private boolean stopAtCheckpoint;
+
+	/**
+	 * The changes to the future event queue made by an entity during a parallel tick,
+	 * and the messages it logged. They are applied after all the entities have run,
+	 * in order of entity id, so that the events get the same serial numbers they would get
+	 * if the entities were run sequentially.
+	 */
+	private static final class Outbox {
+
+		/** The provisional serial of the first event sent with {@link SimulationContext#send}. */
+		private static final long FIRST_SERIAL = Long.MAX_VALUE / 2;
+
+		/**
+		 * The provisional serial of the first event sent with {@link SimulationContext#sendFirst}.
+		 * It is greater than the serials given to the events that were already added to the head of
+		 * the future queue, but smaller than the serials of the other events.
+		 */
+		private static final long FIRST_SERIAL_AT_HEAD = -(Long.MAX_VALUE / 2);
+
+		final SimEntity entity;
+
+		/** The events to add to the future queue. */
+		final List<SimEvent> events = new ArrayList<>();
+
+		/** The events to add to the head of the future queue. */
+		final List<SimEvent> eventsAtHead = new ArrayList<>();
+
+		/**
+		 * The events to remove from the future queue, once the events of the outbox are added.
+		 * The events of the outbox that were cancelled are added anyway, so that the following
+		 * ones get the serial numbers they would get in a sequential run.
+		 */
+		final List<SimEvent> cancelled = new ArrayList<>();
+
+		/** The messages logged by the entity, created when the first one is logged. */
+		ByteArrayOutputStream log;
+
+		private long serial = FIRST_SERIAL;
+
+		private long serialAtHead = FIRST_SERIAL_AT_HEAD;
+
+		Outbox(SimEntity entity) {
+			this.entity = entity;
+		}
+
+		/**
+		 * Adds an event to the outbox, giving it a provisional serial number that keeps its
+		 * order with respect to the events in the future queue and the other events in the outbox.
+		 */
+		void add(SimEvent event, boolean atHead) {
+			if (atHead) {
+				event.setSerial(serialAtHead++);
+				eventsAtHead.add(event);
+			} else {
+				event.setSerial(serial++);
+				events.add(event);
+			}
+		}
+
+		/**
+		 * Cancels an event, which may be in the outbox or in the future queue.
+		 *
+		 * @return true if the event was not cancelled yet
+		 */
+		boolean cancel(SimEvent event, FutureQueue future) {
+			boolean buffered = events.contains(event) || eventsAtHead.contains(event);
+			if ((!buffered && (event.queue != future || event.isCancelled())) || cancelled.contains(event)) {
+				return false;
+			}
+			cancelled.add(event);
+			return true;
+		}
+	}
+
+	/**
+	 * Creates a new context. The simulation must be initialised with
+	 * {@link #init(int, Calendar, boolean, FutureQueue)} (or the {@link CloudSim} init methods,
+	 * from a task of this context) before creating any entity.
+	 */
+	public SimulationContext() {
+	}
+
+	/**
+	 * Gets the context of the calling thread.
+	 *
+	 * @return the context of the task run by the thread, or the default context
+	 */
+	public static SimulationContext current() {
+		if (!threadsBound) {
+			return DEFAULT;
+		}
+		SimulationContext context = CURRENT.get();
+		return context == null ? DEFAULT : context;
+	}
+
+	/**
+	 * Gets the context used by the threads that are not running a task of another context.
+	 *
+	 * @return the default context
+	 */
+	public static SimulationContext getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Runs a task with this context as the context of the calling thread. All the calls to the
+	 * static methods of {@link CloudSim} made by the task work on this context.
+	 *
+	 * @param task the task
+	 * @param <T> the type of the result of the task
+	 * @return the result of the task
+	 * @throws Exception if the task throws an exception
+	 */
+	public <T> T call(Callable<T> task) throws Exception {
+		SimulationContext previous = bind(this);
+		try {
+			return task.call();
+		} finally {
+			bind(previous);
+		}
+	}
+
+	/**
+	 * Runs a task with this context as the context of the calling thread.
+	 *
+	 * @param task the task
+	 * @see #call(Callable)
+	 */
+	public void execute(Runnable task) {
+		SimulationContext previous = bind(this);
+		try {
+			task.run();
+		} finally {
+			bind(previous);
+		}
+	}
+
+	/**
+	 * Sets the context of the calling thread.
+	 *
+	 * @param context the new context of the thread
+	 * @return the previous context of the thread
+	 */
+	private static SimulationContext bind(SimulationContext context) {
+		SimulationContext previous = current();
+		if (previous != context) {
+			threadsBound = true;
+			CURRENT.set(context == DEFAULT ? null : context);
+		}
+		return previous;
+	}
+
+	/**
+	 * Initialises the simulation of this context, removing all its entities and events.
+	 * The entities created by this method are bound to this context.
+	 *
+	 * @param numUser the number of User Entities created
+	 * @param cal starting time for this simulation. If it is <tt>null</tt>, then the time will be
+	 *            taken from <tt>Calendar.getInstance()</tt>
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @param futureQueue an empty future event queue to be used by the simulation
+	 * @see CloudSim#init(int, Calendar, boolean, FutureQueue)
+	 */
+	public void init(int numUser, Calendar cal, boolean traceFlag, FutureQueue futureQueue) {
+		SimulationContext previous = bind(this);
+		try {
+			initialize(futureQueue);
+			// NOTE: the order for the below 3 lines are important
+			this.traceFlag = traceFlag;
+
+			// Set the current Wall clock time as the starting time of
+			// simulation
+			if (cal == null) {
+				calendar = Calendar.getInstance();
+			} else {
+				calendar = cal;
+			}
+
+			// creates a CloudSimShutdown object
+			CloudSimShutdown shutdown = new CloudSimShutdown("CloudSimShutdown", numUser);
+			shutdownId = shutdown.getId();
+
+			// create a GIS object
+			cis = new CloudInformationService("CloudInformationService");
+
+			// set all the above entity IDs
+			cisId = cis.getId();
+		} catch (Exception s) {
+			Log.println("CloudSim.init(): The simulation has been terminated due to an unexpected error");
+			Log.println(s.getMessage());
+		} finally {
+			bind(previous);
+		}
+	}
+
+	/**
+	 * Initialises the simulation of this context, with a minimal period between events.
+	 *
+	 * @param numUser the number of User Entities created
+	 * @param cal starting time for this simulation
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @param periodBetweenEvents - the minimal period between events. Events within shorter periods
+	 * after the last event are discarded.
+	 * @param futureQueue an empty future event queue to be used by the simulation
+	 * @see CloudSim#init(int, Calendar, boolean, double, FutureQueue)
+	 */
+	public void init(int numUser, Calendar cal, boolean traceFlag, double periodBetweenEvents,
+			FutureQueue futureQueue) {
+		if (periodBetweenEvents <= 0) {
+			throw new IllegalArgumentException("The minimal time between events should be positive, but is:" + periodBetweenEvents);
+		}
+
+		init(numUser, cal, traceFlag, futureQueue);
+		minTimeBetweenEvents = periodBetweenEvents;
+	}
+
+	/**
+	 * Starts the execution of the simulation and waits for its end.
+	 *
+	 * @return the last clock time
+	 * @see CloudSim#startSimulation()
+	 */
+	public double startSimulation() throws NullPointerException {
+		Log.printlnConcat("Starting CloudSim version ", CloudSim.CLOUDSIM_VERSION_STRING);
+		try {
+			double clock = run();
+
+			// reset all the variables
+			cisId = -1;
+			shutdownId = -1;
+			cis = null;
+			calendar = null;
+			traceFlag = false;
+
+			return clock;
+		} catch (IllegalArgumentException e) {
+			e.printStackTrace();
+			throw new NullPointerException("CloudSim.startCloudSimulation() :"
+					+ " Error - you haven't initialized CloudSim.");
+		}
+	}
+
+	/**
+	 * Stops the simulation.
+	 *
+	 * @see CloudSim#stopSimulation()
+	 */
+	public void stopSimulation() throws NullPointerException {
+		try {
+			runStop();
+		} catch (IllegalArgumentException e) {
+			throw new NullPointerException("CloudSim.stopCloudSimulation() : "
+					+ "Error - can't stop Cloud Simulation.");
+		}
+	}
+
+	/**
+	 * Terminates the simulation.
+	 *
+	 * @return true
+	 */
+	public boolean terminateSimulation() {
+		running = false;
+		printMessage("Simulation: Reached termination time.");
+		return true;
+	}
+
+	/**
+	 * Terminates the simulation at a given time.
+	 *
+	 * @param time the time at which the simulation has to be terminated
+	 * @return true, if successful otherwise.
+	 */
+	public boolean terminateSimulation(double time) {
+		if (time <= clock) {
+			return false;
+		} else {
+			terminateAt = time;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the minimum time between events. Events within shorter periods after the last event are discarded.
+	 *
+	 * @return the minimum time between events.
+	 */
+	public double getMinTimeBetweenEvents() {
+		return minTimeBetweenEvents;
+	}
+
+	/**
+	 * Gets a new copy of initial simulation Calendar.
+	 *
+	 * @return a new copy of Calendar object or if CloudSim hasn't been initialized
+	 */
+	public Calendar getSimulationCalendar() {
+		// make a new copy
+		Calendar clone = calendar;
+		if (calendar != null) {
+			clone = (Calendar) calendar.clone();
+		}
+
+		return clone;
+	}
+
+	/**
+	 * Gets the entity ID of <tt>CloudInformationService</tt>.
+	 *
+	 * @return the Entity ID or if it is not found
+	 */
+	public int getCloudInfoServiceEntityId() {
+		return cisId;
+	}
+
+	/**
+	 * Gets the list of all the Cloud resources registered in the CIS entity.
+	 *
+	 * @return A List containing CloudResource ID (as an Integer object) or if a CIS entity hasn't
+	 *         been created before
+	 */
+	public List<Integer> getCloudResourceList() {
+		if (cis == null) {
+			return null;
+		}
+
+		return cis.getList();
+	}
+
+	/**
+	 * Gets the network topology of this context.
+	 *
+	 * @return the network topology
+	 */
+	public NetworkTopology getNetworkTopology() {
+		return networkTopology;
+	}
+
+	/**
+	 * Assigns the {@link GuestEntity#getIndex() index} of a new guest. The indices start at 0
+	 * and are never reused, even if the context is initialised again.
+	 *
+	 * @return the index
+	 */
+	public synchronized int nextGuestIndex() {
+		return guestCount++;
+	}
+
+	/**
+	 * Gets an object whose state belongs to this context, such as a set of ID counters,
+	 * creating it the first time.
+	 *
+	 * @param type the type of the object, used as its key
+	 * @param factory creates the object the first time it is requested
+	 * @param <T> the type of the object
+	 * @return the object
+	 */
+	public synchronized <T> T getComponent(Class<T> type, Supplier<? extends T> factory) {
+		return type.cast(components.computeIfAbsent(type, key -> factory.get()));
+	}
+
+	/**
+	 * Gets the stream where {@link Log} writes the messages of this context.
+	 *
+	 * @return the stream, or <tt>null</tt> if the default {@link Log#getOutput() output} is used
+	 */
+	public OutputStream getLogOutput() {
+		if (parallelTick) {
+			Outbox box = outbox.get();
+			if (box != null) {
+				if (box.log == null) {
+					box.log = new ByteArrayOutputStream();
+				}
+				return box.log;
+			}
+		}
+		return logOutput;
+	}
+
+	/**
+	 * Sets the stream where {@link Log} writes the messages of this context.
+	 *
+	 * @param logOutput the stream, or <tt>null</tt> to use the default {@link Log#getOutput() output}
+	 */
+	public void setLogOutput(OutputStream logOutput) {
+		if (logOutput != null) {
+			Log.enableRouting();
+		}
+		this.logOutput = logOutput;
+	}
+
+	/**
+	 * Gets the pool used to run the entities in parallel.
+	 *
+	 * @return the pool, or <tt>null</tt> if the entities are run sequentially
+	 */
+	public ForkJoinPool getParallelPool() {
+		return parallelPool;
+	}
+
+	/**
+	 * Sets a pool to run the entities of the simulation in parallel. By default, at each tick of
+	 * the simulation clock, the entities process their events one after the other, in order of id.
+	 * With a pool, the entities that {@link SimEntity#canRunInParallel() can run in parallel}
+	 * and have events to process at the same tick process them in parallel, each one in a task of
+	 * the pool. The events they send are kept apart and added to the future queue after all the
+	 * entities have finished, in order of entity id, as well as the messages they {@link Log log}.
+	 * This way, the events are ordered exactly as in a sequential run.
+	 * <p>
+	 * The results are the same as in a sequential run only if the entities running in parallel
+	 * do not change any object shared between them (for instance, if datacenters exchange VMs
+	 * and cloudlets with brokers through events, but do not access the ones of the other
+	 * datacenters directly), and do not create new entities or ids.
+	 * <p>
+	 * This mode is conservative: the entities only run in parallel within a tick, and every tick
+	 * ends with a barrier. It does not need any lookahead, so events sent with no delay,
+	 * as brokers and datacenters usually do, do not limit the parallelism. Entities never execute
+	 * speculatively, since their state (and the state of the hosts, guests and cloudlets they
+	 * share) can't be saved and rolled back.
+	 *
+	 * @param parallelPool the pool, or <tt>null</tt> to run the entities sequentially
+	 */
+	public void setParallelPool(ForkJoinPool parallelPool) {
+		if (parallelPool != null) {
+			Log.enableRouting(); // the entities log to their outbox during a parallel tick
+		}
+		this.parallelPool = parallelPool;
+	}
+
+	/**
+	 * Gets the journal where the processed events are recorded.
+	 *
+	 * @return the journal, or <tt>null</tt> if the events are not recorded
+	 */
+	public EventJournal getEventJournal() {
+		return eventJournal;
+	}
+
+	/**
+	 * Sets a journal where every event processed by the simulation is recorded. The journal has to
+	 * be closed by the caller once the simulation has finished.
+	 *
+	 * @param eventJournal the journal, or <tt>null</tt> to stop recording the events
+	 * @see EventJournalReader
+	 */
+	public void setEventJournal(EventJournal eventJournal) {
+		this.eventJournal = eventJournal;
+	}
+
+	/**
+	 * Gets the metrics measuring the processing of the events.
+	 *
+	 * @return the metrics, or <tt>null</tt> if the processing of the events is not measured
+	 */
+	public KernelMetrics getKernelMetrics() {
+		return kernelMetrics;
+	}
+
+	/**
+	 * Sets metrics measuring the time the entities take to process the events, by tag and by class
+	 * of entity, and the sizes of the event queues. The metrics replaced, if any, are disabled.
+	 *
+	 * @param kernelMetrics the metrics, or <tt>null</tt> to stop measuring the processing of the
+	 *            events
+	 * @throws IllegalStateException if the metrics are already set in another context
+	 */
+	public void setKernelMetrics(KernelMetrics kernelMetrics) {
+		if (this.kernelMetrics == kernelMetrics) {
+			return;
+		}
+		if (kernelMetrics != null) {
+			kernelMetrics.enable(this);
+		}
+		if (this.kernelMetrics != null) {
+			this.kernelMetrics.disable();
+		}
+		this.kernelMetrics = kernelMetrics;
+	}
+
+	/**
+	 * Gives an event read from a journal to an entity, while the simulation is not running. The
+	 * clock is set to the time of the event, and the events the entity sends are dropped.
+	 *
+	 * @param entity the entity
+	 * @param event the event, or <tt>null</tt> to start the entity
+	 * @see EventJournalReader#replay(SimEntity, double)
+	 */
+	void replay(SimEntity entity, SimEvent event) {
+		if (running) {
+			throw new IllegalStateException("Entities can't be fast-forwarded while the simulation is running.");
+		}
+		replaying = true;
+		try {
+			if (event == null) {
+				clock = 0;
+				entity.startEntity();
+			} else {
+				clock = event.eventTime();
+				entity.processEvent(event);
+			}
+		} finally {
+			replaying = false;
+		}
+	}
+
+	/**
+	 * Saves a checkpoint of the simulation once all its events up to a given time have been
+	 * processed, before any later event is delivered. The checkpoint holds the whole state of the simulation:
+	 * its clock, event queues, entities and everything they refer to, such as the hosts, VMs,
+	 * cloudlets and their histories. It can be restored with {@link #restoreCheckpoint(Path)}.
+	 *
+	 * @param time the time of the checkpoint
+	 * @param file the file where the checkpoint is saved
+	 * @param stop whether the simulation stops once the checkpoint is saved, as if it had been
+	 *            terminated at that time
+	 */
+	public void setCheckpoint(double time, Path file, boolean stop) {
+		if (time < clock) {
+			throw new IllegalArgumentException("The checkpoint time " + time + " has already passed.");
+		}
+		checkpointAt = time;
+		checkpointFile = file;
+		stopAtCheckpoint = stop;
+	}
+
+	/**
+	 * Saves the whole state of the simulation in a file. It must be called between two ticks of the
+	 * simulation, i.e. before it starts, while it is {@link #isPaused() paused}, or by
+	 * {@link #setCheckpoint(double, Path, boolean)}. The entities, and all the objects they refer
+	 * to, must be {@link Serializable}. The log output, the event journal, the kernel metrics and
+	 * the parallel pool are not saved.
+	 *
+	 * @param file the file where the checkpoint is saved
+	 * @throws IOException if the checkpoint can't be written
+	 */
+	public void saveCheckpoint(Path file) throws IOException {
+		try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+			out.writeObject(this);
+		} catch (IOException e) {
+			Files.deleteIfExists(file);
+			throw e;
+		}
+	}
+
+	/**
+	 * Restores a simulation saved by {@link #saveCheckpoint(Path)} in a new context. A checkpoint
+	 * can be restored several times, and the restored simulations are independent of each other, so
+	 * they can run at the same time in different threads. The entities can be modified before the
+	 * simulation resumes, for instance to give a datacenter another allocation policy. A simulation
+	 * that was saved while running resumes where it was saved with:
+	 * <pre>
+	 * SimulationContext restored = SimulationContext.restoreCheckpoint(file);
+	 * restored.call(CloudSim::startSimulation);
+	 * </pre>
+	 *
+	 * @param file the file where the checkpoint was saved
+	 * @return the restored context
+	 * @throws IOException if the checkpoint can't be read
+	 */
+	public static SimulationContext restoreCheckpoint(Path file) throws IOException {
+		try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			return (SimulationContext) in.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new IOException("The checkpoint refers to a class that can't be found.", e);
+		}
+	}
+
+	/**
+	 * Saves a checkpoint if one is due, see {@link #setCheckpoint(double, Path, boolean)}.
+	 *
+	 * @return true, if a checkpoint was saved and the simulation has to stop
+	 */
+	private boolean checkpoint() {
+		if (checkpointAt < 0 || future.peek().eventTime() <= checkpointAt) {
+			return false;
+		}
+		Path file = checkpointFile;
+		checkpointAt = -1;
+		checkpointFile = null;
+		try {
+			saveCheckpoint(file);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		printMessage(clock + ": Simulation: Checkpoint saved to " + file);
+		return stopAtCheckpoint;
+	}
+
+	/**
+	 * Restores the fields that are not saved in a checkpoint. The restored simulation is not
+	 * paused and has no pause or checkpoint due, since the threads that resume it and the files are
+	 * not restored. It runs its entities sequentially.
+	 */
+	@Serial
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		outbox = new ThreadLocal<>();
+		outboxes = new ArrayList<>();
+		tasks = new ArrayList<>();
+		checkpointAt = -1;
+		paused = false;
+		pauseAt = -1;
+	}
+
+	/**
+	 * Initialises the simulation, using a given future event queue.
+	 *
+	 * @param futureQueue the (empty) future event queue to be used
+	 */
+	void initialize(FutureQueue futureQueue) {
+		if (futureQueue == null) {
+			throw new IllegalArgumentException("The future event queue can't be null.");
+		}
+		Log.println("Initialising...");
+		entities = new ArrayList<>();
+		entitiesByName = new LinkedHashMap<>();
+		future = futureQueue;
+		future.clear();
+		deferred = new DeferredQueue();
+		waitPredicates = new ConcurrentHashMap<>();
+		clock = 0;
+		running = false;
+		batch.clear();
+		readySize = readyLaterSize = 0;
+		queued.clear();
+		runningId = -1;
+		processedEvents = 0;
+		runNanos = 0;
+		allocatedBytes = currentThreadAllocatedBytes() < 0 ? -1 : 0;
+	}
+
+	/**
+	 * Get the current simulation time.
+	 *
+	 * @return the simulation time
+	 */
+	public double clock() {
+		return clock;
+	}
+
+	/**
+	 * Gets the time of the next event in the future queue. No entity of the simulation can send an
+	 * event happening before this time plus the smallest delay of its messages, which makes it
+	 * possible to synchronise conservatively several simulations exchanging events.
+	 *
+	 * @return the time of the next event, or <tt>Double.MAX_VALUE</tt> if there is no future event
+	 * @see org.cloudbus.cloudsim.NetworkTopology#getMinDelay(java.util.Collection, java.util.Collection)
+	 */
+	public double getNextEventTime() {
+		SimEvent next = future.peek();
+		return next == null ? Double.MAX_VALUE : next.eventTime();
+	}
+
+	/**
+	 * Get the current number of entities in the simulation.
+	 *
+	 * @return The number of entities
+	 */
+	public int getNumEntities() {
+		return entities.size();
+	}
+
+	/**
+	 * Get the entity with a given id.
+	 *
+	 * @param id the entity's unique id number
+	 * @return The entity, or if it could not be found
+	 */
+	public SimEntity getEntity(int id) {
+		return entities.get(id);
+	}
+
+	/**
+	 * Get the entity with a given name.
+	 *
+	 * @param name The entity's name
+	 * @return The entity
+	 */
+	public SimEntity getEntity(String name) {
+		return entitiesByName.get(name);
+	}
+
+	/**
+	 * Get the id of an entity with a given name.
+	 *
+	 * @param name The entity's name
+	 * @return The entity's unique id number
+	 */
+	public int getEntityId(String name) {
+		SimEntity obj = entitiesByName.get(name);
+		if (obj == null) {
+			return NOT_FOUND;
+		} else {
+			return obj.getId();
+		}
+	}
+
+	/**
+	 * Gets name of the entity given its entity ID.
+	 *
+	 * @param entityID the entity ID
+	 * @return the Entity name or if this object does not have one
+	 */
+	public String getEntityName(int entityID) {
+		try {
+			return getEntity(entityID).getName();
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns a list of entities created for the simulation.
+	 *
+	 * @return the entity iterator
+	 */
+	public List<SimEntity> getEntityList() {
+		// create a new list to prevent the user from changing
+		// the list of entities used by Simulation
+		List<SimEntity> list = new LinkedList<>(entities);
+		return list;
+	}
+
+	/**
+	 * Add a new entity to the simulation.
+	 *
+	 * @param e The new entity
+	 */
+	public void addEntity(SimEntity e) {
+		SimEvent evt;
+		if (running) {
+			// Post an event to make this entity
+			evt = new SimEvent(SimEvent.CREATE, clock, 1, 0, CloudActionTags.BLANK, e);
+			addEvent(evt, false);
+		}
+		if (e.getId() == -1) { // Only add once!
+			synchronized (this) { // entities may be created by entities running in parallel
+				int id = entities.size();
+				e.setId(id);
+				entities.add(e);
+				entitiesByName.put(e.getName(), e);
+			}
+		}
+	}
+
+	/**
+	 * Internal method used to add a new entity to the simulation when the simulation is running.
+	 *
+	 * @param e The new entity
+	 */
+	void addEntityDynamically(SimEntity e) {
+		if (e == null) {
+			throw new IllegalArgumentException("Adding null entity.");
+		} else {
+			printMessage("Adding: " + e.getName());
+		}
+		e.startEntity();
+	}
+
+	/**
+	 * Internal method used to run one tick of the simulation.
+	 *
+	 * @return true, if there are no more future events, or if the simulation stops at a checkpoint
+	 */
+	public boolean runClockTick() {
+		runEntities();
+		return deliverEvents();
+	}
+
+	/**
+	 * Runs the entities that may have events to process, which is the first part of a tick.
+	 */
+	private void runEntities() {
+		// only the entities that may have events to process are run, in order of id
+		if (parallelPool != null) {
+			runEntitiesInParallel();
+		} else {
+			while (readySize > 0) {
+				SimEntity ent = entities.get(pollReady());
+				if (ent.getState() == SimEntity.RUNNABLE) {
+					ent.run();
+				}
+			}
+		}
+		runningId = -1;
+		for (int i = 0; i < readyLaterSize; i++) {
+			pushReady(readyLater[i]);
+		}
+		readyLaterSize = 0;
+		if (kernelMetrics != null) {
+			kernelMetrics.sampleQueues(clock, future.size(), deferred.size());
+		}
+	}
+
+	/**
+	 * Delivers the events of the next time in the future queue, which is the second part of a
+	 * tick.
+	 *
+	 * @return true, if there are no more future events, or if the simulation stops at a checkpoint
+	 */
+	private boolean deliverEvents() {
+		boolean queue_empty;
+
+		// If there are more future events then deal with them
+		if (!future.isEmpty()) {
+			// all the events up to the checkpoint time have been processed
+			if (checkpoint()) {
+				terminateSimulation();
+				return true;
+			}
+			queue_empty = false;
+			double time = future.peek().eventTime();
+
+			// Process all the events at the current time, including the ones they may create
+			do {
+				future.pollSameTime(batch);
+				for (int i = 0; i < batch.size(); i++) {
+					processEvent(batch.get(i));
+				}
+				processedEvents += batch.size();
+				batch.clear();
+			} while (!future.isEmpty() && future.peek().eventTime() == time);
+
+		} else {
+			queue_empty = true;
+			running = false;
+			printMessage(clock + ": Simulation: No more future events");
+		}
+
+		return queue_empty;
+	}
+
+	/**
+	 * Runs the ready entities, in parallel when possible. The entities that
+	 * {@link SimEntity#canRunInParallel() can run in parallel} are grouped with the ready ones next
+	 * to them in order of id, and each group is run in parallel. The other entities run alone,
+	 * after the groups and entities with smaller ids.
+	 */
+	private void runEntitiesInParallel() {
+		List<SimEntity> group = new ArrayList<>();
+		while (readySize > 0) {
+			SimEntity ent = entities.get(pollReady());
+			if (ent.getState() != SimEntity.RUNNABLE) {
+				continue;
+			}
+			if (!ent.canRunInParallel()) {
+				ent.run();
+				continue;
+			}
+
+			group.add(ent);
+			while (readySize > 0 && entities.get(ready[0]).canRunInParallel()) {
+				ent = entities.get(pollReady());
+				if (ent.getState() == SimEntity.RUNNABLE) {
+					group.add(ent);
+				}
+			}
+			if (group.size() == 1) {
+				group.getFirst().run();
+			} else {
+				runInParallel(group);
+			}
+			group.clear();
+		}
+	}
+
+	/**
+	 * Runs a group of entities in parallel.
+	 *
+	 * @param group the entities, in order of id
+	 */
+	private void runInParallel(List<SimEntity> group) {
+		outboxes.clear();
+		parallelTick = true;
+		try {
+			for (SimEntity ent : group) {
+				Outbox box = new Outbox(ent);
+				outboxes.add(box);
+				tasks.add(parallelPool.submit(() -> execute(() -> runBuffered(box))));
+			}
+			for (ForkJoinTask<?> task : tasks) {
+				task.join();
+			}
+		} finally {
+			parallelTick = false;
+			tasks.clear();
+		}
+
+		for (Outbox box : outboxes) {
+			for (SimEvent ev : box.events) {
+				future.addEvent(ev);
+			}
+			for (SimEvent ev : box.eventsAtHead) {
+				future.addEventFirst(ev);
+			}
+			for (SimEvent ev : box.cancelled) {
+				future.remove(ev);
+			}
+			if (box.log != null) {
+				try {
+					box.log.writeTo(logOutput == null ? Log.getOutput() : logOutput);
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+		outboxes.clear();
+	}
+
+	/**
+	 * Marks an entity as ready to run, because it became runnable or it may have events
+	 * to process. If it has a greater id than the running entity, it runs in the current tick;
+	 * otherwise, it runs in the next one.
+	 *
+	 * @param ent the entity
+	 */
+	void markReady(SimEntity ent) {
+		int id = ent.getId();
+		if (id < 0) {
+			return;
+		}
+		if (parallelTick) {
+			synchronized (queued) { // the entities running in parallel may wake themselves
+				markReady(id);
+			}
+		} else {
+			markReady(id);
+		}
+	}
+
+	/**
+	 * Marks an entity as ready to run.
+	 *
+	 * @param id the id of the entity
+	 */
+	private void markReady(int id) {
+		if (queued.get(id)) {
+			return;
+		}
+		queued.set(id);
+		if (id > runningId) {
+			pushReady(id);
+		} else {
+			if (readyLaterSize == readyLater.length) {
+				readyLater = Arrays.copyOf(readyLater, readyLaterSize * 2);
+			}
+			readyLater[readyLaterSize++] = id;
+		}
+	}
+
+	/**
+	 * Adds an id to the heap of ready entities.
+	 *
+	 * @param id the id of the entity
+	 */
+	private void pushReady(int id) {
+		if (readySize == ready.length) {
+			ready = Arrays.copyOf(ready, readySize * 2);
+		}
+		int i = readySize++;
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (ready[parent] <= id) {
+				break;
+			}
+			ready[i] = ready[parent];
+			i = parent;
+		}
+		ready[i] = id;
+	}
+
+	/**
+	 * Removes the smallest id from the heap of ready entities, which becomes the running entity.
+	 *
+	 * @return the id of the entity
+	 */
+	private int pollReady() {
+		int first = ready[0];
+		int last = ready[--readySize];
+		int i = 0;
+		int child;
+		while ((child = 2 * i + 1) < readySize) {
+			if (child + 1 < readySize && ready[child + 1] < ready[child]) {
+				child++;
+			}
+			if (last <= ready[child]) {
+				break;
+			}
+			ready[i] = ready[child];
+			i = child;
+		}
+		ready[i] = last;
+		queued.clear(first);
+		runningId = first;
+		return first;
+	}
+
+	/**
+	 * Runs an entity, keeping the changes it makes to the future queue in its outbox.
+	 *
+	 * @param box the outbox of the entity
+	 */
+	private void runBuffered(Outbox box) {
+		outbox.set(box);
+		try {
+			box.entity.run();
+		} finally {
+			outbox.remove();
+		}
+	}
+
+	/**
+	 * Gets the outbox of the entity run by the calling thread.
+	 *
+	 * @return the outbox, or <tt>null</tt> if the entities are not running in parallel
+	 */
+	private Outbox outbox() {
+		return parallelTick ? outbox.get() : null;
+	}
+
+	/**
+	 * Adds an event to the future queue or, during a parallel tick, to the outbox of the entity
+	 * run by the calling thread.
+	 *
+	 * @param e the event
+	 * @param atHead whether the event has priority over the events happening at the same time
+	 */
+	private void addEvent(SimEvent e, boolean atHead) {
+		Outbox box = outbox();
+		if (replaying) {
+			return;
+		} else if (box != null) {
+			box.add(e, atHead);
+		} else if (atHead) {
+			future.addEventFirst(e);
+		} else {
+			future.addEvent(e);
+		}
+	}
+
+	/**
+	 * Gets the events sent by an entity that match a predicate, including the ones it sent during
+	 * the current parallel tick, excluding the ones it cancelled.
+	 *
+	 * @param box the outbox of the entity run by the calling thread
+	 * @param src the id of the entity that sent the events
+	 * @param p the predicate
+	 * @return the matching events
+	 */
+	private List<SimEvent> findBuffered(Outbox box, int src, Predicate p) {
+		List<SimEvent> matching = new ArrayList<>();
+		if (p instanceof PredicateType type && type.getClass() == PredicateType.class) {
+			for (CloudSimTags tag : type.getTags()) {
+				future.collect(src, tag, matching);
+			}
+		} else {
+			for (SimEvent ev : future) {
+				if (ev.getSource() == src && p.match(ev)) {
+					matching.add(ev);
+				}
+			}
+		}
+		for (SimEvent ev : box.events) {
+			if (ev.getSource() == src && p.match(ev)) {
+				matching.add(ev);
+			}
+		}
+		for (SimEvent ev : box.eventsAtHead) {
+			if (ev.getSource() == src && p.match(ev)) {
+				matching.add(ev);
+			}
+		}
+		matching.removeIf(box.cancelled::contains);
+		return matching;
+	}
+
+	/**
+	 * Internal method used to stop the simulation.
+	 */
+	public void runStop() {
+		printMessage("Simulation completed.");
+	}
+
+	/**
+	 * Used to hold an entity for some time.
+	 *
+	 * @param src the src
+	 * @param delay the delay
+	 */
+	public void hold(int src, long delay) {
+		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, src);
+		addEvent(e, false);
+		entities.get(src).setState(SimEntity.HOLDING);
+	}
+
+	/**
+	 * Used to pause an entity for some time.
+	 *
+	 * @param src the src
+	 * @param delay the delay
+	 */
+	public void pause(int src, double delay) {
+		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, src);
+		addEvent(e, false);
+		entities.get(src).setState(SimEntity.HOLDING);
+	}
+
+	/**
+	 * Used to send an event from one entity to another.
+	 *
+	 * @param src the src
+	 * @param dest the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 * @return the event, which can be used to {@link #cancel(SimEvent) cancel} it
+	 */
+	public SimEvent send(int src, int dest, double delay, CloudSimTags tag, Object data) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Send delay can't be negative.");
+		}
+		if(delay >= Double.MAX_VALUE) {
+			throw new RuntimeException("Send delay can't be infinite.");
+		}
+
+		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
+		addEvent(e, false);
+		return e;
+	}
+
+	/**
+	 * Used to send an event from one entity to another, with priority in the queue.
+	 *
+	 * @param src the src
+	 * @param dest the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 * @return the event, which can be used to {@link #cancel(SimEvent) cancel} it
+	 */
+	public SimEvent sendFirst(int src, int dest, double delay, CloudSimTags tag, Object data) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Send delay can't be negative.");
+		}
+
+		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
+		addEvent(e, true);
+		return e;
+	}
+
+	/**
+	 * Sets an entity's state to be waiting for an event matching a predicate.
+	 *
+	 * @param src the src
+	 * @param p the p
+	 */
+	public void wait(int src, Predicate p) {
+		entities.get(src).setState(SimEntity.WAITING);
+		if (p != null && p != CloudSim.SIM_ANY) {
+			// If a predicate has been used store it in order to check it
+			waitPredicates.put(src, p);
+		}
+	}
+
+	/**
+	 * Checks if events for a specific entity are present in the deferred event queue.
+	 *
+	 * @param d the d
+	 * @param p the p
+	 * @return the number of matching events
+	 */
+	public int waiting(int d, Predicate p) {
+		return deferred.count(d, p);
+	}
+
+	/**
+	 * Selects an event matching a predicate.
+	 *
+	 * @param src the src
+	 * @param p the p
+	 * @return the sim event or <tt>null</tt> if no event matches
+	 */
+	public SimEvent select(int src, Predicate p) {
+		return deferred.removeFirst(src, p);
+	}
+
+	/**
+	 * Find first deferred event matching a predicate.
+	 *
+	 * @param src the src
+	 * @param p the p
+	 * @return the sim event or <tt>null</tt> if no event matches
+	 */
+	public SimEvent findFirstDeferred(int src, Predicate p) {
+		return deferred.findFirst(src, p);
+	}
+
+	/**
+	 * Removes an event from the event queue.
+	 *
+	 * @param src the src
+	 * @param p the p
+	 * @return the sim event or <tt>null</tt> if no event matches
+	 * @see CloudSim#cancel(int, Predicate)
+	 */
+	public SimEvent cancel(int src, Predicate p) {
+		Outbox box = outbox();
+		if (box != null) {
+			SimEvent ev = null;
+			for (SimEvent candidate : findBuffered(box, src, p)) {
+				if (ev == null || candidate.compareTo(ev) < 0) {
+					ev = candidate;
+				}
+			}
+			if (ev != null) {
+				box.cancel(ev, future);
+			}
+			return ev;
+		}
+
+		// the queue may not iterate the events in temporal order, so look for the earliest match
+		SimEvent ev = null;
+		if (p instanceof PredicateType type && type.getClass() == PredicateType.class) {
+			for (CloudSimTags tag : type.getTags()) {
+				SimEvent candidate = future.findFirst(src, tag);
+				if (candidate != null && (ev == null || candidate.compareTo(ev) < 0)) {
+					ev = candidate;
+				}
+			}
+		} else {
+			for (SimEvent candidate : future) {
+				if (candidate.getSource() == src && p.match(candidate)
+						&& (ev == null || candidate.compareTo(ev) < 0)) {
+					ev = candidate;
+				}
+			}
+		}
+		if (ev != null) {
+			future.remove(ev);
+		}
+
+		return ev;
+	}
+
+	/**
+	 * Removes a given event from the future event queue, before it is processed.
+	 *
+	 * @param ev the event, as returned when it was sent
+	 * @return true if the event has been cancelled; false if it was already processed or cancelled
+	 */
+	public boolean cancel(SimEvent ev) {
+		Outbox box = outbox();
+		if (box != null) {
+			return box.cancel(ev, future);
+		}
+		return future.remove(ev);
+	}
+
+	/**
+	 * Removes all events that match a given predicate from the future event queue.
+	 *
+	 * @param src the src
+	 * @param p the p
+	 * @return true, if at least one event has been cancelled
+	 * @see CloudSim#cancelAll(int, Predicate)
+	 */
+	public boolean cancelAll(int src, Predicate p) {
+		Outbox box = outbox();
+		if (box != null) {
+			boolean cancelled = false;
+			for (SimEvent ev : findBuffered(box, src, p)) {
+				cancelled |= box.cancel(ev, future);
+			}
+			return cancelled;
+		}
+
+		if (p instanceof PredicateType type && type.getClass() == PredicateType.class) {
+			boolean cancelled = false;
+			for (CloudSimTags tag : type.getTags()) {
+				cancelled |= future.removeAll(src, tag);
+			}
+			return cancelled;
+		}
+
+		List<SimEvent> toRemove = new ArrayList<>();
+		for (SimEvent ev : future) {
+			if (ev.getSource() == src && p.match(ev)) {
+				toRemove.add(ev);
+			}
+		}
+		return future.removeAll(toRemove);
+	}
+
+	/**
+	 * Sets a timer of an entity, that is an event sent by the entity to itself with a given tag.
+	 * The events of the entity with that tag waiting in the future queue are replaced by a single
+	 * one, which is moved in the queue rather than cancelled and sent again whenever possible.
+	 *
+	 * @param src the id of the entity
+	 * @param delay the delay of the timer
+	 * @param tag the tag of the timer
+	 * @return the event of the timer
+	 * @see SimEntity#rearmTimer(CloudSimTags, double)
+	 */
+	public SimEvent setTimer(int src, double delay, CloudSimTags tag) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Send delay can't be negative.");
+		}
+		if(delay >= Double.MAX_VALUE) {
+			throw new RuntimeException("Send delay can't be infinite.");
+		}
+
+		Outbox box = outbox();
+		if (box != null) {
+			for (SimEvent ev : findBuffered(box, src, new PredicateType(tag))) {
+				if (ev.getDestination() == src) {
+					box.cancel(ev, future);
+				}
+			}
+			return send(src, src, delay, tag, null);
+		}
+
+		SimEvent timer = future.reschedule(src, tag, clock + delay);
+		return timer != null ? timer : send(src, src, delay, tag, null);
+	}
+
+	/**
+	 * Cancels a timer of an entity, that is the events sent by the entity to itself with a given
+	 * tag that are waiting in the future queue.
+	 *
+	 * @param src the id of the entity
+	 * @param tag the tag of the timer
+	 * @return true, if at least one event has been cancelled
+	 * @see SimEntity#cancelTimer(CloudSimTags)
+	 */
+	public boolean cancelTimer(int src, CloudSimTags tag) {
+		Outbox box = outbox();
+		if (box != null) {
+			boolean cancelled = false;
+			for (SimEvent ev : findBuffered(box, src, new PredicateType(tag))) {
+				if (ev.getDestination() == src) {
+					cancelled |= box.cancel(ev, future);
+				}
+			}
+			return cancelled;
+		}
+		return future.removeAll(src, tag, src);
+	}
+
+	//
+	// Private internal methods
+	//
+
+	/**
+	 * Processes an event.
+	 *
+	 * @param e the e
+	 */
+	private void processEvent(SimEvent e) {
+		int dest, src;
+		SimEntity dest_ent;
+		// Update the system's clock
+		if (e.eventTime() < clock) {
+			throw new IllegalArgumentException("Past event detected.");
+		}
+		clock = e.eventTime();
+		if (eventJournal != null) {
+			eventJournal.record(e);
+		}
+
+		// Ok now process it
+		switch (e.getType()) {
+			case SimEvent.ENULL -> throw new IllegalArgumentException("Event has a null type.");
+			case SimEvent.CREATE -> {
+				SimEntity newe = (SimEntity) e.getData();
+				addEntityDynamically(newe);
+			}
+			case SimEvent.SEND -> {
+				// Check for matching wait
+				dest = e.getDestination();
+				if (dest < 0) {
+					throw new IllegalArgumentException("Attempt to send to a null entity detected.");
+				} else {
+					dest_ent = entities.get(dest);
+					if (dest_ent.getState() == SimEntity.WAITING) {
+						Integer destObj = dest;
+						Predicate p = waitPredicates.get(destObj);
+
+						// @NOTE: Remo Andreoli: There use to be the condition (tag == 9999) here,
+						// but the tag value doesn't exist in previous version of CloudSim
+						if ((p == null) || (p.match(e))) {
+							dest_ent.setEventBuffer(e); // the event is no longer in any queue, so no need to clone it
+							dest_ent.setState(SimEntity.RUNNABLE);
+							waitPredicates.remove(destObj);
+						} else {
+							deferred.addEvent(e);
+						}
+					} else {
+						deferred.addEvent(e);
+						if (dest_ent.getState() == SimEntity.RUNNABLE) {
+							markReady(dest_ent);
+						}
+					}
+				}
+			}
+			case SimEvent.HOLD_DONE -> {
+				src = e.getSource();
+				if (src < 0) {
+					throw new IllegalArgumentException("Null entity holding.");
+				} else {
+					entities.get(src).setState(SimEntity.RUNNABLE);
+				}
+			}
+			default -> {
+			}
+		}
+	}
+
+	/**
+	 * Internal method used to start the simulation.
+	 */
+	public void runStart() {
+		running = true;
+		// Start all the entities
+		for (SimEntity ent : entities) {
+			ent.startEntity();
+		}
+
+		printMessage("Entities started.");
+	}
+
+	/**
+	 * Check if the simulation is still running.
+	 *
+	 * @return if the simulation is still running, otherwise
+	 */
+	public boolean running() {
+		return running;
+	}
+
+	/**
+	 * Pauses the simulation.
+	 *
+	 * @return true, if successful otherwise.
+	 */
+	public synchronized boolean pauseSimulation() {
+		paused = true;
+		return paused;
+	}
+
+	/**
+	 * Pauses the simulation at a given time.
+	 *
+	 * @param time the time at which the simulation has to be paused
+	 * @return true, if successful otherwise.
+	 */
+	public boolean pauseSimulation(long time) {
+		if (time <= clock) {
+			return false;
+		} else {
+			pauseAt = time;
+		}
+		return true;
+	}
+
+	/**
+	 * Resumes the simulation that has previously been paused.
+	 *
+	 * @return if the simulation has been restarted or or otherwise.
+	 */
+	public synchronized boolean resumeSimulation() {
+		paused = false;
+		notifyAll();
+
+		if (pauseAt <= clock) {
+			pauseAt = -1;
+		}
+
+		return !paused;
+	}
+
+	/**
+	 * Start the simulation running. This should be called after all the entities have been setup
+	 * and added, and their ports linked.
+	 *
+	 * @return the last clock value
+	 */
+	public double run() {
+		runTicks(() -> true, true);
+
+		double clock = clock();
+
+		finishSimulation();
+		runStop();
+
+		return clock;
+	}
+
+	/**
+	 * Runs the simulation until all the events up to a given time have been processed, then
+	 * returns with the clock at that time, so that the simulation can be resumed by this method or
+	 * the other ones running it. Unlike {@link #run()}, it neither waits while the simulation is
+	 * {@link #pauseSimulation() paused} nor pauses it at the {@link #pauseSimulation(long) pause
+	 * time}. The simulation is finished only when it has reached its end, as {@link #run()} does,
+	 * when there are no more future events or it is terminated.
+	 *
+	 * @param time the time up to which the simulation runs
+	 * @return true if the simulation can be resumed, false if it has reached its end
+	 */
+	public boolean runUntil(double time) {
+		if (!advance(() -> future.isEmpty() || future.peek().eventTime() <= time)) {
+			return false;
+		}
+		if (clock < time) {
+			clock = time;
+		}
+		return true;
+	}
+
+	/**
+	 * Runs the simulation until a number of events have been processed, then returns so that the
+	 * simulation can be resumed. As all the events happening at the same time are processed
+	 * together, more events may be processed.
+	 *
+	 * @param nEvents the number of events to process
+	 * @return true if the simulation can be resumed, false if it has reached its end
+	 * @see #runUntil(double)
+	 */
+	public boolean step(int nEvents) {
+		long target = processedEvents + nEvents;
+		return advance(() -> processedEvents < target);
+	}
+
+	/**
+	 * Runs the simulation while a condition holds, then returns so that the simulation can be
+	 * resumed. The condition is checked before each time the clock advances, when all the events
+	 * up to the current time have been processed.
+	 *
+	 * @param condition the condition
+	 * @return true if the simulation can be resumed, false if it has reached its end
+	 * @see #runUntil(double)
+	 */
+	public boolean runWhile(BooleanSupplier condition) {
+		return advance(condition);
+	}
+
+	/**
+	 * Runs the simulation while a condition holds, and finishes it if it reaches its end.
+	 *
+	 * @param condition the condition, checked before the clock advances
+	 * @return true if the simulation can be resumed, false if it has reached its end
+	 */
+	private boolean advance(BooleanSupplier condition) {
+		if (runTicks(condition, false)) {
+			finishSimulation();
+			runStop();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Runs the ticks of the simulation while a condition holds.
+	 *
+	 * @param condition the condition, checked once the entities have processed the events of the
+	 *            current time, before the events of the next time are delivered
+	 * @param pausable whether the simulation waits while it is paused
+	 * @return true if the simulation has reached its end, false if the condition no longer holds
+	 */
+	private boolean runTicks(BooleanSupplier condition, boolean pausable) {
+		if (!running) {
+			runStart();
+		}
+		long startNanos = System.nanoTime();
+		long startBytes = currentThreadAllocatedBytes();
+		try {
+			while (true) {
+				runEntities();
+				if (!condition.getAsBoolean()) {
+					return false;
+				}
+				if (deliverEvents() || abruptTerminate) {
+					return true;
+				}
+
+				// this block allows termination of simulation at a specific time
+				if (terminateAt > 0.0 && clock >= terminateAt) {
+					terminateSimulation();
+					clock = terminateAt;
+					return true;
+				}
+
+				if (pausable) {
+					if (pauseAt != -1
+							&& ((!future.isEmpty() && clock <= pauseAt && pauseAt <= future.peek().eventTime())
+									|| future.isEmpty() && pauseAt <= clock)) {
+						pauseSimulation();
+						clock = pauseAt;
+					}
+					awaitResumption();
+				}
+			}
+		} finally {
+			runNanos += System.nanoTime() - startNanos;
+			if (allocatedBytes >= 0) {
+				allocatedBytes += currentThreadAllocatedBytes() - startBytes;
+			}
+		}
+	}
+
+	/**
+	 * Waits while the simulation is paused, until another thread resumes it.
+	 */
+	private synchronized void awaitResumption() {
+		while (paused) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of events processed since the simulation was initialised.
+	 *
+	 * @return the number of processed events
+	 */
+	public long getNumberOfProcessedEvents() {
+		return processedEvents;
+	}
+
+	/**
+	 * Gets the number of events processed per second of wall-clock time
+	 * spent running the simulation.
+	 *
+	 * @return the events per second, or 0 if the simulation has not run
+	 */
+	public double getEventsPerSecond() {
+		return runNanos == 0 ? 0 : processedEvents * 1e9 / runNanos;
+	}
+
+	/**
+	 * Gets the average number of bytes allocated by the simulation thread for each processed
+	 * event, including the allocations made by the entities while processing them.
+	 *
+	 * @return the bytes allocated per event, or -1 if the JVM can't measure the allocated memory
+	 */
+	public double getAllocatedBytesPerEvent() {
+		if (allocatedBytes < 0) {
+			return -1;
+		}
+		return processedEvents == 0 ? 0 : (double) allocatedBytes / processedEvents;
+	}
+
+	/**
+	 * Gets the total number of bytes allocated by the current thread.
+	 *
+	 * @return the allocated bytes, or -1 if it is not supported by the JVM
+	 */
+	private static long currentThreadAllocatedBytes() {
+		if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+				&& bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+			return bean.getCurrentThreadAllocatedBytes();
+		}
+		return -1;
+	}
+
+	/**
+	 * Internal method that allows the entities to terminate.
+	 */
+	public void finishSimulation() {
+		// Allow all entities to exit their body method
+		if (!abruptTerminate) {
+			for (SimEntity ent : entities) {
+				if (ent.getState() != SimEntity.FINISHED) {
+					ent.run();
+				}
+			}
+		}
+
+		for (SimEntity ent : entities) {
+			ent.shutdownEntity();
+		}
+
+		// reset all the variables
+		// Private data members
+		entities = null;
+		entitiesByName = null;
+		future = null;
+		deferred = null;
+		clock = 0L;
+		running = false;
+
+		waitPredicates = null;
+		paused = false;
+		pauseAt = -1;
+		abruptTerminate = false;
+	}
+
+	/**
+	 * Abruptally terminate.
+	 */
+	public void abruptallyTerminate() {
+		abruptTerminate = true;
+	}
+
+	/**
+	 * Prints a message about the progress of the simulation.
+	 *
+	 * @param message the message
+	 */
+	private void printMessage(String message) {
+		Log.println(message);
+	}
+
+	/**
+	 * Checks if is paused.
+	 *
+	 * @return true, if is paused
+	 */
+	public boolean isPaused() {
+		return paused;
+	}
+
+}
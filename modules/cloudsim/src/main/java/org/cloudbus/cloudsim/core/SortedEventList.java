@@ -0,0 +1,152 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A list of events sorted by time and serial, stored in an array with a moving head,
+ * so that both removing the first event and appending events that happen after all
+ * the others (the common case in a simulation) cost O(1).
+ * It is used as bucket storage by the {@link FutureQueue} implementations.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+final class SortedEventList {
+
+	/** The events, in positions from {@link #head} (inclusive) to {@link #tail} (exclusive). */
+	private SimEvent[] items;
+
+	/** The position of the first event. */
+	private int head;
+
+	/** The position after the last event. */
+	private int tail;
+
+	SortedEventList() {
+		items = new SimEvent[4];
+	}
+
+	int size() {
+		return tail - head;
+	}
+
+	boolean isEmpty() {
+		return tail == head;
+	}
+
+	SimEvent first() {
+		return items[head];
+	}
+
+	SimEvent last() {
+		return items[tail - 1];
+	}
+
+	/**
+	 * Removes the first event.
+	 *
+	 * @return the removed event
+	 */
+	SimEvent pollFirst() {
+		SimEvent first = items[head];
+		items[head++] = null;
+		if (head == tail) {
+			head = tail = 0;
+		}
+		return first;
+	}
+
+	/**
+	 * Adds an event keeping the list sorted. Among events with the same time and serial,
+	 * the new one is placed last.
+	 *
+	 * @param event the event to add
+	 */
+	void add(SimEvent event) {
+		if (head == tail || FutureQueue.compare(items[tail - 1], event) <= 0) {
+			append(event);
+			return;
+		}
+
+		int low = head;
+		int high = tail;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (FutureQueue.compare(items[mid], event) <= 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		if (head > 0 && low - head < tail - low) {
+			// fewer events to move on the left side
+			System.arraycopy(items, head, items, head - 1, low - head);
+			head--;
+			items[low - 1] = event;
+		} else {
+			int offset = low - head;
+			ensureTailRoom(); // may move the events to the beginning of the array
+			int pos = head + offset;
+			System.arraycopy(items, pos, items, pos + 1, tail - pos);
+			items[pos] = event;
+			tail++;
+		}
+	}
+
+	/**
+	 * Adds an event that must not happen before the last one in the list.
+	 *
+	 * @param event the event to add
+	 */
+	void append(SimEvent event) {
+		ensureTailRoom();
+		items[tail++] = event;
+	}
+
+	/**
+	 * Adds all the events of this list to a collection, in order.
+	 *
+	 * @param target the collection where the events are added
+	 */
+	void addAllTo(Collection<SimEvent> target) {
+		for (int i = head; i < tail; i++) {
+			target.add(items[i]);
+		}
+	}
+
+	void clear() {
+		Arrays.fill(items, head, tail, null);
+		head = tail = 0;
+	}
+
+	/**
+	 * Makes sure there is room for one more event at the tail,
+	 * moving the events to the beginning of the array or growing it.
+	 */
+	private void ensureTailRoom() {
+		if (tail < items.length) {
+			return;
+		}
+		int size = size();
+		if (head > 0 && size < items.length / 2) {
+			System.arraycopy(items, head, items, 0, size);
+			Arrays.fill(items, size, tail, null);
+		} else {
+			SimEvent[] grown = new SimEvent[items.length * 2];
+			System.arraycopy(items, head, grown, 0, size);
+			items = grown;
+		}
+		head = 0;
+		tail = size;
+	}
+
+}
@@ -8,6 +8,9 @@
 
 package org.cloudbus.cloudsim.core.predicates;
 
+import java.io.Serial;
+import java.io.Serializable;
+
 import org.cloudbus.cloudsim.core.SimEvent;
 
 /**
@@ -36,7 +39,10 @@ import org.cloudbus.cloudsim.core.SimEvent;
  * Maybe it was introduced with Java 8 (due to Stream and Lambda functions).
  * 
  */
-public abstract class Predicate {
+public abstract class Predicate implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
 
 	/**
          * Verifies if a given event matches the required criteria.
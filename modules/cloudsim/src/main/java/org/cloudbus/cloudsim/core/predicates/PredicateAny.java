@@ -10,6 +10,8 @@ package org.cloudbus.cloudsim.core.predicates;
 
 import org.cloudbus.cloudsim.core.SimEvent;
 
+import java.io.Serial;
+
 /**
  * A predicate which will match any event on the deferred event queue. 
  * See the publicly accessible instance of this predicate in
@@ -25,6 +27,9 @@ import org.cloudbus.cloudsim.core.SimEvent;
  */
 public class PredicateAny extends Predicate {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Considers there is no criteria to match an event,
          * so any event received by the predicate will match.
@@ -10,6 +10,8 @@ package org.cloudbus.cloudsim.core.predicates;
 
 import org.cloudbus.cloudsim.core.SimEvent;
 
+import java.io.Serial;
+
 /**
  * A predicate which selects events coming from specific entities.<br/>
  * The idea of simulation predicates was copied from SimJava 2.
@@ -21,6 +23,9 @@ import org.cloudbus.cloudsim.core.SimEvent;
  */
 public class PredicateFrom extends Predicate {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The IDs of source entities to check the reception of events from. */
 	private final int[] ids;
 
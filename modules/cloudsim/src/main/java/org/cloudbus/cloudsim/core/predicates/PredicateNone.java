@@ -10,6 +10,8 @@ package org.cloudbus.cloudsim.core.predicates;
 
 import org.cloudbus.cloudsim.core.SimEvent;
 
+import java.io.Serial;
+
 /**
  * A predicate which will <b>not</b> match any event on the deferred event queue. 
  * See the publicly accessible instance of this predicate in
@@ -23,6 +25,9 @@ import org.cloudbus.cloudsim.core.SimEvent;
  */
 public class PredicateNone extends Predicate {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Considers that no event received by the predicate matches.
 	 * 
@@ -10,6 +10,8 @@ package org.cloudbus.cloudsim.core.predicates;
 
 import org.cloudbus.cloudsim.core.SimEvent;
 
+import java.io.Serial;
+
 /**
  * A predicate which selects events that have not been sent by specific entities.
  * 
@@ -20,6 +22,9 @@ import org.cloudbus.cloudsim.core.SimEvent;
  */
 public class PredicateNotFrom extends Predicate {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The IDs of source entities to check if events were not sent from. */
 	private final int[] ids;
 
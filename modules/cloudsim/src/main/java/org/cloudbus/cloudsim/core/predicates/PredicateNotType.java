@@ -11,6 +11,8 @@ package org.cloudbus.cloudsim.core.predicates;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEvent;
 
+import java.io.Serial;
+
 /**
  * A predicate to select events that don't match specific tags.
  * 
@@ -21,6 +23,9 @@ import org.cloudbus.cloudsim.core.SimEvent;
  */
 public class PredicateNotType extends Predicate {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** Array of tags to verify if the tag of received events doesn't correspond to. */
 	private final CloudSimTags[] tags;
 
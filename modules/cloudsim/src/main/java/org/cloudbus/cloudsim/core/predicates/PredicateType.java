@@ -8,6 +8,11 @@
 
 package org.cloudbus.cloudsim.core.predicates;
 
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEvent;
 
@@ -21,9 +26,15 @@ import org.cloudbus.cloudsim.core.SimEvent;
  */
 public class PredicateType extends Predicate {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** Array of tags to verify if the tag of received events correspond to. */
 	private final CloudSimTags[] tags;
 
+	/** A read-only view of the {@link #tags}. */
+	private final List<CloudSimTags> tagList;
+
 	/**
 	 * Constructor used to select events with the given tag value.
 	 * 
@@ -31,6 +42,7 @@ public class PredicateType extends Predicate {
 	 */
 	public PredicateType(CloudSimTags t1) {
 		tags = new CloudSimTags[] { t1 };
+		tagList = Collections.unmodifiableList(Arrays.asList(tags));
 	}
 
 	/**
@@ -40,6 +52,18 @@ public class PredicateType extends Predicate {
 	 */
 	public PredicateType(CloudSimTags[] tags) {
 		this.tags = tags.clone();
+		tagList = Collections.unmodifiableList(Arrays.asList(this.tags));
+	}
+
+	/**
+	 * Gets the tags of the events selected by this predicate.
+	 * It allows the deferred queue to look up the matching events by tag
+	 * instead of testing every event.
+	 * 
+	 * @return a read-only list of the tags
+	 */
+	public List<CloudSimTags> getTags() {
+		return tagList;
 	}
 
 	/**
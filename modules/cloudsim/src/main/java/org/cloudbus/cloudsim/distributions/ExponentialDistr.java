@@ -10,6 +10,8 @@ package org.cloudbus.cloudsim.distributions;
 
 import org.apache.commons.math3.distribution.ExponentialDistribution;
 
+import java.io.Serial;
+
 /**
  * A pseudo random number generator following the 
  * <a href="https://en.wikipedia.org/wiki/Exponential_distribution">Exponential distribution</a>.
@@ -19,6 +21,9 @@ import org.apache.commons.math3.distribution.ExponentialDistribution;
  */
 public class ExponentialDistr implements ContinuousDistribution {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The internal exponential number generator. */
 	private final ExponentialDistribution numGen;
 
@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.distributions;
 
+import java.io.Serial;
 import java.util.Random;
 
 import org.apache.commons.math3.distribution.UniformRealDistribution;
@@ -22,6 +23,9 @@ import org.apache.commons.math3.distribution.UniformRealDistribution;
  */
 public class UniformDistr implements ContinuousDistribution {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The internal uniform pseudo random number generator. */
 	private final UniformRealDistribution numGen;
 
@@ -9,6 +9,7 @@ mulation) Toolkit for Modeling and Simulation of Clouds
 
 package org.cloudbus.cloudsim.distributions;
 
+import java.io.Serial;
 import java.util.Random;
 
 import org.apache.commons.math3.distribution.WeibullDistribution;
@@ -22,6 +23,9 @@ import org.apache.commons.math3.distribution.WeibullDistribution;
  */
 public class WeibullDistr implements ContinuousDistribution {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The internal Weibull pseudo random number generator. */
 	private final WeibullDistribution numGen;
 
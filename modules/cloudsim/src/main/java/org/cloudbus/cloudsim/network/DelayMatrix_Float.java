@@ -8,6 +8,8 @@
 
 package org.cloudbus.cloudsim.network;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.Iterator;
 
 /**
@@ -17,7 +19,10 @@ import java.util.Iterator;
  * @author Thomas Hohnstein
  * @since CloudSim Toolkit 1.0
  */
-public class DelayMatrix_Float {
+public class DelayMatrix_Float implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * Matrix holding delay information between any two nodes.
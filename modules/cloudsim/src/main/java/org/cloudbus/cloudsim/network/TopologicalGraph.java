@@ -8,6 +8,8 @@
 
 package org.cloudbus.cloudsim.network;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -24,7 +26,11 @@ import java.util.List;
  * @author Thomas Hohnstein
  * @since CloudSim Toolkit 1.0
  */
-public class TopologicalGraph {
+public class TopologicalGraph implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
         /**
          * The list of links of the network graph.
          */
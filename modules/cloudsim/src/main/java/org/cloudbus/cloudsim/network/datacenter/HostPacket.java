@@ -8,6 +8,9 @@
 
 package org.cloudbus.cloudsim.network.datacenter;
 
+import java.io.Serial;
+import java.io.Serializable;
+
 import org.cloudbus.cloudsim.core.CloudSim;
 
 /**
@@ -26,7 +29,11 @@ import org.cloudbus.cloudsim.core.CloudSim;
  * @since CloudSim Toolkit 1.0
  * //TODO Attributes should be private
  */
-public class HostPacket {
+public class HostPacket implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Id of the sender guest.
 	 */
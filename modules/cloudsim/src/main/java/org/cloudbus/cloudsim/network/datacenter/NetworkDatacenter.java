@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.network.datacenter;
 
+import java.io.Serial;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,6 +44,10 @@ import org.cloudbus.cloudsim.core.*;
  * @since CloudSim Toolkit 3.0
  */
 public class NetworkDatacenter extends Datacenter {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * A map between VMs and Switches, where each key
 	 * is a VM id and the corresponding value is the id of the switch where the VM is connected to.
@@ -103,19 +108,18 @@ public class NetworkDatacenter extends Datacenter {
 		HostToSwitchid = new HashMap<>();
 		VmtoHostlist = new HashMap<>();
 		SwitchList = new HashMap<>();
+		// the packets received by a host are processed when the host is updated
+		setUpdateAllHosts(true);
 	}
 
 	public Map<Integer, Switch> getSwitchList() { return SwitchList; }
 
 	@Override
-	protected void processVmCreate(SimEvent ev, boolean ack) {
-		super.processVmCreate(ev, ack);
-		GuestEntity vm = (GuestEntity) ev.getData();
+	protected void processGuestCreated(GuestEntity vm) {
+		super.processGuestCreated(vm);
 
-		if (vm.getHost() != null) {
-			VmToSwitchid.put(vm.getId(), ((NetworkHost) vm.getHost()).getSwitch().getId());
-			VmtoHostlist.put(vm.getId(), vm.getHost().getId());
-		}
+		VmToSwitchid.put(vm.getId(), ((NetworkHost) vm.getHost()).getSwitch().getId());
+		VmtoHostlist.put(vm.getId(), vm.getHost().getId());
 	}
 
 	@Override
@@ -8,6 +8,9 @@
 
 package org.cloudbus.cloudsim.network.datacenter;
 
+import java.io.Serial;
+import java.io.Serializable;
+
 /**
  * NewtorkPacket represents the packet which travel from one server to another. Each packet contains
  * IDs of the sender and receiver guest which are communicating, time at which it is sent and received,
@@ -24,7 +27,11 @@ package org.cloudbus.cloudsim.network.datacenter;
  * @since CloudSim Toolkit 1.0
  * //TODO Attributes should be private
  */
-public class NetworkPacket {
+public class NetworkPacket implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     /**
      * Information about the virtual send and receiver entities of the packet.
      */
@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.network.datacenter;
 
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -16,7 +17,6 @@ import java.util.Map.Entry;
 
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.*;
-import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
  * This class represents a Network Switch in a Datacenter network.
@@ -34,6 +34,10 @@ import org.cloudbus.cloudsim.core.predicates.PredicateType;
  * @since CloudSim Toolkit 3.0
  */
 public class Switch extends SimEntity {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** Switch level in datacenter topology.
 	 * -) Root switch connects the Datacenter to external network.
 	 * -) Aggregate switches reside in-between the root switch and the edge switches.
@@ -182,8 +186,7 @@ public class Switch extends SimEntity {
 	protected void processPacketDown(SimEvent ev) {
 		NetworkPacket hspkt = (NetworkPacket) ev.getData();
 		int recvVMid = hspkt.pkt.receiverGuestId;
-		CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.NETWORK_PKT_FORWARD));
-		schedule(getId(), switchingDelay, CloudActionTags.NETWORK_PKT_FORWARD);
+		rearmTimer(CloudActionTags.NETWORK_PKT_FORWARD, switchingDelay);
 
 		// packet is to be received by the host
 		if (level == SwitchLevel.EDGE_LEVEL) {
@@ -208,8 +211,7 @@ public class Switch extends SimEntity {
 		NetworkPacket hspkt = (NetworkPacket) ev.getData();
 		int recvVMid = hspkt.pkt.receiverGuestId;
 
-		CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.NETWORK_PKT_FORWARD));
-		schedule(getId(), switchingDelay, CloudActionTags.NETWORK_PKT_FORWARD);
+		rearmTimer(CloudActionTags.NETWORK_PKT_FORWARD, switchingDelay);
 
 		// Packet is to be sent from an host
 		if (level == SwitchLevel.EDGE_LEVEL) {
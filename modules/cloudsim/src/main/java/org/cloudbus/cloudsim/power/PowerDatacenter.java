@@ -8,8 +8,16 @@
 
 package org.cloudbus.cloudsim.power;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.Serial;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
+import org.cloudbus.cloudsim.CloudletScheduler;
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Log;
@@ -21,6 +29,7 @@ import org.cloudbus.cloudsim.core.CloudActionTags;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.core.SimulationContext;
 import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
@@ -41,6 +50,12 @@ import org.cloudbus.cloudsim.core.predicates.PredicateType;
  */
 public class PowerDatacenter extends Datacenter {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** The default number of hosts updated by each task of a parallel sweep. */
+	public static final int DEFAULT_HOST_CHUNK_SIZE = 64;
+
 	/** The datacenter consumed power. */
 	private double power;
 
@@ -53,6 +68,12 @@ public class PowerDatacenter extends Datacenter {
 	/** The VM migration count. */
 	private int migrationCount;
 
+	/** The pool updating the hosts in parallel, or <tt>null</tt> to update them sequentially. */
+	private transient ForkJoinPool hostUpdatePool;
+
+	/** The number of hosts updated by each task of a parallel sweep. */
+	private int hostChunkSize = DEFAULT_HOST_CHUNK_SIZE;
+
 	/**
 	 * Instantiates a new PowerDatacenter.
 	 * 
@@ -75,13 +96,14 @@ public class PowerDatacenter extends Datacenter {
 		setDisableMigrations(false);
 		setCloudletSubmitted(-1);
 		setMigrationCount(0);
+		// the power consumption is computed from all the hosts at each update
+		setUpdateAllHosts(true);
 	}
 
 	@Override
 	protected void updateCloudletProcessing() {
 		if (getCloudletSubmitted() == -1 || getCloudletSubmitted() == CloudSim.clock()) {
-			CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.VM_DATACENTER_EVENT));
-			schedule(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
+			rearmTimer(CloudActionTags.VM_DATACENTER_EVENT, getSchedulingInterval());
 			return;
 		}
 		double currentTime = CloudSim.clock();
@@ -118,6 +140,7 @@ public class PowerDatacenter extends Datacenter {
 						}
 
 						targetHost.addMigratingInGuest(vm);
+						getVmAllocationPolicy().hostChanged(targetHost);
 						incrementMigrationCount();
 
 						/** VM migration delay = RAM / bandwidth **/
@@ -135,8 +158,7 @@ public class PowerDatacenter extends Datacenter {
 
 			// schedules an event to the next time
 			if (minTime != Double.MAX_VALUE) {
-				CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.VM_DATACENTER_EVENT));
-				send(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
+				rearmTimer(CloudActionTags.VM_DATACENTER_EVENT, getSchedulingInterval());
 			}
 
 			setLastProcessTime(currentTime);
@@ -176,12 +198,28 @@ public class PowerDatacenter extends Datacenter {
 		Log.println("\n\n--------------------------------------------------------------\n\n");
 		Log.formatLine("New resource usage for the time frame starting at %.2f:", currentTime);
 
-		for (PowerHost host : this.<PowerHost> getHostList()) {
+		List<PowerHost> hostList = getHostList();
+		int hosts = hostList.size();
+		double[] times = new double[hosts];
+		double[] energies = new double[hosts];
+		ByteArrayOutputStream[] logs = Log.isDisabled() ? null : new ByteArrayOutputStream[hosts];
+		if (getHostUpdatePool() == null || hosts <= getHostChunkSize()) {
+			updateHosts(0, hosts, currentTime, timeDiff, times, energies, logs);
+		} else {
+			updateHostsInParallel(currentTime, timeDiff, times, energies, logs);
+		}
+
+		// the results are reduced in order of host, as if the hosts were updated one after the other
+		for (int i = 0; i < hosts; i++) {
+			PowerHost host = hostList.get(i);
+			getVmAllocationPolicy().hostChanged(host);
 			Log.println();
+			if (logs != null && logs[i].size() > 0) {
+				Log.print(logs[i].toString());
+			}
 
-			double time = host.updateCloudletsProcessing(currentTime); // inform VMs to update processing
-			if (time < minTime) {
-				minTime = time;
+			if (times[i] < minTime) {
+				minTime = times[i];
 			}
 
 			Log.formatLine(
@@ -197,13 +235,9 @@ public class PowerDatacenter extends Datacenter {
 					getLastProcessTime(),
 					currentTime);
 
-			for (PowerHost host : this.<PowerHost> getHostList()) {
-				double previousUtilizationOfCpu = host.getPreviousUtilizationOfCpu();
-				double utilizationOfCpu = host.getUtilizationOfCpu();
-				double timeFrameHostEnergy = host.getEnergyLinearInterpolation(
-						previousUtilizationOfCpu,
-						utilizationOfCpu,
-						timeDiff);
+			for (int i = 0; i < hosts; i++) {
+				PowerHost host = hostList.get(i);
+				double timeFrameHostEnergy = energies[i];
 				timeFrameDatacenterEnergy += timeFrameHostEnergy;
 
 				Log.println();
@@ -212,8 +246,8 @@ public class PowerDatacenter extends Datacenter {
 						currentTime,
 						host.getId(),
 						getLastProcessTime(),
-						previousUtilizationOfCpu * 100,
-						utilizationOfCpu * 100);
+						host.getPreviousUtilizationOfCpu() * 100,
+						host.getUtilizationOfCpu() * 100);
 				Log.formatLine(
 						"%.2f: [Host #%d] energy is %.2f W*sec",
 						currentTime,
@@ -246,6 +280,69 @@ public class PowerDatacenter extends Datacenter {
 		return minTime;
 	}
 
+	/**
+	 * Updates the processing of a range of hosts and computes the energy they consumed since the
+	 * last update. The messages logged while updating each host are kept apart.
+	 *
+	 * @param from the index of the first host
+	 * @param to the index after the last host
+	 * @param currentTime the current time
+	 * @param timeDiff the time since the last update
+	 * @param times where the expected completion time of the next cloudlet of each host is stored
+	 * @param energies where the energy consumed by each host is stored
+	 * @param logs where the messages logged while updating each host are stored, or <tt>null</tt>
+	 *        if the log is disabled
+	 */
+	private void updateHosts(int from, int to, double currentTime, double timeDiff,
+			double[] times, double[] energies, ByteArrayOutputStream[] logs) {
+		List<PowerHost> hostList = getHostList();
+		for (int i = from; i < to; i++) {
+			PowerHost host = hostList.get(i);
+			OutputStream previous = null;
+			if (logs != null) {
+				logs[i] = new ByteArrayOutputStream();
+				previous = Log.redirect(logs[i]);
+			}
+			try {
+				times[i] = host.updateCloudletsProcessing(currentTime); // inform VMs to update processing
+			} finally {
+				if (logs != null) {
+					Log.redirect(previous);
+				}
+			}
+			if (timeDiff > 0) {
+				energies[i] = host.getEnergyLinearInterpolation(
+						host.getPreviousUtilizationOfCpu(),
+						host.getUtilizationOfCpu(),
+						timeDiff);
+			}
+		}
+	}
+
+	/**
+	 * Updates the hosts in tasks of the {@link #getHostUpdatePool() host update pool}, each one
+	 * updating a fixed chunk of consecutive hosts. The cloudlets the tasks finish are published to
+	 * the completion queue after all the tasks have ended, in order of chunk.
+	 *
+	 * @see #updateHosts(int, int, double, double, double[], double[], ByteArrayOutputStream[])
+	 */
+	private void updateHostsInParallel(double currentTime, double timeDiff,
+			double[] times, double[] energies, ByteArrayOutputStream[] logs) {
+		SimulationContext context = SimulationContext.current();
+		int hosts = times.length;
+		int chunkSize = getHostChunkSize();
+		List<ForkJoinTask<Set<CloudletScheduler>>> tasks = new ArrayList<>();
+		for (int from = 0; from < hosts; from += chunkSize) {
+			int start = from;
+			int end = Math.min(from + chunkSize, hosts);
+			tasks.add(getHostUpdatePool().submit(() -> getCompletionQueue().record(() -> context.execute(
+					() -> updateHosts(start, end, currentTime, timeDiff, times, energies, logs)))));
+		}
+		for (ForkJoinTask<Set<CloudletScheduler>> task : tasks) {
+			getCompletionQueue().publishAll(task.join());
+		}
+	}
+
 	@Override
 	protected void processVmMigrate(SimEvent ev, boolean ack) {
 		updateCloudetProcessingWithoutSchedulingFutureEvents();
@@ -357,4 +454,62 @@ public class PowerDatacenter extends Datacenter {
 		setMigrationCount(getMigrationCount() + 1);
 	}
 
+	/**
+	 * Gets the pool updating the hosts in parallel.
+	 * 
+	 * @return the pool, or <tt>null</tt> if the hosts are updated sequentially
+	 */
+	public ForkJoinPool getHostUpdatePool() {
+		return hostUpdatePool;
+	}
+
+	/**
+	 * Sets a pool to update the hosts in parallel. By default, each update of the datacenter
+	 * updates its hosts one after the other. With a pool, the hosts are split into chunks of
+	 * {@link #getHostChunkSize() consecutive hosts}, and each chunk is updated, and its energy
+	 * computed, in a task of the pool. The expected time of the next event and the energy of the
+	 * datacenter are then reduced in order of host, and the messages logged by the tasks are
+	 * written in the same order by the simulation thread, so the results and the log are the
+	 * same as when the hosts are updated sequentially.
+	 * <p>
+	 * The hosts must not share any object changed by their update, such as the utilization models
+	 * of their cloudlets.
+	 * 
+	 * @param hostUpdatePool the pool, or <tt>null</tt> to update the hosts sequentially
+	 */
+	public void setHostUpdatePool(ForkJoinPool hostUpdatePool) {
+		this.hostUpdatePool = hostUpdatePool;
+	}
+
+	/**
+	 * Gets the number of hosts updated by each task of a parallel update.
+	 * 
+	 * @return the number of hosts
+	 */
+	public int getHostChunkSize() {
+		return hostChunkSize;
+	}
+
+	/**
+	 * Sets the number of hosts updated by each task of a parallel update.
+	 * 
+	 * @param hostChunkSize the number of hosts
+	 * @see #setHostUpdatePool(ForkJoinPool)
+	 */
+	public void setHostChunkSize(int hostChunkSize) {
+		if (hostChunkSize <= 0) {
+			throw new IllegalArgumentException("The host chunk size must be positive.");
+		}
+		this.hostChunkSize = hostChunkSize;
+	}
+
+	/**
+	 * A power datacenter only changes the state a datacenter changes, and the power and
+	 * migration statistics of its own hosts, so it can run in parallel too.
+	 */
+	@Override
+	protected boolean canRunInParallel() {
+		return getClass() == PowerDatacenter.class;
+	}
+
 }
@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.power;
 
+import java.io.Serial;
 import java.util.List;
 import java.util.Map;
 
@@ -20,7 +21,6 @@ import org.cloudbus.cloudsim.VmAllocationPolicy.GuestMapping;
 import org.cloudbus.cloudsim.core.CloudActionTags;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.GuestEntity;
-import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
  * PowerDatacenterNonPowerAware is a class that represents a <b>non-power</b> aware data center in the
@@ -41,6 +41,9 @@ import org.cloudbus.cloudsim.core.predicates.PredicateType;
  */
 public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Instantiates a new datacenter.
 	 * 
@@ -64,8 +67,7 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 	@Override
 	protected void updateCloudletProcessing() {
 		if (getCloudletSubmitted() == -1 || getCloudletSubmitted() == CloudSim.clock()) {
-			CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.VM_DATACENTER_EVENT));
-			schedule(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
+			rearmTimer(CloudActionTags.VM_DATACENTER_EVENT, getSchedulingInterval());
 			return;
 		}
 		double currentTime = CloudSim.clock();
@@ -110,6 +112,7 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 
 				double time = host.updateCloudletsProcessing(currentTime); // inform VMs to update
 																		// processing
+				getVmAllocationPolicy().hostChanged(host);
 				if (time < minTime) {
 					minTime = time;
 				}
@@ -156,6 +159,7 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 						}
 
 						targetHost.addMigratingInGuest(vm);
+						getVmAllocationPolicy().hostChanged(targetHost);
 						incrementMigrationCount();
 
 						/** VM migration delay = RAM / bandwidth + C (C = 10 sec) **/
@@ -170,13 +174,16 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 
 			// schedules an event to the next time
 			if (minTime != Double.MAX_VALUE) {
-				CloudSim.cancelAll(getId(), new PredicateType(CloudActionTags.VM_DATACENTER_EVENT));
-				// CloudSim.cancelAll(getId(), CloudSim.SIM_ANY);
-				send(getId(), getSchedulingInterval(), CloudActionTags.VM_DATACENTER_EVENT);
+				rearmTimer(CloudActionTags.VM_DATACENTER_EVENT, getSchedulingInterval());
 			}
 
 			setLastProcessTime(currentTime);
 		}
 	}
 
+	@Override
+	protected boolean canRunInParallel() {
+		return getClass() == PowerDatacenterNonPowerAware.class;
+	}
+
 }
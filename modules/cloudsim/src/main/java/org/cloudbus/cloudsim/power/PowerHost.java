@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.power;
 
+import java.io.Serial;
 import java.util.Arrays;
 import java.util.List;
 
@@ -40,6 +41,9 @@ import org.cloudbus.cloudsim.provisioners.RamProvisioner;
  */
 public class PowerHost extends HostDynamicWorkload implements PowerHostEntity {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The power model used by the host. */
 	private PowerModel powerModel;
 
@@ -8,6 +8,10 @@
 
 package org.cloudbus.cloudsim.power;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,6 +19,7 @@ import org.cloudbus.cloudsim.CloudletScheduler;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.PowerGuestEntity;
+import org.cloudbus.cloudsim.util.HistorySerializer;
 import org.cloudbus.cloudsim.util.HistoryStat;
 
 /**
@@ -35,8 +40,12 @@ import org.cloudbus.cloudsim.util.HistoryStat;
  * @since CloudSim Toolkit 2.0
  */
 public class PowerVm extends Vm implements PowerGuestEntity {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The CPU utilization percentage history. */
-	private final List<Double> utilizationHistory = new ArrayList<>();
+	private transient List<Double> utilizationHistory = new ArrayList<>();
 	private final HistoryStat utilizationHistoryStat = new HistoryStat(HISTORY_LENGTH);
 
 	/** The previous time that cloudlets were processed. */
@@ -134,4 +143,23 @@ public class PowerVm extends Vm implements PowerGuestEntity {
 	protected void setSchedulingInterval(final double schedulingInterval) {
 		this.schedulingInterval = schedulingInterval;
 	}
+
+	/**
+	 * Writes the histories as primitive values, see {@link HistorySerializer}.
+	 */
+	@Serial
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		HistorySerializer.writeDoubles(out, utilizationHistory);
+	}
+
+	/**
+	 * Reads the histories written by {@link #writeObject(ObjectOutputStream)}.
+	 */
+	@Serial
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		utilizationHistory = HistorySerializer.readDoubles(in);
+	}
+
 }
@@ -8,6 +8,10 @@
 
 package org.cloudbus.cloudsim.power;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -23,6 +27,7 @@ import org.cloudbus.cloudsim.core.HostEntity;
 import org.cloudbus.cloudsim.lists.VmList;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
 import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
+import org.cloudbus.cloudsim.util.HistorySerializer;
 
 /**
  * An abstract power-aware VM allocation policy that dynamically optimizes the VM
@@ -43,6 +48,9 @@ import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
  */
 public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocationPolicy {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The vm selection policy. */
 	private SelectionPolicy<GuestEntity> vmSelectionPolicy;
 
@@ -56,7 +64,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 
 	/** A map of CPU utilization history (in percentage) for each host,
          where each key is a host id and each value is the CPU utilization percentage history.*/
-    private final List<List<Double>> utilizationHistory = new ArrayList<>();
+    private transient List<List<Double>> utilizationHistory = new ArrayList<>();
 
 	/** 
          * The metric history. 
@@ -64,36 +72,36 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
          * other it stores utilization threshold or predicted utilization, that
          * is very confusing.
          */
-	private final List<List<Double>> metricHistory = new ArrayList<>();
+	private transient List<List<Double>> metricHistory = new ArrayList<>();
 
 	/** The time when entries in each history list was added. 
          * All history lists are updated at the same time.
          */
-	private final List<List<Double>> timeHistory = new ArrayList<>();
+	private transient List<List<Double>> timeHistory = new ArrayList<>();
 
 	/** The history of time spent in VM selection 
          * every time the optimization of VM allocation method is called. 
          * @see #optimizeAllocation(java.util.List) 
          */
-	private final List<Double> executionTimeHistoryVmSelection = new ArrayList<>();
+	private transient List<Double> executionTimeHistoryVmSelection = new ArrayList<>();
 
 	/** The history of time spent in host selection 
          * every time the optimization of VM allocation method is called. 
          * @see #optimizeAllocation(java.util.List) 
          */
-	private final List<Double> executionTimeHistoryHostSelection = new ArrayList<>();
+	private transient List<Double> executionTimeHistoryHostSelection = new ArrayList<>();
 
 	/** The history of time spent in VM reallocation 
          * every time the optimization of VM allocation method is called. 
          * @see #optimizeAllocation(java.util.List) 
          */
-	private final List<Double> executionTimeHistoryVmReallocation = new ArrayList<>();
+	private transient List<Double> executionTimeHistoryVmReallocation = new ArrayList<>();
 
 	/** The history of total time spent in every call of the 
          * optimization of VM allocation method. 
          * @see #optimizeAllocation(java.util.List) 
          */
-	private final List<Double> executionTimeHistoryTotal = new ArrayList<>();
+	private transient List<Double> executionTimeHistoryTotal = new ArrayList<>();
 
 	/**
 	 * Instantiates a new PowerVmAllocationPolicyMigrationAbstract.
@@ -697,4 +705,37 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 		return executionTimeHistoryTotal;
 	}
 
+	/**
+	 * Writes the histories as primitive values, see {@link HistorySerializer}.
+	 */
+	@Serial
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		HistorySerializer.writeDoubleLists(out, utilizationHistory);
+		HistorySerializer.writeDoubleLists(out, metricHistory);
+		HistorySerializer.writeDoubleLists(out, timeHistory);
+		HistorySerializer.writeDoubles(out, executionTimeHistoryVmSelection);
+		HistorySerializer.writeDoubles(out, executionTimeHistoryHostSelection);
+		HistorySerializer.writeDoubles(out, executionTimeHistoryVmReallocation);
+		HistorySerializer.writeDoubles(out, executionTimeHistoryTotal);
+	}
+
+	/**
+	 * Reads the histories written by {@link #writeObject(ObjectOutputStream)}.
+	 */
+	@Serial
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		utilizationHistory = new ArrayList<>();
+		HistorySerializer.readDoubleLists(in, utilizationHistory);
+		metricHistory = new ArrayList<>();
+		HistorySerializer.readDoubleLists(in, metricHistory);
+		timeHistory = new ArrayList<>();
+		HistorySerializer.readDoubleLists(in, timeHistory);
+		executionTimeHistoryVmSelection = HistorySerializer.readDoubles(in);
+		executionTimeHistoryHostSelection = HistorySerializer.readDoubles(in);
+		executionTimeHistoryVmReallocation = HistorySerializer.readDoubles(in);
+		executionTimeHistoryTotal = HistorySerializer.readDoubles(in);
+	}
+
 }
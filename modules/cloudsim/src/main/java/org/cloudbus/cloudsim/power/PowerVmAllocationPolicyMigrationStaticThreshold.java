@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.power;
 
+import java.io.Serial;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Host;
@@ -34,6 +35,9 @@ import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicy;
  */
 public class PowerVmAllocationPolicyMigrationStaticThreshold extends PowerVmAllocationPolicyMigrationAbstract {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The static host CPU utilization threshold to detect over utilization.
          * It is a percentage value from 0 to 1
          * that can be changed when creating an instance of the class. */
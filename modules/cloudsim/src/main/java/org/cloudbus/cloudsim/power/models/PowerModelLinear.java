@@ -8,6 +8,8 @@
 
 package org.cloudbus.cloudsim.power.models;
 
+import java.io.Serial;
+
 /**
  * Implements a power model where the power consumption is linear to resource usage.
  * 
@@ -31,6 +33,9 @@ package org.cloudbus.cloudsim.power.models;
  */
 public class PowerModelLinear implements PowerModel {
 
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	/** The max power that can be consumed. */
 	private double maxPower;
 
@@ -8,6 +8,8 @@
 
 package org.cloudbus.cloudsim.power.models;
 
+import java.io.Serial;
+
 /**
  * The abstract class of power models created based on data from 
  * <a href="http://www.spec.org/power_ssj2008/">SPECpower benchmark</a>.
@@ -26,6 +28,10 @@ package org.cloudbus.cloudsim.power.models;
  * @since CloudSim Toolkit 3.0
  */
 public abstract class PowerModelSpecPower implements PowerModel {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	@Override
 	public double getPower(double utilization) throws IllegalArgumentException {
 		if (utilization < 0 || utilization > 1) {
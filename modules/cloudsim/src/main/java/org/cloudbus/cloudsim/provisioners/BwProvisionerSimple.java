@@ -8,10 +8,10 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.util.IntLongMap;
+
+import java.io.Serial;
 
 /**
  * BwProvisionerSimple is an extension of {@link BwProvisioner} which uses a best-effort policy to
@@ -25,9 +25,12 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  */
 public class BwProvisionerSimple extends BwProvisioner {
 
-	/** The BW map, where each key is a VM id and each value
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** The BW map, where each key is a VM index and each value
          * is the amount of BW allocated to that VM. */
-	private Map<String, Long> bwTable;
+	private IntLongMap bwTable;
 
 	/**
 	 * Instantiates a new bw provisioner simple.
@@ -36,7 +39,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 */
 	public BwProvisionerSimple(long bw) {
 		super(bw);
-		setBwTable(new HashMap<>());
+		setBwTable(new IntLongMap());
 	}
 
 	@Override
@@ -45,7 +48,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 		if (getAvailableBw() + old_bw >= bw) {
 			setAvailableBw(getAvailableBw() + old_bw - bw);
-			bwTable.put(guest.getUid(), bw);
+			bwTable.put(guest.getIndex(), bw);
 			guest.setCurrentAllocatedBw(bw);
 			return true;
 		}
@@ -55,17 +58,13 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 	@Override
 	public long getAllocatedBwForGuest(GuestEntity guest) {
-		Long bw = bwTable.get(guest.getUid());
-		if (bw != null)
-			return bw;
-		else
-			return 0;
+		return bwTable.getOrDefault(guest.getIndex(), 0);
 	}
 
 	@Override
 	public void deallocateBwForGuest(GuestEntity guest) {
-		Long allocatedBw = bwTable.remove(guest.getUid());
-		if (allocatedBw != null)
+		long allocatedBw = bwTable.getOrDefault(guest.getIndex(), 0);
+		if (bwTable.remove(guest.getIndex()))
 			setAvailableBw(getAvailableBw() + allocatedBw);
 		guest.setCurrentAllocatedBw(0);
 	}
@@ -92,7 +91,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 * 
 	 * @return the bw map
 	 */
-	protected Map<String, Long> getBwTable() {
+	protected IntLongMap getBwTable() {
 		return bwTable;
 	}
 
@@ -101,7 +100,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 * 
 	 * @param bwTable the bw map
 	 */
-	protected void setBwTable(Map<String, Long> bwTable) {
+	protected void setBwTable(IntLongMap bwTable) {
 		this.bwTable = bwTable;
 	}
 
@@ -8,6 +8,8 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.List;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 
@@ -27,7 +29,10 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
  */
-public abstract class PeProvisioner {
+public abstract class PeProvisioner implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
 
 	/** The total mips capacity of the PE that the provisioner can allocate to VMs. */
 	private double mips;
@@ -65,9 +70,10 @@ public abstract class PeProvisioner {
 	public boolean allocateMipsForVm(Vm vm, double mips) { return allocateMipsForGuest(vm, mips); }
 
 	/**
-	 * Allocates a new virtual PE with a specific capacity for a given VM id.
+	 * Allocates a new virtual PE with a specific capacity for a given VM index.
 	 * 
-	 * @param vmUid the virtual machine for which the new virtual PE is being allocated
+	 * @param guestIndex the {@link GuestEntity#getIndex() index} of the virtual machine for which
+	 *        the new virtual PE is being allocated
 	 * @param mips the mips to be allocated to the virtual PE of the given VM
 	 * 
 	 * @return $true if the virtual PE could be allocated; $false otherwise
@@ -75,10 +81,7 @@ public abstract class PeProvisioner {
 	 * @post $none
          * @see #allocateMipsForGuest(GuestEntity, double)
 	 */
-	public abstract boolean allocateMipsForGuest(String vmUid, double mips);
-
-	@Deprecated
-	public boolean allocateMipsForVm(String vmUid, double mips) { return allocateMipsForGuest(vmUid, mips);}
+	public abstract boolean allocateMipsForGuest(int guestIndex, double mips);
 
 	/**
 	 * Allocates a new set of virtual PE with a specific capacity, replacing the old set (if any), for a given VM.
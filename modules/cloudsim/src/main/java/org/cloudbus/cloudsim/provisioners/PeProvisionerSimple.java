@@ -8,12 +8,13 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.io.Serial;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
+import org.cloudbus.cloudsim.MipsShare;
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.util.IntObjectMap;
 
 /**
  * PeProvisionerSimple is an extension of {@link PeProvisioner} which uses a best-effort policy to
@@ -26,9 +27,12 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  */
 public class PeProvisionerSimple extends PeProvisioner {
 
-	/** The PE map, where each key is a VM id and each value
-         * is the list of in terms of their allocated amount of MIPS to that VM. */
-	private Map<String, List<Double>> peTable;
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** The PE map, where each key is a VM index and each value
+         * is the array of the amounts of MIPS allocated to that VM. */
+	private IntObjectMap<double[]> peTable;
 
 	/**
 	 * Instantiates a new pe provisioner simple.
@@ -40,23 +44,28 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	public PeProvisionerSimple(double availableMips) {
 		super(availableMips);
-		setPeTable(new HashMap<String, ArrayList<Double>>());
+		setPeTable(new IntObjectMap<>());
 	}
 
 	@Override
 	public boolean allocateMipsForGuest(GuestEntity guest, double mips) {
-		return allocateMipsForGuest(guest.getUid(), mips);
+		return allocateMipsForGuest(guest.getIndex(), mips);
 	}
 
 	@Override
-	public boolean allocateMipsForGuest(String vmUid, double mips) {
+	public boolean allocateMipsForGuest(int guestIndex, double mips) {
 		if (getAvailableMips() < mips) {
 			return false;
 		}
 
-        List<Double> allocatedMips = getPeTable().computeIfAbsent(vmUid, k -> new ArrayList<>());
-
-        allocatedMips.add(mips);
+		double[] allocatedMips = getPeTable().get(guestIndex);
+		if (allocatedMips == null) {
+			allocatedMips = new double[] {mips};
+		} else {
+			allocatedMips = Arrays.copyOf(allocatedMips, allocatedMips.length + 1);
+			allocatedMips[allocatedMips.length - 1] = mips;
+		}
+		getPeTable().put(guestIndex, allocatedMips);
 		setAvailableMips(getAvailableMips() - mips);
 
 		return true;
@@ -66,7 +75,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	public boolean allocateMipsForGuest(GuestEntity guest, List<Double> mips) {
 		deallocateMipsForGuest(guest);
 		for (double _mips : mips) {
-			if (!allocateMipsForGuest(guest.getUid(), _mips)) {
+			if (!allocateMipsForGuest(guest.getIndex(), _mips)) {
 				return false;
 			}
 		}
@@ -82,24 +91,26 @@ public class PeProvisionerSimple extends PeProvisioner {
 
 	@Override
 	public double getAllocatedMipsForGuestByVirtualPeId(GuestEntity guest, int peId) {
-		List<Double> allocatedMips = getAllocatedMipsForGuest(guest);
-		if (allocatedMips != null && peId < allocatedMips.size()) {
-			return allocatedMips.get(peId);
+		double[] allocatedMips = getPeTable().get(guest.getIndex());
+		if (allocatedMips != null && peId < allocatedMips.length) {
+			return allocatedMips[peId];
 		}
 		return 0;
 	}
 
 	@Override
 	public List<Double> getAllocatedMipsForGuest(GuestEntity guest) {
-		if (getPeTable().containsKey(guest.getUid())) {
-			return getPeTable().get(guest.getUid());
+		double[] allocatedMips = getPeTable().get(guest.getIndex());
+		if (allocatedMips != null) {
+			// the arrays of the table are replaced rather than modified
+			return MipsShare.wrap(allocatedMips);
 		}
 		return null;
 	}
 
 	@Override
 	public double getTotalAllocatedMipsForGuest(GuestEntity guest) {
-		List<Double> allocatedMips = getAllocatedMipsForGuest(guest);
+		double[] allocatedMips = getPeTable().get(guest.getIndex());
 
 		if (allocatedMips != null) {
 			double totalAllocatedMips = 0.0;
@@ -113,13 +124,12 @@ public class PeProvisionerSimple extends PeProvisioner {
 
 	@Override
 	public void deallocateMipsForGuest(GuestEntity guest) {
-		List<Double> allocatedMips = getAllocatedMipsForGuest(guest);
+		double[] allocatedMips = getPeTable().remove(guest.getIndex());
 
 		if (allocatedMips != null) {
 			for (double mips : allocatedMips) {
 				setAvailableMips(getAvailableMips() + mips);
 			}
-			getPeTable().remove(guest.getUid());
 		}
 	}
 
@@ -128,7 +138,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 * 
 	 * @return the pe map
 	 */
-	protected Map<String, List<Double>> getPeTable() {
+	protected IntObjectMap<double[]> getPeTable() {
 		return peTable;
 	}
 
@@ -137,8 +147,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 * 
 	 * @param peTable the peTable to set
 	 */
-	@SuppressWarnings("unchecked")
-	protected void setPeTable(Map<String, ? extends List<Double>> peTable) {
-		this.peTable = (Map<String, List<Double>>) peTable;
+	protected void setPeTable(IntObjectMap<double[]> peTable) {
+		this.peTable = peTable;
 	}
 }
@@ -8,11 +8,11 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.HashMap;
+import java.io.Serial;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.util.IntLongMap;
 
 /**
  * RamProvisionerSimple is an extension of {@link RamProvisioner} which uses a best-effort policy to
@@ -25,9 +25,12 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  */
 public class RamProvisionerSimple extends RamProvisioner {
 
-	/** The RAM map, where each key is a VM id and each value
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** The RAM map, where each key is a VM index and each value
          * is the amount of RAM allocated to that VM. */
-	private Map<String, Integer> ramTable;
+	private IntLongMap ramTable;
 
 	/**
 	 * Instantiates a new ram provisioner simple.
@@ -36,7 +39,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 */
 	public RamProvisionerSimple(int availableRam) {
 		super(availableRam);
-		setRamTable(new HashMap<>());
+		setRamTable(new IntLongMap());
 	}
 
 	@Override
@@ -53,7 +56,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 
 		if (getAvailableRam() >= ram) {
 			setAvailableRam(getAvailableRam() - ram);
-			getRamTable().put(guest.getUid(), ram);
+			getRamTable().put(guest.getIndex(), ram);
 			guest.setCurrentAllocatedRam(getAllocatedRamForGuest(guest));
 			return true;
 		}
@@ -65,18 +68,15 @@ public class RamProvisionerSimple extends RamProvisioner {
 
 	@Override
 	public int getAllocatedRamForGuest(GuestEntity guest) {
-		if (getRamTable().containsKey(guest.getUid())) {
-			return getRamTable().get(guest.getUid());
-		}
-		return 0;
+		return (int) getRamTable().getOrDefault(guest.getIndex(), 0);
 	}
 
 	@Override
 	public void deallocateRamForGuest(GuestEntity guest) {
 		int allocatedRam = getAllocatedRamForGuest(guest);
 		if (allocatedRam > 0) {
-			int amountFreed = getRamTable().remove(guest.getUid());
-			setAvailableRam(getAvailableRam() + amountFreed);
+			getRamTable().remove(guest.getIndex());
+			setAvailableRam(getAvailableRam() + allocatedRam);
 			guest.setCurrentAllocatedRam(0);
 		}
 	}
@@ -103,7 +103,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 * 
 	 * @return the ram map
 	 */
-	protected Map<String, Integer> getRamTable() {
+	protected IntLongMap getRamTable() {
 		return ramTable;
 	}
 
@@ -112,7 +112,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 * 
 	 * @param ramTable the ram map
 	 */
-	protected void setRamTable(Map<String, Integer> ramTable) {
+	protected void setRamTable(IntLongMap ramTable) {
 		this.ramTable = ramTable;
 	}
 
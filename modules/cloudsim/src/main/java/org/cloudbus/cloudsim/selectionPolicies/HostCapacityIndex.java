@@ -0,0 +1,246 @@
+/*
+ * Title: CloudSim Toolkit Description: CloudSim (Cloud Simulation) Toolkit for Modeling and
+ * Simulation of Clouds Licence: GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.selectionPolicies;
+
+import org.cloudbus.cloudsim.core.HostEntity;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the hosts by the capacity an {@link IndexedSelectionPolicy} compares, such as the
+ * available MIPS of each host. It finds the first host, and the hosts with the highest and the
+ * lowest capacity, in logarithmic time, keeping the order of the host list to break ties as a
+ * scan of the list does.
+ * <p>
+ * The index is a segment tree over the positions of the hosts in the list, where each node keeps
+ * the position of the hosts with the highest and the lowest capacity below it. Hosts can be
+ * excluded from the selection, and hosts with a NaN capacity are never selected. The capacities
+ * are read when the index is created and when a host is {@link #update(HostEntity) updated}, so
+ * the index must be told whenever the capacity of a host changes.
+ *
+ * @since CloudSim toolkit 7.0
+ */
+public class HostCapacityIndex implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** The position of no host. */
+    private static final int NONE = -1;
+
+    /** The indexed hosts. */
+    private final List<? extends HostEntity> hosts;
+
+    /** The policy whose capacities are indexed. */
+    private final IndexedSelectionPolicy policy;
+
+    /** The position of each host in the list. */
+    private final Map<HostEntity, Integer> positions;
+
+    /** The capacity of each host, by position. */
+    private final double[] capacities;
+
+    /** The positions of the excluded hosts. */
+    private final BitSet excluded;
+
+    /** The number of leaves of the trees, a power of two. */
+    private final int leaves;
+
+    /** For each node, the position of the host with the highest capacity below it, or {@link #NONE}. */
+    private final int[] maxTree;
+
+    /** For each node, the position of the host with the lowest capacity below it, or {@link #NONE}. */
+    private final int[] minTree;
+
+    /**
+     * Creates an index of hosts.
+     *
+     * @param hosts  the hosts, which must not be added or removed while the index is used
+     * @param policy the policy whose capacities are indexed
+     */
+    public HostCapacityIndex(List<? extends HostEntity> hosts, IndexedSelectionPolicy policy) {
+        this.hosts = hosts;
+        this.policy = policy;
+        positions = new HashMap<>(2 * hosts.size());
+        for (int i = 0; i < hosts.size(); i++) {
+            positions.put(hosts.get(i), i);
+        }
+        capacities = new double[hosts.size()];
+        excluded = new BitSet(hosts.size());
+        leaves = Integer.highestOneBit(Math.max(1, 2 * hosts.size() - 1));
+        maxTree = new int[2 * leaves];
+        minTree = new int[2 * leaves];
+        updateAll();
+    }
+
+    /**
+     * Gets the indexed hosts.
+     *
+     * @return the hosts
+     */
+    public List<? extends HostEntity> getHosts() {
+        return hosts;
+    }
+
+    /**
+     * Gets the number of indexed hosts, which is the size the host list had when the index was
+     * created.
+     *
+     * @return the number of hosts
+     */
+    public int size() {
+        return capacities.length;
+    }
+
+    /**
+     * Gets the capacity of a host, as it was when the host was last updated.
+     *
+     * @param host the host
+     * @return the capacity, or NaN if the host is not indexed
+     */
+    public double getCapacity(HostEntity host) {
+        Integer position = positions.get(host);
+        return position == null ? Double.NaN : capacities[position];
+    }
+
+    /**
+     * Reads again the capacity of a host.
+     *
+     * @param host the host, ignored if it is not indexed
+     */
+    public void update(HostEntity host) {
+        Integer position = positions.get(host);
+        if (position != null) {
+            capacities[position] = policy.getCapacity(host);
+            updatePath(position);
+        }
+    }
+
+    /**
+     * Reads again the capacities of all the hosts.
+     */
+    public void updateAll() {
+        Arrays.fill(maxTree, NONE);
+        Arrays.fill(minTree, NONE);
+        for (int i = 0; i < capacities.length; i++) {
+            capacities[i] = policy.getCapacity(hosts.get(i));
+            if (isSelectable(i)) {
+                maxTree[leaves + i] = i;
+                minTree[leaves + i] = i;
+            }
+        }
+        for (int node = leaves - 1; node > 0; node--) {
+            maxTree[node] = max(maxTree[2 * node], maxTree[2 * node + 1]);
+            minTree[node] = min(minTree[2 * node], minTree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Excludes a host from the selection, or includes it back.
+     *
+     * @param host     the host, ignored if it is not indexed
+     * @param excluded true to exclude the host, false to include it
+     */
+    public void setExcluded(HostEntity host, boolean excluded) {
+        Integer position = positions.get(host);
+        if (position != null && this.excluded.get(position) != excluded) {
+            this.excluded.set(position, excluded);
+            updatePath(position);
+        }
+    }
+
+    /**
+     * Includes back all the excluded hosts.
+     */
+    public void clearExcluded() {
+        for (int i = excluded.nextSetBit(0); i >= 0; i = excluded.nextSetBit(i + 1)) {
+            excluded.clear(i);
+            updatePath(i);
+        }
+    }
+
+    /**
+     * Gets the first host of the list which is not excluded, whatever its capacity.
+     *
+     * @return the host, or <tt>null</tt> if all the hosts are excluded
+     */
+    public HostEntity first() {
+        int position = excluded.nextClearBit(0);
+        return position < hosts.size() ? hosts.get(position) : null;
+    }
+
+    /**
+     * Gets the first host of the list with the highest capacity, among the hosts which are not
+     * excluded and whose capacity is not NaN.
+     *
+     * @return the host, or <tt>null</tt> if there is none
+     */
+    public HostEntity max() {
+        return maxTree[1] == NONE ? null : hosts.get(maxTree[1]);
+    }
+
+    /**
+     * Gets the first host of the list with the lowest capacity, among the hosts which are not
+     * excluded and whose capacity is not NaN.
+     *
+     * @return the host, or <tt>null</tt> if there is none
+     */
+    public HostEntity min() {
+        return minTree[1] == NONE ? null : hosts.get(minTree[1]);
+    }
+
+    private boolean isSelectable(int position) {
+        return !excluded.get(position) && !Double.isNaN(capacities[position]);
+    }
+
+    /**
+     * Updates the nodes from the leaf of a host up to the root.
+     *
+     * @param position the position of the host
+     */
+    private void updatePath(int position) {
+        int node = leaves + position;
+        maxTree[node] = isSelectable(position) ? position : NONE;
+        minTree[node] = maxTree[node];
+        for (node >>= 1; node > 0; node >>= 1) {
+            maxTree[node] = max(maxTree[2 * node], maxTree[2 * node + 1]);
+            minTree[node] = min(minTree[2 * node], minTree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Gets the host with the highest capacity among two hosts, the first one if they are equal.
+     */
+    private int max(int left, int right) {
+        if (left == NONE) {
+            return right;
+        }
+        if (right == NONE) {
+            return left;
+        }
+        return capacities[right] > capacities[left] ? right : left;
+    }
+
+    /**
+     * Gets the host with the lowest capacity among two hosts, the first one if they are equal.
+     */
+    private int min(int left, int right) {
+        if (left == NONE) {
+            return right;
+        }
+        if (right == NONE) {
+            return left;
+        }
+        return capacities[right] < capacities[left] ? right : left;
+    }
+}
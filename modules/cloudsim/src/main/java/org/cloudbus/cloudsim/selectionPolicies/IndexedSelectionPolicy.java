@@ -0,0 +1,41 @@
+/*
+ * Title: CloudSim Toolkit Description: CloudSim (Cloud Simulation) Toolkit for Modeling and
+ * Simulation of Clouds Licence: GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.selectionPolicies;
+
+import org.cloudbus.cloudsim.core.HostEntity;
+
+import java.io.Serializable;
+
+/**
+ * A policy selecting a host which can select it from a {@link HostCapacityIndex}, instead of
+ * scanning all the candidate hosts. The index keeps the hosts ordered by the capacity the policy
+ * compares, so that the host is selected in logarithmic time.
+ *
+ * @see org.cloudbus.cloudsim.VmAllocationWithSelectionPolicy
+ * @since CloudSim toolkit 7.0
+ */
+public interface IndexedSelectionPolicy extends Serializable {
+    /**
+     * Gets the capacity of a host that the policy compares to select a host.
+     *
+     * @param host the host
+     * @return the capacity
+     */
+    double getCapacity(HostEntity host);
+
+    /**
+     * Selects a host among the hosts of an index which are not excluded. The host is the one
+     * {@link SelectionPolicy#select(java.util.List, Object, java.util.Set)} selects among the
+     * hosts of the index, in their order, ignoring the excluded ones.
+     *
+     * @param index the index, whose capacities are the ones of this policy
+     * @param obj   For arbitrary data
+     * @return the selected host, or <tt>null</tt> if no host can be selected
+     */
+    HostEntity select(HostCapacityIndex index, Object obj);
+}
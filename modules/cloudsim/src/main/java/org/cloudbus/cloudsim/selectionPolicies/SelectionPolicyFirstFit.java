@@ -10,6 +10,7 @@ package org.cloudbus.cloudsim.selectionPolicies;
 
 import org.cloudbus.cloudsim.core.HostEntity;
 
+import java.io.Serial;
 import java.util.List;
 import java.util.Set;
 
@@ -20,7 +21,11 @@ import java.util.Set;
  * @since CloudSim toolkit 7.0
  */
 
-public class SelectionPolicyFirstFit<CandidateEntity> implements SelectionPolicy<CandidateEntity> {
+public class SelectionPolicyFirstFit<CandidateEntity> implements SelectionPolicy<CandidateEntity>, IndexedSelectionPolicy {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     @Override
     public CandidateEntity select(List<CandidateEntity> candidates, Object obj, Set<CandidateEntity> excludedCandidates) {
         CandidateEntity selectedHost = null;
@@ -33,4 +38,20 @@ public class SelectionPolicyFirstFit<CandidateEntity> implements SelectionPolicy
         }
         return selectedHost;
     }
+
+    @Override
+    public HostEntity select(HostCapacityIndex index, Object obj) {
+        return index.first();
+    }
+
+    /**
+     * Gets no capacity, since the first host is selected whatever its capacity.
+     *
+     * @param host the host
+     * @return 0
+     */
+    @Override
+    public double getCapacity(HostEntity host) {
+        return 0;
+    }
 }
@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.selectionPolicies;
 
+import java.io.Serial;
 import java.util.List;
 import java.util.Set;
 
@@ -31,6 +32,10 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  * @since CloudSim Toolkit 3.0
  */
 public class SelectionPolicyMinimumMigrationTime<T extends GuestEntity> implements SelectionPolicy<T> {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	// @TODO: Remo Andreoli: how does it compute the MMT???
 	@Override
 	public T select(List<T> candidates, Object obj, Set<T> excludedCandidates) {
@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.selectionPolicies;
 
+import java.io.Serial;
 import java.util.List;
 import java.util.Set;
 
@@ -33,6 +34,10 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  * @since CloudSim Toolkit 3.0
  */
 public class SelectionPolicyMinimumUtilization implements SelectionPolicy<GuestEntity> {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
 	@Override
 	public GuestEntity select(List<GuestEntity> candidates, Object obj, Set<GuestEntity> excludedCandidates) {
 		if (candidates.isEmpty()) {
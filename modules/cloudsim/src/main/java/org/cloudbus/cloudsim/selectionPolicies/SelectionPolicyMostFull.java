@@ -10,6 +10,7 @@ package org.cloudbus.cloudsim.selectionPolicies;
 import org.cloudbus.cloudsim.core.HostEntity;
 import org.cloudbus.cloudsim.power.PowerHost;
 
+import java.io.Serial;
 import java.util.List;
 import java.util.Set;
 
@@ -19,7 +20,11 @@ import java.util.Set;
  *
  * @since CloudSim toolkit 7.0
  */
-public class SelectionPolicyMostFull implements SelectionPolicy<HostEntity> {
+public class SelectionPolicyMostFull implements SelectionPolicy<HostEntity>, IndexedSelectionPolicy {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     @Override
     public HostEntity select(List<HostEntity> candidates, Object obj, Set<HostEntity> excludedCandidates) {
         double minAvailable = Double.MAX_VALUE;
@@ -30,12 +35,7 @@ public class SelectionPolicyMostFull implements SelectionPolicy<HostEntity> {
                 continue;
             }
 
-            double hostAvailable;
-            if (hostCandidate instanceof PowerHost powerHost) {
-                hostAvailable = powerHost.getUtilizationOfCpu();
-            } else {
-                hostAvailable = hostCandidate.getGuestScheduler().getAvailableMips();
-            }
+            double hostAvailable = getCapacity(hostCandidate);
 
             if ( hostAvailable < minAvailable ) {
                 minAvailable = hostAvailable;
@@ -44,4 +44,21 @@ public class SelectionPolicyMostFull implements SelectionPolicy<HostEntity> {
         }
         return selectedHost;
     }
+
+    @Override
+    public HostEntity select(HostCapacityIndex index, Object obj) {
+        HostEntity selectedHost = index.min();
+        if (selectedHost != null && index.getCapacity(selectedHost) < Double.MAX_VALUE) {
+            return selectedHost;
+        }
+        return null;
+    }
+
+    @Override
+    public double getCapacity(HostEntity host) {
+        if (host instanceof PowerHost powerHost) {
+            return powerHost.getUtilizationOfCpu();
+        }
+        return host.getGuestScheduler().getAvailableMips();
+    }
 }
@@ -9,6 +9,7 @@ package org.cloudbus.cloudsim.selectionPolicies;
 
 import org.cloudbus.cloudsim.core.HostEntity;
 
+import java.io.Serial;
 import java.util.*;
 
 /**
@@ -20,7 +21,11 @@ import java.util.*;
  * @since CloudSim toolkit 7.0
  */
 
-public class SelectionPolicyWorstFit implements SelectionPolicy<HostEntity> {
+public class SelectionPolicyWorstFit implements SelectionPolicy<HostEntity>, IndexedSelectionPolicy {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     /** The map between each VM and the number of Pes used.
      * The map key is a VM UID and the value is the number of used Pes for that VM. */
     private Map<String, Integer> usedPes;
@@ -46,6 +51,20 @@ public class SelectionPolicyWorstFit implements SelectionPolicy<HostEntity> {
         return selectedHost;
     }
 
+    @Override
+    public HostEntity select(HostCapacityIndex index, Object obj) {
+        HostEntity selectedHost = index.max();
+        if (selectedHost != null && index.getCapacity(selectedHost) > Integer.MIN_VALUE) {
+            return selectedHost;
+        }
+        return null;
+    }
+
+    @Override
+    public double getCapacity(HostEntity host) {
+        return host.getNumberOfFreePes();
+    }
+
     protected List<Integer> getFreePes() { return freePes; }
     protected void setFreePes(List<Integer> freePes) { this.freePes = freePes; }
 
@@ -0,0 +1,199 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.HostStateHistoryEntry;
+import org.cloudbus.cloudsim.VmStateHistoryEntry;
+
+/**
+ * Writes and reads the histories kept by hosts, VMs and allocation policies as primitive values,
+ * when a simulation is saved in a checkpoint. A history of a long simulation holds millions of
+ * values: writing them as plain doubles avoids serializing a {@link Double} or an entry object,
+ * with its class descriptor and handle, for each one of them.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see org.cloudbus.cloudsim.core.SimulationContext#saveCheckpoint(java.nio.file.Path)
+ */
+public final class HistorySerializer {
+
+	private HistorySerializer() {
+	}
+
+	/**
+	 * Writes a list of values.
+	 *
+	 * @param out the output
+	 * @param values the values, which may be <tt>null</tt>
+	 * @throws IOException if the values can't be written
+	 */
+	public static void writeDoubles(DataOutput out, List<Double> values) throws IOException {
+		if (values == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(values.size());
+		for (double value : values) {
+			out.writeDouble(value);
+		}
+	}
+
+	/**
+	 * Reads a list of values written by {@link #writeDoubles(DataOutput, List)}.
+	 *
+	 * @param in the input
+	 * @return the values, or <tt>null</tt> if a null list was written
+	 * @throws IOException if the values can't be read
+	 */
+	public static List<Double> readDoubles(DataInput in) throws IOException {
+		int size = in.readInt();
+		if (size < 0) {
+			return null;
+		}
+		List<Double> values = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			values.add(in.readDouble());
+		}
+		return values;
+	}
+
+	/**
+	 * Writes a list of lists of values, such as histories indexed by host id.
+	 *
+	 * @param out the output
+	 * @param lists the lists, some of which may be <tt>null</tt>
+	 * @throws IOException if the values can't be written
+	 */
+	public static void writeDoubleLists(DataOutput out, List<List<Double>> lists) throws IOException {
+		out.writeInt(lists.size());
+		for (List<Double> values : lists) {
+			writeDoubles(out, values);
+		}
+	}
+
+	/**
+	 * Reads a list of lists of values written by {@link #writeDoubleLists(DataOutput, List)}.
+	 *
+	 * @param in the input
+	 * @param lists the list where the lists are added
+	 * @throws IOException if the values can't be read
+	 */
+	public static void readDoubleLists(DataInput in, List<List<Double>> lists) throws IOException {
+		for (int i = in.readInt(); i > 0; i--) {
+			lists.add(readDoubles(in));
+		}
+	}
+
+	/**
+	 * Writes lists of values by id.
+	 *
+	 * @param out the output
+	 * @param lists the lists of values, by id
+	 * @throws IOException if the values can't be written
+	 */
+	public static void writeDoubleMap(DataOutput out, Map<Integer, List<Double>> lists) throws IOException {
+		out.writeInt(lists.size());
+		for (Map.Entry<Integer, List<Double>> entry : lists.entrySet()) {
+			out.writeInt(entry.getKey());
+			writeDoubles(out, entry.getValue());
+		}
+	}
+
+	/**
+	 * Reads lists of values by id written by {@link #writeDoubleMap(DataOutput, Map)}.
+	 *
+	 * @param in the input
+	 * @return the lists of values, by id
+	 * @throws IOException if the values can't be read
+	 */
+	public static Map<Integer, List<Double>> readDoubleMap(DataInput in) throws IOException {
+		int size = in.readInt();
+		Map<Integer, List<Double>> lists = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			int id = in.readInt();
+			lists.put(id, readDoubles(in));
+		}
+		return lists;
+	}
+
+	/**
+	 * Writes the state history of a host.
+	 *
+	 * @param out the output
+	 * @param history the state history
+	 * @throws IOException if the history can't be written
+	 */
+	public static void writeHostStates(DataOutput out, List<HostStateHistoryEntry> history) throws IOException {
+		out.writeInt(history.size());
+		for (HostStateHistoryEntry entry : history) {
+			out.writeDouble(entry.getTime());
+			out.writeDouble(entry.getAllocatedMips());
+			out.writeDouble(entry.getRequestedMips());
+			out.writeBoolean(entry.isActive());
+		}
+	}
+
+	/**
+	 * Reads the state history of a host written by {@link #writeHostStates(DataOutput, List)}.
+	 *
+	 * @param in the input
+	 * @return the state history
+	 * @throws IOException if the history can't be read
+	 */
+	public static List<HostStateHistoryEntry> readHostStates(DataInput in) throws IOException {
+		int size = in.readInt();
+		List<HostStateHistoryEntry> history = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			history.add(new HostStateHistoryEntry(in.readDouble(), in.readDouble(), in.readDouble(), in.readBoolean()));
+		}
+		return history;
+	}
+
+	/**
+	 * Writes the state history of a VM or container.
+	 *
+	 * @param out the output
+	 * @param history the state history
+	 * @throws IOException if the history can't be written
+	 */
+	public static void writeVmStates(DataOutput out, List<VmStateHistoryEntry> history) throws IOException {
+		out.writeInt(history.size());
+		for (VmStateHistoryEntry entry : history) {
+			out.writeDouble(entry.getTime());
+			out.writeDouble(entry.getAllocatedMips());
+			out.writeDouble(entry.getRequestedMips());
+			out.writeBoolean(entry.isInMigration());
+		}
+	}
+
+	/**
+	 * Reads the state history of a VM or container written by
+	 * {@link #writeVmStates(DataOutput, List)}.
+	 *
+	 * @param in the input
+	 * @return the state history
+	 * @throws IOException if the history can't be read
+	 */
+	public static List<VmStateHistoryEntry> readVmStates(DataInput in) throws IOException {
+		int size = in.readInt();
+		List<VmStateHistoryEntry> history = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			history.add(new VmStateHistoryEntry(in.readDouble(), in.readDouble(), in.readDouble(), in.readBoolean()));
+		}
+		return history;
+	}
+
+}
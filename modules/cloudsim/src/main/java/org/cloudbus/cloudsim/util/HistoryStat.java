@@ -1,5 +1,6 @@
 package org.cloudbus.cloudsim.util;
 
+import java.io.Serial;
 import java.util.ArrayDeque;
 import java.util.Comparator;
 import java.util.PriorityQueue;
@@ -11,6 +12,10 @@ import java.util.PriorityQueue;
  * @TODO The implementation needs to be completed with all methods from the ArrayDeque interface.
  */
 public class HistoryStat extends ArrayDeque<Double> {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private final int max_size;
     private double sum = 0.0;
     private PriorityQueue<Double> lower;
@@ -0,0 +1,183 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.Serial;
+import java.util.Arrays;
+
+/**
+ * A map from non-negative ints to doubles, kept in an open-addressing hash table. It replaces a
+ * {@link java.util.HashMap} with {@link Double} values without boxing the keys nor the values.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class IntDoubleMap extends IntKeyTable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * An action run on each entry of a map.
+	 */
+	@FunctionalInterface
+	public interface EntryConsumer {
+
+		/**
+		 * Runs the action on an entry.
+		 *
+		 * @param key the key
+		 * @param value the value
+		 */
+		void accept(int key, double value);
+	}
+
+	/** The values of the slots. */
+	private double[] values;
+
+	/**
+	 * Creates an empty map.
+	 */
+	public IntDoubleMap() {
+		this(0);
+	}
+
+	/**
+	 * Creates an empty map.
+	 *
+	 * @param expectedSize the number of entries the map should hold without growing
+	 */
+	public IntDoubleMap(int expectedSize) {
+		super(expectedSize);
+	}
+
+	/**
+	 * Gets the value of a key.
+	 *
+	 * @param key the key
+	 * @param defaultValue the value returned if the map does not have the key
+	 * @return the value, or the default value if the map does not have the key
+	 */
+	public double getOrDefault(int key, double defaultValue) {
+		int slot = find(key);
+		return slot < 0 ? defaultValue : values[slot];
+	}
+
+	/**
+	 * Sets the value of a key.
+	 *
+	 * @param key the key, which cannot be negative
+	 * @param value the value
+	 */
+	public void put(int key, double value) {
+		int slot = insert(key);
+		values[slot < 0 ? ~slot : slot] = value;
+	}
+
+	/**
+	 * Removes a key.
+	 *
+	 * @param key the key
+	 * @return true, if the map had the key
+	 */
+	public boolean remove(int key) {
+		int slot = find(key);
+		if (slot < 0) {
+			return false;
+		}
+		removeAt(slot);
+		return true;
+	}
+
+	/**
+	 * Runs an action on each entry of the map, in the order of iteration. The action must not
+	 * add or remove keys.
+	 *
+	 * @param action the action
+	 */
+	public void forEach(EntryConsumer action) {
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (keys[slot] != FREE) {
+				action.accept(keys[slot], values[slot]);
+			}
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof IntDoubleMap other) || other.size() != size()) {
+			return false;
+		}
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (keys[slot] != FREE) {
+				int otherSlot = other.find(keys[slot]);
+				if (otherSlot < 0 || Double.compare(values[slot], other.values[otherSlot]) != 0) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (keys[slot] != FREE) {
+				hash += keys[slot] ^ Double.hashCode(values[slot]);
+			}
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		forEach((key, value) -> {
+			if (sb.length() > 1) {
+				sb.append(", ");
+			}
+			sb.append(key).append('=').append(value);
+		});
+		return sb.append('}').toString();
+	}
+
+	@Override
+	Object values() {
+		return values;
+	}
+
+	@Override
+	void allocateValues(int capacity) {
+		values = new double[capacity];
+	}
+
+	@Override
+	void copyValue(Object oldValues, int from, int to) {
+		values[to] = ((double[]) oldValues)[from];
+	}
+
+	@Override
+	void moveValue(int from, int to) {
+		values[to] = values[from];
+	}
+
+	@Override
+	void clearValue(int slot) {
+		values[slot] = 0;
+	}
+
+	@Override
+	void clearValues() {
+		Arrays.fill(values, 0);
+	}
+
+}
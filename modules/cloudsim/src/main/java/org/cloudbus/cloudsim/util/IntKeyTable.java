@@ -0,0 +1,281 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The keys of an open-addressing hash table whose keys are non-negative ints, such as the
+ * {@link org.cloudbus.cloudsim.core.GuestEntity#getIndex() indices of the guests}. The table uses
+ * linear probing and keeps at most half of its slots used; removing a key shifts back the keys
+ * which follow it, so the table never holds deleted slots. The subclasses keep the values in
+ * arrays parallel to the keys.
+ * <p>
+ * The entries are iterated in the order of their slots, which only depends on the keys and on
+ * the order they were put in the table.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+abstract class IntKeyTable implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/** The key of the free slots. */
+	static final int FREE = -1;
+
+	/** The keys of the slots. */
+	int[] keys;
+
+	/** The number of keys in the table. */
+	private int size;
+
+	/**
+	 * Creates a table.
+	 *
+	 * @param expectedSize the number of keys the table should hold without growing
+	 */
+	IntKeyTable(int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("The expected size cannot be negative");
+		}
+		allocate(capacityFor(expectedSize));
+	}
+
+	/**
+	 * Gets the number of keys in the table.
+	 *
+	 * @return the number of keys
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the table has no key.
+	 *
+	 * @return true, if the table is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Checks if the table has a key.
+	 *
+	 * @param key the key
+	 * @return true, if the table has the key
+	 */
+	public boolean containsKey(int key) {
+		return find(key) >= 0;
+	}
+
+	/**
+	 * Gets the keys of the table, in the order of iteration.
+	 *
+	 * @return a new array with the keys
+	 */
+	public int[] keys() {
+		int[] result = new int[size];
+		int n = 0;
+		for (int key : keys) {
+			if (key != FREE) {
+				result[n++] = key;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Removes all the keys of the table.
+	 */
+	public void clear() {
+		if (size > 0) {
+			Arrays.fill(keys, FREE);
+			clearValues();
+			size = 0;
+		}
+	}
+
+	/**
+	 * Removes all the keys of the table, and sizes it as a new table. The keys put afterwards are
+	 * then iterated in the same order as in a new table.
+	 *
+	 * @param expectedSize the number of keys the table should hold without growing
+	 */
+	public void clear(int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("The expected size cannot be negative");
+		}
+		int capacity = capacityFor(expectedSize);
+		if (capacity == keys.length) {
+			clear();
+		} else {
+			allocate(capacity);
+			size = 0;
+		}
+	}
+
+	/**
+	 * Finds the slot of a key.
+	 *
+	 * @param key the key
+	 * @return the slot, or a negative number if the table does not have the key
+	 */
+	final int find(int key) {
+		if (key < 0) {
+			return -1;
+		}
+		int mask = keys.length - 1;
+		for (int slot = home(key, mask); ; slot = (slot + 1) & mask) {
+			int k = keys[slot];
+			if (k == key) {
+				return slot;
+			}
+			if (k == FREE) {
+				return -1;
+			}
+		}
+	}
+
+	/**
+	 * Finds the slot of a key, adding the key to the table if it does not have it.
+	 *
+	 * @param key the key
+	 * @return the slot of the key, or the complement (<tt>~slot</tt>) of the slot the key was added to
+	 */
+	final int insert(int key) {
+		if (key < 0) {
+			throw new IllegalArgumentException("The key cannot be negative: " + key);
+		}
+		int slot = find(key);
+		if (slot >= 0) {
+			return slot;
+		}
+		if (2 * (size + 1) > keys.length) {
+			grow();
+		}
+		slot = freeSlot(keys, key);
+		keys[slot] = key;
+		size++;
+		return ~slot;
+	}
+
+	/**
+	 * Removes the key of a slot, shifting back the keys which follow it.
+	 *
+	 * @param slot the slot
+	 */
+	final void removeAt(int slot) {
+		int mask = keys.length - 1;
+		int hole = slot;
+		for (int i = (slot + 1) & mask; keys[i] != FREE; i = (i + 1) & mask) {
+			// the key at i moves to the hole, unless the hole is before its home slot
+			if (((i - home(keys[i], mask)) & mask) >= ((i - hole) & mask)) {
+				keys[hole] = keys[i];
+				moveValue(i, hole);
+				hole = i;
+			}
+		}
+		keys[hole] = FREE;
+		clearValue(hole);
+		size--;
+	}
+
+	/**
+	 * Doubles the number of slots, placing the keys again.
+	 */
+	private void grow() {
+		int[] oldKeys = keys;
+		Object oldValues = values();
+		allocate(2 * oldKeys.length);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != FREE) {
+				int slot = freeSlot(keys, oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				copyValue(oldValues, i, slot);
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		Arrays.fill(keys, FREE);
+		allocateValues(capacity);
+	}
+
+	private static int freeSlot(int[] keys, int key) {
+		int mask = keys.length - 1;
+		int slot = home(key, mask);
+		while (keys[slot] != FREE) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private static int home(int key, int mask) {
+		// Fibonacci hashing spreads consecutive keys
+		int h = key * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	private static int capacityFor(int expectedSize) {
+		int capacity = 4;
+		while (capacity < 2 * expectedSize) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	/**
+	 * Gets the array of values.
+	 *
+	 * @return the values
+	 */
+	abstract Object values();
+
+	/**
+	 * Creates the array of values.
+	 *
+	 * @param capacity the number of slots
+	 */
+	abstract void allocateValues(int capacity);
+
+	/**
+	 * Copies a value from a previous array of values.
+	 *
+	 * @param oldValues the previous array of values
+	 * @param from the slot in the previous array
+	 * @param to the slot in the current array
+	 */
+	abstract void copyValue(Object oldValues, int from, int to);
+
+	/**
+	 * Moves a value to another slot.
+	 *
+	 * @param from the slot of the value
+	 * @param to the new slot
+	 */
+	abstract void moveValue(int from, int to);
+
+	/**
+	 * Clears the value of a free slot.
+	 *
+	 * @param slot the slot
+	 */
+	abstract void clearValue(int slot);
+
+	/**
+	 * Clears the values of all the slots.
+	 */
+	abstract void clearValues();
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A map from non-negative ints to objects, kept in an open-addressing hash table. It replaces a
+ * {@link java.util.HashMap} keyed by {@link Integer} or by strings without boxing the keys nor
+ * creating a node for each entry. The values cannot be <tt>null</tt>.
+ *
+ * @param <V> the type of the values
+ * @since CloudSim Toolkit 7.0
+ */
+public class IntObjectMap<V> extends IntKeyTable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * An action run on each entry of a map.
+	 *
+	 * @param <V> the type of the values
+	 */
+	@FunctionalInterface
+	public interface EntryConsumer<V> {
+
+		/**
+		 * Runs the action on an entry.
+		 *
+		 * @param key the key
+		 * @param value the value
+		 */
+		void accept(int key, V value);
+	}
+
+	/** The values of the slots. */
+	private Object[] values;
+
+	/**
+	 * Creates an empty map.
+	 */
+	public IntObjectMap() {
+		this(0);
+	}
+
+	/**
+	 * Creates an empty map.
+	 *
+	 * @param expectedSize the number of entries the map should hold without growing
+	 */
+	public IntObjectMap(int expectedSize) {
+		super(expectedSize);
+	}
+
+	/**
+	 * Creates a map with the entries of another map.
+	 *
+	 * @param other the other map
+	 */
+	public IntObjectMap(IntObjectMap<? extends V> other) {
+		this(other.size());
+		other.forEach(this::put);
+	}
+
+	/**
+	 * Gets the value of a key.
+	 *
+	 * @param key the key
+	 * @return the value, or <tt>null</tt> if the map does not have the key
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		int slot = find(key);
+		return slot < 0 ? null : (V) values[slot];
+	}
+
+	/**
+	 * Sets the value of a key.
+	 *
+	 * @param key the key, which cannot be negative
+	 * @param value the value
+	 * @return the previous value of the key, or <tt>null</tt> if the map did not have the key
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value) {
+		Objects.requireNonNull(value);
+		int slot = insert(key);
+		if (slot < 0) {
+			values[~slot] = value;
+			return null;
+		}
+		V previous = (V) values[slot];
+		values[slot] = value;
+		return previous;
+	}
+
+	/**
+	 * Removes a key.
+	 *
+	 * @param key the key
+	 * @return the value of the key, or <tt>null</tt> if the map did not have the key
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(int key) {
+		int slot = find(key);
+		if (slot < 0) {
+			return null;
+		}
+		V previous = (V) values[slot];
+		removeAt(slot);
+		return previous;
+	}
+
+	/**
+	 * Runs an action on each entry of the map, in the order of iteration. The action must not
+	 * add or remove keys.
+	 *
+	 * @param action the action
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(EntryConsumer<? super V> action) {
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (keys[slot] != FREE) {
+				action.accept(keys[slot], (V) values[slot]);
+			}
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof IntObjectMap<?> other) || other.size() != size()) {
+			return false;
+		}
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (keys[slot] != FREE && !values[slot].equals(other.get(keys[slot]))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (keys[slot] != FREE) {
+				hash += keys[slot] ^ values[slot].hashCode();
+			}
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		forEach((key, value) -> {
+			if (sb.length() > 1) {
+				sb.append(", ");
+			}
+			sb.append(key).append('=').append(value);
+		});
+		return sb.append('}').toString();
+	}
+
+	@Override
+	Object values() {
+		return values;
+	}
+
+	@Override
+	void allocateValues(int capacity) {
+		values = new Object[capacity];
+	}
+
+	@Override
+	void copyValue(Object oldValues, int from, int to) {
+		values[to] = ((Object[]) oldValues)[from];
+	}
+
+	@Override
+	void moveValue(int from, int to) {
+		values[to] = values[from];
+	}
+
+	@Override
+	void clearValue(int slot) {
+		values[slot] = null;
+	}
+
+	@Override
+	void clearValues() {
+		Arrays.fill(values, null);
+	}
+
+}
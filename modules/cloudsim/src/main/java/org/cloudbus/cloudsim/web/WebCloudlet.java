@@ -4,6 +4,8 @@ import org.cloudbus.cloudsim.EX.disk.DataItem;
 import org.cloudbus.cloudsim.EX.disk.HddCloudlet;
 import org.cloudbus.cloudsim.EX.util.Textualize;
 
+import java.io.Serial;
+
 /**
  * A web cloudlet is a cloudlet, which is a part of a web session. Usually it is
  * small in terms of RAM and CPU. Each web cloudlet is contained within a web
@@ -23,6 +25,9 @@ import org.cloudbus.cloudsim.EX.util.Textualize;
         "CloudletLength", "CloudletIOLength", "ActualCPUTime", "FinishTime", "CloudletStatusString", "Finished" })
 public class WebCloudlet extends HddCloudlet {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private final double idealStartTime;
     private int sessionId;
 
@@ -10,6 +10,7 @@ import org.cloudbus.cloudsim.EX.util.CustomLog;
 import org.cloudbus.cloudsim.EX.vm.VmStatus;
 import org.cloudbus.cloudsim.web.ILoadBalancer;
 
+import java.io.Serial;
 import java.util.*;
 
 /**
@@ -22,6 +23,9 @@ import java.util.*;
  */
 public class CompressedAutoscalingPolicy implements IAutoscalingPolicy {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private final StringBuilder debugSB = new StringBuilder();
 
     private final long appId;
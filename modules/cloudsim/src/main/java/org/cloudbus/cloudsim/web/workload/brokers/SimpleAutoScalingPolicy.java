@@ -9,6 +9,7 @@ import org.cloudbus.cloudsim.EX.util.CustomLog;
 import org.cloudbus.cloudsim.EX.vm.VmStatus;
 import org.cloudbus.cloudsim.web.ILoadBalancer;
 
+import java.io.Serial;
 import java.util.EnumSet;
 import java.util.List;
 
@@ -19,6 +20,9 @@ import java.util.List;
  */
 public class SimpleAutoScalingPolicy implements IAutoscalingPolicy {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private final double scaleUpCPUTrigger;
     private final double scaleDownCPUTrigger;
     private final double coolDownPeriod;
@@ -11,6 +11,10 @@ import org.cloudbus.cloudsim.EX.util.CustomLog;
 import org.cloudbus.cloudsim.web.*;
 import org.cloudbus.cloudsim.web.workload.IWorkloadGenerator;
 
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.util.*;
 import java.util.logging.Level;
 
@@ -19,11 +23,18 @@ import java.util.logging.Level;
  * it handles. The broker submits the cloudlets of the provided web sessions
  * continuously over a specified period. Consequently clients must specify the
  * endpoint (in terms of time) of the simulation.
+ * <p>
+ * A web broker can't be saved in a checkpoint, since its workload generators and entry points
+ * hold iterators, number generators and geolocation databases that can't be restored.
  * 
  * @author nikolay.grozev
  * 
  */
 public class WebBroker extends MonitoringBrokerEX {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
     private boolean isTimerRunning = false;
     private final double stepPeriod;
     private final Map<Long, ILoadBalancer> appsToLoadBalancers = new HashMap<>();
@@ -473,4 +484,10 @@ public class WebBroker extends MonitoringBrokerEX {
         return result;
     }
 
+    @Serial
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        throw new NotSerializableException(getClass().getName()
+                + ": the workload generators and entry points of a web broker can't be saved in a checkpoint");
+    }
+
 }
@@ -0,0 +1,185 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class CloudletSchedulerProcessorSharingTest {
+
+	private static final double MIPS = 1000;
+
+	private static Cloudlet createCloudlet(int id, long length, int pes) {
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		Cloudlet cloudlet = new Cloudlet(id, length, pes, 300, 300, utilizationModel, utilizationModel, utilizationModel);
+		cloudlet.setResourceParameter(0, 0);
+		return cloudlet;
+	}
+
+	private static List<Double> mipsShare(int pes) {
+		List<Double> mipsShare = new ArrayList<>();
+		for (int i = 0; i < pes; i++) {
+			mipsShare.add(MIPS);
+		}
+		return mipsShare;
+	}
+
+	@Test
+	public void testSharedPe() throws Exception {
+		new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			CloudletSchedulerProcessorSharing scheduler = new CloudletSchedulerProcessorSharing();
+			List<Double> mipsShare = mipsShare(1);
+			assertEquals(0, scheduler.updateCloudletsProcessing(0, mipsShare), 0);
+
+			Cloudlet short_ = createCloudlet(0, 1000, 1);
+			Cloudlet long_ = createCloudlet(1, 2000, 1);
+			assertEquals(1, scheduler.cloudletSubmit(short_), 0);
+			assertEquals(4, scheduler.cloudletSubmit(long_), 0);
+			assertEquals(MIPS / 2, scheduler.getCurrentCapacity(), 0);
+
+			assertEquals(2, scheduler.updateCloudletsProcessing(0, mipsShare), 0);
+			assertEquals(3, scheduler.updateCloudletsProcessing(2, mipsShare), 0);
+			assertSame(short_, scheduler.getNextFinishedCloudlet());
+			assertEquals(Cloudlet.CloudletStatus.SUCCESS, short_.getStatus());
+			assertEquals(1, scheduler.runningCloudlets());
+
+			assertEquals(0, scheduler.updateCloudletsProcessing(3, mipsShare), 0);
+			assertSame(long_, scheduler.getNextFinishedCloudlet());
+			assertEquals(0, scheduler.runningCloudlets());
+			return null;
+		});
+	}
+
+	@Test
+	public void testPauseAndResume() throws Exception {
+		new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			CloudletSchedulerProcessorSharing scheduler = new CloudletSchedulerProcessorSharing();
+			List<Double> mipsShare = mipsShare(2);
+			scheduler.updateCloudletsProcessing(0, mipsShare);
+
+			Cloudlet cloudlet = createCloudlet(0, 4000, 2);
+			scheduler.cloudletSubmit(cloudlet);
+			assertEquals(2, scheduler.updateCloudletsProcessing(0, mipsShare), 0);
+			scheduler.updateCloudletsProcessing(1, mipsShare);
+
+			assertTrue(scheduler.cloudletPause(cloudlet.getCloudletId()));
+			assertEquals(Cloudlet.CloudletStatus.PAUSED, cloudlet.getStatus());
+			assertEquals(2000, cloudlet.getCloudletFinishedSoFar());
+			assertEquals(0, scheduler.runningCloudlets());
+			assertEquals(0, scheduler.updateCloudletsProcessing(5, mipsShare), 0);
+
+			scheduler.cloudletResume(cloudlet.getCloudletId());
+			assertEquals(Cloudlet.CloudletStatus.INEXEC, cloudlet.getStatus());
+			assertEquals(6, scheduler.updateCloudletsProcessing(5, mipsShare), 0);
+			assertEquals(0, scheduler.updateCloudletsProcessing(6, mipsShare), 0);
+			assertSame(cloudlet, scheduler.getNextFinishedCloudlet());
+			return null;
+		});
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			CloudletSchedulerProcessorSharing scheduler = new CloudletSchedulerProcessorSharing();
+			List<Double> mipsShare = mipsShare(1);
+			scheduler.updateCloudletsProcessing(0, mipsShare);
+
+			Cloudlet cancelled = createCloudlet(0, 1000, 1);
+			Cloudlet other = createCloudlet(1, 1000, 1);
+			scheduler.cloudletSubmit(cancelled);
+			scheduler.cloudletSubmit(other);
+			assertEquals(2, scheduler.updateCloudletsProcessing(0, mipsShare), 0);
+			scheduler.updateCloudletsProcessing(1, mipsShare);
+
+			assertSame(cancelled, scheduler.cloudletCancel(cancelled.getCloudletId()));
+			assertEquals(Cloudlet.CloudletStatus.CANCELED, cancelled.getStatus());
+			assertEquals(500, cancelled.getCloudletFinishedSoFar());
+			assertEquals(MIPS, scheduler.getCurrentCapacity(), 0);
+
+			// the other cloudlet gets the whole PE for its remaining 500 MI
+			assertEquals(1.5, scheduler.updateCloudletsProcessing(1, mipsShare), 0);
+			assertEquals(0, scheduler.updateCloudletsProcessing(1.5, mipsShare), 0);
+			assertSame(other, scheduler.getNextFinishedCloudlet());
+			assertFalse(scheduler.isFinishedCloudlets());
+			return null;
+		});
+	}
+
+	@Test
+	public void testManyCloudlets() throws Exception {
+		int pes = 4;
+		int cloudlets = 1000;
+		Random random = new Random(1);
+		long[] lengths = new long[cloudlets];
+		for (int i = 0; i < cloudlets; i++) {
+			lengths[i] = 1000L * (1 + random.nextInt(100));
+		}
+
+		// all the cloudlets start together, so they finish by length, each running cloudlet
+		// getting a PE or an equal share of the PEs
+		long[] sorted = lengths.clone();
+		Arrays.sort(sorted);
+		Map<Long, Double> expected = new HashMap<>();
+		double time = 0;
+		long executed = 0;
+		for (int i = 0; i < cloudlets; i++) {
+			double capacity = pes * MIPS / Math.max(cloudlets - i, pes);
+			time += (sorted[i] - executed) / capacity;
+			executed = sorted[i];
+			expected.put(sorted[i], time);
+		}
+
+		Map<Integer, Double> finishTimes = new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			CloudletSchedulerProcessorSharing scheduler = new CloudletSchedulerProcessorSharing();
+			List<Double> mipsShare = mipsShare(pes);
+			scheduler.updateCloudletsProcessing(0, mipsShare);
+			for (int i = 0; i < cloudlets; i++) {
+				scheduler.cloudletSubmit(createCloudlet(i, lengths[i], 1));
+			}
+
+			Map<Integer, Double> times = new HashMap<>();
+			double next = scheduler.updateCloudletsProcessing(0, mipsShare);
+			while (next > 0) {
+				double now = next;
+				next = scheduler.updateCloudletsProcessing(now, mipsShare);
+				while (scheduler.isFinishedCloudlets()) {
+					times.put(scheduler.getNextFinishedCloudlet().getCloudletId(), now);
+				}
+			}
+			return times;
+		});
+
+		assertEquals(cloudlets, finishTimes.size());
+		for (int i = 0; i < cloudlets; i++) {
+			double expectedTime = expected.get(lengths[i]);
+			assertEquals(expectedTime, finishTimes.get(i), 1e-6 * expectedTime);
+		}
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class CloudletSchedulerTimeSharedTest {
+
+	private static final double MIPS = 1000;
+
+	private static Cloudlet createCloudlet(int id, long length) {
+		UtilizationModel utilizationModel = new UtilizationModelFull();
+		Cloudlet cloudlet = new Cloudlet(id, length, 1, 300, 300, utilizationModel, utilizationModel, utilizationModel);
+		cloudlet.setResourceParameter(0, 0);
+		return cloudlet;
+	}
+
+	@Test
+	public void testRemainingCloudletsShareFinishedPes() throws Exception {
+		new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			CloudletSchedulerTimeShared scheduler = new CloudletSchedulerTimeShared();
+			List<Double> mipsShare = List.of(MIPS);
+			scheduler.updateCloudletsProcessing(0, mipsShare);
+
+			Cloudlet short_ = createCloudlet(0, 1000);
+			Cloudlet long_ = createCloudlet(1, 3000);
+			scheduler.cloudletSubmit(short_);
+			scheduler.cloudletSubmit(long_);
+			assertEquals(2, scheduler.updateCloudletsProcessing(0, mipsShare), 0);
+			assertEquals(MIPS / 2, scheduler.getCurrentCapacity(), 0);
+
+			// the long cloudlet has the whole PE from the finish of the short one on: it was predicted
+			// to finish at 6, at the half of the PE, until the next update of the scheduler
+			assertEquals(4, scheduler.updateCloudletsProcessing(2, mipsShare), 0);
+			assertSame(short_, scheduler.getNextFinishedCloudlet());
+			assertEquals(MIPS, scheduler.getCurrentCapacity(), 0);
+
+			assertEquals(0, scheduler.updateCloudletsProcessing(4, mipsShare), 0);
+			assertSame(long_, scheduler.getNextFinishedCloudlet());
+			assertEquals(MIPS * 3, long_.getCloudletFinishedSoFar(), 0);
+			return null;
+		});
+	}
+
+}
@@ -0,0 +1,351 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.cloudbus.cloudsim.EX.DatacenterBrokerEX;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.EventJournal;
+import org.cloudbus.cloudsim.core.EventJournalReader;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class DatacenterTest {
+
+	private static final int HOSTS = 50;
+
+	private static final double MIPS = 1000;
+
+	/** The log, the processed events and the returned cloudlets of a simulation. */
+	private record Trace(String log, List<String> events, List<String> cloudlets) {
+	}
+
+	/** A host counting the updates of its cloudlets. */
+	private static class CountingHost extends Host {
+		private final int[] updates;
+
+		CountingHost(int id, int[] updates) {
+			super(id, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000,
+					List.of(new Pe(0, new PeProvisionerSimple(MIPS))), null);
+			setGuestScheduler(new VmSchedulerTimeShared(getPeList()));
+			this.updates = updates;
+		}
+
+		@Override
+		public double updateCloudletsProcessing(double currentTime) {
+			updates[0]++;
+			return super.updateCloudletsProcessing(currentTime);
+		}
+	}
+
+	@Test
+	public void testUpdatesOnlyDueAndDirtyHosts() throws Exception {
+		int[] allUpdates = new int[1];
+		List<Cloudlet> all = run(true, false, allUpdates);
+		int[] dueUpdates = new int[1];
+		List<Cloudlet> due = run(false, false, dueUpdates);
+
+		assertEquals(HOSTS, all.size());
+		assertEquals(HOSTS, due.size());
+		for (int i = 0; i < HOSTS; i++) {
+			// each cloudlet runs alone on its host, for as many seconds as its position
+			assertEquals(i + 1, due.get(i).getActualCPUTime(), 0.05);
+		}
+		assertTrue(dueUpdates[0] * 10 < allUpdates[0]);
+	}
+
+	@Test
+	public void testStaggeredSubmissions() throws Exception {
+		List<Cloudlet> all = runStaggered(true);
+		List<Cloudlet> due = runStaggered(false);
+
+		assertEquals(all.size(), due.size());
+		for (int i = 0; i < all.size(); i++) {
+			assertEquals(all.get(i).getCloudletId(), due.get(i).getCloudletId());
+			// the updates of all the hosts add the minimal interval between events more often
+			assertEquals(all.get(i).getExecFinishTime(), due.get(i).getExecFinishTime(), 0.05);
+		}
+		// a long cloudlet, then a short one sharing its host from 50 s on
+		assertEquals(70, due.get(1).getExecFinishTime(), 0.05);
+		assertEquals(110, due.get(0).getExecFinishTime(), 0.05);
+	}
+
+	@Test
+	public void testBatchVmCreation() throws Exception {
+		List<Cloudlet> single = run(false, false, new int[1]);
+		List<Cloudlet> batch = run(false, true, new int[1]);
+
+		assertEquals(HOSTS, batch.size());
+		for (int i = 0; i < HOSTS; i++) {
+			assertEquals(single.get(i).getExecStartTime(), batch.get(i).getExecStartTime(), 0);
+			assertEquals(single.get(i).getExecFinishTime(), batch.get(i).getExecFinishTime(), 0);
+		}
+	}
+
+	@Test
+	public void testSchedulersBoundOnPlacement() throws Exception {
+		new SimulationContext().call(() -> {
+			CloudSim.init(1, null, false);
+			Log.disable();
+			List<Host> hostList = List.of(new CountingHost(0, new int[1]), new CountingHost(1, new int[1]));
+			DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+					"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+			Datacenter datacenter = new Datacenter("Datacenter_0", characteristics,
+					new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0);
+
+			// no cloudlet is submitted through the datacenter
+			DatacenterBroker broker = new DatacenterBroker("Broker");
+			List<Vm> vmList = new ArrayList<>();
+			for (int i = 0; i < hostList.size(); i++) {
+				vmList.add(new Vm(i, broker.getId(), MIPS, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+			}
+			broker.submitGuestList(vmList);
+
+			CloudSim.startSimulation();
+			Log.enable();
+
+			for (Vm vm : vmList) {
+				assertSame(datacenter.getCompletionQueue(), vm.getCloudletScheduler().getCompletionQueue());
+			}
+			return null;
+		});
+	}
+
+	@Test
+	public void testParallelDispatchMatchesSequential() throws Exception {
+		Trace expected = runBrokers(null);
+		assertTrue(expected.cloudlets().size() > 0);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int i = 0; i < 3; i++) {
+				Trace actual = runBrokers(pool);
+				assertEquals(expected.events(), actual.events());
+				assertEquals(expected.log(), actual.log());
+				assertEquals(expected.cloudlets(), actual.cloudlets());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testOnlyBaseClassesRunInParallel() throws Exception {
+		new SimulationContext().call(() -> {
+			CloudSim.init(1, null, false);
+			List<Host> hostList = List.of(new CountingHost(0, new int[1]));
+			DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+					"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+
+			assertTrue(new Datacenter("Datacenter_0", characteristics,
+					new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0).canRunInParallel());
+			assertFalse(new Datacenter("Datacenter_1", characteristics,
+					new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0) {}.canRunInParallel());
+			assertTrue(new DatacenterBroker("Broker_0").canRunInParallel());
+			assertFalse(new DatacenterBroker("Broker_1") {}.canRunInParallel());
+			return null;
+		});
+	}
+
+	/**
+	 * Runs several brokers sharing several datacenters, whose events often happen at the same
+	 * time, recording the processed events.
+	 *
+	 * @param pool the pool running the entities in parallel, or <tt>null</tt> to run them sequentially
+	 * @return the trace of the simulation
+	 */
+	private static Trace runBrokers(ForkJoinPool pool) throws Exception {
+		Path file = Files.createTempFile("journal", ".bin");
+		try {
+			SimulationContext context = new SimulationContext();
+			ByteArrayOutputStream log = new ByteArrayOutputStream();
+			context.setLogOutput(log);
+			context.setParallelPool(pool);
+			List<String> cloudlets = new ArrayList<>();
+			try (EventJournal journal = new EventJournal(file)) {
+				context.call(() -> {
+					CloudSim.init(3, null, false);
+					CloudSim.setEventJournal(journal);
+					for (int d = 0; d < 3; d++) {
+						List<Host> hostList = new ArrayList<>();
+						for (int h = 0; h < 2; h++) {
+							List<Pe> peList = new ArrayList<>();
+							for (int p = 0; p < 4; p++) {
+								peList.add(new Pe(p, new PeProvisionerSimple(MIPS)));
+							}
+							hostList.add(new Host(h, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000),
+									1000000, peList, new VmSchedulerTimeShared(peList)));
+						}
+						DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+								"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+						new Datacenter("Datacenter_" + d, characteristics,
+								new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0);
+					}
+
+					List<DatacenterBroker> brokers = new ArrayList<>();
+					UtilizationModel utilizationModel = new UtilizationModelFull();
+					for (int b = 0; b < 3; b++) {
+						DatacenterBroker broker = new DatacenterBroker("Broker_" + b);
+						List<Vm> vmList = new ArrayList<>();
+						for (int v = 0; v < 3; v++) {
+							vmList.add(new Vm(b * 3 + v, broker.getId(), MIPS, 2, 512, 1000, 10000, "Xen",
+									new CloudletSchedulerTimeShared()));
+						}
+						List<Cloudlet> cloudletList = new ArrayList<>();
+						for (int c = 0; c < 8; c++) {
+							Cloudlet cloudlet = new Cloudlet(b * 8 + c, (long) ((1 + (c * 7 + b) % 5) * MIPS), 1,
+									300, 300, utilizationModel, utilizationModel, utilizationModel);
+							cloudlet.setUserId(broker.getId());
+							cloudletList.add(cloudlet);
+						}
+						broker.submitGuestList(vmList);
+						broker.submitCloudletList(cloudletList);
+						brokers.add(broker);
+					}
+
+					CloudSim.startSimulation();
+					for (DatacenterBroker broker : brokers) {
+						for (Cloudlet cloudlet : broker.getCloudletReceivedList()) {
+							cloudlets.add(cloudlet.getCloudletId() + " " + cloudlet.getGuestId() + " "
+									+ cloudlet.getResourceId() + " " + cloudlet.getExecStartTime() + " "
+									+ cloudlet.getExecFinishTime() + " " + cloudlet.getStatus());
+						}
+					}
+					return null;
+				});
+			}
+
+			// the data of the events is only told apart by reference, which differs between runs
+			List<String> events = new ArrayList<>();
+			try (EventJournalReader reader = new EventJournalReader(file)) {
+				for (EventJournalReader.Entry e = reader.next(); e != null; e = reader.next()) {
+					events.add(e.time() + " " + e.serial() + " " + e.type() + " " + e.source() + " "
+							+ e.destination() + " " + e.tag() + " " + e.dataClass());
+				}
+			}
+			return new Trace(log.toString(), events, cloudlets);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/**
+	 * Runs cloudlets submitted at different times to hosts already running cloudlets.
+	 *
+	 * @param updateAllHosts whether each update of the datacenter updates all the hosts
+	 * @return the cloudlets, by id
+	 */
+	private static List<Cloudlet> runStaggered(boolean updateAllHosts) throws Exception {
+		return new SimulationContext().call(() -> {
+			CloudSim.init(1, null, false);
+			Log.disable();
+
+			List<Host> hostList = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				hostList.add(new CountingHost(i, new int[1]));
+			}
+			DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+					"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+			Datacenter datacenter = new Datacenter("Datacenter_0", characteristics,
+					new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0);
+			datacenter.setUpdateAllHosts(updateAllHosts);
+
+			DatacenterBrokerEX broker = new DatacenterBrokerEX("Broker");
+			List<Vm> vmList = new ArrayList<>();
+			for (int i = 0; i < hostList.size(); i++) {
+				vmList.add(new Vm(i, broker.getId(), MIPS, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+			}
+			broker.submitGuestList(vmList);
+
+			// the lengths in seconds, the delays and the VMs of the cloudlets
+			double[][] cloudlets = {{100, 0, 0}, {10, 50, 0}, {40, 0, 1}, {30, 15, 1}, {5, 37.5, 1}, {60, 20, 2}, {20, 45, 2}};
+			UtilizationModel utilizationModel = new UtilizationModelFull();
+			for (int i = 0; i < cloudlets.length; i++) {
+				Cloudlet cloudlet = new Cloudlet(i, (long) (cloudlets[i][0] * MIPS), 1, 300, 300,
+						utilizationModel, utilizationModel, utilizationModel);
+				cloudlet.setUserId(broker.getId());
+				cloudlet.setGuestId((int) cloudlets[i][2]);
+				broker.submitCloudletList(List.of(cloudlet), cloudlets[i][1]);
+			}
+
+			CloudSim.startSimulation();
+			Log.enable();
+
+			List<Cloudlet> received = new ArrayList<>(broker.getCloudletReceivedList());
+			received.sort((a, b) -> Integer.compare(a.getCloudletId(), b.getCloudletId()));
+			return received;
+		});
+	}
+
+	/**
+	 * Runs a cloudlet on each host, the cloudlets finishing one second apart.
+	 *
+	 * @param updateAllHosts whether each update of the datacenter updates all the hosts
+	 * @param batchVmCreation whether the broker requests all the VMs in a single event
+	 * @param updates counts the updates of the hosts
+	 * @return the cloudlets, by id
+	 */
+	private static List<Cloudlet> run(boolean updateAllHosts, boolean batchVmCreation, int[] updates) throws Exception {
+		return new SimulationContext().call(() -> {
+			CloudSim.init(1, null, false);
+			Log.disable();
+
+			List<Host> hostList = new ArrayList<>();
+			for (int i = 0; i < HOSTS; i++) {
+				hostList.add(new CountingHost(i, updates));
+			}
+			DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+					"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+			Datacenter datacenter = new Datacenter("Datacenter_0", characteristics,
+					new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0);
+			datacenter.setUpdateAllHosts(updateAllHosts);
+
+			DatacenterBroker broker = new DatacenterBroker("Broker");
+			broker.setBatchVmCreation(batchVmCreation);
+			List<Vm> vmList = new ArrayList<>();
+			List<Cloudlet> cloudletList = new ArrayList<>();
+			UtilizationModel utilizationModel = new UtilizationModelFull();
+			for (int i = 0; i < HOSTS; i++) {
+				vmList.add(new Vm(i, broker.getId(), MIPS, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+				Cloudlet cloudlet = new Cloudlet(i, (long) ((i + 1) * MIPS), 1, 300, 300,
+						utilizationModel, utilizationModel, utilizationModel);
+				cloudlet.setUserId(broker.getId());
+				cloudlet.setGuestId(i);
+				cloudletList.add(cloudlet);
+			}
+			broker.submitGuestList(vmList);
+			broker.submitCloudletList(cloudletList);
+
+			CloudSim.startSimulation();
+			Log.enable();
+
+			List<Cloudlet> received = new ArrayList<>(broker.getCloudletReceivedList());
+			received.sort((a, b) -> Integer.compare(a.getCloudletId(), b.getCloudletId()));
+			return received;
+		});
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class MipsShareTest {
+
+	@Test
+	public void testCopyOf() {
+		double[] mips = { 100, 200, 300 };
+		MipsShare mipsShare = MipsShare.copyOf(mips, 2, null);
+		assertEquals(List.of(100.0, 200.0), mipsShare);
+		assertSame(mipsShare, MipsShare.copyOf(mips, 2, mipsShare));
+
+		mips[1] = 250;
+		MipsShare changed = MipsShare.copyOf(mips, 2, mipsShare);
+		assertNotSame(mipsShare, changed);
+		assertEquals(List.of(100.0, 250.0), changed);
+		assertEquals(List.of(100.0, 200.0), mipsShare);
+		assertSame(MipsShare.EMPTY, MipsShare.copyOf(mips, 0, null));
+	}
+
+	@Test
+	public void testUniform() {
+		MipsShare mipsShare = MipsShare.uniform(3, 500);
+		assertEquals(Arrays.asList(500.0, 500.0, 500.0), mipsShare);
+		assertTrue(mipsShare.isUniform(3, 500));
+		assertFalse(mipsShare.isUniform(2, 500));
+		assertFalse(mipsShare.isUniform(3, 400));
+		assertEquals(1500, mipsShare.getTotalMips(), 0);
+		assertEquals(500, mipsShare.getMaxMips(), 0);
+	}
+
+	@Test
+	public void testWithoutIdlePes() {
+		MipsShare mipsShare = MipsShare.of(100, 0, 300, -1);
+		assertEquals(List.of(100.0, 300.0), mipsShare.withoutIdlePes());
+		MipsShare busy = MipsShare.of(100, 300);
+		assertSame(busy, busy.withoutIdlePes());
+	}
+
+	@Test
+	public void testCopyTo() {
+		double[] array = MipsShare.of(1, 2).copyTo(new double[1], 0);
+		array = MipsShare.of(3).copyTo(array, 2);
+		assertEquals(1, array[0], 0);
+		assertEquals(2, array[1], 0);
+		assertEquals(3, array[2], 0);
+	}
+
+}
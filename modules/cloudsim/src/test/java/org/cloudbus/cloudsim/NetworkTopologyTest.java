@@ -0,0 +1,43 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.List;
+
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class NetworkTopologyTest {
+
+	@Test
+	public void testGetMinDelay() throws Exception {
+		new SimulationContext().call(() -> {
+			assertEquals(0, NetworkTopology.getMinDelay(List.of(1), List.of(2)), 0);
+
+			NetworkTopology.addLink(1, 2, 1000, 2);
+			NetworkTopology.addLink(2, 3, 1000, 3);
+			assertEquals(2, NetworkTopology.getMinDelay(List.of(1), List.of(2, 3)), 0);
+			assertEquals(5, NetworkTopology.getMinDelay(List.of(1), List.of(3)), 0);
+			assertEquals(3, NetworkTopology.getMinDelay(List.of(2), List.of(3)), 0);
+			assertEquals(0, NetworkTopology.getMinDelay(List.of(1), List.of(1)), 0);
+			assertEquals(0, NetworkTopology.getMinDelay(List.of(1), List.of(4)), 0);
+			return null;
+		});
+
+		// the topology of the default context is not changed
+		assertFalse(NetworkTopology.isNetworkEnabled());
+	}
+
+}
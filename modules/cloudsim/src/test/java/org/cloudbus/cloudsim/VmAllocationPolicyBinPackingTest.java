@@ -0,0 +1,119 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.VmAllocationPolicyBinPacking.Heuristic;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class VmAllocationPolicyBinPackingTest {
+
+	/** The MIPS, equal to the RAM, of each host. */
+	private static final int[] HOST_SIZES = {1000, 4000, 2000};
+
+	@After
+	public void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testFirstFitDecreasing() throws Exception {
+		// the large VM is placed first, on the first host large enough
+		assertEquals(List.of(0, 1, 0), place(Heuristic.FIRST_FIT_DECREASING));
+	}
+
+	@Test
+	public void testBestFitDecreasing() throws Exception {
+		// each VM goes to the host it leaves with the least free resources
+		assertEquals(List.of(2, 2, 0), place(Heuristic.BEST_FIT_DECREASING));
+	}
+
+	@Test
+	public void testDotProduct() throws Exception {
+		// each VM goes to the host with the most free resources in the directions of its demands,
+		// the last VM to the host with more free bandwidth and storage among two hosts
+		assertEquals(List.of(1, 1, 2), place(Heuristic.DOT_PRODUCT));
+	}
+
+	@Test
+	public void testNoSuitableHost() throws Exception {
+		new SimulationContext().call(() -> {
+			VmAllocationPolicy policy = createDatacenter(Heuristic.BEST_FIT_DECREASING);
+			List<Vm> vms = List.of(createVm(0, 5000), createVm(1, 500));
+
+			assertNull(policy.findHostForGuest(vms.get(0)));
+			assertFalse(policy.allocateHostForGuest(vms.get(0)));
+			BitSet allocated = policy.allocateHostsForGuests(vms);
+			assertFalse(allocated.get(0));
+			assertTrue(allocated.get(1));
+			return null;
+		});
+	}
+
+	/**
+	 * Places a small VM, a large VM then a small VM at once.
+	 *
+	 * @param heuristic the heuristic
+	 * @return the id of the host of each VM, in the order of the VMs
+	 */
+	private static List<Integer> place(Heuristic heuristic) throws Exception {
+		return new SimulationContext().call(() -> {
+			VmAllocationPolicy policy = createDatacenter(heuristic);
+			List<Vm> vms = List.of(createVm(0, 500), createVm(1, 1500), createVm(2, 500));
+
+			BitSet allocated = policy.allocateHostsForGuests(vms);
+			assertEquals(vms.size(), allocated.cardinality());
+			List<Integer> hosts = new ArrayList<>();
+			for (Vm vm : vms) {
+				hosts.add(vm.getHost().getId());
+			}
+			return hosts;
+		});
+	}
+
+	private static VmAllocationPolicy createDatacenter(Heuristic heuristic) throws Exception {
+		CloudSim.init(1, null, false);
+		Log.disable();
+
+		List<Host> hostList = new ArrayList<>();
+		for (int i = 0; i < HOST_SIZES.length; i++) {
+			List<Pe> peList = List.of(new Pe(0, new PeProvisionerSimple(HOST_SIZES[i])));
+			hostList.add(new Host(i, new RamProvisionerSimple(HOST_SIZES[i]), new BwProvisionerSimple(10000), 1000000,
+					peList, new VmSchedulerTimeShared(peList)));
+		}
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		VmAllocationPolicyBinPacking policy = new VmAllocationPolicyBinPacking(hostList, heuristic);
+		new Datacenter("Datacenter_0", characteristics, policy, new LinkedList<>(), 0);
+		return policy;
+	}
+
+	private static Vm createVm(int id, int size) {
+		return new Vm(id, 0, size, 1, size, 1000, 10000, "Xen", new CloudletSchedulerTimeShared());
+	}
+
+}
@@ -12,7 +12,9 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
@@ -242,4 +244,31 @@ public class VmSchedulerTimeSharedOverSubscriptionTest {
 		assertEquals(1000, vmScheduler.getMaxAvailableMips(), 0);
 	}
 
+	@Test
+	public void testReallocateAll() {
+		List<Pe> otherPeList = new ArrayList<>();
+		otherPeList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+		otherPeList.add(new Pe(1, new PeProvisionerSimple(MIPS)));
+		VmSchedulerTimeSharedOverSubscription otherScheduler = new VmSchedulerTimeSharedOverSubscription(otherPeList);
+
+		// the host is over-subscribed, then the second VM requests less
+		Map<Vm, List<Double>> requestedByGuest = new LinkedHashMap<>();
+		requestedByGuest.put(vm1, List.of(MIPS));
+		requestedByGuest.put(vm2, List.of(MIPS, MIPS));
+		for (List<Double> mipsShare : List.of(List.of(MIPS, MIPS), List.of(MIPS / 2, MIPS / 4))) {
+			requestedByGuest.put(vm2, mipsShare);
+			vmScheduler.reallocateAll(requestedByGuest);
+			for (Vm vm : requestedByGuest.keySet()) {
+				otherScheduler.deallocatePesForGuest(vm);
+			}
+			for (Map.Entry<Vm, List<Double>> entry : requestedByGuest.entrySet()) {
+				otherScheduler.allocatePesForGuest(entry.getKey(), entry.getValue());
+			}
+
+			assertEquals(otherScheduler.getMipsMapAllocated(), vmScheduler.getMipsMapAllocated());
+			assertEquals(otherScheduler.getAvailableMips(), vmScheduler.getAvailableMips(), 0);
+		}
+		assertEquals(PeList.getTotalMips(peList) - MIPS - MIPS / 2 - MIPS / 4, vmScheduler.getAvailableMips(), 0);
+	}
+
 }
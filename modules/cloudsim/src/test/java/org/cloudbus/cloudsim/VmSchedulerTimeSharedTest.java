@@ -8,11 +8,16 @@
 package org.cloudbus.cloudsim;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
@@ -159,4 +164,309 @@ public class VmSchedulerTimeSharedTest {
 		assertEquals(0, vmScheduler.getTotalAllocatedMipsForGuest(vm2), 0);
 	}
 
+	@Test
+	public void testDeallocatePesForVmKeepsOtherPes() {
+		assertTrue(vmScheduler.allocatePesForGuest(vm1, List.of(MIPS / 4)));
+		assertTrue(vmScheduler.allocatePesForGuest(vm2, List.of(MIPS / 2, MIPS / 8)));
+		List<Pe> pes = new ArrayList<>(vmScheduler.getPesAllocatedForGuest(vm2));
+
+		vmScheduler.deallocatePesForGuest(vm1);
+
+		assertEquals(PeList.getTotalMips(peList) - MIPS / 2 - MIPS / 8, vmScheduler.getAvailableMips(), 0);
+		assertEquals(MIPS / 2 + MIPS / 8, vmScheduler.getTotalAllocatedMipsForGuest(vm2), 0);
+		assertEquals(pes, vmScheduler.getPesAllocatedForGuest(vm2));
+		assertEquals(MIPS / 2 + MIPS / 8, getTotalAllocatedMipsOnPes(), 0);
+	}
+
+	@Test
+	public void testReallocateAll() {
+		List<Pe> otherPeList = new ArrayList<>();
+		otherPeList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+		otherPeList.add(new Pe(1, new PeProvisionerSimple(MIPS)));
+		VmSchedulerTimeShared otherScheduler = new VmSchedulerTimeShared(otherPeList);
+
+		Map<Vm, List<Double>> requestedByGuest = new LinkedHashMap<>();
+		requestedByGuest.put(vm1, List.of(MIPS / 4));
+		requestedByGuest.put(vm2, List.of(MIPS / 2, MIPS / 8));
+		vmScheduler.reallocateAll(requestedByGuest);
+		reallocateOneByOne(otherScheduler, requestedByGuest);
+		assertEquals(otherScheduler.getMipsMapAllocated(), vmScheduler.getMipsMapAllocated());
+		assertEquals(otherScheduler.getAvailableMips(), vmScheduler.getAvailableMips(), 0);
+		List<Pe> pes = new ArrayList<>(vmScheduler.getPesAllocatedForGuest(vm2));
+
+		// only the first VM changes, so the PEs of the second one are kept
+		requestedByGuest.put(vm1, List.of(MIPS));
+		vmScheduler.reallocateAll(requestedByGuest);
+		reallocateOneByOne(otherScheduler, requestedByGuest);
+		assertEquals(otherScheduler.getMipsMapAllocated(), vmScheduler.getMipsMapAllocated());
+		assertEquals(otherScheduler.getAvailableMips(), vmScheduler.getAvailableMips(), 0);
+		assertEquals(pes, vmScheduler.getPesAllocatedForGuest(vm2));
+		assertEquals(MIPS + MIPS / 2 + MIPS / 8, getTotalAllocatedMipsOnPes(), 0);
+	}
+
+	@Test
+	public void testReallocateAllKeepsMipsShares() {
+		List<Vm> guests = List.of(vm1, vm2);
+		vmScheduler.reallocateAll(guests);
+		MipsShare mipsShare = vmScheduler.getAllocatedMipsShareForGuest(vm2);
+		assertEquals(List.of(MIPS / 2, MIPS / 2), mipsShare);
+
+		// the VMs request the same MIPS, so their MIPS shares are kept
+		vmScheduler.reallocateAll(guests);
+		assertSame(mipsShare, vmScheduler.getAllocatedMipsShareForGuest(vm2));
+		assertSame(vm2.getCurrentRequestedMipsShare(), vm2.getCurrentRequestedMipsShare());
+		assertEquals(MIPS / 4 + MIPS, getTotalAllocatedMipsOnPes(), 0);
+	}
+
+	@Test
+	public void testReallocateAllMatchesReleasingAndAllocating() {
+		checkReallocateAllMatchesReleasingAndAllocating(false);
+	}
+
+	@Test
+	public void testReallocateAllMatchesReleasingAndAllocatingOverSubscribed() {
+		checkReallocateAllMatchesReleasingAndAllocating(true);
+	}
+
+	/**
+	 * Allocates again random subsets of VMs with random MIPS and migration states, and checks that
+	 * the scheduler allocates the same MIPS as releasing the PEs of the VMs, then allocating them
+	 * one by one, did before {@link VmSchedulerTimeShared#reallocateAll(Map)}.
+	 */
+	private void checkReallocateAllMatchesReleasingAndAllocating(boolean overSubscription) {
+		Random random = new Random(42);
+		double[] mipsChoices = { 0, MIPS / 8, MIPS / 4, MIPS / 2, 3 * MIPS / 4, MIPS, MIPS + MIPS / 4 };
+		for (int run = 0; run < 20; run++) {
+			List<Pe> pes = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				pes.add(new Pe(i, new PeProvisionerSimple(MIPS)));
+			}
+			VmSchedulerTimeShared scheduler = overSubscription
+					? new VmSchedulerTimeSharedOverSubscription(pes)
+					: new VmSchedulerTimeShared(pes);
+			ReleaseAndAllocate expected = new ReleaseAndAllocate(MIPS, pes.size() * MIPS, overSubscription);
+			List<Vm> vms = new ArrayList<>();
+			for (int i = 0; i < 6; i++) {
+				vms.add(new Vm(i, 0, MIPS, 1 + random.nextInt(3), 0, 0, 0, "", null));
+			}
+
+			for (int round = 0; round < 200; round++) {
+				// the VMs which are not allocated again are allocated in the order of the map,
+				// which is not the order they were allocated in
+				expected.orderAs(scheduler.getMipsMapRequested().keys());
+				if (random.nextInt(10) == 0) {
+					// as a host removes a VM migrating in
+					Vm vm = vms.get(random.nextInt(vms.size()));
+					scheduler.deallocatePesForGuest(vm);
+					expected.deallocate(vm.getIndex());
+					vm.setInMigration(false);
+					scheduler.getGuestsMigratingIn().clear(vm.getIndex());
+					expected.migratingIn.clear(vm.getIndex());
+				} else {
+					Map<Vm, List<Double>> requestedByGuest = new LinkedHashMap<>();
+					for (Vm vm : vms) {
+						if (random.nextInt(3) > 0) {
+							// the first VMs may migrate in and the next ones out, and the VMs
+							// migrating in are marked before their PEs are allocated
+							boolean inMigration = vm.getId() < 4 && random.nextInt(3) == 0;
+							vm.setInMigration(inMigration);
+							scheduler.getGuestsMigratingIn().set(vm.getIndex(), inMigration && vm.getId() < 2);
+							expected.migratingIn.set(vm.getIndex(), inMigration && vm.getId() < 2);
+							List<Double> mipsShare = new ArrayList<>();
+							for (int pe = 0; pe < vm.getNumberOfPes(); pe++) {
+								mipsShare.add(mipsChoices[random.nextInt(mipsChoices.length)]);
+							}
+							requestedByGuest.put(vm, mipsShare);
+						}
+					}
+					scheduler.reallocateAll(requestedByGuest);
+					for (Map.Entry<Vm, List<Double>> entry : requestedByGuest.entrySet()) {
+						expected.deallocate(entry.getKey().getIndex());
+					}
+					for (Map.Entry<Vm, List<Double>> entry : requestedByGuest.entrySet()) {
+						expected.allocate(entry.getKey(), entry.getValue());
+					}
+				}
+
+				assertEquals(expected.availableMips, scheduler.getAvailableMips(), 1e-9);
+				double totalMipsOnPes = 0;
+				for (Vm vm : vms) {
+					List<Double> mipsShare = expected.allocated.get(vm.getIndex());
+					double mipsOnPes = 0;
+					for (Pe pe : pes) {
+						mipsOnPes += pe.getPeProvisioner().getTotalAllocatedMipsForGuest(vm);
+					}
+					if (mipsShare == null) {
+						assertNull(scheduler.getMipsMapAllocated().get(vm.getIndex()));
+						assertEquals(0, mipsOnPes, 0);
+						continue;
+					}
+					assertEquals(mipsShare, scheduler.getMipsMapAllocated().get(vm.getIndex()));
+					double mips = 0;
+					for (double share : mipsShare) {
+						mips += share;
+					}
+					assertEquals(mips, scheduler.getTotalAllocatedMipsForGuest(vm), 1e-9);
+					// the MIPS left of a virtual PE below the rounding error are not provisioned
+					assertEquals(mips, mipsOnPes, 0.1 * mipsShare.size());
+					totalMipsOnPes += mipsOnPes;
+				}
+				assertTrue(totalMipsOnPes <= pes.size() * MIPS + 1e-9);
+			}
+		}
+	}
+
+	private double getTotalAllocatedMipsOnPes() {
+		double totalMips = 0;
+		for (Pe pe : peList) {
+			totalMips += pe.getPeProvisioner().getTotalAllocatedMips();
+		}
+		return totalMips;
+	}
+
+	private static void reallocateOneByOne(VmScheduler scheduler, Map<Vm, List<Double>> requestedByGuest) {
+		for (Vm vm : requestedByGuest.keySet()) {
+			scheduler.deallocatePesForGuest(vm);
+		}
+		for (Map.Entry<Vm, List<Double>> entry : requestedByGuest.entrySet()) {
+			scheduler.allocatePesForGuest(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * The MIPS time shared schedulers allocated when the PEs of the VMs were released, then
+	 * allocated again one VM at a time.
+	 */
+	private static class ReleaseAndAllocate {
+
+		private final double peMips;
+
+		private final double totalMips;
+
+		private final boolean overSubscription;
+
+		private final Map<Integer, List<Double>> requested = new LinkedHashMap<>();
+
+		private final Map<Integer, List<Double>> allocated = new LinkedHashMap<>();
+
+		private final BitSet migratingIn = new BitSet();
+
+		private final BitSet migratingOut = new BitSet();
+
+		private double availableMips;
+
+		ReleaseAndAllocate(double peMips, double totalMips, boolean overSubscription) {
+			this.peMips = peMips;
+			this.totalMips = totalMips;
+			this.overSubscription = overSubscription;
+			availableMips = totalMips;
+		}
+
+		void allocate(Vm vm, List<Double> mipsShareRequested) {
+			int guestIndex = vm.getIndex();
+			if (vm.isInMigration()) {
+				if (!migratingIn.get(guestIndex)) {
+					migratingOut.set(guestIndex);
+				}
+			} else {
+				migratingOut.clear(guestIndex);
+			}
+			allocate(guestIndex, mipsShareRequested);
+		}
+
+		void orderAs(int[] guestIndices) {
+			Map<Integer, List<Double>> ordered = new LinkedHashMap<>();
+			for (int guestIndex : guestIndices) {
+				ordered.put(guestIndex, requested.get(guestIndex));
+			}
+			assertEquals(requested.keySet(), ordered.keySet());
+			requested.clear();
+			requested.putAll(ordered);
+		}
+
+		void deallocate(int guestIndex) {
+			requested.remove(guestIndex);
+			allocated.clear();
+			availableMips = totalMips;
+			for (Map.Entry<Integer, List<Double>> entry : new ArrayList<>(requested.entrySet())) {
+				allocate(entry.getKey(), entry.getValue());
+			}
+		}
+
+		private void allocate(int guestIndex, List<Double> mipsShareRequested) {
+			double totalRequestedMips = 0;
+			List<Double> capped = new ArrayList<>();
+			for (double mips : mipsShareRequested) {
+				if (mips > peMips) {
+					if (!overSubscription) {
+						return;
+					}
+					mips = peMips;
+				}
+				capped.add(mips);
+				totalRequestedMips += mips;
+			}
+			if (!overSubscription && availableMips < totalRequestedMips) {
+				return;
+			}
+
+			requested.put(guestIndex, mipsShareRequested);
+			if (migratingIn.get(guestIndex)) {
+				totalRequestedMips *= 0.1;
+			}
+			if (availableMips < totalRequestedMips) {
+				redistribute();
+				return;
+			}
+			List<Double> mipsShareAllocated = new ArrayList<>();
+			for (double mips : capped) {
+				if (migratingOut.get(guestIndex)) {
+					mips *= 0.9;
+				} else if (migratingIn.get(guestIndex)) {
+					mips *= 0.1;
+				}
+				mipsShareAllocated.add(mips);
+			}
+			allocated.put(guestIndex, mipsShareAllocated);
+			availableMips -= totalRequestedMips;
+		}
+
+		private void redistribute() {
+			double totalRequiredMips = 0;
+			for (Map.Entry<Integer, List<Double>> entry : requested.entrySet()) {
+				double requiredMips = 0;
+				for (double mips : entry.getValue()) {
+					requiredMips += Math.min(mips, peMips);
+				}
+				if (migratingIn.get(entry.getKey())) {
+					requiredMips *= 0.1;
+				}
+				totalRequiredMips += requiredMips;
+			}
+			double scalingFactor = totalMips / totalRequiredMips;
+
+			allocated.clear();
+			for (Map.Entry<Integer, List<Double>> entry : requested.entrySet()) {
+				int guestIndex = entry.getKey();
+				List<Double> mipsShareAllocated = new ArrayList<>();
+				for (double mips : entry.getValue()) {
+					mips = Math.min(mips, peMips);
+					if (migratingOut.get(guestIndex)) {
+						mips *= scalingFactor;
+						mips *= 0.9;
+					} else if (migratingIn.get(guestIndex)) {
+						mips *= 0.1;
+						mips *= scalingFactor;
+					} else {
+						mips *= scalingFactor;
+					}
+					mipsShareAllocated.add(Math.floor(mips));
+				}
+				allocated.put(guestIndex, mipsShareAllocated);
+			}
+			availableMips = 0;
+		}
+
+	}
+
 }
@@ -0,0 +1,208 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.container.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModelNull;
+import org.cloudbus.cloudsim.UtilizationModelStochastic;
+import org.cloudbus.cloudsim.VmAllocationPolicySimpler;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
+import org.cloudbus.cloudsim.container.resourceAllocatorMigrationEnabled.PowerContainerVmAllocationPolicyMigrationAbstractHostSelection;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.power.PowerHost;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyFirstFit;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMaximumUsage;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class PowerContainerDatacenterCMTest {
+
+	private static final int HOSTS = 2;
+
+	private static final int VMS = 4;
+
+	private static final int CONTAINERS = 8;
+
+	private static final double SCHEDULING_INTERVAL = 300;
+
+	private static final double END = 24 * 3600;
+
+	/** The results of a simulation. */
+	private record Result(double power, List<Cloudlet> cloudlets) {
+	}
+
+	/** The datacenter and the broker of a simulation. */
+	private record Simulation(PowerContainerDatacenter datacenter, ContainerDatacenterBroker broker) {
+		Result getResult() {
+			return new Result(datacenter.getPower(), new ArrayList<>(broker.getCloudletReceivedList()));
+		}
+	}
+
+	@After
+	public void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testCloudletsReturned() throws Exception {
+		Path logAddress = Files.createTempDirectory("results");
+		try {
+			new SimulationContext().call(() -> {
+				Simulation simulation = createSimulation(logAddress);
+				CloudSim.startSimulation();
+
+				// the cloudlets finishing on the containers placed by the datacenter are returned
+				List<Cloudlet> received = simulation.broker().getCloudletReceivedList();
+				assertEquals(CONTAINERS, received.size());
+				for (Cloudlet cloudlet : received) {
+					assertEquals(Cloudlet.CloudletStatus.SUCCESS, cloudlet.getStatus());
+					assertTrue(cloudlet.getExecFinishTime() < END);
+				}
+				return null;
+			});
+		} finally {
+			try (var paths = Files.walk(logAddress)) {
+				paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+			}
+		}
+	}
+
+	@Test
+	public void testCheckpoint() throws Exception {
+		Path logAddress = Files.createTempDirectory("results");
+		Path file = Files.createTempFile("checkpoint", ".bin");
+		try {
+			Result expected = new SimulationContext().call(() -> {
+				Simulation simulation = createSimulation(logAddress);
+				CloudSim.startSimulation();
+				return simulation.getResult();
+			});
+			assertTrue(expected.power() > 0);
+			assertEquals(CONTAINERS, expected.cloudlets().size());
+
+			new SimulationContext().call(() -> {
+				createSimulation(logAddress);
+				CloudSim.setCheckpoint(END / 2, file, true);
+				CloudSim.startSimulation();
+				assertTrue(CloudSim.clock() <= END / 2);
+				return null;
+			});
+
+			// each restored simulation goes on from the checkpoint on its own, writing to the same files
+			for (int i = 0; i < 2; i++) {
+				SimulationContext restored = SimulationContext.restoreCheckpoint(file);
+				Simulation simulation = new Simulation((PowerContainerDatacenter) restored.getEntity("datacenter"),
+						(ContainerDatacenterBroker) restored.getEntity("Broker"));
+				restored.call(CloudSim::startSimulation);
+				Result actual = simulation.getResult();
+
+				assertEquals(expected.power(), actual.power(), 0);
+				assertEquals(expected.cloudlets().size(), actual.cloudlets().size());
+				for (int c = 0; c < expected.cloudlets().size(); c++) {
+					Cloudlet expectedCloudlet = expected.cloudlets().get(c);
+					Cloudlet actualCloudlet = actual.cloudlets().get(c);
+					assertEquals(expectedCloudlet.getCloudletId(), actualCloudlet.getCloudletId());
+					assertEquals(expectedCloudlet.getExecFinishTime(), actualCloudlet.getExecFinishTime(), 0);
+				}
+				assertTrue(new File(simulation.datacenter().getDatacenterEnergyWriter().getFileAddress()).exists());
+			}
+		} finally {
+			Files.delete(file);
+			try (var paths = Files.walk(logAddress)) {
+				paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+			}
+		}
+	}
+
+	/**
+	 * Creates a datacenter of power hosts running containers in VMs, and a broker submitting a
+	 * cloudlet of random utilization to each container.
+	 *
+	 * @param logAddress the directory of the files written by the datacenter
+	 * @return the datacenter and the broker
+	 */
+	private static Simulation createSimulation(Path logAddress) throws Exception {
+		CloudSim.init(1, null, false);
+		Log.disable();
+
+		ContainerDatacenterBroker broker = new ContainerDatacenterBroker("Broker", 80);
+
+		List<PowerHost> hostList = new ArrayList<>();
+		for (int i = 0; i < HOSTS; i++) {
+			List<Pe> peList = new ArrayList<>();
+			for (int j = 0; j < 4; j++) {
+				peList.add(new Pe(j, new PeProvisionerSimple(2000)));
+			}
+			hostList.add(new PowerHost(i, new RamProvisionerSimple(8192), new BwProvisionerSimple(1000000),
+					1000000, peList, new VmSchedulerTimeSharedOverSubscription(peList),
+					new PowerModelLinear(250, 0.7)));
+		}
+
+		List<ContainerVm> vmList = new ArrayList<>();
+		for (int i = 0; i < VMS; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1500)));
+			peList.add(new Pe(1, new PeProvisionerSimple(1500)));
+			vmList.add(new PowerContainerVm(i, broker.getId(), 1500, 2048, 10000, 2500, "Xen",
+					new VmSchedulerTimeShared(peList), new RamProvisionerSimple(2048),
+					new BwProvisionerSimple(10000), peList, SCHEDULING_INTERVAL));
+		}
+
+		List<Container> containerList = new ArrayList<>();
+		List<Cloudlet> cloudletList = new ArrayList<>();
+		UtilizationModelNull utilizationModelNull = new UtilizationModelNull();
+		for (int i = 0; i < CONTAINERS; i++) {
+			containerList.add(new PowerContainer(i, broker.getId(), 1000, 1, 256, 1000, 0, "Xen",
+					new CloudletSchedulerDynamicWorkload(1000, 1), SCHEDULING_INTERVAL));
+			Cloudlet cloudlet = new Cloudlet(i, 1000L * 3600 * 8, 1, 300, 300,
+					new UtilizationModelStochastic(i + 1), utilizationModelNull, utilizationModelNull);
+			cloudlet.setUserId(broker.getId());
+			cloudletList.add(cloudlet);
+		}
+
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		PowerContainerDatacenter datacenter = new PowerContainerDatacenterCM("datacenter", characteristics,
+				new PowerContainerVmAllocationPolicyMigrationAbstractHostSelection(hostList,
+						new SelectionPolicyMaximumUsage<>(), new SelectionPolicyFirstFit<>(), 0.8, 0.7),
+				new VmAllocationPolicySimpler(vmList), new LinkedList<>(), SCHEDULING_INTERVAL,
+				"Checkpoint_1", logAddress.toString(), 0, 0);
+
+		broker.submitCloudletList(cloudletList);
+		broker.submitContainerList(containerList);
+		broker.submitGuestList(vmList);
+		CloudSim.terminateSimulation(END);
+		return new Simulation(datacenter, broker);
+	}
+
+}
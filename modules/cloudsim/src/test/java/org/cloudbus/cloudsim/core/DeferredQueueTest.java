@@ -0,0 +1,181 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Iterator;
+import java.util.stream.IntStream;
+
+import org.cloudbus.cloudsim.core.predicates.PredicateAny;
+import org.cloudbus.cloudsim.core.predicates.PredicateFrom;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class DeferredQueueTest {
+
+	private DeferredQueue queue;
+
+	private static SimEvent event(double time, int src, int dest, CloudSimTags tag) {
+		return new SimEvent(SimEvent.SEND, time, src, dest, tag, null);
+	}
+
+	@Before
+	public void setUp() {
+		queue = new DeferredQueue();
+	}
+
+	@Test
+	public void testEmpty() {
+		assertEquals(0, queue.size());
+		assertEquals(0, queue.count(0, new PredicateAny()));
+		assertNull(queue.findFirst(0, new PredicateAny()));
+		assertNull(queue.removeFirst(3, new PredicateType(CloudActionTags.BLANK)));
+	}
+
+	@Test
+	public void testSelectByDestinationAndTag() {
+		SimEvent a = event(1, 0, 1, CloudActionTags.VM_CREATE);
+		SimEvent b = event(1, 0, 2, CloudActionTags.VM_CREATE);
+		SimEvent c = event(1, 0, 1, CloudActionTags.CLOUDLET_SUBMIT);
+		SimEvent d = event(1, 0, 1, CloudActionTags.VM_CREATE);
+		queue.addEvent(a);
+		queue.addEvent(b);
+		queue.addEvent(c);
+		queue.addEvent(d);
+
+		PredicateType submit = new PredicateType(CloudActionTags.CLOUDLET_SUBMIT);
+		PredicateType both = new PredicateType(new CloudSimTags[] {
+				CloudActionTags.CLOUDLET_SUBMIT, CloudActionTags.VM_CREATE, CloudActionTags.CLOUDLET_SUBMIT});
+		assertEquals(3, queue.count(1, new PredicateAny()));
+		assertEquals(1, queue.count(1, submit));
+		assertEquals(3, queue.count(1, both));
+		assertEquals(1, queue.count(2, both));
+
+		assertSame(c, queue.findFirst(1, submit));
+		assertSame(a, queue.findFirst(1, both));
+		assertNull(queue.findFirst(2, submit));
+
+		assertSame(c, queue.removeFirst(1, submit));
+		assertSame(a, queue.removeFirst(1, new PredicateAny()));
+		assertSame(d, queue.removeFirst(1, both));
+		assertNull(queue.removeFirst(1, new PredicateAny()));
+		assertEquals(1, queue.size());
+		assertSame(b, queue.removeFirst(2, new PredicateFrom(0)));
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void testOutOfOrderTimes() {
+		SimEvent late = event(5, 0, 1, CloudActionTags.BLANK);
+		SimEvent early = event(2, 0, 1, CloudActionTags.BLANK);
+		SimEvent sameAsLate = event(5, 0, 1, CloudActionTags.BLANK);
+		queue.addEvent(late);
+		queue.addEvent(early);
+		queue.addEvent(sameAsLate);
+
+		Iterator<SimEvent> iterator = queue.iterator();
+		assertSame(early, iterator.next());
+		assertSame(late, iterator.next());
+		assertSame(sameAsLate, iterator.next());
+
+		PredicateType blank = new PredicateType(CloudActionTags.BLANK);
+		assertSame(early, queue.removeFirst(1, blank));
+		assertSame(late, queue.removeFirst(1, blank));
+		assertSame(sameAsLate, queue.removeFirst(1, blank));
+	}
+
+	@Test
+	public void testReusedNodes() {
+		PredicateType create = new PredicateType(CloudActionTags.VM_CREATE);
+		PredicateType submit = new PredicateType(CloudActionTags.CLOUDLET_SUBMIT);
+		for (int round = 0; round < 3; round++) {
+			SimEvent a = event(round, 0, 1, CloudActionTags.VM_CREATE);
+			SimEvent b = event(round, 0, 1, CloudActionTags.CLOUDLET_SUBMIT);
+			SimEvent c = event(round, 0, 1, CloudActionTags.VM_CREATE);
+			queue.addEvent(a);
+			queue.addEvent(b);
+			queue.addEvent(c);
+
+			// the nodes of the events removed in the previous round hold the events of this one
+			assertEquals(3, queue.count(1, new PredicateAny()));
+			assertEquals(2, queue.count(1, create));
+			assertSame(b, queue.removeFirst(1, submit));
+			assertSame(a, queue.findFirst(1, new PredicateAny()));
+			assertSame(a, queue.removeFirst(1, create));
+			assertSame(c, queue.removeFirst(1, new PredicateAny()));
+			assertNull(queue.findFirst(1, create));
+			assertEquals(0, queue.size());
+		}
+	}
+
+	@Test
+	public void testSizeWithConcurrentRemovals() {
+		int entities = 64;
+		int events = 1000;
+		for (int dest = 0; dest < entities; dest++) {
+			for (int i = 0; i < events; i++) {
+				queue.addEvent(event(i, 0, dest, i % 2 == 0 ? CloudActionTags.BLANK : CloudActionTags.VM_CREATE));
+			}
+		}
+		assertEquals(entities * events, queue.size());
+
+		// as in a parallel tick, each mailbox is drained by one thread at most
+		PredicateType blank = new PredicateType(CloudActionTags.BLANK);
+		IntStream.range(0, entities).parallel().forEach(dest -> {
+			while (queue.removeFirst(dest, blank) != null) {
+				// drains the events of the tag
+			}
+		});
+		assertEquals(entities * events / 2, queue.size());
+
+		IntStream.range(0, entities).parallel().forEach(dest -> {
+			while (queue.removeFirst(dest, new PredicateAny()) != null) {
+				// drains the other events
+			}
+		});
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void testPredicateSubclasses() {
+		SimEvent a = event(1, 0, 1, CloudActionTags.BLANK);
+		SimEvent b = event(2, 2, 1, CloudActionTags.BLANK);
+		queue.addEvent(a);
+		queue.addEvent(b);
+
+		// the subclasses override the match, so the tag index alone cannot answer for them
+		PredicateType blankFrom2 = new PredicateType(CloudActionTags.BLANK) {
+			@Override
+			public boolean match(SimEvent ev) {
+				return super.match(ev) && ev.getSource() == 2;
+			}
+		};
+		PredicateAny from2 = new PredicateAny() {
+			@Override
+			public boolean match(SimEvent ev) {
+				return ev.getSource() == 2;
+			}
+		};
+		assertEquals(1, queue.count(1, blankFrom2));
+		assertEquals(1, queue.count(1, from2));
+		assertSame(b, queue.findFirst(1, blankFrom2));
+		assertSame(b, queue.findFirst(1, from2));
+		assertSame(b, queue.removeFirst(1, blankFrom2));
+		assertNull(queue.removeFirst(1, from2));
+		assertSame(a, queue.removeFirst(1, new PredicateType(CloudActionTags.BLANK)));
+	}
+
+}
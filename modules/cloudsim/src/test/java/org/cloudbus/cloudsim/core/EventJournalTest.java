@@ -0,0 +1,123 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class EventJournalTest {
+
+	/** Sends events to the next entity, and records the times of the events it receives. */
+	private static class Pinger extends SimEntity {
+		private final List<Double> times = new ArrayList<>();
+
+		Pinger(String name) {
+			super(name);
+		}
+
+		@Override
+		public void startEntity() {
+			times.clear();
+			schedule(getId(), 0, CloudActionTags.BLANK, getName());
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			times.add(CloudSim.clock());
+			if (CloudSim.clock() < 20) {
+				int next = getId() + 1 < CloudSim.getNumEntities() ? getId() + 1 : 2;
+				schedule(next, getId(), CloudActionTags.VM_CREATE);
+			}
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+	}
+
+	private Path file;
+
+	@Before
+	public void setUp() throws Exception {
+		file = Files.createTempFile("journal", ".bin");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		Files.deleteIfExists(file);
+	}
+
+	private static List<Pinger> build() {
+		CloudSim.init(0, null, false);
+		List<Pinger> pingers = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			pingers.add(new Pinger("pinger" + i));
+		}
+		return pingers;
+	}
+
+	@Test
+	public void testRecordAndReplay() throws Exception {
+		new SimulationContext().call(() -> {
+			List<Pinger> pingers = build();
+			try (EventJournal journal = new EventJournal(file)) {
+				CloudSim.setEventJournal(journal);
+				CloudSim.startSimulation();
+				CloudSim.setEventJournal(null);
+				assertEquals(CloudSim.getNumberOfProcessedEvents(), journal.getRecordedEvents());
+			}
+
+			long count = 0;
+			double time = 0;
+			try (EventJournalReader reader = new EventJournalReader(file)) {
+				EventJournalReader.Entry entry;
+				while ((entry = reader.next()) != null) {
+					assertTrue(entry.time() >= time);
+					time = entry.time();
+					if (entry.type() == SimEvent.SEND && entry.tag() == CloudActionTags.BLANK
+							&& entry.source() >= 2) {
+						assertEquals(String.class.getName(), entry.dataClass());
+						assertEquals(entry.source(), entry.destination());
+					}
+					count++;
+				}
+				assertNull(reader.next());
+			}
+			assertEquals(CloudSim.getNumberOfProcessedEvents(), count);
+
+			// fast-forward a copy of the second entity, in two steps
+			List<Double> expected = pingers.get(1).times;
+			List<Pinger> copies = build();
+			Pinger copy = copies.get(1);
+			try (EventJournalReader reader = new EventJournalReader(file)) {
+				int first = reader.replay(copy, 10);
+				assertEquals(expected.stream().filter(t -> t <= 10).toList(), copy.times);
+				int second = reader.replay(copy, Double.MAX_VALUE);
+				assertEquals(expected, copy.times);
+				assertEquals(expected.size(), first + second);
+			}
+			assertTrue(copies.get(0).times.isEmpty());
+			return null;
+		});
+	}
+
+}
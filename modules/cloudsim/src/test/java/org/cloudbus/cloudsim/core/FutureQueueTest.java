@@ -0,0 +1,246 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+/**
+ * Checks that every {@link FutureQueue} implementation delivers the events in the same
+ * order as the {@link FutureQueueTreeSet}, and that events can be removed.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class FutureQueueTest {
+
+	private static final List<Supplier<FutureQueue>> IMPLEMENTATIONS = List.of(
+			FutureQueueTreeSet::new,
+			FutureQueueHeap::new,
+			FutureQueueCalendar::new,
+			FutureQueueLadder::new);
+
+	private static SimEvent event(double time) {
+		return new SimEvent(SimEvent.SEND, time, 0, 0, CloudActionTags.BLANK, null);
+	}
+
+	@Test
+	public void testEmpty() {
+		for (Supplier<FutureQueue> implementation : IMPLEMENTATIONS) {
+			FutureQueue queue = implementation.get();
+			assertTrue(queue.isEmpty());
+			assertNull(queue.peek());
+			assertNull(queue.poll());
+		}
+	}
+
+	@Test
+	public void testSameTimeKeepsSerialOrder() {
+		for (Supplier<FutureQueue> implementation : IMPLEMENTATIONS) {
+			FutureQueue queue = implementation.get();
+			List<SimEvent> events = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				SimEvent ev = event(5.0);
+				events.add(ev);
+				queue.addEvent(ev);
+			}
+			SimEvent first = event(5.0);
+			queue.addEventFirst(first);
+			assertSame(first, queue.poll());
+			for (SimEvent ev : events) {
+				assertSame(ev, queue.poll());
+			}
+			assertTrue(queue.isEmpty());
+		}
+	}
+
+	@Test
+	public void testPollSameTime() {
+		for (Supplier<FutureQueue> implementation : IMPLEMENTATIONS) {
+			FutureQueue queue = implementation.get();
+			SimEvent a = event(2);
+			SimEvent b = event(1);
+			SimEvent c = event(2);
+			SimEvent d = event(1);
+			queue.addEvent(a);
+			queue.addEvent(b);
+			queue.addEvent(c);
+			queue.addEvent(d);
+			queue.remove(d);
+
+			List<SimEvent> batch = new ArrayList<>();
+			assertEquals(1, queue.pollSameTime(batch));
+			assertEquals(List.of(b), batch);
+			batch.clear();
+			assertEquals(2, queue.pollSameTime(batch));
+			assertEquals(List.of(a, c), batch);
+			assertEquals(0, queue.pollSameTime(batch));
+			assertEquals(2, batch.size());
+		}
+	}
+
+	@Test
+	public void testRemoveBySourceAndTag() {
+		for (Supplier<FutureQueue> implementation : IMPLEMENTATIONS) {
+			FutureQueue queue = implementation.get();
+			SimEvent a = new SimEvent(SimEvent.SEND, 3, 1, 2, CloudActionTags.VM_CREATE, null);
+			SimEvent b = new SimEvent(SimEvent.SEND, 1, 1, 2, CloudActionTags.VM_CREATE, null);
+			SimEvent c = new SimEvent(SimEvent.SEND, 2, 1, 2, CloudActionTags.CLOUDLET_SUBMIT, null);
+			SimEvent d = new SimEvent(SimEvent.SEND, 0, 2, 1, CloudActionTags.VM_CREATE, null);
+			queue.addEvent(a);
+			queue.addEvent(b);
+			queue.addEvent(c);
+			queue.addEvent(d);
+
+			assertSame(b, queue.findFirst(1, CloudActionTags.VM_CREATE));
+			assertTrue(queue.removeAll(1, CloudActionTags.VM_CREATE));
+			assertFalse(queue.removeAll(1, CloudActionTags.VM_CREATE));
+			assertTrue(a.isCancelled());
+			assertNull(queue.findFirst(1, CloudActionTags.VM_CREATE));
+			assertFalse(queue.remove(b));
+			assertEquals(2, queue.size());
+
+			assertSame(d, queue.poll());
+			assertFalse(queue.remove(d));
+			assertSame(c, queue.peek());
+			assertTrue(queue.remove(c));
+			assertNull(queue.findFirst(1, CloudActionTags.CLOUDLET_SUBMIT));
+			assertTrue(queue.isEmpty());
+			assertNull(queue.poll());
+		}
+	}
+
+	@Test
+	public void testReschedule() {
+		for (Supplier<FutureQueue> implementation : IMPLEMENTATIONS) {
+			FutureQueue queue = implementation.get();
+			SimEvent timer = new SimEvent(SimEvent.SEND, 5, 1, 1, CloudActionTags.VM_DATACENTER_EVENT, null);
+			SimEvent duplicate = new SimEvent(SimEvent.SEND, 7, 1, 1, CloudActionTags.VM_DATACENTER_EVENT, null);
+			SimEvent other = new SimEvent(SimEvent.SEND, 2, 1, 2, CloudActionTags.VM_DATACENTER_EVENT, null);
+			SimEvent a = event(2);
+			queue.addEvent(duplicate);
+			queue.addEvent(timer);
+			queue.addEvent(other);
+			queue.addEvent(a);
+
+			SimEvent moved = queue.reschedule(1, CloudActionTags.VM_DATACENTER_EVENT, 2);
+			assertEquals(2, moved.eventTime(), 0);
+			assertTrue(duplicate.isCancelled());
+			assertNull(queue.reschedule(duplicate, 3));
+			assertEquals(3, queue.size());
+			// the event is moved, or replaced by a copy when the storage cannot take it out
+			assertTrue(moved == timer ? !timer.isCancelled() : timer.isCancelled());
+			assertSame(other, queue.findFirst(1, CloudActionTags.VM_DATACENTER_EVENT));
+
+			// the moved event goes after the events already waiting for the same time
+			assertSame(other, queue.poll());
+			assertSame(a, queue.poll());
+			assertSame(moved, queue.poll());
+			assertTrue(queue.isEmpty());
+			assertNull(queue.reschedule(2, CloudActionTags.VM_DATACENTER_EVENT, 1));
+		}
+	}
+
+	@Test
+	public void testRandomOperations() {
+		for (Supplier<FutureQueue> implementation : IMPLEMENTATIONS.subList(1, IMPLEMENTATIONS.size())) {
+			Random random = new Random(42);
+			FutureQueue expected = new FutureQueueTreeSet();
+			FutureQueue actual = implementation.get();
+			List<SimEvent> pending = new ArrayList<>();
+			double clock = 0;
+
+			for (int i = 0; i < 50000; i++) {
+				int op = random.nextInt(10);
+				if (op < 5) {
+					// few distinct delays, so that many events share the same time
+					double delay = random.nextInt(4) == 0 ? 0 : random.nextInt(20) * 0.5 + random.nextDouble() * (op % 2);
+					SimEvent ev = event(clock + delay);
+					SimEvent copy = event(clock + delay);
+					if (op == 0) {
+						expected.addEventFirst(ev);
+						actual.addEventFirst(copy);
+					} else {
+						expected.addEvent(ev);
+						actual.addEvent(copy);
+					}
+					pending.add(copy);
+				} else if (op < 9) {
+					SimEvent a = expected.poll();
+					SimEvent b = actual.poll();
+					if (a == null) {
+						assertNull(b);
+					} else {
+						assertEquals(a.eventTime(), b.eventTime(), 0);
+						assertEquals(a.getSerial(), b.getSerial());
+						clock = b.eventTime();
+						pending.remove(b);
+					}
+				} else if (!pending.isEmpty()) {
+					SimEvent b = pending.remove(random.nextInt(pending.size()));
+					assertTrue(actual.remove(b));
+					assertFalse(actual.remove(b));
+					SimEvent a = null;
+					for (SimEvent ev : expected) {
+						if (ev.getSerial() == b.getSerial()) {
+							a = ev;
+						}
+					}
+					assertTrue(expected.remove(a));
+				}
+				assertEquals(expected.size(), actual.size());
+			}
+
+			while (!expected.isEmpty()) {
+				assertEquals(expected.poll().getSerial(), actual.poll().getSerial());
+			}
+			assertTrue(actual.isEmpty());
+		}
+	}
+
+	@Test
+	public void testRearmBoundsTombstones() {
+		for (Supplier<FutureQueue> implementation : IMPLEMENTATIONS) {
+			FutureQueue queue = implementation.get();
+			List<SimEvent> others = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				SimEvent ev = event(i * 100);
+				others.add(ev);
+				queue.addEvent(ev);
+			}
+			SimEvent timer = event(1);
+			queue.addEvent(timer);
+
+			// the queues that cannot move the timer leave a tombstone at each rearm
+			for (int i = 0; i < 10000; i++) {
+				timer = queue.reschedule(timer, 2 + i * 0.1);
+				assertEquals(11, queue.size());
+				assertTrue(queue.storedSize() <= 2 * queue.size() + 64);
+			}
+
+			// the timer now goes off after all the other events
+			for (SimEvent ev : others) {
+				assertSame(ev, queue.poll());
+			}
+			assertSame(timer, queue.poll());
+			assertEquals(1001.9, timer.eventTime(), 1e-9);
+			assertTrue(queue.isEmpty());
+		}
+	}
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class KernelMetricsTest {
+
+	/** Sends itself a number of events, alternating two tags. */
+	private static class Looper extends SimEntity {
+		private final int events;
+
+		private int received;
+
+		Looper(String name, int events) {
+			super(name);
+			this.events = events;
+		}
+
+		@Override
+		public void startEntity() {
+			schedule(getId(), 1, CloudActionTags.BLANK);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			if (++received < events) {
+				schedule(getId(), 1, received % 2 == 0 ? CloudActionTags.BLANK : CloudActionTags.VM_CREATE);
+			}
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+	}
+
+	private static KernelMetrics.EventStatistics find(List<KernelMetrics.EventStatistics> statistics, String name) {
+		for (KernelMetrics.EventStatistics s : statistics) {
+			if (s.getName().equals(name)) {
+				return s;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void testMetrics() throws Exception {
+		KernelMetrics metrics = new KernelMetrics();
+		new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			new Looper("looper0", 10);
+			new Looper("looper1", 5);
+			CloudSim.setKernelMetrics(metrics);
+			CloudSim.startSimulation();
+			return null;
+		});
+
+		assertEquals(15, metrics.getProcessedEvents());
+		assertEquals(10, metrics.getSimulationClock(), 0);
+		assertTrue(metrics.getProcessingNanos() > 0);
+		assertTrue(metrics.getMaxFutureQueueSize() >= 1);
+		assertEquals(0, metrics.getFutureQueueSize());
+
+		List<KernelMetrics.EventStatistics> byTag = metrics.getTagStatistics();
+		assertEquals(2, byTag.size());
+		assertEquals(8, find(byTag, "CloudActionTags.BLANK").getCount());
+		assertEquals(7, find(byTag, "CloudActionTags.VM_CREATE").getCount());
+		for (KernelMetrics.EventStatistics s : byTag) {
+			assertTrue(s.getMedianNanos() <= s.getP99Nanos());
+			assertTrue(s.getP99Nanos() <= s.getMaxNanos());
+		}
+		List<KernelMetrics.EventStatistics> byClass = metrics.getEntityClassStatistics();
+		assertEquals(1, byClass.size());
+		assertEquals(Looper.class.getName(), byClass.getFirst().getName());
+		assertEquals(15, byClass.getFirst().getCount());
+
+		metrics.reset();
+		assertEquals(0, metrics.getProcessedEvents());
+	}
+
+	@Test
+	public void testDisabled() throws Exception {
+		KernelMetrics metrics = new KernelMetrics();
+		new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			new Looper("looper", 10);
+			CloudSim.setKernelMetrics(metrics);
+			CloudSim.setKernelMetrics(null);
+			assertNull(SimulationContext.current().getKernelMetrics());
+			CloudSim.startSimulation();
+			return null;
+		});
+		assertEquals(0, metrics.getProcessedEvents());
+	}
+
+	@Test
+	public void testMBean() throws Exception {
+		KernelMetrics metrics = new KernelMetrics();
+		ObjectName name = metrics.registerMBean("test");
+		try {
+			new SimulationContext().call(() -> {
+				CloudSim.init(0, null, false);
+				new Looper("looper", 10);
+				CloudSim.setKernelMetrics(metrics);
+				CloudSim.startSimulation();
+				return null;
+			});
+
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			assertEquals(10L, server.getAttribute(name, "ProcessedEvents"));
+			CompositeData[] byTag = (CompositeData[]) server.getAttribute(name, "TagStatistics");
+			assertEquals(2, byTag.length);
+			long count = 0;
+			for (CompositeData data : byTag) {
+				count += (Long) data.get("count");
+			}
+			assertEquals(10, count);
+		} finally {
+			metrics.unregisterMBean();
+		}
+		assertTrue(ManagementFactory.getPlatformMBeanServer().queryNames(name, null).isEmpty());
+	}
+
+	@Test
+	public void testFlightRecorder() throws Exception {
+		Path file = Files.createTempFile("metrics", ".jfr");
+		try {
+			try (Recording recording = new Recording()) {
+				recording.enable("org.cloudbus.cloudsim.EventProcessed");
+				recording.start();
+				new SimulationContext().call(() -> {
+					CloudSim.init(0, null, false);
+					new Looper("looper", 10);
+					CloudSim.setKernelMetrics(new KernelMetrics());
+					CloudSim.startSimulation();
+					return null;
+				});
+				recording.stop();
+				recording.dump(file);
+			}
+
+			int events = 0;
+			for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+				if (event.getEventType().getName().equals("org.cloudbus.cloudsim.EventProcessed")) {
+					assertEquals("looper", event.getString("entity"));
+					assertTrue(event.getString("tag").startsWith("CloudActionTags."));
+					events++;
+				}
+			}
+			assertEquals(10, events);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+}
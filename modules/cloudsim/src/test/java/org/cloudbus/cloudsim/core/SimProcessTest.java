@@ -0,0 +1,187 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class SimProcessTest {
+
+	/** Sends back the events it receives, one time unit later. */
+	private static class Echo extends SimEntity {
+		Echo(String name) {
+			super(name);
+		}
+
+		@Override
+		public void startEntity() {
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			schedule(ev.getSource(), 1, ev.getTag(), ev.getData());
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+	}
+
+	/** Pings an echo entity a number of times, holding between the pings. */
+	private static class Pinger extends SimProcess {
+		private final int echoId;
+
+		private final List<Double> times = new ArrayList<>();
+
+		Pinger(String name, int echoId) {
+			super(name);
+			this.echoId = echoId;
+		}
+
+		@Override
+		protected void body() {
+			for (int i = 0; i < 3; i++) {
+				Integer ping = i;
+				sendNow(echoId, CloudActionTags.BLANK, ping);
+				SimEvent ev = await(CloudActionTags.BLANK, ping);
+				assertSame(ping, ev.getData());
+				times.add(CloudSim.clock());
+				hold(2);
+			}
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+	}
+
+	@Test
+	public void testHoldAndAwait() throws Exception {
+		new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			Echo echo = new Echo("echo");
+			Pinger pinger = new Pinger("pinger", echo.getId());
+			CloudSim.startSimulation();
+
+			assertEquals(List.of(1.0, 4.0, 7.0), pinger.times);
+			assertEquals(SimEntity.FINISHED, pinger.getState());
+			return null;
+		});
+	}
+
+	@Test
+	public void testReceiveKeepsOtherEvents() throws Exception {
+		List<Object> received = new ArrayList<>();
+		new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			SimProcess receiver = new SimProcess("receiver") {
+				@Override
+				protected void body() {
+					received.add(receive(CloudActionTags.VM_CREATE).getData());
+					received.add(CloudSim.clock());
+					received.add(receive().getData());
+					received.add(receive().getData());
+				}
+			};
+			new SimProcess("sender") {
+				@Override
+				protected void body() {
+					send(receiver.getId(), 1, CloudActionTags.BLANK, "a");
+					send(receiver.getId(), 2, CloudActionTags.BLANK, "b");
+					send(receiver.getId(), 3, CloudActionTags.VM_CREATE, "c");
+				}
+			};
+			CloudSim.startSimulation();
+			return null;
+		});
+
+		assertEquals(List.of("c", 3.0, "a", "b"), received);
+	}
+
+	@Test
+	public void testManyProcesses() throws Exception {
+		int processes = 10000;
+		int[] finished = new int[1];
+		double clock = new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			for (int i = 0; i < processes; i++) {
+				int delay = i % 10;
+				new SimProcess("process" + i) {
+					@Override
+					protected void body() {
+						hold(delay);
+						hold(1);
+						finished[0]++;
+					}
+				};
+			}
+			return CloudSim.startSimulation();
+		});
+
+		assertEquals(processes, finished[0]);
+		assertEquals(10, clock, 0);
+	}
+
+	@Test
+	public void testUnwoundWhenSimulationFinishes() throws Exception {
+		boolean[] unwound = new boolean[1];
+		new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			SimProcess waiter = new SimProcess("waiter") {
+				@Override
+				protected void body() {
+					try {
+						while (true) {
+							receive();
+						}
+					} finally {
+						unwound[0] = true;
+					}
+				}
+			};
+			CloudSim.startSimulation();
+			assertEquals(SimEntity.FINISHED, waiter.getState());
+			return null;
+		});
+
+		assertTrue(unwound[0]);
+	}
+
+	@Test
+	public void testFailure() throws Exception {
+		new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			new SimProcess("failing") {
+				@Override
+				protected void body() {
+					hold(1);
+					throw new IllegalStateException("failed");
+				}
+			};
+			try {
+				CloudSim.startSimulation();
+				fail();
+			} catch (IllegalStateException e) {
+				assertEquals("failed", e.getMessage());
+			}
+			return null;
+		});
+	}
+
+}
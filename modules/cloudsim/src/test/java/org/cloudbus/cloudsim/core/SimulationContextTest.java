@@ -0,0 +1,397 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class SimulationContextTest {
+
+	/** Matches the events having a tag and some data. */
+	private static class PredicateData extends PredicateType {
+		private final Object data;
+
+		PredicateData(CloudSimTags tag, Object data) {
+			super(tag);
+			this.data = data;
+		}
+
+		@Override
+		public boolean match(SimEvent ev) {
+			return super.match(ev) && data.equals(ev.getData());
+		}
+	}
+
+	/** Sends a number of events to itself, with delays depending on its id, and records their times. */
+	private static class Ticker extends SimEntity {
+		private final int ticks;
+		private final List<Double> times = new ArrayList<>();
+
+		Ticker(String name, int ticks) {
+			super(name);
+			this.ticks = ticks;
+		}
+
+		@Override
+		public void startEntity() {
+			schedule(getId(), 0, CloudActionTags.BLANK);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			times.add(CloudSim.clock());
+			if (times.size() < ticks) {
+				schedule(getId(), getId() * 0.5, CloudActionTags.BLANK);
+			}
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+	}
+
+	/**
+	 * Sends events to itself and to the next entity, logging the ones it receives, and cancels
+	 * some of the events it sent.
+	 */
+	private static class Relay extends SimEntity {
+		private final int count;
+		private int received;
+
+		Relay(String name, int count) {
+			super(name);
+			this.count = count;
+		}
+
+		@Override
+		public void startEntity() {
+			schedule(getId(), 0, CloudActionTags.BLANK);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			Log.printlnConcat(CloudSim.clock(), ": ", getName(), " received ", ev.getTag(), " from ", ev.getSource());
+			if (ev.getTag() != CloudActionTags.BLANK || ++received >= count) {
+				return;
+			}
+			int next = getId() + 1 < CloudSim.getNumEntities() ? getId() + 1 : 2;
+			schedule(getId(), received % 3, CloudActionTags.BLANK);
+			schedule(next, 0, CloudActionTags.VM_CREATE);
+			scheduleFirst(next, 0, CloudActionTags.VM_DESTROY);
+			SimEvent cancelled = scheduleEvent(next, 1, CloudActionTags.CLOUDLET_SUBMIT, null);
+			if (received % 2 == 0) {
+				cancelEvent(cancelled);
+			}
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+
+		@Override
+		protected boolean canRunInParallel() {
+			return getId() % 5 != 0;
+		}
+	}
+
+	/** Sets a timer several times, and records when it goes off. */
+	private static class Timer extends SimEntity {
+		private final List<Double> times = new ArrayList<>();
+
+		Timer(String name) {
+			super(name);
+		}
+
+		@Override
+		public void startEntity() {
+			rearmTimer(CloudActionTags.BLANK, 5);
+			rearmTimer(CloudActionTags.BLANK, 1);
+			rearmTimer(CloudActionTags.BLANK, 3);
+			rearmTimer(CloudActionTags.VM_CREATE, 2);
+			cancelTimer(CloudActionTags.VM_CREATE);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			times.add(CloudSim.clock());
+			if (times.size() == 1) {
+				rearmTimer(CloudActionTags.BLANK, 4);
+			}
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+	}
+
+	/**
+	 * Runs relays, returning their log followed by the events processed, in order.
+	 */
+	private static String simulateRelays(ForkJoinPool pool) throws Exception {
+		Path file = Files.createTempFile("journal", ".bin");
+		try {
+			SimulationContext context = new SimulationContext();
+			ByteArrayOutputStream log = new ByteArrayOutputStream();
+			context.setLogOutput(log);
+			context.setParallelPool(pool);
+			try (EventJournal journal = new EventJournal(file)) {
+				context.call(() -> {
+					CloudSim.init(0, null, false);
+					CloudSim.setEventJournal(journal);
+					for (int i = 0; i < 20; i++) {
+						new Relay("relay" + i, 30);
+					}
+					CloudSim.startSimulation();
+					return null;
+				});
+			}
+
+			StringBuilder trace = new StringBuilder(log.toString());
+			try (EventJournalReader reader = new EventJournalReader(file)) {
+				for (EventJournalReader.Entry e = reader.next(); e != null; e = reader.next()) {
+					trace.append(e.time()).append(' ').append(e.serial()).append(' ').append(e.type()).append(' ')
+							.append(e.source()).append(' ').append(e.destination()).append(' ').append(e.tag()).append('\n');
+				}
+			}
+			return trace.toString();
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private static List<Double> simulate(int ticks) {
+		CloudSim.init(0, null, false);
+		Ticker first = new Ticker("first", ticks);
+		Ticker second = new Ticker("second", ticks);
+		CloudSim.startSimulation();
+
+		List<Double> times = new ArrayList<>(first.times);
+		times.addAll(second.times);
+		return times;
+	}
+
+	@Test
+	public void testCurrent() throws Exception {
+		SimulationContext context = new SimulationContext();
+		assertSame(SimulationContext.getDefault(), SimulationContext.current());
+		assertSame(context, context.call(SimulationContext::current));
+		assertSame(SimulationContext.getDefault(), SimulationContext.current());
+	}
+
+	@Test
+	public void testConcurrentSimulations() throws Exception {
+		OutputStream output = Log.getOutput();
+		Log.setOutput(OutputStream.nullOutputStream());
+		try {
+			List<Double> expected = simulate(100);
+
+			ExecutorService pool = Executors.newFixedThreadPool(4);
+			List<SimulationContext> contexts = new ArrayList<>();
+			List<Future<List<Double>>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				SimulationContext context = new SimulationContext();
+				contexts.add(context);
+				results.add(pool.submit(() -> context.call(() -> simulate(100))));
+			}
+			for (Future<List<Double>> result : results) {
+				assertEquals(expected, result.get());
+			}
+			pool.shutdown();
+
+			assertNotSame(contexts.get(0).getNetworkTopology(), contexts.get(1).getNetworkTopology());
+		} finally {
+			Log.setOutput(output);
+		}
+	}
+
+	@Test
+	public void testPredicateTypeSubclass() throws Exception {
+		new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			Ticker first = new Ticker("first", 1);
+			Ticker second = new Ticker("second", 1);
+			SimulationContext context = SimulationContext.current();
+			SimEvent a = context.send(first.getId(), second.getId(), 1, CloudActionTags.BLANK, "a");
+			SimEvent b = context.send(first.getId(), second.getId(), 2, CloudActionTags.BLANK, "b");
+			context.send(first.getId(), second.getId(), 3, CloudActionTags.BLANK, "c");
+
+			// the tag alone would select the earliest event
+			assertSame(b, context.cancel(first.getId(), new PredicateData(CloudActionTags.BLANK, "b")));
+			assertTrue(context.cancelAll(first.getId(), new PredicateData(CloudActionTags.BLANK, "c")));
+			assertSame(a, context.cancel(first.getId(), new PredicateType(CloudActionTags.BLANK)));
+			assertNull(context.cancel(first.getId(), new PredicateType(CloudActionTags.BLANK)));
+			return null;
+		});
+	}
+
+	@Test
+	public void testRearmTimer() throws Exception {
+		new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			Timer timer = new Timer("timer");
+			CloudSim.startSimulation();
+			assertEquals(List.of(3.0, 7.0), timer.times);
+			return null;
+		});
+	}
+
+	@Test
+	public void testCheckpoint() throws Exception {
+		Path file = Files.createTempFile("checkpoint", ".bin");
+		try {
+			List<Double> expected = new SimulationContext().call(() -> simulate(100));
+			new SimulationContext().call(() -> {
+				CloudSim.init(0, null, false);
+				Ticker first = new Ticker("first", 100);
+				new Ticker("second", 100);
+				CloudSim.setCheckpoint(20, file, true);
+				CloudSim.startSimulation();
+				assertTrue(first.times.size() < 100);
+				assertTrue(first.times.stream().allMatch(time -> time <= 20));
+				return null;
+			});
+
+			// each restored simulation goes on from the checkpoint on its own
+			for (int i = 0; i < 2; i++) {
+				SimulationContext restored = SimulationContext.restoreCheckpoint(file);
+				Ticker first = (Ticker) restored.getEntity("first");
+				Ticker second = (Ticker) restored.getEntity("second");
+				restored.call(CloudSim::startSimulation);
+				List<Double> times = new ArrayList<>(first.times);
+				times.addAll(second.times);
+				assertEquals(expected, times);
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testParallelDispatch() throws Exception {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		String expected = simulateRelays(null);
+		for (int i = 0; i < 5; i++) {
+			assertEquals(expected, simulateRelays(pool));
+		}
+		pool.shutdown();
+	}
+
+	@Test
+	public void testRunUntil() throws Exception {
+		List<Double> expected = new SimulationContext().call(() -> simulate(100));
+		new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			Ticker first = new Ticker("first", 100);
+			Ticker second = new Ticker("second", 100);
+			double time = 7;
+			while (CloudSim.runUntil(time)) {
+				assertEquals(time, CloudSim.clock(), 0);
+				double until = time;
+				assertTrue(second.times.stream().allMatch(t -> t <= until));
+				time += 7;
+			}
+
+			List<Double> times = new ArrayList<>(first.times);
+			times.addAll(second.times);
+			assertEquals(expected, times);
+			return null;
+		});
+	}
+
+	@Test
+	public void testStep() throws Exception {
+		List<Double> expected = new SimulationContext().call(() -> simulate(100));
+		new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			Ticker first = new Ticker("first", 100);
+			Ticker second = new Ticker("second", 100);
+			int steps = 0;
+			long events = CloudSim.getNumberOfProcessedEvents();
+			while (CloudSim.step(5)) {
+				assertTrue(CloudSim.getNumberOfProcessedEvents() >= events + 5);
+				events = CloudSim.getNumberOfProcessedEvents();
+				steps++;
+			}
+			assertTrue(steps > 10);
+
+			List<Double> times = new ArrayList<>(first.times);
+			times.addAll(second.times);
+			assertEquals(expected, times);
+			return null;
+		});
+	}
+
+	@Test
+	public void testRunWhile() throws Exception {
+		List<Double> expected = new SimulationContext().call(() -> simulate(100));
+		new SimulationContext().call(() -> {
+			CloudSim.init(0, null, false);
+			Ticker first = new Ticker("first", 100);
+			Ticker second = new Ticker("second", 100);
+			assertTrue(CloudSim.runWhile(() -> first.times.size() < 10));
+			assertEquals(10, first.times.size());
+
+			// the simulation resumes where it stopped
+			CloudSim.startSimulation();
+			List<Double> times = new ArrayList<>(first.times);
+			times.addAll(second.times);
+			assertEquals(expected, times);
+			return null;
+		});
+	}
+
+	@Test
+	public void testPauseAndResume() throws Exception {
+		List<Double> expected = new SimulationContext().call(() -> simulate(100));
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		SimulationContext context = new SimulationContext();
+		try {
+			Future<List<Double>> result = pool.submit(() -> context.call(() -> {
+				CloudSim.init(0, null, false);
+				Ticker first = new Ticker("first", 100);
+				Ticker second = new Ticker("second", 100);
+				CloudSim.pauseSimulation(10);
+				CloudSim.startSimulation();
+
+				List<Double> times = new ArrayList<>(first.times);
+				times.addAll(second.times);
+				return times;
+			}));
+			while (!context.isPaused()) {
+				Thread.sleep(1);
+			}
+			context.resumeSimulation();
+			assertEquals(expected, result.get());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.UtilizationModelNull;
+import org.cloudbus.cloudsim.UtilizationModelStochastic;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationWithSelectionPolicy;
+import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimulationContext;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyFirstFit;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class PowerDatacenterTest {
+
+	private static final int HOSTS = 20;
+
+	/** The number of hosts updated by each task of the pool, so that the hosts take several tasks. */
+	private static final int CHUNK_SIZE = 3;
+
+	private static final double MIPS = 1000;
+
+	private static final double SCHEDULING_INTERVAL = 300;
+
+	/** The results of a simulation. */
+	private record Result(double power, List<Cloudlet> cloudlets, String log, List<Double> nextTimes) {
+	}
+
+	/** A datacenter recording the time of the next event found by each sweep of its hosts. */
+	private static class RecordingPowerDatacenter extends PowerDatacenter {
+		private final List<Double> nextTimes = new ArrayList<>();
+
+		RecordingPowerDatacenter(DatacenterCharacteristics characteristics, List<PowerHost> hostList)
+				throws Exception {
+			super("Datacenter_0", characteristics,
+					new VmAllocationWithSelectionPolicy(hostList, new SelectionPolicyFirstFit<>()),
+					new LinkedList<>(), SCHEDULING_INTERVAL);
+		}
+
+		@Override
+		protected double updateCloudetProcessingWithoutSchedulingFutureEventsForce() {
+			double minTime = super.updateCloudetProcessingWithoutSchedulingFutureEventsForce();
+			nextTimes.add(minTime);
+			return minTime;
+		}
+	}
+
+	@Test
+	public void testParallelSweepMatchesSequentialSweep() throws Exception {
+		Result sequential = run(null);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Result parallel = run(pool);
+
+			assertTrue(sequential.power() > 0);
+			assertEquals(sequential.power(), parallel.power(), 0);
+			assertEquals(2 * HOSTS, sequential.cloudlets().size());
+			assertEquals(sequential.cloudlets().size(), parallel.cloudlets().size());
+			for (int i = 0; i < sequential.cloudlets().size(); i++) {
+				Cloudlet expected = sequential.cloudlets().get(i);
+				Cloudlet actual = parallel.cloudlets().get(i);
+				assertEquals(expected.getCloudletId(), actual.getCloudletId());
+				assertEquals(expected.getExecFinishTime(), actual.getExecFinishTime(), 0);
+			}
+			assertTrue(sequential.log().contains("energy is"));
+			assertEquals(sequential.log(), parallel.log());
+			assertTrue(sequential.nextTimes().size() > 10);
+			assertEquals(sequential.nextTimes(), parallel.nextTimes());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Runs two cloudlets of random utilization on each host.
+	 *
+	 * @param pool the pool updating the hosts, or <tt>null</tt> to update them sequentially
+	 * @return the energy consumed, the cloudlets in the order they were returned, the log, and the
+	 *         time of the next event found by each sweep of the hosts
+	 */
+	private static Result run(ForkJoinPool pool) throws Exception {
+		SimulationContext context = new SimulationContext();
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+		context.setLogOutput(log);
+		return context.call(() -> {
+			CloudSim.init(1, null, false);
+			Log.enable();
+
+			List<PowerHost> hostList = new ArrayList<>();
+			for (int i = 0; i < HOSTS; i++) {
+				List<Pe> peList = new ArrayList<>();
+				peList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+				peList.add(new Pe(1, new PeProvisionerSimple(MIPS)));
+				hostList.add(new PowerHost(i, new RamProvisionerSimple(4096), new BwProvisionerSimple(100000),
+						1000000, peList, new VmSchedulerTimeSharedOverSubscription(peList),
+						new PowerModelLinear(250, 0.7)));
+			}
+			DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+					"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+			RecordingPowerDatacenter datacenter = new RecordingPowerDatacenter(characteristics, hostList);
+			datacenter.setDisableMigrations(true);
+			datacenter.setHostUpdatePool(pool);
+			datacenter.setHostChunkSize(CHUNK_SIZE);
+
+			DatacenterBroker broker = new DatacenterBroker("Broker");
+			List<Vm> vmList = new ArrayList<>();
+			List<Cloudlet> cloudletList = new ArrayList<>();
+			UtilizationModel utilizationModelNull = new UtilizationModelNull();
+			for (int i = 0; i < 2 * HOSTS; i++) {
+				vmList.add(new PowerVm(i, broker.getId(), MIPS, 1, 1024, 1000, 10000, 1, "Xen",
+						new CloudletSchedulerDynamicWorkload(MIPS, 1), SCHEDULING_INTERVAL));
+				Cloudlet cloudlet = new Cloudlet(i, 1000L * 3600, 1, 300, 300,
+						new UtilizationModelStochastic(i + 1), utilizationModelNull, utilizationModelNull);
+				cloudlet.setUserId(broker.getId());
+				cloudlet.setGuestId(i);
+				cloudletList.add(cloudlet);
+			}
+			broker.submitGuestList(vmList);
+			broker.submitCloudletList(cloudletList);
+
+			CloudSim.terminateSimulation(24 * 3600);
+			CloudSim.startSimulation();
+
+			return new Result(datacenter.getPower(), new ArrayList<>(broker.getCloudletReceivedList()),
+					log.toString(), datacenter.nextTimes);
+		});
+	}
+
+}
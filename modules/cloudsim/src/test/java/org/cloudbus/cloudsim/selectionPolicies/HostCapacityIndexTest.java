@@ -0,0 +1,174 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.selectionPolicies;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationWithSelectionPolicy;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.HostEntity;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class HostCapacityIndexTest {
+
+    private static final int HOSTS = 50;
+
+    private Random random;
+
+    private List<HostEntity> hosts;
+
+    private int vmId;
+
+    @Before
+    public void setUp() {
+        random = new Random(1);
+        hosts = createHosts();
+    }
+
+    private List<HostEntity> createHosts() {
+        List<HostEntity> list = new ArrayList<>();
+        for (int id = 0; id < HOSTS; id++) {
+            // few distinct capacities, so that many hosts tie
+            double mips = 500 * (1 + random.nextInt(3));
+            List<Pe> peList = new ArrayList<>();
+            for (int pe = 0; pe < 1 + random.nextInt(4); pe++) {
+                peList.add(new Pe(pe, new PeProvisionerSimple(mips)));
+            }
+            list.add(new Host(id, new RamProvisionerSimple(1 << 20), new BwProvisionerSimple(1 << 20),
+                    1 << 20, peList, new VmSchedulerTimeShared(peList)));
+        }
+        return list;
+    }
+
+    private Vm createVm() {
+        double mips = 250 * (1 + random.nextInt(4));
+        int pes = 1 + random.nextInt(2);
+        return new Vm(vmId++, 0, mips, pes, 1, 1, 0, "", new CloudletSchedulerTimeShared());
+    }
+
+    @Test
+    public void testMatchesScan() {
+        List<IndexedSelectionPolicy> policies = List.of(new SelectionPolicyLeastFull(),
+                new SelectionPolicyMostFull(), new SelectionPolicyWorstFit(), new SelectionPolicyFirstFit<HostEntity>());
+        List<HostCapacityIndex> indexes = new ArrayList<>();
+        for (IndexedSelectionPolicy policy : policies) {
+            indexes.add(new HostCapacityIndex(hosts, policy));
+        }
+        Set<HostEntity> excluded = new HashSet<>();
+        List<Vm> vms = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            HostEntity host = hosts.get(random.nextInt(HOSTS));
+            int action = random.nextInt(4);
+            if (action == 0) {
+                boolean exclude = excluded.add(host) || !excluded.remove(host);
+                for (HostCapacityIndex index : indexes) {
+                    index.setExcluded(host, exclude);
+                }
+            } else if (action == 1 && !vms.isEmpty()) {
+                Vm vm = vms.remove(random.nextInt(vms.size()));
+                HostEntity vmHost = vm.getHost();
+                vmHost.guestDestroy(vm);
+                for (HostCapacityIndex index : indexes) {
+                    index.update(vmHost);
+                }
+            } else {
+                Vm vm = createVm();
+                if (host.guestCreate(vm)) {
+                    vms.add(vm);
+                    for (HostCapacityIndex index : indexes) {
+                        index.update(host);
+                    }
+                }
+            }
+            if (random.nextInt(100) == 0) {
+                excluded.clear();
+                for (HostCapacityIndex index : indexes) {
+                    index.clearExcluded();
+                }
+            }
+
+            for (int p = 0; p < policies.size(); p++) {
+                @SuppressWarnings("unchecked")
+                SelectionPolicy<HostEntity> scan = (SelectionPolicy<HostEntity>) policies.get(p);
+                assertSame(scan.select(hosts, null, excluded), policies.get(p).select(indexes.get(p), null));
+            }
+        }
+    }
+
+    @Test
+    public void testAllExcluded() {
+        HostCapacityIndex index = new HostCapacityIndex(hosts, new SelectionPolicyLeastFull());
+        for (HostEntity host : hosts) {
+            index.setExcluded(host, true);
+        }
+        assertNull(index.first());
+        assertNull(index.max());
+        assertNull(index.min());
+        index.clearExcluded();
+        assertSame(hosts.get(0), index.first());
+        assertEquals(HOSTS, index.size());
+    }
+
+    @Test
+    public void testVmAllocationWithSelectionPolicy() {
+        List<HostEntity> scannedHosts = createHostsLike(hosts);
+        VmAllocationWithSelectionPolicy indexed = new VmAllocationWithSelectionPolicy(hosts, new SelectionPolicyLeastFull());
+        // the same policy, hidden from the allocation policy so that it scans the hosts
+        SelectionPolicy<HostEntity> leastFull = new SelectionPolicyLeastFull();
+        VmAllocationWithSelectionPolicy scanned = new VmAllocationWithSelectionPolicy(scannedHosts, leastFull::select);
+
+        for (int i = 0; i < 500; i++) {
+            Vm vm = createVm();
+            Vm copy = new Vm(vm.getId(), 0, vm.getMips(), vm.getNumberOfPes(), 1, 1, 0, "", new CloudletSchedulerTimeShared());
+            HostEntity host = indexed.findHostForGuest(vm);
+            HostEntity scannedHost = scanned.findHostForGuest(copy);
+            if (host == null) {
+                assertNull(scannedHost);
+                continue;
+            }
+            assertEquals(scannedHost.getId(), host.getId());
+            host.guestCreate(vm);
+            scannedHost.guestCreate(copy);
+            indexed.hostChanged(host);
+        }
+    }
+
+    private List<HostEntity> createHostsLike(List<HostEntity> original) {
+        List<HostEntity> list = new ArrayList<>();
+        for (HostEntity host : original) {
+            List<Pe> peList = new ArrayList<>();
+            for (Pe pe : host.<Pe>getPeList()) {
+                peList.add(new Pe(pe.getId(), new PeProvisionerSimple(pe.getMips())));
+            }
+            list.add(new Host(host.getId(), new RamProvisionerSimple(1 << 20), new BwProvisionerSimple(1 << 20),
+                    1 << 20, peList, new VmSchedulerTimeShared(peList)));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @since CloudSim Toolkit 7.0
+ */
+public class IntObjectMapTest {
+
+	@Test
+	public void testPutGetRemove() {
+		IntObjectMap<String> map = new IntObjectMap<>();
+		assertTrue(map.isEmpty());
+		assertNull(map.put(3, "a"));
+		assertEquals("a", map.put(3, "b"));
+		assertNull(map.put(0, "c"));
+		assertEquals(2, map.size());
+		assertEquals("b", map.get(3));
+		assertNull(map.get(1));
+		assertNull(map.get(-1));
+		assertEquals("c", map.remove(0));
+		assertNull(map.remove(0));
+		assertFalse(map.containsKey(0));
+		assertEquals(1, map.size());
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertNull(map.get(3));
+
+		// a cleared map iterates its keys as a new map
+		IntObjectMap<String> cleared = new IntObjectMap<>();
+		for (int key = 0; key < 100; key++) {
+			cleared.put(key, "a");
+		}
+		cleared.clear(3);
+		IntObjectMap<String> created = new IntObjectMap<>(3);
+		for (int key = 200; key < 210; key++) {
+			cleared.put(key, "b");
+			created.put(key, "b");
+		}
+		assertArrayEquals(created.keys(), cleared.keys());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeKey() {
+		new IntObjectMap<String>().put(-1, "a");
+	}
+
+	@Test
+	public void testMatchesHashMap() {
+		Random random = new Random(1);
+		IntObjectMap<Integer> map = new IntObjectMap<>();
+		IntLongMap longMap = new IntLongMap();
+		IntDoubleMap doubleMap = new IntDoubleMap();
+		Map<Integer, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 100000; i++) {
+			// few keys, so that the table grows, and keys collide and are removed often
+			int key = random.nextInt(200) * (random.nextBoolean() ? 1 : 1024);
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), map.remove(key));
+				longMap.remove(key);
+				doubleMap.remove(key);
+			} else {
+				assertEquals(expected.put(key, i), map.put(key, i));
+				longMap.put(key, i);
+				doubleMap.put(key, i);
+			}
+			assertEquals(expected.size(), map.size());
+		}
+
+		for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), map.get(entry.getKey()));
+			assertEquals((long) entry.getValue(), longMap.getOrDefault(entry.getKey(), -1));
+			assertEquals(entry.getValue(), doubleMap.getOrDefault(entry.getKey(), -1), 0);
+		}
+		int[] count = new int[1];
+		map.forEach((key, value) -> {
+			assertEquals(expected.get(key), value);
+			count[0]++;
+		});
+		assertEquals(expected.size(), count[0]);
+		assertEquals(expected.size(), longMap.size());
+		assertEquals(expected.size(), doubleMap.size());
+		assertEquals(map, new IntObjectMap<>(map));
+	}
+
+}